@@ -130,4 +130,20 @@ public class AutoCloseableIterators {
     return new CompositeIterator<>(iterators);
   }
 
+  /**
+   * Like {@link #concatWithEagerClose(List)}, but reads up to parallelism iterators at the same time
+   * and interleaves their elements. See {@link ConcurrentCompositeIterator}.
+   *
+   * @param iterators iterators to read
+   * @param parallelism max number of iterators read at the same time
+   * @param queueCapacity max number of elements read ahead of the consumer
+   * @param <T> type
+   * @return autocloseable iterator over the elements of all iterators
+   */
+  public static <T> ConcurrentCompositeIterator<T> concatConcurrently(final List<AutoCloseableIterator<T>> iterators,
+                                                                      final int parallelism,
+                                                                      final int queueCapacity) {
+    return new ConcurrentCompositeIterator<>(iterators, parallelism, queueCapacity);
+  }
+
 }
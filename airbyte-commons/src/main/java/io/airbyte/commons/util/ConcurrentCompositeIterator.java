@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Composes multiple {@link AutoCloseableIterator}s like {@link CompositeIterator}, but reads up to
+ * {@code parallelism} of the internal iterators at the same time, each on its own thread. Their
+ * elements are interleaved in the order in which they are produced. Elements of any single internal
+ * iterator are still returned in the order of that iterator.
+ *
+ * <p>
+ * Internal iterators are started in the order of the input list. Each internal iterator is consumed
+ * and closed by one thread, after the first time its {@link Iterator#hasNext} function returns
+ * false. A bounded queue between the reading threads and the consumer keeps the reading threads from
+ * getting ahead of the consumer by more than {@code queueCapacity} elements.
+ * </p>
+ * <p>
+ * If an internal iterator throws, the exception is rethrown by this iterator once the elements that
+ * were read before it have been returned. {@link ConcurrentCompositeIterator#close()} stops the
+ * reading threads, then gives the same guarantees as {@link CompositeIterator#close()}, so the close
+ * method on each internal iterator should be idempotent.
+ * </p>
+ *
+ * @param <T> type
+ */
+public final class ConcurrentCompositeIterator<T> extends AbstractIterator<T> implements AutoCloseableIterator<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentCompositeIterator.class);
+  private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+  private final List<AutoCloseableIterator<T>> iterators;
+  private final int parallelism;
+  private final BlockingQueue<Element<T>> queue;
+
+  private ExecutorService executor;
+  private int remainingIterators;
+  private volatile boolean hasClosed;
+
+  ConcurrentCompositeIterator(final List<AutoCloseableIterator<T>> iterators, final int parallelism, final int queueCapacity) {
+    Preconditions.checkNotNull(iterators);
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+    Preconditions.checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+
+    this.iterators = iterators;
+    this.parallelism = parallelism;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.remainingIterators = iterators.size();
+    this.hasClosed = false;
+  }
+
+  @Override
+  protected T computeNext() {
+    assertHasNotClosed();
+
+    if (executor == null) {
+      startReading();
+    }
+
+    while (remainingIterators > 0) {
+      final Element<T> element;
+      try {
+        element = queue.take();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+
+      if (element.exception != null) {
+        throw element.exception instanceof RuntimeException ? (RuntimeException) element.exception : new RuntimeException(element.exception);
+      }
+      if (element.isEndOfIterator) {
+        remainingIterators--;
+      } else {
+        return element.value;
+      }
+    }
+
+    return endOfData();
+  }
+
+  private void startReading() {
+    executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(parallelism, iterators.size())),
+        new ThreadFactoryBuilder().setNameFormat("concurrent-iterator-%d").setDaemon(true).build());
+    for (final AutoCloseableIterator<T> iterator : iterators) {
+      executor.submit(() -> readIterator(iterator));
+    }
+    // no more tasks. the threads exit once every iterator has been read.
+    executor.shutdown();
+  }
+
+  private void readIterator(final AutoCloseableIterator<T> iterator) {
+    try {
+      while (!hasClosed && iterator.hasNext()) {
+        queue.put(Element.of(iterator.next()));
+      }
+      iterator.close();
+      queue.put(Element.endOfIterator());
+    } catch (final InterruptedException e) {
+      // only happens when this iterator is closed, so there is nobody left to hand elements to.
+      Thread.currentThread().interrupt();
+    } catch (final Throwable e) {
+      if (!hasClosed) {
+        try {
+          queue.put(Element.exception(e));
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    hasClosed = true;
+
+    if (executor != null) {
+      executor.shutdownNow();
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        LOGGER.warn("Reading threads did not stop within {} seconds, closing the iterators they are reading", CLOSE_TIMEOUT_SECONDS);
+      }
+    }
+
+    final List<Exception> exceptions = new ArrayList<>();
+    for (final AutoCloseableIterator<T> iterator : iterators) {
+      try {
+        iterator.close();
+      } catch (final Exception e) {
+        LOGGER.error("exception while closing", e);
+        exceptions.add(e);
+      }
+    }
+
+    if (!exceptions.isEmpty()) {
+      throw exceptions.get(0);
+    }
+  }
+
+  private void assertHasNotClosed() {
+    Preconditions.checkState(!hasClosed);
+  }
+
+  private static class Element<T> {
+
+    private final T value;
+    private final boolean isEndOfIterator;
+    private final Throwable exception;
+
+    private Element(final T value, final boolean isEndOfIterator, final Throwable exception) {
+      this.value = value;
+      this.isEndOfIterator = isEndOfIterator;
+      this.exception = exception;
+    }
+
+    static <T> Element<T> of(final T value) {
+      return new Element<>(value, false, null);
+    }
+
+    static <T> Element<T> endOfIterator() {
+      return new Element<>(null, true, null);
+    }
+
+    static <T> Element<T> exception(final Throwable exception) {
+      return new Element<>(null, false, exception);
+    }
+
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import io.airbyte.commons.concurrency.VoidCallable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentCompositeIteratorTest {
+
+  private VoidCallable onClose1;
+  private VoidCallable onClose2;
+  private VoidCallable onClose3;
+
+  @BeforeEach
+  void setup() {
+    onClose1 = mock(VoidCallable.class);
+    onClose2 = mock(VoidCallable.class);
+    onClose3 = mock(VoidCallable.class);
+  }
+
+  @Test
+  void testNullInput() {
+    assertThrows(NullPointerException.class, () -> new ConcurrentCompositeIterator<>(null, 2, 10));
+  }
+
+  @Test
+  void testInvalidParallelism() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentCompositeIterator<>(Collections.emptyList(), 0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentCompositeIterator<>(Collections.emptyList(), 2, 0));
+  }
+
+  @Test
+  void testEmptyInput() throws Exception {
+    final AutoCloseableIterator<String> iterator = new ConcurrentCompositeIterator<>(Collections.emptyList(), 2, 10);
+    assertFalse(iterator.hasNext());
+    iterator.close();
+  }
+
+  @Test
+  void testMultipleIteratorsKeepTheirOrder() throws Exception {
+    final List<Integer> first = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    final List<Integer> second = IntStream.range(1000, 2000).boxed().collect(Collectors.toList());
+    final List<Integer> third = IntStream.range(2000, 3000).boxed().collect(Collectors.toList());
+    final AutoCloseableIterator<Integer> iterator = new ConcurrentCompositeIterator<>(ImmutableList.of(
+        AutoCloseableIterators.fromIterator(first.iterator(), onClose1),
+        AutoCloseableIterators.fromIterator(second.iterator(), onClose2),
+        AutoCloseableIterators.fromIterator(third.iterator(), onClose3)), 2, 10);
+
+    final List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(values::add);
+
+    assertEquals(3000, values.size());
+    assertEquals(first, values.stream().filter(v -> v < 1000).collect(Collectors.toList()));
+    assertEquals(second, values.stream().filter(v -> v >= 1000 && v < 2000).collect(Collectors.toList()));
+    assertEquals(third, values.stream().filter(v -> v >= 2000).collect(Collectors.toList()));
+    // each iterator is closed once it is exhausted.
+    verify(onClose1, times(1)).call();
+    verify(onClose2, times(1)).call();
+    verify(onClose3, times(1)).call();
+
+    iterator.close();
+
+    verify(onClose1, times(1)).call();
+    verify(onClose2, times(1)).call();
+    verify(onClose3, times(1)).call();
+  }
+
+  @Test
+  void testIteratorsAreReadConcurrently() throws Exception {
+    // each iterator only finishes once the other one has started, so reading them one after the other
+    // would never end.
+    final CountDownLatch bothStarted = new CountDownLatch(2);
+    final AutoCloseableIterator<String> iterator = new ConcurrentCompositeIterator<>(ImmutableList.of(
+        AutoCloseableIterators.fromIterator(new WaitingIterator("a", bothStarted)),
+        AutoCloseableIterators.fromIterator(new WaitingIterator("b", bothStarted))), 2, 10);
+
+    final List<String> values = new ArrayList<>();
+    iterator.forEachRemaining(values::add);
+
+    assertEquals(2, values.size());
+    assertTrue(values.containsAll(List.of("a", "b")));
+    iterator.close();
+  }
+
+  @Test
+  void testExceptionIsRethrown() throws Exception {
+    final Iterator<String> failingIterator = new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public String next() {
+        throw new IllegalStateException("read failed");
+      }
+
+    };
+    final AutoCloseableIterator<String> iterator = new ConcurrentCompositeIterator<>(ImmutableList.of(
+        AutoCloseableIterators.fromIterator(MoreIterators.of("a"), onClose1),
+        AutoCloseableIterators.fromIterator(failingIterator, onClose2)), 1, 10);
+
+    assertEquals("a", iterator.next());
+    final IllegalStateException exception = assertThrows(IllegalStateException.class, iterator::hasNext);
+    assertEquals("read failed", exception.getMessage());
+
+    iterator.close();
+    verify(onClose1, times(1)).call();
+    verify(onClose2, times(1)).call();
+  }
+
+  @Test
+  void testCloseBeforeExhausted() throws Exception {
+    final AutoCloseableIterator<Integer> iterator = new ConcurrentCompositeIterator<>(ImmutableList.of(
+        AutoCloseableIterators.fromIterator(IntStream.range(0, 1000).iterator(), onClose1),
+        AutoCloseableIterators.fromIterator(IntStream.range(0, 1000).iterator(), onClose2),
+        AutoCloseableIterators.fromIterator(IntStream.range(0, 1000).iterator(), onClose3)), 2, 1);
+
+    assertTrue(iterator.hasNext());
+    iterator.close();
+
+    verify(onClose1, times(1)).call();
+    verify(onClose2, times(1)).call();
+    verify(onClose3, times(1)).call();
+  }
+
+  private static class WaitingIterator implements Iterator<String> {
+
+    private final String value;
+    private final CountDownLatch bothStarted;
+    private boolean hasReturned;
+
+    WaitingIterator(final String value, final CountDownLatch bothStarted) {
+      this.value = value;
+      this.bothStarted = bothStarted;
+      this.hasReturned = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !hasReturned;
+    }
+
+    @Override
+    public String next() {
+      bothStarted.countDown();
+      try {
+        bothStarted.await();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      hasReturned = true;
+      return value;
+    }
+
+  }
+
+}
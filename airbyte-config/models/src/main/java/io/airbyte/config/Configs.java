@@ -365,6 +365,32 @@ public interface Configs {
    */
   Duration getReplicationWorkerStatusCheckInterval();
 
+  /**
+   * Define if the replication worker should only parse the envelope of the records read from the
+   * Source and pass the record data through as raw json. Defaults to false. Internal-use only.
+   */
+  boolean getWorkerLazyRecordParsing();
+
+  /**
+   * Define how often records are validated against the full Airbyte protocol schema when lazy record
+   * parsing is enabled. One out of every N records is validated, 0 disables validation. Defaults to
+   * 1000. Internal-use only.
+   */
+  int getWorkerProtocolValidationSampleRate();
+
+  /**
+   * Define how many threads records go through between the Source and the Destination during
+   * replication: 1 (read, map and write on one thread), 2 (read | map and write) or 3 (read | map |
+   * write). Defaults to 1. Internal-use only.
+   */
+  int getReplicationPipelineStages();
+
+  /**
+   * Define the capacity of the queues between replication pipeline stages, in messages. Defaults to
+   * 10000. Internal-use only.
+   */
+  int getReplicationPipelineQueueDepth();
+
   // Logging/Monitoring/Tracking
   /**
    * Define either S3, Minio or GCS as a logging backend. Kubernetes only. Multiple variables are
@@ -133,6 +133,10 @@ public class EnvConfigs implements Configs {
   private static final String CHECK_WORKER_STATUS_CHECK_INTERVAL = "CHECK_WORKER_STATUS_CHECK_INTERVAL";
   private static final String DISCOVER_WORKER_STATUS_CHECK_INTERVAL = "DISCOVER_WORKER_STATUS_CHECK_INTERVAL";
   private static final String REPLICATION_WORKER_STATUS_CHECK_INTERVAL = "REPLICATION_WORKER_STATUS_CHECK_INTERVAL";
+  public static final String WORKER_LAZY_RECORD_PARSING = "WORKER_LAZY_RECORD_PARSING";
+  public static final String WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE = "WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE";
+  public static final String REPLICATION_PIPELINE_STAGES = "REPLICATION_PIPELINE_STAGES";
+  public static final String REPLICATION_PIPELINE_QUEUE_DEPTH = "REPLICATION_PIPELINE_QUEUE_DEPTH";
 
   static final String CHECK_JOB_MAIN_CONTAINER_CPU_REQUEST = "CHECK_JOB_MAIN_CONTAINER_CPU_REQUEST";
   static final String CHECK_JOB_MAIN_CONTAINER_CPU_LIMIT = "CHECK_JOB_MAIN_CONTAINER_CPU_LIMIT";
@@ -160,6 +164,9 @@ public class EnvConfigs implements Configs {
   private static final Duration DEFAULT_CHECK_WORKER_STATUS_CHECK_INTERVAL = Duration.ofSeconds(1);
   private static final Duration DEFAULT_DISCOVER_WORKER_STATUS_CHECK_INTERVAL = Duration.ofSeconds(1);
   private static final Duration DEFAULT_REPLICATION_WORKER_STATUS_CHECK_INTERVAL = Duration.ofSeconds(30);
+  private static final int DEFAULT_WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE = 1000;
+  private static final int DEFAULT_REPLICATION_PIPELINE_STAGES = 1;
+  private static final int DEFAULT_REPLICATION_PIPELINE_QUEUE_DEPTH = 10_000;
 
   public static final long DEFAULT_MAX_SPEC_WORKERS = 5;
   public static final long DEFAULT_MAX_CHECK_WORKERS = 5;
@@ -612,6 +619,26 @@ public class EnvConfigs implements Configs {
         value -> Duration.ofSeconds(Integer.parseInt(value)));
   }
 
+  @Override
+  public boolean getWorkerLazyRecordParsing() {
+    return getEnvOrDefault(WORKER_LAZY_RECORD_PARSING, false);
+  }
+
+  @Override
+  public int getWorkerProtocolValidationSampleRate() {
+    return getEnvOrDefault(WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE, DEFAULT_WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE);
+  }
+
+  @Override
+  public int getReplicationPipelineStages() {
+    return getEnvOrDefault(REPLICATION_PIPELINE_STAGES, DEFAULT_REPLICATION_PIPELINE_STAGES);
+  }
+
+  @Override
+  public int getReplicationPipelineQueueDepth() {
+    return getEnvOrDefault(REPLICATION_PIPELINE_QUEUE_DEPTH, DEFAULT_REPLICATION_PIPELINE_QUEUE_DEPTH);
+  }
+
   @Override
   public String getJobMainContainerCpuRequest() {
     return getEnvOrDefault(JOB_MAIN_CONTAINER_CPU_REQUEST, DEFAULT_JOB_CPU_REQUIREMENT);
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.functional.CheckedFunction;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares converting rows of a wide table with {@link JdbcSourceOperations#rowToJson(ResultSet)}
+ * against the row reader returned by {@link JdbcSourceOperations#createRowReader()}. The result set
+ * is an in-memory fake, so the numbers only cover the conversion, not the driver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JdbcRowReaderBenchmark {
+
+  private static final int ROW_COUNT = 1000;
+  private static final int[] COLUMN_TYPES =
+      {Types.INTEGER, Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.DOUBLE, Types.TIMESTAMP, Types.BOOLEAN};
+  // every NULL_EVERY-th value is null.
+  private static final int NULL_EVERY = 5;
+
+  @Param({"10", "100", "500"})
+  public int columnCount;
+
+  private final JdbcSourceOperations sourceOperations = new JdbcSourceOperations();
+  private FakeRows rows;
+  private ResultSet resultSet;
+
+  @Setup
+  public void setup() {
+    rows = new FakeRows(columnCount);
+    resultSet = rows.createResultSet();
+  }
+
+  @Benchmark
+  public void rowToJson(final Blackhole blackhole) throws SQLException {
+    for (int row = 0; row < ROW_COUNT; row++) {
+      rows.row = row;
+      blackhole.consume(sourceOperations.rowToJson(resultSet));
+    }
+  }
+
+  @Benchmark
+  public void rowReader(final Blackhole blackhole) throws SQLException {
+    final CheckedFunction<ResultSet, JsonNode, SQLException> rowReader = sourceOperations.createRowReader();
+    for (int row = 0; row < ROW_COUNT; row++) {
+      rows.row = row;
+      blackhole.consume(rowReader.apply(resultSet));
+    }
+  }
+
+  /**
+   * Rows of a table with columnCount columns of mixed types, served through the few
+   * {@link ResultSet} methods that the conversion calls.
+   */
+  private static class FakeRows {
+
+    private final ResultSetMetaData metadata;
+    private int row;
+    private boolean wasNull;
+
+    FakeRows(final int columnCount) {
+      this.metadata = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+          new Class<?>[] {ResultSetMetaData.class},
+          (proxy, method, args) -> switch (method.getName()) {
+            case "getColumnCount" -> columnCount;
+            case "getColumnName" -> "column_" + args[0];
+            case "getColumnType" -> columnType((int) args[0]);
+            default -> throw new UnsupportedOperationException(method.getName());
+          });
+    }
+
+    ResultSet createResultSet() {
+      return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+          (proxy, method, args) -> switch (method.getName()) {
+            case "getMetaData" -> metadata;
+            case "wasNull" -> wasNull;
+            default -> read(method.getName(), (int) args[0]);
+          });
+    }
+
+    private Object read(final String method, final int colIndex) {
+      wasNull = (row + colIndex) % NULL_EVERY == 0;
+      if (method.equals("getObject")) {
+        return wasNull ? null : row;
+      }
+      return switch (columnType(colIndex)) {
+        case Types.INTEGER -> wasNull ? 0 : row;
+        case Types.BIGINT -> wasNull ? 0L : (long) row * colIndex;
+        case Types.VARCHAR -> wasNull ? null : "value " + row;
+        case Types.NUMERIC -> wasNull ? null : BigDecimal.valueOf(row, 2);
+        case Types.DOUBLE -> wasNull ? 0.0 : row / 3.0;
+        case Types.TIMESTAMP -> wasNull ? null : new Timestamp(1_600_000_000_000L + row);
+        case Types.BOOLEAN -> !wasNull && row % 2 == 0;
+        default -> throw new IllegalStateException();
+      };
+    }
+
+    private int columnType(final int colIndex) {
+      return COLUMN_TYPES[(colIndex - 1) % COLUMN_TYPES.length];
+    }
+
+  }
+
+}
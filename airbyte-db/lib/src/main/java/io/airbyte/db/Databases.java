@@ -27,6 +27,9 @@ public class Databases {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Databases.class);
   private static final long DEFAULT_WAIT_MS = 5 * 1000;
+  // JDBC sources read at most this many streams at the same time, so the maximum of the
+  // concurrent_stream_reads setting in their spec must not exceed it.
+  public static final int MAX_POOL_CONNECTIONS = 5;
 
   public static Database createPostgresDatabase(final String username, final String password, final String jdbcConnectionString) {
     return createDatabase(username, password, jdbcConnectionString, "org.postgresql.Driver", SQLDialect.POSTGRES);
@@ -183,10 +186,22 @@ public class Databases {
                                                          final JdbcStreamingQueryConfiguration jdbcStreamingQuery,
                                                          final Map<String, String> connectionProperties,
                                                          final JdbcCompatibleSourceOperations<?> sourceOperations) {
+    return createStreamingJdbcDatabase(username, password, jdbcConnectionString, driverClassName, jdbcStreamingQuery, connectionProperties,
+        sourceOperations, 1);
+  }
+
+  public static JdbcDatabase createStreamingJdbcDatabase(final String username,
+                                                         final String password,
+                                                         final String jdbcConnectionString,
+                                                         final String driverClassName,
+                                                         final JdbcStreamingQueryConfiguration jdbcStreamingQuery,
+                                                         final Map<String, String> connectionProperties,
+                                                         final JdbcCompatibleSourceOperations<?> sourceOperations,
+                                                         final int maxConcurrentQueries) {
     final BasicDataSource connectionPool =
         createBasicDataSource(username, password, jdbcConnectionString, driverClassName, connectionProperties);
 
-    return new StreamingJdbcDatabase(connectionPool, sourceOperations, jdbcStreamingQuery);
+    return new StreamingJdbcDatabase(connectionPool, sourceOperations, jdbcStreamingQuery, maxConcurrentQueries);
   }
 
   private static BasicDataSource createBasicDataSource(final String username,
@@ -207,7 +222,7 @@ public class Databases {
     connectionPool.setUsername(username);
     connectionPool.setPassword(password);
     connectionPool.setInitialSize(0);
-    connectionPool.setMaxTotal(5);
+    connectionPool.setMaxTotal(MAX_POOL_CONNECTIONS);
     connectionPool.setUrl(jdbcConnectionString);
     connectionProperties.forEach(connectionPool::addConnectionProperty);
     return connectionPool;
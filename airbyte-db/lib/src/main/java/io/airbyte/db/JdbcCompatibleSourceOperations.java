@@ -6,6 +6,7 @@ package io.airbyte.db;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.airbyte.commons.functional.CheckedFunction;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -22,6 +23,15 @@ public interface JdbcCompatibleSourceOperations<SourceType> extends SourceOperat
    */
   void setJsonField(final ResultSet resultSet, final int colIndex, final ObjectNode json) throws SQLException;
 
+  /**
+   * Create a function that converts the rows of a single query to json, like
+   * {@link #rowToJson(Object)}. Implementations may decide how to read each column once, on the
+   * first row, so the function should not be shared between queries.
+   */
+  default CheckedFunction<ResultSet, JsonNode, SQLException> createRowReader() {
+    return this::rowToJson;
+  }
+
   /**
    * Set the cursor field in incremental table query.
    */
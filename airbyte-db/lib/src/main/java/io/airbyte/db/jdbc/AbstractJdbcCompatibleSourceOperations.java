@@ -7,20 +7,22 @@ package io.airbyte.db.jdbc;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.airbyte.commons.json.Jsons;
+import io.airbyte.commons.functional.CheckedFunction;
 import io.airbyte.db.DataTypeUtils;
 import io.airbyte.db.JdbcCompatibleSourceOperations;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.time.Instant;
-import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import javax.xml.bind.DatatypeConverter;
@@ -34,7 +36,7 @@ public abstract class AbstractJdbcCompatibleSourceOperations<Datatype> implement
   public JsonNode rowToJson(final ResultSet queryContext) throws SQLException {
     // the first call communicates with the database. after that the result is cached.
     final int columnCount = queryContext.getMetaData().getColumnCount();
-    final ObjectNode jsonNode = (ObjectNode) Jsons.jsonNode(Collections.emptyMap());
+    final ObjectNode jsonNode = JsonNodeFactory.instance.objectNode();
 
     for (int i = 1; i <= columnCount; i++) {
       // attempt to access the column. this allows us to know if it is null before we do type-specific
@@ -52,6 +54,76 @@ public abstract class AbstractJdbcCompatibleSourceOperations<Datatype> implement
     return jsonNode;
   }
 
+  /**
+   * Each column is read the way {@link #getColumnReader(ResultSetMetaData, int)} decides on the
+   * first row.
+   */
+  @Override
+  public CheckedFunction<ResultSet, JsonNode, SQLException> createRowReader() {
+    return new JdbcRowReader(this::getColumnReader);
+  }
+
+  /**
+   * Decide how a column is read by the functions returned from {@link #createRowReader()}. By default
+   * the column is read with {@link #readWithSetJsonField(int)}, exactly like
+   * {@link #rowToJson(ResultSet)} does. Sources that replace rowToJson must replace this method as
+   * well.
+   *
+   * @param colIndex 1-based column index.
+   */
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) throws SQLException {
+    return readWithSetJsonField(colIndex);
+  }
+
+  /**
+   * Check the column for null, then read it with {@link #setJsonField(ResultSet, int, ObjectNode)}.
+   */
+  protected ColumnReader readWithSetJsonField(final int colIndex) {
+    return (resultSet, json) -> {
+      resultSet.getObject(colIndex);
+      if (!resultSet.wasNull()) {
+        setJsonField(resultSet, colIndex, json);
+      }
+    };
+  }
+
+  /**
+   * Read a column with a single call to the typed getter of the put method. The put method must store
+   * whatever it gets for a null value, e.g. 0 or a json null, which is removed again once
+   * {@link ResultSet#wasNull()} reports the null.
+   */
+  protected ColumnReader readOnce(final String columnName, final int colIndex, final PutMethod putMethod) {
+    return (resultSet, json) -> {
+      putMethod.put(json, columnName, resultSet, colIndex);
+      if (resultSet.wasNull()) {
+        json.remove(columnName);
+      }
+    };
+  }
+
+  /**
+   * Check the column for null before calling the put method, for put methods that cannot handle a
+   * null value.
+   */
+  protected ColumnReader readIfNotNull(final String columnName, final int colIndex, final PutMethod putMethod) {
+    return (resultSet, json) -> {
+      resultSet.getObject(colIndex);
+      if (!resultSet.wasNull()) {
+        putMethod.put(json, columnName, resultSet, colIndex);
+      }
+    };
+  }
+
+  /**
+   * Signature shared by the put methods below.
+   */
+  @FunctionalInterface
+  protected interface PutMethod {
+
+    void put(ObjectNode node, String columnName, ResultSet resultSet, int index) throws SQLException;
+
+  }
+
   protected void putArray(final ObjectNode node, final String columnName, final ResultSet resultSet, final int index) throws SQLException {
     ArrayNode arrayNode = new ObjectMapper().createArrayNode();
     ResultSet arrayResultSet = resultSet.getArray(index).getResultSet();
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Streams a query with auto commit off, starting with a small fetch size. Once the rows of the first
+ * fetch have been measured, the fetch size is adjusted so that the fetches of all queries that may
+ * run at the same time take about {@link #TARGET_BUFFER_RATIO} of the max heap size together.
+ * Narrow tables get large fetches, which saves
+ * round trips, while tables with large json or binary columns get small ones, which keeps the
+ * connector from running out of memory.
+ */
+public class AdaptiveStreamingQueryConfiguration implements JdbcStreamingQueryConfiguration {
+
+  // the rows of a fetch are held by the driver while they are converted, so the fetches only get a
+  // small share of the heap, which is split between the queries that are read at the same time.
+  public static final double TARGET_BUFFER_RATIO = 0.1;
+  public static final int INITIAL_FETCH_SIZE = 10;
+
+  @Override
+  public void accept(final Connection connection, final PreparedStatement preparedStatement) throws SQLException {
+    connection.setAutoCommit(false);
+    preparedStatement.setFetchSize(INITIAL_FETCH_SIZE);
+  }
+
+  @Override
+  public Optional<FetchSizeEstimator> createFetchSizeEstimator(final int maxConcurrentQueries) {
+    final long targetBufferBytes = (long) (Runtime.getRuntime().maxMemory() * TARGET_BUFFER_RATIO / Math.max(1, maxConcurrentQueries));
+    return Optional.of(new FetchSizeEstimator(targetBufferBytes, INITIAL_FETCH_SIZE));
+  }
+
+}
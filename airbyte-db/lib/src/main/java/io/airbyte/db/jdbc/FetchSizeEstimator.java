@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.airbyte.commons.json.Jsons;
+import java.util.Optional;
+
+/**
+ * Picks the fetch size of a single streaming query, so that the rows fetched in one round trip take
+ * roughly a target amount of memory. Every row of the first fetch is measured, then one row out of
+ * every {@link #SAMPLE_FREQUENCY}, so the fetch size keeps following the data if later rows are
+ * wider.
+ *
+ * <p>
+ * The size of a row is estimated from its json serialization, which is close to what the driver
+ * holds for it. Rows that are not json are not measured, and leave the fetch size as it is.
+ */
+public class FetchSizeEstimator {
+
+  public static final int MIN_FETCH_SIZE = 1;
+  public static final int MAX_FETCH_SIZE = 100_000;
+  @VisibleForTesting
+  static final int SAMPLE_FREQUENCY = 100;
+
+  private final long targetBufferBytes;
+  private final int initialFetchSize;
+
+  private long rowCount;
+  private long sampleCount;
+  private double averageRowBytes;
+
+  /**
+   * @param targetBufferBytes memory the rows of a single fetch should take.
+   * @param initialFetchSize fetch size of the first round trip, before any row has been measured.
+   */
+  public FetchSizeEstimator(final long targetBufferBytes, final int initialFetchSize) {
+    Preconditions.checkArgument(targetBufferBytes > 0, "target buffer size must be positive");
+    Preconditions.checkArgument(initialFetchSize > 0, "initial fetch size must be positive");
+    this.targetBufferBytes = targetBufferBytes;
+    this.initialFetchSize = initialFetchSize;
+  }
+
+  /**
+   * @return fetch size that fits the target buffer at the average row size measured so far, if the
+   *         given row was measured.
+   */
+  public Optional<Integer> accept(final Object row) {
+    rowCount++;
+    if (!(row instanceof JsonNode) || !shouldSample()) {
+      return Optional.empty();
+    }
+
+    final long rowBytes = Jsons.toBytes((JsonNode) row).length;
+    sampleCount++;
+    averageRowBytes += (rowBytes - averageRowBytes) / sampleCount;
+    // keep the initial fetch size until the whole first fetch has been measured.
+    return rowCount < initialFetchSize ? Optional.empty() : Optional.of(getFetchSize());
+  }
+
+  private boolean shouldSample() {
+    return rowCount <= initialFetchSize || rowCount % SAMPLE_FREQUENCY == 0;
+  }
+
+  @VisibleForTesting
+  int getFetchSize() {
+    if (sampleCount == 0) {
+      return initialFetchSize;
+    }
+    final long fetchSize = (long) (targetBufferBytes / Math.max(1.0, averageRowBytes));
+    return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, fetchSize));
+  }
+
+  public double getAverageRowBytes() {
+    return averageRowBytes;
+  }
+
+}
@@ -170,7 +170,7 @@ public abstract class JdbcDatabase extends SqlDatabase {
         ++i;
       }
       return statement;
-    }, sourceOperations::rowToJson);
+    }, sourceOperations.createRowReader());
   }
 
   public ResultSetMetaData queryMetadata(final String sql, final String... params) throws SQLException {
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.airbyte.commons.functional.CheckedFunction;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Converts the rows of a single query to json. How each column is read is decided once, from the
+ * metadata of the first row, instead of looking up the column count, names and types again for
+ * every row. An instance must not be shared between queries, since the columns of another query may
+ * differ.
+ */
+public class JdbcRowReader implements CheckedFunction<ResultSet, JsonNode, SQLException> {
+
+  /**
+   * Reads one column of the current row into the json object.
+   */
+  @FunctionalInterface
+  public interface ColumnReader {
+
+    void read(ResultSet resultSet, ObjectNode json) throws SQLException;
+
+  }
+
+  /**
+   * Decides how a column is read.
+   */
+  @FunctionalInterface
+  public interface ColumnReaderFactory {
+
+    /**
+     * @param colIndex 1-based column index.
+     */
+    ColumnReader create(ResultSetMetaData metadata, int colIndex) throws SQLException;
+
+  }
+
+  private final ColumnReaderFactory columnReaderFactory;
+  private ColumnReader[] columnReaders;
+
+  public JdbcRowReader(final ColumnReaderFactory columnReaderFactory) {
+    this.columnReaderFactory = columnReaderFactory;
+  }
+
+  @Override
+  public JsonNode apply(final ResultSet resultSet) throws SQLException {
+    if (columnReaders == null) {
+      columnReaders = createColumnReaders(resultSet.getMetaData());
+    }
+
+    final ObjectNode json = JsonNodeFactory.instance.objectNode();
+    for (final ColumnReader columnReader : columnReaders) {
+      columnReader.read(resultSet, json);
+    }
+    return json;
+  }
+
+  private ColumnReader[] createColumnReaders(final ResultSetMetaData metadata) throws SQLException {
+    final ColumnReader[] readers = new ColumnReader[metadata.getColumnCount()];
+    for (int i = 0; i < readers.length; i++) {
+      readers[i] = columnReaderFactory.create(metadata, i + 1);
+    }
+    return readers;
+  }
+
+}
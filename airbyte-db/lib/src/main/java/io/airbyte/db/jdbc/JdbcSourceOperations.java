@@ -12,10 +12,12 @@ import static io.airbyte.db.jdbc.JdbcConstants.INTERNAL_TABLE_NAME;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.db.SourceOperations;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import io.airbyte.protocol.models.JsonSchemaType;
 import java.sql.JDBCType;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +62,34 @@ public class JdbcSourceOperations extends AbstractJdbcCompatibleSourceOperations
     }
   }
 
+  /**
+   * Resolves the name and type of the column once, and picks the put method that
+   * {@link #setJsonField(ResultSet, int, ObjectNode)} would pick for every row. Columns whose put
+   * methods handle null values are read only once. Sources that replace setJsonField must replace
+   * this method as well, e.g. with {@link #readWithSetJsonField(int)}.
+   */
+  @Override
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) throws SQLException {
+    final String columnName = metadata.getColumnName(colIndex);
+    final JDBCType columnType = safeGetJdbcType(metadata.getColumnType(colIndex));
+    return switch (columnType) {
+      case BIT, BOOLEAN -> readOnce(columnName, colIndex, this::putBoolean);
+      case TINYINT, SMALLINT -> readOnce(columnName, colIndex, this::putShortInt);
+      case INTEGER -> readOnce(columnName, colIndex, this::putInteger);
+      case BIGINT -> readOnce(columnName, colIndex, this::putBigInt);
+      case FLOAT, DOUBLE -> readOnce(columnName, colIndex, this::putDouble);
+      case REAL -> readOnce(columnName, colIndex, this::putFloat);
+      case NUMERIC, DECIMAL -> readOnce(columnName, colIndex, this::putBigDecimal);
+      case CHAR, VARCHAR, LONGVARCHAR -> readOnce(columnName, colIndex, this::putString);
+      case DATE -> readIfNotNull(columnName, colIndex, this::putDate);
+      case TIME -> readIfNotNull(columnName, colIndex, this::putTime);
+      case TIMESTAMP -> readIfNotNull(columnName, colIndex, this::putTimestamp);
+      case BLOB, BINARY, VARBINARY, LONGVARBINARY -> readOnce(columnName, colIndex, this::putBinary);
+      case ARRAY -> readIfNotNull(columnName, colIndex, this::putArray);
+      default -> readOnce(columnName, colIndex, this::putDefault);
+    };
+  }
+
   @Override
   public void setStatementField(final PreparedStatement preparedStatement,
                                 final int parameterIndex,
@@ -8,8 +8,19 @@ import io.airbyte.commons.functional.CheckedBiConsumer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Optional;
 
 @FunctionalInterface
 public interface JdbcStreamingQueryConfiguration extends CheckedBiConsumer<Connection, PreparedStatement, SQLException> {
 
+  /**
+   * @param maxConcurrentQueries max number of queries of the same database that may be read at the
+   *        same time.
+   * @return estimator that resizes the fetch size of a single query while it is read, or empty to
+   *         keep the fetch size set when the statement was configured.
+   */
+  default Optional<FetchSizeEstimator> createFetchSizeEstimator(final int maxConcurrentQueries) {
+    return Optional.empty();
+  }
+
 }
@@ -11,8 +11,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.stream.Stream;
 import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This database allows a developer to specify a {@link JdbcStreamingQueryConfiguration}. This
@@ -21,13 +25,28 @@ import javax.sql.DataSource;
  */
 public class StreamingJdbcDatabase extends DefaultJdbcDatabase {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingJdbcDatabase.class);
+
   private final JdbcStreamingQueryConfiguration jdbcStreamingQueryConfiguration;
+  private final int maxConcurrentQueries;
 
   public StreamingJdbcDatabase(final DataSource dataSource,
                                final JdbcCompatibleSourceOperations<?> sourceOperations,
                                final JdbcStreamingQueryConfiguration jdbcStreamingQueryConfiguration) {
+    this(dataSource, sourceOperations, jdbcStreamingQueryConfiguration, 1);
+  }
+
+  /**
+   * @param maxConcurrentQueries max number of queries that the caller reads at the same time. The
+   *        memory budget of the fetches is shared between them.
+   */
+  public StreamingJdbcDatabase(final DataSource dataSource,
+                               final JdbcCompatibleSourceOperations<?> sourceOperations,
+                               final JdbcStreamingQueryConfiguration jdbcStreamingQueryConfiguration,
+                               final int maxConcurrentQueries) {
     super(dataSource, sourceOperations);
     this.jdbcStreamingQueryConfiguration = jdbcStreamingQueryConfiguration;
+    this.maxConcurrentQueries = maxConcurrentQueries;
   }
 
   /**
@@ -56,9 +75,18 @@ public class StreamingJdbcDatabase extends DefaultJdbcDatabase {
       final PreparedStatement ps = statementCreator.apply(connection);
       // allow configuration of connection and prepared statement to make streaming possible.
       jdbcStreamingQueryConfiguration.accept(connection, ps);
-      return toStream(ps.executeQuery(), recordTransform)
+      final ResultSet resultSet = ps.executeQuery();
+      final QueryStats stats = new QueryStats(
+          jdbcStreamingQueryConfiguration.createFetchSizeEstimator(maxConcurrentQueries).orElse(null),
+          resultSet.getFetchSize());
+      return toStream(resultSet, rs -> {
+        final T record = recordTransform.apply(rs);
+        stats.accept(rs, record);
+        return record;
+      })
           .onClose(() -> {
             try {
+              stats.log();
               connection.setAutoCommit(true);
               connection.close();
             } catch (final SQLException e) {
@@ -70,4 +98,60 @@ public class StreamingJdbcDatabase extends DefaultJdbcDatabase {
     }
   }
 
+  /**
+   * Counts the rows of a query, resizes its fetch size as the {@link FetchSizeEstimator} suggests,
+   * and logs the throughput of the query once it is closed. Small queries go through here as well as
+   * table reads, so the throughput is only logged at debug level.
+   */
+  private static class QueryStats {
+
+    private final FetchSizeEstimator fetchSizeEstimator;
+    private final long startNanos;
+    private int fetchSize;
+    private long rowCount;
+
+    QueryStats(final FetchSizeEstimator fetchSizeEstimator, final int fetchSize) {
+      this.fetchSizeEstimator = fetchSizeEstimator;
+      this.startNanos = System.nanoTime();
+      this.fetchSize = fetchSize;
+      this.rowCount = 0;
+    }
+
+    void accept(final ResultSet resultSet, final Object record) throws SQLException {
+      rowCount++;
+      if (fetchSizeEstimator == null) {
+        return;
+      }
+      final Optional<Integer> newFetchSize = fetchSizeEstimator.accept(record);
+      if (newFetchSize.isPresent() && newFetchSize.get() != fetchSize) {
+        LOGGER.info("Changing fetch size from {} to {} (average row size {} bytes)",
+            fetchSize, newFetchSize.get(), Math.round(fetchSizeEstimator.getAverageRowBytes()));
+        // applies to the next round trip. some drivers read the fetch size of the result set, others the
+        // one of its statement.
+        resultSet.setFetchSize(newFetchSize.get());
+        if (resultSet.getStatement() != null) {
+          resultSet.getStatement().setFetchSize(newFetchSize.get());
+        }
+        fetchSize = newFetchSize.get();
+      }
+    }
+
+    void log() {
+      if (!LOGGER.isDebugEnabled()) {
+        return;
+      }
+      final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+      final double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+      if (fetchSizeEstimator == null) {
+        LOGGER.debug("Streamed {} rows in {} ({} rows/s)", rowCount, elapsed, Math.round(rowCount / seconds));
+      } else {
+        final double megabytes = rowCount * fetchSizeEstimator.getAverageRowBytes() / 1024 / 1024;
+        LOGGER.debug("Streamed {} rows in {} ({} rows/s, about {} MB/s), average row size {} bytes, fetch size {}",
+            rowCount, elapsed, Math.round(rowCount / seconds), String.format("%.2f", megabytes / seconds),
+            Math.round(fetchSizeEstimator.getAverageRowBytes()), fetchSize);
+      }
+    }
+
+  }
+
 }
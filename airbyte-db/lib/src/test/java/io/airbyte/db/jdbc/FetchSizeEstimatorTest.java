@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import io.airbyte.commons.json.Jsons;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class FetchSizeEstimatorTest {
+
+  @Test
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new FetchSizeEstimator(0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new FetchSizeEstimator(1000, 0));
+  }
+
+  @Test
+  void testFetchSizeAfterFirstFetch() {
+    final JsonNode row = row(90);
+    final int rowBytes = Jsons.toBytes(row).length;
+    final FetchSizeEstimator estimator = new FetchSizeEstimator(rowBytes * 500L, 10);
+
+    for (int i = 1; i < 10; i++) {
+      assertEquals(Optional.empty(), estimator.accept(row));
+    }
+    assertEquals(Optional.of(500), estimator.accept(row));
+    assertEquals(rowBytes, estimator.getAverageRowBytes());
+  }
+
+  @Test
+  void testLaterRowsAreSampled() {
+    final JsonNode narrowRow = row(10);
+    final FetchSizeEstimator estimator = new FetchSizeEstimator(1_000_000L, 10);
+    for (int i = 0; i < 10; i++) {
+      estimator.accept(narrowRow);
+    }
+    final int narrowFetchSize = estimator.getFetchSize();
+
+    // only every SAMPLE_FREQUENCY-th row is measured.
+    for (int i = 10; i < FetchSizeEstimator.SAMPLE_FREQUENCY - 1; i++) {
+      assertEquals(Optional.empty(), estimator.accept(row(10_000)));
+    }
+    final Optional<Integer> fetchSize = estimator.accept(row(10_000));
+    assertTrue(fetchSize.isPresent());
+    assertTrue(fetchSize.get() < narrowFetchSize);
+  }
+
+  @Test
+  void testFetchSizeIsBounded() {
+    final FetchSizeEstimator hugeBuffer = new FetchSizeEstimator(Long.MAX_VALUE / 2, 1);
+    assertEquals(Optional.of(FetchSizeEstimator.MAX_FETCH_SIZE), hugeBuffer.accept(row(1)));
+
+    final FetchSizeEstimator tinyBuffer = new FetchSizeEstimator(1, 1);
+    assertEquals(Optional.of(FetchSizeEstimator.MIN_FETCH_SIZE), tinyBuffer.accept(row(1000)));
+  }
+
+  @Test
+  void testRowsThatAreNotJsonAreNotMeasured() {
+    final FetchSizeEstimator estimator = new FetchSizeEstimator(1000, 1);
+    assertEquals(Optional.empty(), estimator.accept("not json"));
+    assertEquals(1, estimator.getFetchSize());
+  }
+
+  @Test
+  void testConcurrentQueriesShareTheBudget() {
+    final AdaptiveStreamingQueryConfiguration configuration = new AdaptiveStreamingQueryConfiguration();
+    final FetchSizeEstimator single = configuration.createFetchSizeEstimator(1).orElseThrow();
+    final FetchSizeEstimator shared = configuration.createFetchSizeEstimator(4).orElseThrow();
+    final JsonNode wideRow = row(1_000_000);
+    for (int i = 0; i < AdaptiveStreamingQueryConfiguration.INITIAL_FETCH_SIZE; i++) {
+      single.accept(wideRow);
+      shared.accept(wideRow);
+    }
+
+    assertTrue(shared.getFetchSize() < single.getFetchSize());
+    assertEquals(single.getFetchSize() / 4.0, shared.getFetchSize(), 1.0);
+  }
+
+  private static JsonNode row(final int valueLength) {
+    return Jsons.jsonNode(ImmutableMap.of("id", 1, "value", Strings.repeat("a", valueLength)));
+  }
+
+}
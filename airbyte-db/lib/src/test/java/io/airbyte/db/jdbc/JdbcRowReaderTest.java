@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import io.airbyte.commons.functional.CheckedFunction;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JdbcRowReaderTest {
+
+  private static final List<String> COLUMN_NAMES = List.of("id", "name", "price", "created_at", "active");
+  private static final List<Integer> COLUMN_TYPES = List.of(Types.INTEGER, Types.VARCHAR, Types.NUMERIC, Types.DATE, Types.BOOLEAN);
+  private static final List<List<Object>> ROWS = List.of(
+      Arrays.asList(1, "picard", new BigDecimal("10.50"), Date.valueOf("2021-01-01"), true),
+      Arrays.asList(2, null, null, null, null),
+      Arrays.asList(null, "vash", new BigDecimal("3"), Date.valueOf("2021-03-01"), false));
+
+  private ResultSetMetaData metadata;
+  private FakeResultSet fakeResultSet;
+  private ResultSet resultSet;
+
+  @BeforeEach
+  void setup() throws SQLException {
+    metadata = mock(ResultSetMetaData.class);
+    when(metadata.getColumnCount()).thenReturn(COLUMN_NAMES.size());
+    for (int i = 0; i < COLUMN_NAMES.size(); i++) {
+      when(metadata.getColumnName(i + 1)).thenReturn(COLUMN_NAMES.get(i));
+      when(metadata.getColumnType(i + 1)).thenReturn(COLUMN_TYPES.get(i));
+    }
+    fakeResultSet = new FakeResultSet();
+    resultSet = mock(ResultSet.class, invocation -> fakeResultSet.answer(invocation.getMethod().getName(), invocation.getArguments()));
+  }
+
+  @Test
+  void testRowReaderMatchesRowToJson() throws SQLException {
+    final JdbcSourceOperations sourceOperations = new JdbcSourceOperations();
+    final CheckedFunction<ResultSet, JsonNode, SQLException> rowReader = sourceOperations.createRowReader();
+
+    for (int row = 0; row < ROWS.size(); row++) {
+      fakeResultSet.row = row;
+      assertEquals(sourceOperations.rowToJson(resultSet), rowReader.apply(resultSet));
+    }
+
+    fakeResultSet.row = 1;
+    assertEquals(Jsons.jsonNode(ImmutableMap.of("id", 2)), rowReader.apply(resultSet));
+  }
+
+  @Test
+  void testColumnsAreResolvedOnce() throws SQLException {
+    final CheckedFunction<ResultSet, JsonNode, SQLException> rowReader = new JdbcSourceOperations().createRowReader();
+
+    for (int row = 0; row < ROWS.size(); row++) {
+      fakeResultSet.row = row;
+      rowReader.apply(resultSet);
+    }
+
+    verify(metadata, times(1)).getColumnCount();
+    for (int i = 1; i <= COLUMN_NAMES.size(); i++) {
+      verify(metadata, times(1)).getColumnName(i);
+      verify(metadata, times(1)).getColumnType(i);
+    }
+  }
+
+  @Test
+  void testSetJsonFieldIsUsedThroughColumnReader() throws SQLException {
+    final JdbcSourceOperations sourceOperations = new JdbcSourceOperations() {
+
+      @Override
+      public void setJsonField(final ResultSet resultSet, final int colIndex, final ObjectNode json) throws SQLException {
+        json.put(resultSet.getMetaData().getColumnName(colIndex), "custom");
+      }
+
+      @Override
+      protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) {
+        return readWithSetJsonField(colIndex);
+      }
+
+    };
+
+    fakeResultSet.row = 1;
+    assertEquals(Jsons.jsonNode(ImmutableMap.of("id", "custom")), sourceOperations.createRowReader().apply(resultSet));
+  }
+
+  /**
+   * Serves the values of {@link #ROWS}, and tracks whether the last value read was null.
+   */
+  private class FakeResultSet {
+
+    private int row;
+    private boolean wasNull;
+
+    Object answer(final String method, final Object[] arguments) {
+      switch (method) {
+        case "getMetaData":
+          return metadata;
+        case "wasNull":
+          return wasNull;
+        default:
+          break;
+      }
+
+      final Object value = ROWS.get(row).get((int) arguments[0] - 1);
+      wasNull = value == null;
+      return switch (method) {
+        case "getInt" -> value == null ? 0 : (int) value;
+        case "getBoolean" -> value != null && (boolean) value;
+        case "getString" -> value == null ? null : value.toString();
+        default -> value;
+      };
+    }
+
+  }
+
+}
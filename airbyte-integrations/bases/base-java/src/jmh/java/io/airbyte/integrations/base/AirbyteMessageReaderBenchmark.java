@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares reading destination input with the Scanner that
+ * {@link IntegrationRunner#consumeWriteStream(AirbyteMessageConsumer)} used to use, against the
+ * {@link AirbyteMessageReader}, decoding on the consumer thread or in the background. The input is
+ * in memory, so the numbers only cover splitting and parsing, not the pipe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AirbyteMessageReaderBenchmark {
+
+  private static final int MESSAGE_COUNT = 10_000;
+
+  // small records are where the per line overhead shows.
+  @Param({"10", "1000"})
+  public int valueLength;
+
+  private byte[] input;
+
+  @Setup
+  public void setup() {
+    input = IntStream.range(0, MESSAGE_COUNT)
+        .mapToObj(i -> new AirbyteMessage()
+            .withType(Type.RECORD)
+            .withRecord(new AirbyteRecordMessage()
+                .withStream("stream")
+                .withNamespace("public")
+                .withEmittedAt(1_600_000_000_000L + i)
+                .withData(Jsons.jsonNode(Map.of("id", i, "value", "v".repeat(valueLength))))))
+        .map(Jsons::serialize)
+        .collect(Collectors.joining("\n"))
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void scanner(final Blackhole blackhole) {
+    final Scanner scanner = new Scanner(new ByteArrayInputStream(input), StandardCharsets.UTF_8).useDelimiter("[\r\n]+");
+    while (scanner.hasNext()) {
+      final Optional<AirbyteMessage> message = Jsons.tryDeserialize(scanner.next(), AirbyteMessage.class);
+      blackhole.consume(message);
+    }
+  }
+
+  @Benchmark
+  public void messageReader(final Blackhole blackhole) throws Exception {
+    read(false, blackhole);
+  }
+
+  @Benchmark
+  public void messageReaderDecodingInBackground(final Blackhole blackhole) throws Exception {
+    read(true, blackhole);
+  }
+
+  private void read(final boolean decodeInBackground, final Blackhole blackhole) throws Exception {
+    new AirbyteMessageReader(Channels.newChannel(new ByteArrayInputStream(input)), decodeInBackground)
+        .forEach((message, sizeInBytes) -> {
+          blackhole.consume(message);
+          blackhole.consume(sizeInBytes);
+        });
+  }
+
+}
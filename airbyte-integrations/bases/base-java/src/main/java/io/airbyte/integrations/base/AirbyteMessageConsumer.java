@@ -37,6 +37,17 @@ public interface AirbyteMessageConsumer extends CheckedConsumer<AirbyteMessage,
   @Override
   void accept(AirbyteMessage message) throws Exception;
 
+  /**
+   * Same as {@link #accept(AirbyteMessage)}, for callers that know the size of the serialized
+   * message, e.g. because they read it from stdin. Consumers that buffer messages can use it instead
+   * of serializing the message again to estimate its size.
+   *
+   * @param sizeInBytes size of the message serialized as json, in UTF-8.
+   */
+  default void accept(final AirbyteMessage message, final long sizeInBytes) throws Exception {
+    accept(message);
+  }
+
   @Override
   void close() throws Exception;
 
@@ -57,6 +68,11 @@ public interface AirbyteMessageConsumer extends CheckedConsumer<AirbyteMessage,
         consumer.accept(message);
       }
 
+      @Override
+      public void accept(final AirbyteMessage message, final long sizeInBytes) throws Exception {
+        consumer.accept(message, sizeInBytes);
+      }
+
       @Override
       public void close() throws Exception {
         AirbyteSentry.executeWithTracing("CloseConsumer", () -> {
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.airbyte.commons.jackson.MoreMappers;
+import io.airbyte.protocol.models.AirbyteMessage;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the {@link AirbyteMessage}s a destination receives, one json message per line. Lines are
+ * split with a {@link ChannelLineReader} and parsed straight from its buffer by a single
+ * {@link ObjectReader}, so no String is created per message. Lines that are not a message are
+ * logged and skipped.
+ *
+ * <p>
+ * Messages can optionally be decoded on a separate thread, and handed over to the consumer through a
+ * bounded queue, so that parsing and consuming use two cores.
+ */
+public class AirbyteMessageReader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AirbyteMessageReader.class);
+
+  // messages decoded ahead of the consumer; small records are a few hundred bytes each.
+  private static final int DECODED_QUEUE_CAPACITY = 10_000;
+  private static final DecodedMessage END_OF_INPUT = new DecodedMessage(null, -1);
+
+  private static final ObjectReader MESSAGE_READER = MoreMappers.initMapper().readerFor(AirbyteMessage.class);
+
+  @FunctionalInterface
+  public interface MessageConsumer {
+
+    /**
+     * @param sizeInBytes size of the line the message was read from, in UTF-8.
+     */
+    void accept(AirbyteMessage message, long sizeInBytes) throws Exception;
+
+  }
+
+  private final ChannelLineReader lineReader;
+  private final boolean decodeInBackground;
+
+  public AirbyteMessageReader(final ReadableByteChannel channel, final boolean decodeInBackground) {
+    this(new ChannelLineReader(channel), decodeInBackground);
+  }
+
+  AirbyteMessageReader(final ChannelLineReader lineReader, final boolean decodeInBackground) {
+    this.lineReader = lineReader;
+    this.decodeInBackground = decodeInBackground;
+  }
+
+  /**
+   * Hands every message of the input to the consumer, in order, on the calling thread. Returns once
+   * the input is exhausted.
+   */
+  public void forEach(final MessageConsumer consumer) throws Exception {
+    if (decodeInBackground) {
+      forEachDecodedInBackground(consumer);
+    } else {
+      decode(consumer);
+    }
+  }
+
+  private void decode(final MessageConsumer consumer) throws Exception {
+    while (lineReader.readLine()) {
+      final byte[] buffer = lineReader.getBuffer();
+      final int offset = lineReader.getLineOffset();
+      final int length = lineReader.getLineLength();
+
+      AirbyteMessage message = null;
+      try {
+        message = MESSAGE_READER.readValue(buffer, offset, length);
+      } catch (final Exception e) {
+        // not a message, logged below.
+      }
+      if (message != null) {
+        consumer.accept(message, length);
+      } else {
+        LOGGER.error("Received invalid message: " + new String(buffer, offset, length, StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  private void forEachDecodedInBackground(final MessageConsumer consumer) throws Exception {
+    final BlockingQueue<DecodedMessage> queue = new ArrayBlockingQueue<>(DECODED_QUEUE_CAPACITY);
+    final Decoder decoder = new Decoder(queue);
+    final Thread decoderThread = new Thread(decoder, "input-decoder");
+    // the decoder can be blocked reading the input when the consumer fails, it must not keep the jvm
+    // alive.
+    decoderThread.setDaemon(true);
+    decoderThread.start();
+
+    try {
+      DecodedMessage decoded = queue.take();
+      while (decoded != END_OF_INPUT) {
+        consumer.accept(decoded.message, decoded.sizeInBytes);
+        decoded = queue.take();
+      }
+    } finally {
+      decoderThread.interrupt();
+    }
+
+    if (decoder.failure instanceof Error) {
+      throw (Error) decoder.failure;
+    } else if (decoder.failure != null) {
+      throw (Exception) decoder.failure;
+    }
+  }
+
+  private class Decoder implements Runnable {
+
+    private final BlockingQueue<DecodedMessage> queue;
+    private volatile Throwable failure;
+
+    Decoder(final BlockingQueue<DecodedMessage> queue) {
+      this.queue = queue;
+    }
+
+    @Override
+    public void run() {
+      try {
+        decode((message, sizeInBytes) -> queue.put(new DecodedMessage(message, sizeInBytes)));
+      } catch (final InterruptedException e) {
+        // the consumer stopped taking messages.
+        return;
+      } catch (final Throwable e) {
+        failure = e;
+      }
+      try {
+        queue.put(END_OF_INPUT);
+      } catch (final InterruptedException e) {
+        // the consumer stopped taking messages.
+      }
+    }
+
+  }
+
+  private static class DecodedMessage {
+
+    private final AirbyteMessage message;
+    private final long sizeInBytes;
+
+    DecodedMessage(final AirbyteMessage message, final long sizeInBytes) {
+      this.message = message;
+      this.sizeInBytes = sizeInBytes;
+    }
+
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.airbyte.commons.jackson.MoreMappers;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Output record collector for sources, which can emit many thousands of records per second. Instead
+ * of one println per message, messages are serialized by a single json generator into an in-memory
+ * buffer, and the buffer is written to stdout in one call once it is large enough.
+ *
+ * <p>
+ * Only records are held back: any other message, state messages in particular, is written out right
+ * away along with every record before it, so the order of records and states is kept. Buffered
+ * records are also written out after flushInterval, so slow sources keep reporting progress, and on
+ * {@link #close()}.
+ */
+public class BufferedOutputRecordCollector implements Consumer<AirbyteMessage>, AutoCloseable {
+
+  public static final int DEFAULT_FLUSH_SIZE_BYTES = 1024 * 1024;
+  public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+  // same configuration as Jsons, so the output does not change.
+  private static final ObjectMapper OBJECT_MAPPER = MoreMappers.initMapper();
+  private static final ObjectWriter MESSAGE_WRITER = OBJECT_MAPPER.writerFor(AirbyteMessage.class);
+
+  private final OutputStream output;
+  private final int flushSizeBytes;
+  private final long flushIntervalMillis;
+  private final ByteArrayOutputStream buffer;
+  private final JsonGenerator generator;
+  private ScheduledExecutorService flushScheduler;
+  private long lastFlushMillis;
+
+  public BufferedOutputRecordCollector() {
+    this(System.out, DEFAULT_FLUSH_SIZE_BYTES, DEFAULT_FLUSH_INTERVAL_MILLIS);
+  }
+
+  @VisibleForTesting
+  BufferedOutputRecordCollector(final OutputStream output, final int flushSizeBytes, final long flushIntervalMillis) {
+    this.output = output;
+    this.flushSizeBytes = flushSizeBytes;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.buffer = new ByteArrayOutputStream(flushSizeBytes);
+    try {
+      this.generator = OBJECT_MAPPER.getFactory().createGenerator(buffer);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    // messages are separated by line breaks, written below.
+    this.generator.setRootValueSeparator(null);
+    this.lastFlushMillis = System.currentTimeMillis();
+  }
+
+  @Override
+  public synchronized void accept(final AirbyteMessage message) {
+    try {
+      MESSAGE_WRITER.writeValue(generator, message);
+      generator.flush();
+      buffer.write('\n');
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (message.getType() != Type.RECORD || buffer.size() >= flushSizeBytes) {
+      flush();
+    } else if (flushScheduler == null) {
+      startFlushScheduler();
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    flush();
+    if (flushScheduler != null) {
+      flushScheduler.shutdownNow();
+    }
+  }
+
+  private synchronized void flush() {
+    lastFlushMillis = System.currentTimeMillis();
+    if (buffer.size() == 0) {
+      return;
+    }
+    try {
+      buffer.writeTo(output);
+      output.flush();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.reset();
+  }
+
+  private synchronized void flushIfStale() {
+    if (System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis) {
+      flush();
+    }
+  }
+
+  private void startFlushScheduler() {
+    flushScheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("output-flush-%d").setDaemon(true).build());
+    flushScheduler.scheduleWithFixedDelay(this::flushIfStale, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+}
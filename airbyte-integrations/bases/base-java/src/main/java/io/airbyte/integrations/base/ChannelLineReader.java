@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Splits the bytes of a channel into lines, following the https://jsonlines.org/ standard: lines
+ * end with \n or \r\n, and empty lines are skipped. The bytes are read into one large buffer and
+ * lines are returned as ranges of that buffer, so nothing is decoded or copied per line. The buffer
+ * grows if a single line does not fit in it.
+ *
+ * <p>
+ * Splitting raw bytes is safe for UTF-8 input, as no byte of a multi-byte character can be a line
+ * break.
+ */
+public class ChannelLineReader {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  private final ReadableByteChannel channel;
+  private ByteBuffer buffer;
+  // start of the bytes that have not been returned as a line yet.
+  private int start;
+  // bytes before this position have been searched for a line break already.
+  private int searchPosition;
+  private boolean endOfInput;
+
+  private int lineOffset;
+  private int lineLength;
+
+  public ChannelLineReader(final ReadableByteChannel channel) {
+    this(channel, DEFAULT_BUFFER_SIZE);
+  }
+
+  public ChannelLineReader(final ReadableByteChannel channel, final int bufferSize) {
+    Preconditions.checkArgument(bufferSize > 0, "bufferSize must be positive");
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.start = 0;
+    this.searchPosition = 0;
+    this.endOfInput = false;
+  }
+
+  /**
+   * Moves to the next non empty line, see {@link #getBuffer()}.
+   *
+   * @return false once the channel has no more lines.
+   */
+  public boolean readLine() throws IOException {
+    while (true) {
+      final byte[] bytes = buffer.array();
+      final int end = buffer.position();
+      for (int i = searchPosition; i < end; i++) {
+        if (bytes[i] == '\n' || bytes[i] == '\r') {
+          final boolean isEmpty = i == start;
+          lineOffset = start;
+          lineLength = i - start;
+          start = i + 1;
+          searchPosition = start;
+          if (isEmpty) {
+            continue;
+          }
+          return true;
+        }
+      }
+      searchPosition = end;
+
+      if (endOfInput) {
+        // the last line does not have to end with a line break.
+        if (start < end) {
+          lineOffset = start;
+          lineLength = end - start;
+          start = end;
+          return true;
+        }
+        return false;
+      }
+      fill();
+    }
+  }
+
+  /**
+   * @return array that holds the current line, from {@link #getLineOffset()} for
+   *         {@link #getLineLength()} bytes, without its line break. It is only valid until the next
+   *         call to {@link #readLine()}.
+   */
+  public byte[] getBuffer() {
+    return buffer.array();
+  }
+
+  public int getLineOffset() {
+    return lineOffset;
+  }
+
+  public int getLineLength() {
+    return lineLength;
+  }
+
+  private void fill() throws IOException {
+    // drop the lines that were returned already, to make room.
+    if (start > 0) {
+      buffer.flip();
+      buffer.position(start);
+      buffer.compact();
+      searchPosition -= start;
+      start = 0;
+    }
+    if (!buffer.hasRemaining()) {
+      buffer = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.capacity() * 2)).position(buffer.position());
+    }
+
+    int read = 0;
+    while (read == 0) {
+      read = channel.read(buffer);
+    }
+    if (read < 0) {
+      endOfInput = true;
+    }
+  }
+
+}
@@ -27,11 +27,21 @@ public abstract class CommitOnStateAirbyteMessageConsumer extends FailureTrackin
 
   @Override
   public void accept(final AirbyteMessage message) throws Exception {
+    commitOnState(message);
+    super.accept(message);
+  }
+
+  @Override
+  public void accept(final AirbyteMessage message, final long sizeInBytes) throws Exception {
+    commitOnState(message);
+    super.accept(message, sizeInBytes);
+  }
+
+  private void commitOnState(final AirbyteMessage message) throws Exception {
     if (message.getType() == Type.STATE) {
       commit();
       outputRecordCollector.accept(message);
     }
-    super.accept(message);
   }
 
   public abstract void commit() throws Exception;
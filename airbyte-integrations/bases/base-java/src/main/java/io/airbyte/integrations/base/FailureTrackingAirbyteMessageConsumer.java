@@ -44,6 +44,14 @@ public abstract class FailureTrackingAirbyteMessageConsumer implements AirbyteMe
 
   protected abstract void acceptTracked(AirbyteMessage msg) throws Exception;
 
+  /**
+   * Wraps processing of a message whose serialized size is known, see
+   * {@link AirbyteMessageConsumer#accept(AirbyteMessage, long)}. Ignores the size by default.
+   */
+  protected void acceptTracked(final AirbyteMessage msg, final long sizeInBytes) throws Exception {
+    acceptTracked(msg);
+  }
+
   @Override
   public void accept(final AirbyteMessage msg) throws Exception {
     try {
@@ -55,6 +63,17 @@ public abstract class FailureTrackingAirbyteMessageConsumer implements AirbyteMe
     }
   }
 
+  @Override
+  public void accept(final AirbyteMessage msg, final long sizeInBytes) throws Exception {
+    try {
+      acceptTracked(msg, sizeInBytes);
+    } catch (final Exception e) {
+      LOGGER.error("Exception while accepting message", e);
+      hasFailed = true;
+      throw e;
+    }
+  }
+
   protected abstract void close(boolean hasFailed) throws Exception;
 
   @Override
@@ -22,11 +22,14 @@ import io.sentry.ITransaction;
 import io.sentry.Sentry;
 import io.sentry.SentryLevel;
 import io.sentry.SpanStatus;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -52,6 +55,9 @@ public class IntegrationRunner {
 
   public static final int FORCED_EXIT_CODE = 2;
 
+  // when true, destination input is parsed on its own thread, ahead of the consumer.
+  public static final String DECODE_INPUT_IN_BACKGROUND_ENV = "DECODE_INPUT_IN_BACKGROUND";
+
   private final IntegrationCliParser cliParser;
   private final Consumer<AirbyteMessage> outputRecordCollector;
   private final Integration integration;
@@ -64,7 +70,8 @@ public class IntegrationRunner {
   }
 
   public IntegrationRunner(final Source source) {
-    this(new IntegrationCliParser(), Destination::defaultOutputRecordCollector, null, source);
+    // sources emit records at a high rate, so their output is written in batches.
+    this(new IntegrationCliParser(), new BufferedOutputRecordCollector(), null, source);
   }
 
   @VisibleForTesting
@@ -114,6 +121,10 @@ public class IntegrationRunner {
        * So the transaction should always be finished in the try and catch blocks.
        */
       transaction.finish();
+      // write out messages that the collector still holds.
+      if (outputRecordCollector instanceof AutoCloseable) {
+        ((AutoCloseable) outputRecordCollector).close();
+      }
     }
   }
 
@@ -171,24 +182,22 @@ public class IntegrationRunner {
 
   @VisibleForTesting
   static void consumeWriteStream(final AirbyteMessageConsumer consumer) throws Exception {
-    // use a Scanner that only processes new line characters to strictly abide with the
-    // https://jsonlines.org/ standard
-    final Scanner input = new Scanner(System.in).useDelimiter("[\r\n]+");
+    consumeWriteStream(consumer, Channels.newChannel(System.in), false);
+  }
+
+  @VisibleForTesting
+  static void consumeWriteStream(final AirbyteMessageConsumer consumer, final ReadableByteChannel input, final boolean decodeInBackground)
+      throws Exception {
     consumer.start();
-    while (input.hasNext()) {
-      final String inputString = input.next();
-      final Optional<AirbyteMessage> messageOptional = Jsons.tryDeserialize(inputString, AirbyteMessage.class);
-      if (messageOptional.isPresent()) {
-        consumer.accept(messageOptional.get());
-      } else {
-        LOGGER.error("Received invalid message: " + inputString);
-      }
-    }
+    // the size of each line is passed along, so buffering consumers do not need to serialize the
+    // message again.
+    new AirbyteMessageReader(input, decodeInBackground).forEach(consumer::accept);
   }
 
   private static void runConsumer(final AirbyteMessageConsumer consumer) throws Exception {
+    final boolean decodeInBackground = Boolean.parseBoolean(System.getenv().getOrDefault(DECODE_INPUT_IN_BACKGROUND_ENV, "false"));
     watchForOrphanThreads(
-        () -> consumeWriteStream(consumer),
+        () -> consumeWriteStream(consumer, new FileInputStream(FileDescriptor.in).getChannel(), decodeInBackground),
         () -> System.exit(FORCED_EXIT_CODE),
         true,
         INTERRUPT_THREAD_DELAY_MINUTES,
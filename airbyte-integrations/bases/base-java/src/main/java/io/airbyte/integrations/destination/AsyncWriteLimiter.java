@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of asynchronous writes in flight, so that records are not read faster than the
+ * cluster can write them, and tracks their latency and throughput. The first failed write fails the
+ * next call to {@link #submit(Supplier)} or {@link #awaitAll()}.
+ */
+public class AsyncWriteLimiter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncWriteLimiter.class);
+  private static final long LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final int maxInFlight;
+  private final Semaphore permits;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final AtomicLong completedWrites = new AtomicLong();
+  private final AtomicLong totalLatencyNanos = new AtomicLong();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+  private final long startNanos = System.nanoTime();
+  private long lastLogNanos = startNanos;
+
+  public AsyncWriteLimiter(final int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+    this.permits = new Semaphore(maxInFlight);
+  }
+
+  /**
+   * Starts a write once fewer than the maximum number of writes are in flight.
+   */
+  public void submit(final Supplier<? extends CompletionStage<?>> write) {
+    throwIfFailed();
+    permits.acquireUninterruptibly();
+    final long submittedNanos = System.nanoTime();
+    try {
+      write.get().whenComplete((result, throwable) -> {
+        if (throwable == null) {
+          recordLatency(System.nanoTime() - submittedNanos);
+        } else {
+          failure.compareAndSet(null, throwable);
+        }
+        permits.release();
+      });
+    } catch (final RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    if (submittedNanos - lastLogNanos > LOG_INTERVAL_NANOS) {
+      lastLogNanos = submittedNanos;
+      logMetrics();
+    }
+  }
+
+  /**
+   * Waits for all writes in flight to complete.
+   */
+  public void awaitAll() {
+    permits.acquireUninterruptibly(maxInFlight);
+    permits.release(maxInFlight);
+    throwIfFailed();
+  }
+
+  private void throwIfFailed() {
+    final Throwable throwable = failure.get();
+    if (throwable != null) {
+      throw new RuntimeException("Failed to write records", throwable);
+    }
+  }
+
+  private void recordLatency(final long latencyNanos) {
+    completedWrites.incrementAndGet();
+    totalLatencyNanos.addAndGet(latencyNanos);
+    maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+  }
+
+  public long getCompletedWrites() {
+    return completedWrites.get();
+  }
+
+  public int getInFlightWrites() {
+    return maxInFlight - permits.availablePermits();
+  }
+
+  public void logMetrics() {
+    final long writes = completedWrites.get();
+    if (writes == 0) {
+      return;
+    }
+    final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+    LOGGER.info("Wrote {} records in {} ({} records/s), mean latency {} ms, max latency {} ms, {} writes in flight",
+        writes,
+        elapsed,
+        writes * 1000 / Math.max(elapsed.toMillis(), 1),
+        TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / writes),
+        TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()),
+        getInFlightWrites());
+  }
+
+}
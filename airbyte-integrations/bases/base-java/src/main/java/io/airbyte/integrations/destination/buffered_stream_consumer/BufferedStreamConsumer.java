@@ -5,7 +5,9 @@
 package io.airbyte.integrations.destination.buffered_stream_consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.airbyte.commons.concurrency.VoidCallable;
 import io.airbyte.commons.functional.CheckedConsumer;
 import io.airbyte.commons.functional.CheckedFunction;
@@ -18,11 +20,17 @@ import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteMessage.Type;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,10 +39,11 @@ import org.slf4j.LoggerFactory;
  * This class consumes AirbyteMessages from the worker.
  *
  * <p>
- * Record Messages: It adds record messages to a buffer. Under 2 conditions, it will flush the
- * records in the buffer to a temporary table in the destination. Condition 1: The buffer fills up
- * (the buffer is designed to be small enough as not to exceed the memory of the container).
- * Condition 2: On close.
+ * Record Messages: It adds record messages to a buffer per stream. Under 2 conditions, it will
+ * flush the records in the buffer to a temporary table in the destination. Condition 1: The buffers
+ * fill up (the buffers are designed to be small enough as not to exceed the memory of the
+ * container). Then only some of the streams are flushed, see {@link StreamBufferManager}. Condition
+ * 2: On close.
  * </p>
  *
  * <p>
@@ -50,13 +59,13 @@ import org.slf4j.LoggerFactory;
  *
  * <p>
  * Throughout the lifecycle of the consumer, messages get promoted from buffered to flushed to
- * committed. A record message when it is received is immediately buffered. When the buffer fills
- * up, all buffered records are flushed out of memory using the user-provided recordWriter. When
- * this flush happens, a state message is moved from pending to flushed. On close, if the
- * user-provided onClose function is successful, then the flushed state record is considered
- * committed and is then emitted. We expect this class to only ever emit either 1 state message (in
- * the case of a full or partial success) or 0 state messages (in the case where the onClose step
- * was never reached or did not complete without exception).
+ * committed. A record message when it is received is immediately buffered. When the buffers fill
+ * up, the records of some streams are flushed out of memory using the user-provided recordWriter. A
+ * state message is moved from pending to flushed once every record received before it has been
+ * flushed. On close, if the user-provided onClose function is successful, then the flushed state
+ * record is considered committed and is then emitted. We expect this class to only ever emit either
+ * 1 state message (in the case of a full or partial success) or 0 state messages (in the case where
+ * the onClose step was never reached or did not complete without exception).
  * </p>
  *
  * <p>
@@ -69,10 +78,33 @@ import org.slf4j.LoggerFactory;
  * AND then copies from the temporary table into the final table. This abstraction is blind to that
  * detail as it implementation detail of how copy destinations implement close.
  * </p>
+ *
+ * <p>
+ * By default a full buffer is flushed inline, so no messages are read while the recordWriter runs.
+ * With maxInFlightFlushes above 0, full buffers are handed to a single background thread instead,
+ * and a fresh buffer starts filling right away. Reading only blocks once maxInFlightFlushes buffers
+ * are waiting to be written or being written. Buffers are written in the order they were filled,
+ * and a state message only moves from pending to flushed once the buffer it was received with has
+ * been written. If a background flush fails, no later buffer is written, and the failure is
+ * rethrown by the next call to accept, or by close.
+ * </p>
+ *
+ * <p>
+ * Buffers are sized by the serialized size of their records, as read from stdin, so that batches
+ * reach maxQueueSizeInBytes. The buffer being filled and the ones being flushed hold up to (1 +
+ * maxInFlightFlushes) * maxQueueSizeInBytes of records, so maxInFlightFlushes is lowered when that
+ * would exceed {@link #MAX_BUFFERED_HEAP_RATIO} of the max heap.
+ * </p>
  */
 public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsumer implements AirbyteMessageConsumer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BufferedStreamConsumer.class);
+  // size of messages that were not read from stdin; they are measured with the RecordSizeEstimator.
+  private static final long UNKNOWN_SIZE = -1;
+  // a record held as a JsonNode takes several times the size of its JSON in heap, so the buffers only
+  // get a small share of it.
+  @VisibleForTesting
+  static final double MAX_BUFFERED_HEAP_RATIO = 0.1;
 
   private final VoidCallable onStart;
   private final RecordWriter recordWriter;
@@ -83,17 +115,24 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
   private final CheckedFunction<JsonNode, Boolean, Exception> isValidRecord;
   private final Map<AirbyteStreamNameNamespacePair, Long> streamToIgnoredRecordCount;
   private final Consumer<AirbyteMessage> outputRecordCollector;
-  private final long maxQueueSizeInBytes;
+  private final int maxInFlightFlushes;
   private final RecordSizeEstimator recordSizeEstimator;
-  private long bufferSizeInBytes;
-  private Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> streamBuffer;
+  private final StreamBufferManager bufferManager;
   private String fileName;
 
   private boolean hasStarted;
   private boolean hasClosed;
 
-  private AirbyteMessage lastFlushedState;
-  private AirbyteMessage pendingState;
+  // only set when buffers are flushed in the background.
+  private ExecutorService flushExecutor;
+  private Semaphore inFlightFlushes;
+  private final AtomicReference<Exception> flushFailure;
+
+  // written by the thread that flushes, once the buffer that came before the state has been written.
+  private volatile AirbyteMessage lastFlushedState;
+  // state messages that still have buffered records before them, with the index of the first record
+  // received after them.
+  private final Deque<PendingState> pendingStates;
 
   public BufferedStreamConsumer(final Consumer<AirbyteMessage> outputRecordCollector,
                                 final VoidCallable onStart,
@@ -114,8 +153,54 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
                                 final ConfiguredAirbyteCatalog catalog,
                                 final CheckedFunction<JsonNode, Boolean, Exception> isValidRecord,
                                 final long maxQueueSizeInBytes) {
+    this(outputRecordCollector, onStart, recordWriter, checkAndRemoveRecordWriter, onClose, catalog,
+        isValidRecord, maxQueueSizeInBytes, 0);
+  }
+
+  /**
+   * @param maxInFlightFlushes number of full buffers that may wait for, or be in the middle of, a
+   *        background flush. 0 flushes every buffer inline. Each of them takes up to
+   *        maxQueueSizeInBytes of records on top of the buffer being filled. Lowered when the
+   *        buffers would take too much of the heap.
+   */
+  public BufferedStreamConsumer(final Consumer<AirbyteMessage> outputRecordCollector,
+                                final VoidCallable onStart,
+                                final RecordWriter recordWriter,
+                                final CheckAndRemoveRecordWriter checkAndRemoveRecordWriter,
+                                final CheckedConsumer<Boolean, Exception> onClose,
+                                final ConfiguredAirbyteCatalog catalog,
+                                final CheckedFunction<JsonNode, Boolean, Exception> isValidRecord,
+                                final long maxQueueSizeInBytes,
+                                final int maxInFlightFlushes) {
+    this(outputRecordCollector, onStart, recordWriter, checkAndRemoveRecordWriter, onClose, catalog,
+        isValidRecord, maxQueueSizeInBytes, maxQueueSizeInBytes, 0, maxInFlightFlushes);
+  }
+
+  /**
+   * @param maxQueueSizeInBytes serialized size of the records buffered for all streams together.
+   * @param maxStreamQueueSizeInBytes limit of the buffer of a single stream.
+   * @param minStreamBatchSizeInBytes when the buffers are full, streams with less than this buffered
+   *        are only flushed if no stream has more. Keeps busy streams from forcing tiny batches of
+   *        quiet streams.
+   */
+  public BufferedStreamConsumer(final Consumer<AirbyteMessage> outputRecordCollector,
+                                final VoidCallable onStart,
+                                final RecordWriter recordWriter,
+                                final CheckAndRemoveRecordWriter checkAndRemoveRecordWriter,
+                                final CheckedConsumer<Boolean, Exception> onClose,
+                                final ConfiguredAirbyteCatalog catalog,
+                                final CheckedFunction<JsonNode, Boolean, Exception> isValidRecord,
+                                final long maxQueueSizeInBytes,
+                                final long maxStreamQueueSizeInBytes,
+                                final long minStreamBatchSizeInBytes,
+                                final int maxInFlightFlushes) {
+    Preconditions.checkArgument(maxInFlightFlushes >= 0, "maxInFlightFlushes must not be negative");
     this.outputRecordCollector = outputRecordCollector;
-    this.maxQueueSizeInBytes = maxQueueSizeInBytes;
+    this.maxInFlightFlushes = capInFlightFlushes(maxInFlightFlushes, maxQueueSizeInBytes, Runtime.getRuntime().maxMemory());
+    if (this.maxInFlightFlushes < maxInFlightFlushes) {
+      LOGGER.info("Flushing up to {} buffers in the background instead of {}, to keep buffered records within {} of the max heap.",
+          this.maxInFlightFlushes, maxInFlightFlushes, MAX_BUFFERED_HEAP_RATIO);
+    }
     this.hasStarted = false;
     this.hasClosed = false;
     this.onStart = onStart;
@@ -125,10 +210,21 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
     this.catalog = catalog;
     this.streamNames = AirbyteStreamNameNamespacePair.fromConfiguredCatalog(catalog);
     this.isValidRecord = isValidRecord;
-    this.bufferSizeInBytes = 0;
     this.streamToIgnoredRecordCount = new HashMap<>();
-    this.streamBuffer = new HashMap<>();
     this.recordSizeEstimator = new RecordSizeEstimator();
+    this.bufferManager = new StreamBufferManager(maxQueueSizeInBytes, maxStreamQueueSizeInBytes, minStreamBatchSizeInBytes);
+    this.pendingStates = new ArrayDeque<>();
+    this.flushFailure = new AtomicReference<>();
+  }
+
+  /**
+   * @return the number of buffers that may be flushed in the background, lowered so that they and the
+   *         buffer being filled take at most {@link #MAX_BUFFERED_HEAP_RATIO} of the max heap.
+   */
+  @VisibleForTesting
+  static int capInFlightFlushes(final int maxInFlightFlushes, final long maxQueueSizeInBytes, final long maxHeapBytes) {
+    final long buffersThatFit = (long) (maxHeapBytes * MAX_BUFFERED_HEAP_RATIO) / Math.max(1, maxQueueSizeInBytes);
+    return (int) Math.max(0, Math.min(maxInFlightFlushes, buffersThatFit - 1));
   }
 
   @Override
@@ -138,6 +234,11 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
     hasStarted = true;
 
     streamToIgnoredRecordCount.clear();
+    if (maxInFlightFlushes > 0) {
+      flushExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("buffer-flush-%d").setDaemon(true).build());
+      inFlightFlushes = new Semaphore(maxInFlightFlushes);
+    }
     LOGGER.info("{} started.", BufferedStreamConsumer.class);
 
     onStart.call();
@@ -145,7 +246,13 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
 
   @Override
   protected void acceptTracked(final AirbyteMessage message) throws Exception {
+    acceptTracked(message, UNKNOWN_SIZE);
+  }
+
+  @Override
+  protected void acceptTracked(final AirbyteMessage message, final long sizeInBytes) throws Exception {
     Preconditions.checkState(hasStarted, "Cannot accept records until consumer has started");
+    throwIfFlushFailed();
     if (message.getType() == Type.RECORD) {
       final AirbyteRecordMessage recordMessage = message.getRecord();
       final AirbyteStreamNameNamespacePair stream = AirbyteStreamNameNamespacePair.fromRecordMessage(recordMessage);
@@ -159,44 +266,136 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
         return;
       }
 
-      final long messageSizeInBytes = recordSizeEstimator.getEstimatedByteSize(recordMessage);
-      if (bufferSizeInBytes + messageSizeInBytes > maxQueueSizeInBytes) {
-        flushQueueToDestination();
-        bufferSizeInBytes = 0;
+      final long messageSizeInBytes = sizeInBytes == UNKNOWN_SIZE
+          ? recordSizeEstimator.getEstimatedByteSize(recordMessage)
+          : sizeInBytes;
+      final List<AirbyteStreamNameNamespacePair> streamsToFlush = bufferManager.getStreamsToFlush(stream, messageSizeInBytes);
+      if (!streamsToFlush.isEmpty()) {
+        flushQueueToDestination(streamsToFlush);
       }
 
-      final List<AirbyteRecordMessage> bufferedRecords = streamBuffer.computeIfAbsent(stream, k -> new ArrayList<>());
-      bufferedRecords.add(message.getRecord());
-      bufferSizeInBytes += messageSizeInBytes;
+      bufferManager.add(stream, message.getRecord(), messageSizeInBytes);
 
     } else if (message.getType() == Type.STATE) {
-      pendingState = message;
+      final long nextRecordIndex = bufferManager.getNextRecordIndex();
+      // a later state covers everything an earlier one with the same records before it covers.
+      if (!pendingStates.isEmpty() && pendingStates.peekLast().nextRecordIndex == nextRecordIndex) {
+        pendingStates.pollLast();
+      }
+      pendingStates.addLast(new PendingState(message, nextRecordIndex));
     } else {
       LOGGER.warn("Unexpected message: " + message.getType());
     }
 
   }
 
-  private void flushQueueToDestination() throws Exception {
-    LOGGER.info("Flushing buffer: {} bytes", bufferSizeInBytes);
+  private void flushQueueToDestination(final List<AirbyteStreamNameNamespacePair> streams) throws Exception {
+    final long bufferSize = bufferManager.getSizeInBytes(streams);
+    final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> buffer = bufferManager.take(streams);
+    final AirbyteMessage state = takeFlushableState();
+    flushQueueToDestination(buffer, bufferSize, state);
+  }
+
+  private void flushQueueToDestination(final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> buffer,
+                                       final long bufferSize,
+                                       final AirbyteMessage state)
+      throws Exception {
+    if (flushExecutor == null) {
+      writeBuffer(buffer, bufferSize, state);
+      return;
+    }
+
+    // blocks reading while maxInFlightFlushes buffers have not been written yet.
+    inFlightFlushes.acquire();
+    flushExecutor.execute(() -> {
+      try {
+        // once a buffer failed, later buffers must not be written, or their state could be emitted.
+        if (flushFailure.get() == null) {
+          writeBuffer(buffer, bufferSize, state);
+        }
+      } catch (final Exception e) {
+        LOGGER.error("Background flush failed", e);
+        flushFailure.compareAndSet(null, e);
+      } finally {
+        inFlightFlushes.release();
+      }
+    });
+  }
+
+  private void writeBuffer(final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> buffer,
+                           final long bufferSize,
+                           final AirbyteMessage state)
+      throws Exception {
+    LOGGER.info("Flushing buffer: {} bytes", bufferSize);
 
     AirbyteSentry.executeWithTracing("FlushBuffer", () -> {
-      for (final Map.Entry<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> entry : streamBuffer.entrySet()) {
+      for (final Map.Entry<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> entry : buffer.entrySet()) {
         LOGGER.info("Flushing {}: {} records", entry.getKey().getName(), entry.getValue().size());
         recordWriter.accept(entry.getKey(), entry.getValue());
         if (checkAndRemoveRecordWriter != null) {
           fileName = checkAndRemoveRecordWriter.apply(entry.getKey(), fileName);
         }
       }
-    }, Map.of("bufferSizeInBytes", bufferSizeInBytes));
-    streamBuffer = new HashMap<>();
+    }, Map.of("bufferSizeInBytes", bufferSize));
+
+    if (state != null) {
+      lastFlushedState = state;
+    }
+  }
+
+  private void flushAllToDestination() throws Exception {
+    final long bufferSize = bufferManager.getTotalSizeInBytes();
+    final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> buffer = bufferManager.takeAll();
+    final AirbyteMessage state = takeFlushableState();
+    flushQueueToDestination(buffer, bufferSize, state);
+  }
+
+  /**
+   * @return the latest state message that has no records left in the buffers before it, once the
+   *         records that were just taken out of the buffers are written.
+   */
+  private AirbyteMessage takeFlushableState() {
+    final long oldestRecordIndex = bufferManager.getOldestRecordIndex();
+    AirbyteMessage state = null;
+    while (!pendingStates.isEmpty() && pendingStates.peekFirst().nextRecordIndex <= oldestRecordIndex) {
+      state = pendingStates.pollFirst().message;
+    }
+    return state;
+  }
 
-    if (pendingState != null) {
-      lastFlushedState = pendingState;
-      pendingState = null;
+  private void throwIfFlushFailed() throws Exception {
+    final Exception failure = flushFailure.get();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Waits until every buffer handed to the background thread has been written, or skipped because an
+   * earlier one failed.
+   */
+  private void awaitFlushes() throws InterruptedException {
+    if (flushExecutor == null) {
+      return;
+    }
+    flushExecutor.shutdown();
+    while (!flushExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+      LOGGER.info("Waiting for background flushes to finish.");
     }
   }
 
+  private static class PendingState {
+
+    private final AirbyteMessage message;
+    private final long nextRecordIndex;
+
+    PendingState(final AirbyteMessage message, final long nextRecordIndex) {
+      this.message = message;
+      this.nextRecordIndex = nextRecordIndex;
+    }
+
+  }
+
   private void throwUnrecognizedStream(final ConfiguredAirbyteCatalog catalog, final AirbyteMessage message) {
     throw new IllegalArgumentException(
         String.format("Message contained record from a stream that was not in the catalog. \ncatalog: %s , \nmessage: %s",
@@ -215,7 +414,14 @@ public class BufferedStreamConsumer extends FailureTrackingAirbyteMessageConsume
       LOGGER.error("executing on failed close procedure.");
     } else {
       LOGGER.info("executing on success close procedure.");
-      flushQueueToDestination();
+      flushAllToDestination();
+    }
+    LOGGER.info("Flushes per stream: {}", bufferManager.getFlushCounts());
+    LOGGER.info("Flushed batches by max size in bytes: {}", bufferManager.getBatchSizeHistogram());
+    // the close procedures must not run while buffers are still being written.
+    awaitFlushes();
+    if (!hasFailed) {
+      throwIfFlushFailed();
     }
 
     try {
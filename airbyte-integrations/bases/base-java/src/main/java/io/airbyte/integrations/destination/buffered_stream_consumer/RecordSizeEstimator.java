@@ -6,16 +6,17 @@ package io.airbyte.integrations.destination.buffered_stream_consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Utf8;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * This class estimate the byte size of the record message. To reduce memory footprint, 1) it
- * assumes that a character is always four bytes, and 2) it only performs a sampling every N
- * records. The size of the samples are averaged together to protect the estimation against
- * outliers.
+ * This class estimate the byte size of the record message, for records that were not read from
+ * stdin with their serialized size. To save cpu, it only measures the UTF-8 size of the serialized
+ * data every N records. The size of the samples are averaged together to protect
+ * the estimation against outliers.
  */
 public class RecordSizeEstimator {
 
@@ -72,8 +73,7 @@ public class RecordSizeEstimator {
 
   @VisibleForTesting
   static long getStringByteSize(final JsonNode data) {
-    // assume UTF-8 encoding, and each char is 4 bytes long
-    return Jsons.serialize(data).length() * 4L;
+    return Utf8.encodedLength(Jsons.serialize(data));
   }
 
 }
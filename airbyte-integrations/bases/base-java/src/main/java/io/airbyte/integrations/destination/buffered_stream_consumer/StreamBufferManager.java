@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.buffered_stream_consumer;
+
+import com.google.common.base.Preconditions;
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers records per stream, under a memory budget shared by all streams. When a record does not
+ * fit, only some streams are flushed: the largest ones that have at least minBatchSizeInBytes
+ * buffered, until the buffers take at most half of the budget. Only if no stream has that much, the
+ * streams that have been buffering the longest are flushed instead. A stream is also flushed on its
+ * own once it reaches maxStreamSizeInBytes.
+ *
+ * <p>
+ * Records are numbered in the order they are added, so callers can tell whether every record
+ * received before a given point has left the buffers (see {@link #getOldestRecordIndex()}).
+ *
+ * <p>
+ * Flushes are counted per stream, and the sizes of the flushed batches are kept in a histogram with
+ * power of two buckets, to help tune the limits.
+ */
+public class StreamBufferManager {
+
+  private final long maxTotalSizeInBytes;
+  private final long maxStreamSizeInBytes;
+  private final long minBatchSizeInBytes;
+
+  private final Map<AirbyteStreamNameNamespacePair, StreamBuffer> buffers;
+  private long totalSizeInBytes;
+  private long nextRecordIndex;
+
+  private final Map<AirbyteStreamNameNamespacePair, Long> flushCounts;
+  // bucket i counts batches of at most 2^i bytes, and more than 2^(i-1).
+  private final long[] batchSizeHistogram;
+
+  /**
+   * @param maxTotalSizeInBytes memory budget of all buffers together.
+   * @param maxStreamSizeInBytes limit of the buffer of a single stream.
+   * @param minBatchSizeInBytes streams with less than this buffered are only flushed when no stream
+   *        has more.
+   */
+  public StreamBufferManager(final long maxTotalSizeInBytes, final long maxStreamSizeInBytes, final long minBatchSizeInBytes) {
+    Preconditions.checkArgument(maxTotalSizeInBytes > 0, "maxTotalSizeInBytes must be positive");
+    Preconditions.checkArgument(maxStreamSizeInBytes > 0, "maxStreamSizeInBytes must be positive");
+    Preconditions.checkArgument(minBatchSizeInBytes >= 0, "minBatchSizeInBytes must not be negative");
+    this.maxTotalSizeInBytes = maxTotalSizeInBytes;
+    this.maxStreamSizeInBytes = maxStreamSizeInBytes;
+    this.minBatchSizeInBytes = minBatchSizeInBytes;
+    this.buffers = new LinkedHashMap<>();
+    this.totalSizeInBytes = 0;
+    this.nextRecordIndex = 0;
+    this.flushCounts = new HashMap<>();
+    this.batchSizeHistogram = new long[Long.SIZE];
+  }
+
+  /**
+   * @return streams that must be flushed with {@link #take(List)} before a record of the given size
+   *         can be added to the given stream.
+   */
+  public List<AirbyteStreamNameNamespacePair> getStreamsToFlush(final AirbyteStreamNameNamespacePair stream, final long sizeInBytes) {
+    final List<AirbyteStreamNameNamespacePair> streamsToFlush = new ArrayList<>();
+    long remainingSizeInBytes = totalSizeInBytes;
+
+    final StreamBuffer streamBuffer = buffers.get(stream);
+    if (streamBuffer != null && streamBuffer.sizeInBytes + sizeInBytes > maxStreamSizeInBytes) {
+      streamsToFlush.add(stream);
+      remainingSizeInBytes -= streamBuffer.sizeInBytes;
+    }
+    if (remainingSizeInBytes + sizeInBytes <= maxTotalSizeInBytes) {
+      return streamsToFlush;
+    }
+
+    // flush more than strictly needed, so the next records do not immediately cause another flush.
+    final long targetSizeInBytes = maxTotalSizeInBytes / 2;
+    final List<Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer>> candidates = buffers.entrySet().stream()
+        .filter(entry -> !streamsToFlush.contains(entry.getKey()))
+        .collect(Collectors.toList());
+
+    final List<Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer>> largest = candidates.stream()
+        .filter(entry -> entry.getValue().sizeInBytes >= minBatchSizeInBytes)
+        .sorted(Comparator.comparingLong((Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer> entry) -> entry.getValue().sizeInBytes)
+            .reversed())
+        .collect(Collectors.toList());
+    final List<Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer>> oldest = candidates.stream()
+        .sorted(Comparator.comparingLong(entry -> entry.getValue().oldestRecordIndex))
+        .collect(Collectors.toList());
+
+    for (final Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer> entry : largest.isEmpty() ? oldest : largest) {
+      if (remainingSizeInBytes + sizeInBytes <= targetSizeInBytes) {
+        break;
+      }
+      streamsToFlush.add(entry.getKey());
+      remainingSizeInBytes -= entry.getValue().sizeInBytes;
+    }
+    // the large streams alone may not make enough room.
+    for (final Map.Entry<AirbyteStreamNameNamespacePair, StreamBuffer> entry : oldest) {
+      if (remainingSizeInBytes + sizeInBytes <= maxTotalSizeInBytes) {
+        break;
+      }
+      if (!streamsToFlush.contains(entry.getKey())) {
+        streamsToFlush.add(entry.getKey());
+        remainingSizeInBytes -= entry.getValue().sizeInBytes;
+      }
+    }
+    return streamsToFlush;
+  }
+
+  public void add(final AirbyteStreamNameNamespacePair stream, final AirbyteRecordMessage record, final long sizeInBytes) {
+    final StreamBuffer streamBuffer = buffers.computeIfAbsent(stream, k -> new StreamBuffer(nextRecordIndex));
+    streamBuffer.records.add(record);
+    streamBuffer.sizeInBytes += sizeInBytes;
+    totalSizeInBytes += sizeInBytes;
+    nextRecordIndex++;
+  }
+
+  /**
+   * Removes the buffers of the given streams, and counts them as flushed.
+   *
+   * @return records of each stream, in the order they were added.
+   */
+  public Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> take(final List<AirbyteStreamNameNamespacePair> streams) {
+    final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> batch = new LinkedHashMap<>();
+    for (final AirbyteStreamNameNamespacePair stream : streams) {
+      final StreamBuffer streamBuffer = buffers.remove(stream);
+      if (streamBuffer == null) {
+        continue;
+      }
+      batch.put(stream, streamBuffer.records);
+      totalSizeInBytes -= streamBuffer.sizeInBytes;
+      flushCounts.merge(stream, 1L, Long::sum);
+      batchSizeHistogram[getHistogramBucket(streamBuffer.sizeInBytes)]++;
+    }
+    return batch;
+  }
+
+  /**
+   * @return the buffers of every stream. See {@link #take(List)}.
+   */
+  public Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> takeAll() {
+    return take(new ArrayList<>(buffers.keySet()));
+  }
+
+  public long getSizeInBytes(final List<AirbyteStreamNameNamespacePair> streams) {
+    return streams.stream().map(buffers::get).filter(b -> b != null).mapToLong(b -> b.sizeInBytes).sum();
+  }
+
+  public long getTotalSizeInBytes() {
+    return totalSizeInBytes;
+  }
+
+  /**
+   * @return index of the next record that will be added.
+   */
+  public long getNextRecordIndex() {
+    return nextRecordIndex;
+  }
+
+  /**
+   * @return index of the oldest record still buffered, or {@link #getNextRecordIndex()} if the
+   *         buffers are empty. Every record with a lower index has been taken out of the buffers.
+   */
+  public long getOldestRecordIndex() {
+    return buffers.values().stream().mapToLong(b -> b.oldestRecordIndex).min().orElse(nextRecordIndex);
+  }
+
+  public Map<AirbyteStreamNameNamespacePair, Long> getFlushCounts() {
+    return Map.copyOf(flushCounts);
+  }
+
+  /**
+   * @return number of flushed batches by upper bound of their size in bytes. Only non empty buckets
+   *         are included.
+   */
+  public SortedMap<Long, Long> getBatchSizeHistogram() {
+    final SortedMap<Long, Long> histogram = new TreeMap<>();
+    for (int i = 0; i < batchSizeHistogram.length; i++) {
+      if (batchSizeHistogram[i] > 0) {
+        histogram.put(i == Long.SIZE - 1 ? Long.MAX_VALUE : 1L << i, batchSizeHistogram[i]);
+      }
+    }
+    return histogram;
+  }
+
+  private static int getHistogramBucket(final long sizeInBytes) {
+    return sizeInBytes <= 1 ? 0 : Math.min(Long.SIZE - 1, Long.SIZE - Long.numberOfLeadingZeros(sizeInBytes - 1));
+  }
+
+  private static class StreamBuffer {
+
+    private final long oldestRecordIndex;
+    private final List<AirbyteRecordMessage> records;
+    private long sizeInBytes;
+
+    StreamBuffer(final long oldestRecordIndex) {
+      this.oldestRecordIndex = oldestRecordIndex;
+      this.records = new ArrayList<>();
+      this.sizeInBytes = 0;
+    }
+
+  }
+
+}
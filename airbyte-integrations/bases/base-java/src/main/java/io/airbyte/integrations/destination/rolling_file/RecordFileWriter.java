@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.rolling_file;
+
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.util.UUID;
+
+/**
+ * Writes the records of a stream into one file of a blob storage destination.
+ */
+public interface RecordFileWriter {
+
+  void write(UUID id, AirbyteRecordMessage recordMessage) throws Exception;
+
+  /**
+   * Closes the file. Returns once the file is completely uploaded, or once the upload is aborted if
+   * hasFailed is true.
+   */
+  void close(boolean hasFailed) throws Exception;
+
+}
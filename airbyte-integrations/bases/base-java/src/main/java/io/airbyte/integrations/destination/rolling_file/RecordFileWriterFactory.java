@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.rolling_file;
+
+import java.sql.Timestamp;
+
+/**
+ * Creates the files of one stream.
+ */
+@FunctionalInterface
+public interface RecordFileWriterFactory {
+
+  /**
+   * @param fileIndex index of the file in the stream. The first file, with index 0, is created when
+   *        the sync starts, and is where the output path of the stream should be prepared.
+   * @param fileTimestamp timestamp to name the file after. It is the upload timestamp of the sync for
+   *        the first file, and increases with every following file of the stream, so that each file
+   *        gets a distinct name.
+   */
+  RecordFileWriter create(int fileIndex, Timestamp fileTimestamp) throws Exception;
+
+}
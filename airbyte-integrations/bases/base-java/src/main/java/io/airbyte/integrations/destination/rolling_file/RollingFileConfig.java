@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.rolling_file;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Duration;
+
+/**
+ * When to start a new file for a stream. Without any limit, each stream is written into a single
+ * file for the whole sync.
+ */
+public class RollingFileConfig {
+
+  public static final String FILE_ROTATION_SIZE_MB_FIELD = "file_rotation_size_mb";
+  public static final String FILE_ROTATION_RECORD_COUNT_FIELD = "file_rotation_record_count";
+  public static final String FILE_ROTATION_STATE_INTERVAL_MINUTES_FIELD = "file_rotation_state_interval_minutes";
+
+  public static final RollingFileConfig NO_ROTATION = new RollingFileConfig(Long.MAX_VALUE, Long.MAX_VALUE);
+
+  private final long maxFileSizeBytes;
+  private final long maxFileRecords;
+  // null when files are only rotated by their size and record count.
+  private final Duration stateRotationInterval;
+
+  public RollingFileConfig(final long maxFileSizeBytes, final long maxFileRecords) {
+    this(maxFileSizeBytes, maxFileRecords, null);
+  }
+
+  public RollingFileConfig(final long maxFileSizeBytes, final long maxFileRecords, final Duration stateRotationInterval) {
+    this.maxFileSizeBytes = maxFileSizeBytes;
+    this.maxFileRecords = maxFileRecords;
+    this.stateRotationInterval = stateRotationInterval;
+  }
+
+  public static RollingFileConfig fromJson(final JsonNode config) {
+    final long maxFileSizeBytes = config.hasNonNull(FILE_ROTATION_SIZE_MB_FIELD)
+        ? config.get(FILE_ROTATION_SIZE_MB_FIELD).asLong() * 1024 * 1024
+        : Long.MAX_VALUE;
+    final long maxFileRecords = config.hasNonNull(FILE_ROTATION_RECORD_COUNT_FIELD)
+        ? config.get(FILE_ROTATION_RECORD_COUNT_FIELD).asLong()
+        : Long.MAX_VALUE;
+    final Duration stateRotationInterval = config.hasNonNull(FILE_ROTATION_STATE_INTERVAL_MINUTES_FIELD)
+        ? Duration.ofMinutes(config.get(FILE_ROTATION_STATE_INTERVAL_MINUTES_FIELD).asLong())
+        : null;
+    return new RollingFileConfig(maxFileSizeBytes, maxFileRecords, stateRotationInterval);
+  }
+
+  /**
+   * The size of a file is estimated from the size of the records in it, as the destination format
+   * may be smaller or larger.
+   */
+  public long getMaxFileSizeBytes() {
+    return maxFileSizeBytes;
+  }
+
+  public long getMaxFileRecords() {
+    return maxFileRecords;
+  }
+
+  /**
+   * How often the open files that hold back the oldest pending state may be closed early, so that a
+   * stream which receives few records does not delay every state until the end of the sync.
+   */
+  public Duration getStateRotationInterval() {
+    return stateRotationInterval;
+  }
+
+  public boolean isStateRotationEnabled() {
+    return stateRotationInterval != null;
+  }
+
+  @Override
+  public String toString() {
+    return "RollingFileConfig{" +
+        "maxFileSizeBytes=" + maxFileSizeBytes +
+        ", maxFileRecords=" + maxFileRecords +
+        ", stateRotationInterval=" + stateRotationInterval +
+        '}';
+  }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.rolling_file;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.airbyte.commons.string.Strings;
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.integrations.destination.buffered_stream_consumer.RecordSizeEstimator;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the records of each stream of a blob storage destination into a sequence of files. A new
+ * file is started once the current one reaches the limits of the {@link RollingFileConfig}, and the
+ * full file is closed, which completes its upload, in the background while the next records are
+ * written.
+ *
+ * <p>
+ * A state message is emitted as soon as every file with records received before it is uploaded, so
+ * an interrupted sync can resume from the data already in the destination instead of starting
+ * over. Like in BufferedStreamConsumer, records are numbered in the order they are received to tell
+ * which files these are. A stream that receives few records could keep its file open, and hold back
+ * every state, until the end of the sync. So when a state rotation interval is configured, a state
+ * also closes the open files that hold back the oldest pending state, at most once per interval.
+ *
+ * <p>
+ * Records and states are expected from a single thread. States are also emitted from the threads
+ * that upload the files, so the output record collector has to be thread safe.
+ */
+public class RollingFileManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RollingFileManager.class);
+
+  public static final long UNKNOWN_SIZE = -1;
+  // files closed at once, each of which can hold buffered parts in memory until it is uploaded.
+  private static final int DEFAULT_MAX_CLOSING_FILES = 2;
+  private static final long NO_RECORDS = -1;
+
+  private final RollingFileConfig config;
+  private final Consumer<AirbyteMessage> outputRecordCollector;
+  private final Map<AirbyteStreamNameNamespacePair, StreamFiles> streams;
+  private final RecordSizeEstimator recordSizeEstimator;
+  private final ExecutorService closeExecutor;
+  private final Semaphore closingFiles;
+  private final List<Future<?>> fileCloses;
+  private final List<Exception> closeFailures;
+  // index of the first record of each file that is not uploaded yet.
+  private final NavigableSet<Long> incompleteFiles;
+  private final Deque<PendingState> pendingStates;
+  // written by the thread that receives the records only.
+  private volatile long nextRecordIndex;
+  private long lastStateRotationNanos;
+
+  public RollingFileManager(final RollingFileConfig config, final Consumer<AirbyteMessage> outputRecordCollector) {
+    this(config, outputRecordCollector, DEFAULT_MAX_CLOSING_FILES);
+  }
+
+  @VisibleForTesting
+  RollingFileManager(final RollingFileConfig config, final Consumer<AirbyteMessage> outputRecordCollector, final int maxClosingFiles) {
+    this.config = config;
+    this.outputRecordCollector = outputRecordCollector;
+    this.streams = new LinkedHashMap<>();
+    this.recordSizeEstimator = new RecordSizeEstimator();
+    this.closeExecutor = Executors.newFixedThreadPool(maxClosingFiles,
+        new ThreadFactoryBuilder().setNameFormat("file-close-%d").setDaemon(true).build());
+    this.closingFiles = new Semaphore(maxClosingFiles);
+    this.fileCloses = new ArrayList<>();
+    this.closeFailures = new CopyOnWriteArrayList<>();
+    this.incompleteFiles = new ConcurrentSkipListSet<>();
+    this.pendingStates = new ArrayDeque<>();
+    this.nextRecordIndex = 0;
+    this.lastStateRotationNanos = System.nanoTime();
+    LOGGER.info("Writing files with {}", config);
+  }
+
+  /**
+   * Creates the first file of the stream.
+   */
+  public void addStream(final AirbyteStreamNameNamespacePair pair, final Timestamp uploadTimestamp, final RecordFileWriterFactory fileFactory)
+      throws Exception {
+    final StreamFiles files = new StreamFiles(pair, uploadTimestamp, fileFactory);
+    files.openFile();
+    streams.put(pair, files);
+  }
+
+  public boolean hasStream(final AirbyteStreamNameNamespacePair pair) {
+    return streams.containsKey(pair);
+  }
+
+  /**
+   * @param sizeInBytes serialized size of the record, or {@link #UNKNOWN_SIZE} to estimate it.
+   */
+  public void write(final AirbyteStreamNameNamespacePair pair, final UUID id, final AirbyteRecordMessage recordMessage, final long sizeInBytes)
+      throws Exception {
+    throwIfCloseFailed();
+    final StreamFiles files = streams.get(pair);
+    if (files.currentFile == null) {
+      files.openFile();
+    }
+    if (files.currentFileRecords == 0) {
+      files.currentFileFirstRecordIndex = nextRecordIndex;
+      incompleteFiles.add(nextRecordIndex);
+    }
+    files.currentFile.write(id, recordMessage);
+    nextRecordIndex++;
+    files.currentFileRecords++;
+    files.currentFileBytes += sizeInBytes == UNKNOWN_SIZE ? recordSizeEstimator.getEstimatedByteSize(recordMessage) : sizeInBytes;
+
+    if (files.currentFileRecords >= config.getMaxFileRecords() || files.currentFileBytes >= config.getMaxFileSizeBytes()) {
+      closeFile(files, false);
+    }
+    emitUploadedState();
+  }
+
+  public void acceptState(final AirbyteMessage stateMessage) throws Exception {
+    throwIfCloseFailed();
+    final long oldestStateRecordIndex;
+    synchronized (this) {
+      final PendingState last = pendingStates.peekLast();
+      if (last != null && last.nextRecordIndex == nextRecordIndex) {
+        // no records in between, so the newer state covers the same data.
+        pendingStates.pollLast();
+      }
+      pendingStates.addLast(new PendingState(stateMessage, nextRecordIndex));
+      oldestStateRecordIndex = pendingStates.peekFirst().nextRecordIndex;
+    }
+
+    // outside of the lock, as closing a file may wait for an upload that emits states.
+    final long now = System.nanoTime();
+    if (config.isStateRotationEnabled() && now - lastStateRotationNanos >= config.getStateRotationInterval().toNanos()) {
+      lastStateRotationNanos = now;
+      for (final StreamFiles files : streams.values()) {
+        // files started after the oldest pending state only hold back newer states, and keep growing.
+        if (files.currentFile != null && files.currentFileRecords > 0 && files.currentFileFirstRecordIndex < oldestStateRecordIndex) {
+          closeFile(files, false);
+        }
+      }
+    }
+    emitUploadedState();
+  }
+
+  /**
+   * Closes the files of every stream, and emits the last state if they were all uploaded.
+   */
+  public void close(final boolean hasFailed) throws Exception {
+    for (final StreamFiles files : streams.values()) {
+      if (files.currentFile != null) {
+        closeFile(files, hasFailed);
+      }
+    }
+    for (final Future<?> fileClose : fileCloses) {
+      try {
+        fileClose.get();
+      } catch (final ExecutionException e) {
+        // kept in closeFailures.
+      }
+    }
+    closeExecutor.shutdownNow();
+    streams.values().forEach(files -> LOGGER.info("Wrote {} file(s) for stream {}", files.fileCount, files.pair));
+
+    if (!closeFailures.isEmpty()) {
+      throw new RuntimeException(String.format("Exceptions thrown while closing consumer: %s", Strings.join(closeFailures, "\n")));
+    }
+    if (!hasFailed) {
+      emitUploadedState();
+    }
+  }
+
+  private void closeFile(final StreamFiles files, final boolean hasFailed) throws InterruptedException {
+    final RecordFileWriter file = files.currentFile;
+    final int fileIndex = files.fileCount - 1;
+    final long firstRecordIndex = files.currentFileRecords == 0 ? NO_RECORDS : files.currentFileFirstRecordIndex;
+    final long records = files.currentFileRecords;
+    files.currentFile = null;
+    files.currentFileRecords = 0;
+    files.currentFileBytes = 0;
+
+    closingFiles.acquire();
+    fileCloses.removeIf(Future::isDone);
+    fileCloses.add(closeExecutor.submit(() -> {
+      try {
+        final long start = System.currentTimeMillis();
+        file.close(hasFailed);
+        LOGGER.info("Closed file {} of stream {} with {} records in {} ms", fileIndex, files.pair, records, System.currentTimeMillis() - start);
+        if (!hasFailed && firstRecordIndex != NO_RECORDS) {
+          incompleteFiles.remove(firstRecordIndex);
+          emitUploadedState();
+        }
+        return null;
+      } catch (final Exception e) {
+        LOGGER.error("Exception while closing file {} of stream {}", fileIndex, files.pair, e);
+        closeFailures.add(e);
+        throw e;
+      } finally {
+        closingFiles.release();
+      }
+    }));
+  }
+
+  /**
+   * Emits the latest state whose records are all in uploaded files, if there is a new one.
+   */
+  private synchronized void emitUploadedState() {
+    final Long oldestIncompleteFile = incompleteFiles.ceiling(0L);
+    final long oldestRecordIndex = oldestIncompleteFile == null ? nextRecordIndex : oldestIncompleteFile;
+    AirbyteMessage state = null;
+    while (!pendingStates.isEmpty() && pendingStates.peekFirst().nextRecordIndex <= oldestRecordIndex) {
+      state = pendingStates.pollFirst().message;
+    }
+    if (state != null) {
+      outputRecordCollector.accept(state);
+    }
+  }
+
+  private void throwIfCloseFailed() throws Exception {
+    if (!closeFailures.isEmpty()) {
+      throw closeFailures.get(0);
+    }
+  }
+
+  private static class PendingState {
+
+    private final AirbyteMessage message;
+    // index of the first record received after the state.
+    private final long nextRecordIndex;
+
+    PendingState(final AirbyteMessage message, final long nextRecordIndex) {
+      this.message = message;
+      this.nextRecordIndex = nextRecordIndex;
+    }
+
+  }
+
+  private static class StreamFiles {
+
+    private final AirbyteStreamNameNamespacePair pair;
+    private final RecordFileWriterFactory fileFactory;
+    private Timestamp fileTimestamp;
+    private int fileCount;
+    // null between closing a full file and the next record of the stream.
+    private RecordFileWriter currentFile;
+    private long currentFileFirstRecordIndex;
+    private long currentFileRecords;
+    private long currentFileBytes;
+
+    StreamFiles(final AirbyteStreamNameNamespacePair pair, final Timestamp uploadTimestamp, final RecordFileWriterFactory fileFactory) {
+      this.pair = pair;
+      this.fileFactory = fileFactory;
+      this.fileTimestamp = uploadTimestamp;
+    }
+
+    void openFile() throws Exception {
+      if (fileCount > 0) {
+        fileTimestamp = new Timestamp(Math.max(System.currentTimeMillis(), fileTimestamp.getTime() + 1));
+      }
+      currentFile = fileFactory.create(fileCount, fileTimestamp);
+      fileCount++;
+    }
+
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AirbyteMessageReaderTest {
+
+  private static final AirbyteMessage RECORD = new AirbyteMessage()
+      .withType(Type.RECORD)
+      .withRecord(new AirbyteRecordMessage()
+          .withStream("colors")
+          .withData(Jsons.deserialize("{ \"color\": \"空色\" }"))
+          .withEmittedAt(1L));
+  private static final AirbyteMessage STATE = new AirbyteMessage()
+      .withType(Type.STATE)
+      .withState(new AirbyteStateMessage().withData(Jsons.deserialize("{ \"checkpoint\": \"1\" }")));
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testReadsMessagesWithTheirSize(final boolean decodeInBackground) throws Exception {
+    final String input = Jsons.serialize(RECORD) + "\nnot a message\n\n" + Jsons.serialize(STATE) + "\r\nnull\n" + Jsons.serialize(RECORD);
+
+    final List<AirbyteMessage> messages = new ArrayList<>();
+    final List<Long> sizes = new ArrayList<>();
+    reader(input, decodeInBackground).forEach((message, sizeInBytes) -> {
+      messages.add(message);
+      sizes.add(sizeInBytes);
+    });
+
+    assertEquals(List.of(RECORD, STATE, RECORD), messages);
+    assertEquals(List.of(sizeInBytes(RECORD), sizeInBytes(STATE), sizeInBytes(RECORD)), sizes);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testReadsMoreMessagesThanTheQueueHolds(final boolean decodeInBackground) throws Exception {
+    final List<AirbyteMessage> expected = IntStream.range(0, 25_000)
+        .mapToObj(i -> Jsons.clone(RECORD).withRecord(new AirbyteRecordMessage().withStream("colors").withEmittedAt((long) i)))
+        .collect(Collectors.toList());
+    final String input = expected.stream().map(Jsons::serialize).collect(Collectors.joining("\n"));
+
+    final List<AirbyteMessage> messages = new ArrayList<>();
+    reader(input, decodeInBackground).forEach((message, sizeInBytes) -> messages.add(message));
+
+    assertEquals(expected, messages);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testConsumerFailureIsThrown(final boolean decodeInBackground) {
+    final String input = Jsons.serialize(RECORD) + "\n" + Jsons.serialize(STATE);
+
+    final IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> reader(input, decodeInBackground).forEach((message, sizeInBytes) -> {
+          throw new IllegalStateException("induced exception");
+        }));
+    assertEquals("induced exception", exception.getMessage());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testInputFailureIsThrown(final boolean decodeInBackground) {
+    final InputStream failingInput = new InputStream() {
+
+      @Override
+      public int read() throws IOException {
+        throw new IOException("induced exception");
+      }
+
+    };
+    final AirbyteMessageReader reader = new AirbyteMessageReader(Channels.newChannel(failingInput), decodeInBackground);
+
+    assertThrows(IOException.class, () -> reader.forEach((message, sizeInBytes) -> {}));
+  }
+
+  private static AirbyteMessageReader reader(final String input, final boolean decodeInBackground) {
+    return new AirbyteMessageReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), decodeInBackground);
+  }
+
+  private static long sizeInBytes(final AirbyteMessage message) {
+    return Jsons.serialize(message).getBytes(StandardCharsets.UTF_8).length;
+  }
+
+}
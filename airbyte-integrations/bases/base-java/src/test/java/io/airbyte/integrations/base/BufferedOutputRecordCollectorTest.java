@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.protocol.models.AirbyteLogMessage;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BufferedOutputRecordCollectorTest {
+
+  private static final AirbyteMessage RECORD1 = record("blue");
+  private static final AirbyteMessage RECORD2 = record("空色");
+  private static final AirbyteMessage STATE = new AirbyteMessage()
+      .withType(Type.STATE)
+      .withState(new AirbyteStateMessage().withData(Jsons.deserialize("{ \"checkpoint\": \"1\" }")));
+  private static final AirbyteMessage LOG = new AirbyteMessage()
+      .withType(Type.LOG)
+      .withLog(new AirbyteLogMessage().withLevel(AirbyteLogMessage.Level.INFO).withMessage("done"));
+
+  private ByteArrayOutputStream output;
+
+  @BeforeEach
+  void setup() {
+    output = new ByteArrayOutputStream();
+  }
+
+  @Test
+  void testRecordsAreWrittenWithState() {
+    final BufferedOutputRecordCollector collector = new BufferedOutputRecordCollector(output, 1_000_000, TimeUnit.HOURS.toMillis(1));
+
+    collector.accept(RECORD1);
+    collector.accept(RECORD2);
+    assertEquals("", written());
+
+    collector.accept(STATE);
+    assertEquals(lines(RECORD1, RECORD2, STATE), written());
+
+    collector.accept(RECORD1);
+    collector.accept(LOG);
+    assertEquals(lines(RECORD1, RECORD2, STATE, RECORD1, LOG), written());
+  }
+
+  @Test
+  void testRecordsAreWrittenOnClose() {
+    final BufferedOutputRecordCollector collector = new BufferedOutputRecordCollector(output, 1_000_000, TimeUnit.HOURS.toMillis(1));
+
+    collector.accept(RECORD1);
+    collector.accept(RECORD2);
+    collector.close();
+
+    assertEquals(lines(RECORD1, RECORD2), written());
+  }
+
+  @Test
+  void testRecordsAreWrittenWhenBufferIsFull() {
+    final int recordSize = Jsons.serialize(RECORD1).length() + 1;
+    final BufferedOutputRecordCollector collector = new BufferedOutputRecordCollector(output, recordSize * 2, TimeUnit.HOURS.toMillis(1));
+
+    collector.accept(RECORD1);
+    assertEquals("", written());
+    collector.accept(RECORD1);
+    assertEquals(lines(RECORD1, RECORD1), written());
+  }
+
+  @Test
+  void testRecordsAreWrittenAfterInterval() throws InterruptedException {
+    final BufferedOutputRecordCollector collector = new BufferedOutputRecordCollector(output, 1_000_000, 10);
+
+    collector.accept(RECORD1);
+    final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    while (written().isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(lines(RECORD1), written());
+    collector.close();
+  }
+
+  @Test
+  void testOutputMatchesJsonsSerialization() {
+    final List<AirbyteMessage> messages = List.of(RECORD1, RECORD2, STATE, LOG);
+    final BufferedOutputRecordCollector collector = new BufferedOutputRecordCollector(output, 1_000_000, TimeUnit.HOURS.toMillis(1));
+    messages.forEach(collector);
+    collector.close();
+
+    final List<AirbyteMessage> parsed = Stream.of(written().split("\n"))
+        .map(line -> Jsons.deserialize(line, AirbyteMessage.class))
+        .collect(Collectors.toList());
+    assertEquals(messages, parsed);
+    assertTrue(written().endsWith("\n"));
+  }
+
+  private String written() {
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private static String lines(final AirbyteMessage... messages) {
+    return Stream.of(messages).map(message -> Jsons.serialize(message) + "\n").collect(Collectors.joining());
+  }
+
+  private static AirbyteMessage record(final String color) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage()
+            .withStream("colors")
+            .withData(Jsons.jsonNode(Map.of("color", color)))
+            .withEmittedAt(1L));
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ChannelLineReaderTest {
+
+  // small buffers split lines across reads, and force the buffer to grow.
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 16, ChannelLineReader.DEFAULT_BUFFER_SIZE})
+  void testLineBreaks(final int bufferSize) throws IOException {
+    assertEquals(List.of("a", "bc", "def"), readLines("a\nbc\r\ndef\n", bufferSize));
+    assertEquals(List.of("a", "bc"), readLines("\n\na\r\n\r\n\nbc", bufferSize));
+    assertEquals(List.of(), readLines("\r\n\n", bufferSize));
+    assertEquals(List.of(), readLines("", bufferSize));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 5, ChannelLineReader.DEFAULT_BUFFER_SIZE})
+  void testMultiByteCharacters(final int bufferSize) throws IOException {
+    assertEquals(List.of("{\"color\":\"空色\"}", "ça"), readLines("{\"color\":\"空色\"}\nça\n", bufferSize));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 7, ChannelLineReader.DEFAULT_BUFFER_SIZE})
+  void testLongLines(final int bufferSize) throws IOException {
+    final String longLine = "x".repeat(100_000);
+    assertEquals(List.of(longLine, "y", longLine), readLines(longLine + "\ny\n" + longLine, bufferSize));
+  }
+
+  private static List<String> readLines(final String input, final int bufferSize) throws IOException {
+    final ChannelLineReader reader = new ChannelLineReader(
+        Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    final List<String> lines = new ArrayList<>();
+    while (reader.readLine()) {
+      lines.add(new String(reader.getBuffer(), reader.getLineOffset(), reader.getLineLength(), StandardCharsets.UTF_8));
+    }
+    return lines;
+  }
+
+}
@@ -37,6 +37,7 @@ import io.airbyte.validation.json.JsonSchemaValidator;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -265,9 +266,27 @@ class IntegrationRunnerTest {
     try (final AirbyteMessageConsumer airbyteMessageConsumerMock = mock(AirbyteMessageConsumer.class)) {
       IntegrationRunner.consumeWriteStream(airbyteMessageConsumerMock);
       final InOrder inOrder = inOrder(airbyteMessageConsumerMock);
-      inOrder.verify(airbyteMessageConsumerMock).accept(message1);
-      inOrder.verify(airbyteMessageConsumerMock).accept(message2);
-      inOrder.verify(airbyteMessageConsumerMock).accept(stateMessage);
+      inOrder.verify(airbyteMessageConsumerMock).accept(message1, sizeInBytes(message1));
+      inOrder.verify(airbyteMessageConsumerMock).accept(message2, sizeInBytes(message2));
+      inOrder.verify(airbyteMessageConsumerMock).accept(stateMessage, sizeInBytes(stateMessage));
+    }
+  }
+
+  @Test
+  void testDestinationConsumerGetsUtf8SizeOfMessage() throws Exception {
+    final AirbyteMessage message = new AirbyteMessage()
+        .withType(AirbyteMessage.Type.RECORD)
+        .withRecord(new AirbyteRecordMessage()
+            .withData(Jsons.deserialize("{ \"color\": \"bleu ciel, 空色\" }"))
+            .withStream(STREAM_NAME)
+            .withEmittedAt(EMITTED_AT));
+    System.setIn(new ByteArrayInputStream(Jsons.serialize(message).getBytes(StandardCharsets.UTF_8)));
+
+    try (final AirbyteMessageConsumer airbyteMessageConsumerMock = mock(AirbyteMessageConsumer.class)) {
+      IntegrationRunner.consumeWriteStream(airbyteMessageConsumerMock);
+      // multi-byte characters are counted in bytes, not in chars.
+      assertTrue(sizeInBytes(message) > Jsons.serialize(message).length());
+      verify(airbyteMessageConsumerMock).accept(message, sizeInBytes(message));
     }
   }
 
@@ -288,10 +307,10 @@ class IntegrationRunnerTest {
     System.setIn(new ByteArrayInputStream((Jsons.serialize(message1) + "\n" + Jsons.serialize(message2)).getBytes()));
 
     try (final AirbyteMessageConsumer airbyteMessageConsumerMock = mock(AirbyteMessageConsumer.class)) {
-      doThrow(new IOException("error")).when(airbyteMessageConsumerMock).accept(message1);
+      doThrow(new IOException("error")).when(airbyteMessageConsumerMock).accept(message1, sizeInBytes(message1));
       assertThrows(IOException.class, () -> IntegrationRunner.consumeWriteStream(airbyteMessageConsumerMock));
       final InOrder inOrder = inOrder(airbyteMessageConsumerMock);
-      inOrder.verify(airbyteMessageConsumerMock).accept(message1);
+      inOrder.verify(airbyteMessageConsumerMock).accept(message1, sizeInBytes(message1));
       inOrder.verifyNoMoreInteractions();
     }
   }
@@ -350,6 +369,10 @@ class IntegrationRunnerTest {
     assertTrue(exitCalled.get());
   }
 
+  private static long sizeInBytes(final AirbyteMessage message) {
+    return Jsons.serialize(message).getBytes(StandardCharsets.UTF_8).length;
+  }
+
   private void startSleepingThread(final List<Exception> caughtExceptions, final boolean ignoreInterrupt) {
     final ExecutorService executorService = Executors.newFixedThreadPool(1);
     executorService.submit(() -> {
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AsyncWriteLimiterTest {
+
+  @Test
+  void testSubmitWaitsForAWriteToComplete() throws InterruptedException {
+    final AsyncWriteLimiter writeLimiter = new AsyncWriteLimiter(2);
+    final CompletableFuture<Void> write1 = new CompletableFuture<>();
+    final CompletableFuture<Void> write2 = new CompletableFuture<>();
+    writeLimiter.submit(() -> write1);
+    writeLimiter.submit(() -> write2);
+
+    final CountDownLatch submitted = new CountDownLatch(1);
+    final Thread thread = new Thread(() -> {
+      writeLimiter.submit(() -> CompletableFuture.completedFuture(null));
+      submitted.countDown();
+    });
+    thread.start();
+
+    assertThat(submitted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(writeLimiter.getInFlightWrites()).isEqualTo(2);
+
+    write1.complete(null);
+    assertThat(submitted.await(5, TimeUnit.SECONDS)).isTrue();
+    write2.complete(null);
+    writeLimiter.awaitAll();
+    assertThat(writeLimiter.getCompletedWrites()).isEqualTo(3);
+    assertThat(writeLimiter.getInFlightWrites()).isZero();
+  }
+
+  @Test
+  void testFailedWriteFailsTheNextCalls() {
+    final AsyncWriteLimiter writeLimiter = new AsyncWriteLimiter(2);
+    writeLimiter.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("write timeout")));
+
+    assertThatThrownBy(() -> writeLimiter.submit(() -> CompletableFuture.completedFuture(null)))
+        .hasRootCauseMessage("write timeout");
+    assertThatThrownBy(writeLimiter::awaitAll)
+        .hasRootCauseMessage("write timeout");
+    assertThat(writeLimiter.getInFlightWrites()).isZero();
+  }
+
+}
@@ -4,9 +4,13 @@
 
 package io.airbyte.integrations.destination.buffered_stream_consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,6 +36,8 @@ import io.airbyte.protocol.models.JsonSchemaType;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
@@ -295,6 +301,175 @@ public class BufferedStreamConsumerTest {
     verify(outputRecordCollector, times(1)).accept(STATE_MESSAGE2);
   }
 
+  @Test
+  void testAsyncFlushDoesNotBlockReading() throws Exception {
+    final List<AirbyteMessage> expectedRecordsBatch1 = generateRecords(1_000);
+    final List<AirbyteMessage> expectedRecordsBatch2 = generateRecords(500);
+    final CountDownLatch flushStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFlush = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      flushStarted.countDown();
+      assertTrue(releaseFlush.await(1, TimeUnit.MINUTES));
+      return null;
+    }).doNothing().when(recordWriter).accept(any(), any());
+
+    final BufferedStreamConsumer consumer = createAsyncConsumer();
+    consumer.start();
+    consumeRecords(consumer, expectedRecordsBatch1);
+    consumer.accept(STATE_MESSAGE1);
+    // the first record of the second batch hands the first batch to the background thread.
+    consumeRecords(consumer, expectedRecordsBatch2);
+    assertTrue(flushStarted.await(1, TimeUnit.MINUTES));
+    consumer.accept(STATE_MESSAGE2);
+
+    releaseFlush.countDown();
+    consumer.close();
+
+    verifyStartAndClose();
+    verifyRecords(STREAM_NAME, SCHEMA_NAME, expectedRecordsBatch1);
+    verifyRecords(STREAM_NAME, SCHEMA_NAME, expectedRecordsBatch2);
+    verify(outputRecordCollector).accept(STATE_MESSAGE2);
+  }
+
+  @Test
+  void testAsyncFlushFailureIsRethrownByAccept() throws Exception {
+    final List<AirbyteMessage> expectedRecordsBatch1 = generateRecords(1_000);
+    final List<AirbyteMessage> expectedRecordsBatch2 = generateRecords(1_000);
+    doThrow(new IllegalStateException("induced exception")).when(recordWriter).accept(any(), any());
+
+    final BufferedStreamConsumer consumer = createAsyncConsumer();
+    consumer.start();
+    consumeRecords(consumer, expectedRecordsBatch1);
+    consumer.accept(STATE_MESSAGE1);
+    consumer.accept(expectedRecordsBatch2.get(0));
+
+    // the failure surfaces once the background thread has run into it.
+    final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    IllegalStateException exception = null;
+    while (exception == null && System.currentTimeMillis() < deadline) {
+      try {
+        consumer.accept(STATE_MESSAGE2);
+        Thread.sleep(10);
+      } catch (final IllegalStateException e) {
+        exception = e;
+      }
+    }
+    assertEquals("induced exception", exception.getMessage());
+    consumer.close();
+
+    verify(onStart).call();
+    verify(onClose).accept(true);
+    verifyNoInteractions(outputRecordCollector);
+  }
+
+  @Test
+  void testAsyncFlushFailureIsRethrownByClose() throws Exception {
+    final List<AirbyteMessage> expectedRecords = generateRecords(500);
+    doThrow(new IllegalStateException("induced exception")).when(recordWriter).accept(any(), any());
+
+    final BufferedStreamConsumer consumer = createAsyncConsumer();
+    consumer.start();
+    consumeRecords(consumer, expectedRecords);
+    consumer.accept(STATE_MESSAGE1);
+    assertThrows(IllegalStateException.class, consumer::close);
+
+    verify(onClose, never()).accept(any());
+    verifyNoInteractions(outputRecordCollector);
+  }
+
+  @Test
+  void testFullStreamIsFlushedAlone() throws Exception {
+    final List<AirbyteMessage> expectedRecordsStream1 = generateRecords(1_000);
+    final List<AirbyteMessage> expectedRecordsStream2 = toStream2(generateRecords(500));
+    final List<AirbyteMessage> moreRecordsStream1 = generateRecords(1_000);
+
+    final BufferedStreamConsumer consumer = createPerStreamConsumer();
+    consumer.start();
+    consumeRecords(consumer, expectedRecordsStream1);
+    consumer.accept(STATE_MESSAGE1);
+    consumeRecords(consumer, expectedRecordsStream2);
+    // the first stream is full, the second one is left buffered.
+    consumer.accept(moreRecordsStream1.get(0));
+    verifyRecords(STREAM_NAME, SCHEMA_NAME, expectedRecordsStream1);
+    verify(recordWriter, times(1)).accept(any(), any());
+
+    when(isValidRecord.apply(any())).thenThrow(new IllegalStateException("induced exception"));
+    assertThrows(IllegalStateException.class, () -> consumer.accept(moreRecordsStream1.get(1)));
+    consumer.close();
+
+    // every record before the state message was flushed.
+    verifyStartAndClose();
+    verify(outputRecordCollector).accept(STATE_MESSAGE1);
+  }
+
+  @Test
+  void testInFlightFlushesAreCappedByHeap() {
+    final long maxHeapBytes = 1000L * 1024 * 1024;
+    // 100 MiB of the heap fits 4 buffers of 25 MiB: the one being filled and 3 being flushed.
+    assertEquals(1, BufferedStreamConsumer.capInFlightFlushes(1, 25L * 1024 * 1024, maxHeapBytes));
+    assertEquals(3, BufferedStreamConsumer.capInFlightFlushes(8, 25L * 1024 * 1024, maxHeapBytes));
+    // a buffer that takes the whole share of the heap is flushed inline.
+    assertEquals(0, BufferedStreamConsumer.capInFlightFlushes(1, 100L * 1024 * 1024, maxHeapBytes));
+  }
+
+  @Test
+  void testStateIsNotFlushedWhileOlderRecordsAreBuffered() throws Exception {
+    final List<AirbyteMessage> expectedRecordsStream1 = generateRecords(1_000);
+    final List<AirbyteMessage> expectedRecordsStream2 = toStream2(generateRecords(500));
+    final List<AirbyteMessage> moreRecordsStream1 = generateRecords(1_000);
+
+    final BufferedStreamConsumer consumer = createPerStreamConsumer();
+    consumer.start();
+    consumeRecords(consumer, expectedRecordsStream2);
+    consumeRecords(consumer, expectedRecordsStream1);
+    consumer.accept(STATE_MESSAGE1);
+    consumer.accept(moreRecordsStream1.get(0));
+    verifyRecords(STREAM_NAME, SCHEMA_NAME, expectedRecordsStream1);
+
+    when(isValidRecord.apply(any())).thenThrow(new IllegalStateException("induced exception"));
+    assertThrows(IllegalStateException.class, () -> consumer.accept(moreRecordsStream1.get(1)));
+    consumer.close();
+
+    // records of the second stream received before the state message were never flushed.
+    verify(onStart).call();
+    verify(onClose).accept(true);
+    verifyNoInteractions(outputRecordCollector);
+  }
+
+  private BufferedStreamConsumer createPerStreamConsumer() {
+    return new BufferedStreamConsumer(
+        outputRecordCollector,
+        onStart,
+        recordWriter,
+        null,
+        onClose,
+        CATALOG,
+        isValidRecord,
+        10_000,
+        1_000,
+        0,
+        0);
+  }
+
+  private static List<AirbyteMessage> toStream2(final List<AirbyteMessage> records) {
+    return records.stream()
+        .peek(m -> m.getRecord().withStream(STREAM_NAME2))
+        .collect(Collectors.toList());
+  }
+
+  private BufferedStreamConsumer createAsyncConsumer() {
+    return new BufferedStreamConsumer(
+        outputRecordCollector,
+        onStart,
+        recordWriter,
+        null,
+        onClose,
+        CATALOG,
+        isValidRecord,
+        1_000,
+        1);
+  }
+
   private void verifyStartAndClose() throws Exception {
     verify(onStart).call();
     verify(onClose).accept(false);
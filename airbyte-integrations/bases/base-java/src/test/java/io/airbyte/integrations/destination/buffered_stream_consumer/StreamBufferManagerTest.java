@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.buffered_stream_consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class StreamBufferManagerTest {
+
+  private static final AirbyteStreamNameNamespacePair STREAM1 = new AirbyteStreamNameNamespacePair("stream1", "public");
+  private static final AirbyteStreamNameNamespacePair STREAM2 = new AirbyteStreamNameNamespacePair("stream2", "public");
+  private static final AirbyteStreamNameNamespacePair STREAM3 = new AirbyteStreamNameNamespacePair("stream3", "public");
+
+  @Test
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new StreamBufferManager(0, 100, 0));
+    assertThrows(IllegalArgumentException.class, () -> new StreamBufferManager(100, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> new StreamBufferManager(100, 100, -1));
+  }
+
+  @Test
+  void testNothingToFlushWhileRecordsFit() {
+    final StreamBufferManager manager = new StreamBufferManager(100, 100, 0);
+    add(manager, STREAM1, 60);
+    add(manager, STREAM2, 30);
+
+    assertEquals(List.of(), manager.getStreamsToFlush(STREAM1, 10));
+    assertEquals(90, manager.getTotalSizeInBytes());
+  }
+
+  @Test
+  void testFullStreamIsFlushedAlone() {
+    final StreamBufferManager manager = new StreamBufferManager(1000, 100, 0);
+    add(manager, STREAM1, 90);
+    add(manager, STREAM2, 90);
+
+    assertEquals(List.of(STREAM1), manager.getStreamsToFlush(STREAM1, 20));
+    assertEquals(List.of(), manager.getStreamsToFlush(STREAM2, 10));
+  }
+
+  @Test
+  void testLargestStreamsAreFlushedWhenBudgetIsExceeded() {
+    final StreamBufferManager manager = new StreamBufferManager(100, 100, 0);
+    add(manager, STREAM1, 20);
+    add(manager, STREAM2, 50);
+    add(manager, STREAM3, 30);
+
+    // flushes until the buffers take at most half of the budget.
+    assertEquals(List.of(STREAM2, STREAM3), manager.getStreamsToFlush(STREAM1, 1));
+  }
+
+  @Test
+  void testSmallStreamsAreLeftBufferedWhileLargeOnesExist() {
+    final StreamBufferManager manager = new StreamBufferManager(100, 100, 40);
+    add(manager, STREAM1, 35);
+    add(manager, STREAM2, 45);
+    add(manager, STREAM3, 20);
+
+    // STREAM1 would be next by size, but is below the minimum batch size.
+    assertEquals(List.of(STREAM2), manager.getStreamsToFlush(STREAM3, 1));
+  }
+
+  @Test
+  void testOldestStreamsAreFlushedWhenAllAreSmall() {
+    final StreamBufferManager manager = new StreamBufferManager(100, 100, 60);
+    add(manager, STREAM1, 30);
+    add(manager, STREAM2, 40);
+    add(manager, STREAM3, 30);
+
+    assertEquals(List.of(STREAM1, STREAM2), manager.getStreamsToFlush(STREAM3, 1));
+  }
+
+  @Test
+  void testRecordIndexes() {
+    final StreamBufferManager manager = new StreamBufferManager(100, 100, 0);
+    assertEquals(0, manager.getOldestRecordIndex());
+    add(manager, STREAM1, 10);
+    add(manager, STREAM2, 10);
+    add(manager, STREAM1, 10);
+    assertEquals(3, manager.getNextRecordIndex());
+    assertEquals(0, manager.getOldestRecordIndex());
+
+    final Map<AirbyteStreamNameNamespacePair, List<AirbyteRecordMessage>> batch = manager.take(List.of(STREAM1));
+    assertEquals(2, batch.get(STREAM1).size());
+    assertEquals(1, manager.getOldestRecordIndex());
+    assertEquals(10, manager.getTotalSizeInBytes());
+
+    manager.takeAll();
+    assertEquals(3, manager.getOldestRecordIndex());
+    assertEquals(0, manager.getTotalSizeInBytes());
+  }
+
+  @Test
+  void testFlushStatistics() {
+    final StreamBufferManager manager = new StreamBufferManager(1000, 1000, 0);
+    add(manager, STREAM1, 100);
+    add(manager, STREAM2, 3);
+    manager.take(List.of(STREAM1));
+    add(manager, STREAM1, 120);
+    manager.takeAll();
+
+    assertEquals(Map.of(STREAM1, 2L, STREAM2, 1L), manager.getFlushCounts());
+    assertEquals(new TreeMap<>(Map.of(4L, 1L, 128L, 2L)), manager.getBatchSizeHistogram());
+    assertTrue(manager.take(List.of(STREAM3)).isEmpty());
+  }
+
+  private static void add(final StreamBufferManager manager, final AirbyteStreamNameNamespacePair stream, final long sizeInBytes) {
+    manager.add(stream, new AirbyteRecordMessage().withStream(stream.getName()), sizeInBytes);
+  }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.rolling_file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RollingFileManagerTest {
+
+  private static final AirbyteStreamNameNamespacePair STREAM1 = new AirbyteStreamNameNamespacePair("red", "public");
+  private static final AirbyteStreamNameNamespacePair STREAM2 = new AirbyteStreamNameNamespacePair("blue", "public");
+  private static final Timestamp UPLOAD_TIMESTAMP = new Timestamp(1_600_000_000_000L);
+  private static final AirbyteMessage STATE1 = state(1);
+  private static final AirbyteMessage STATE2 = state(2);
+  private static final AirbyteMessage STATE3 = state(3);
+  private static final Duration STATE_ROTATION_INTERVAL = Duration.ofMinutes(1);
+
+  private List<AirbyteMessage> emittedStates;
+  private List<TestFile> files;
+
+  @BeforeEach
+  void setup() {
+    emittedStates = new CopyOnWriteArrayList<>();
+    files = new CopyOnWriteArrayList<>();
+  }
+
+  @Test
+  void testFilesAreRotatedByRecordCount() throws Exception {
+    final RollingFileManager manager = createManager(new RollingFileConfig(Long.MAX_VALUE, 2), STREAM1);
+
+    for (int i = 0; i < 5; i++) {
+      manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, i), RollingFileManager.UNKNOWN_SIZE);
+    }
+    manager.close(false);
+
+    assertEquals(List.of(List.of(0, 1), List.of(2, 3), List.of(4)), files.stream().map(TestFile::getIds).collect(Collectors.toList()));
+    for (int i = 0; i < files.size(); i++) {
+      assertEquals(i, files.get(i).index);
+      assertEquals(Boolean.FALSE, files.get(i).closedWithFailure);
+    }
+    // every file gets a distinct name, starting from the upload timestamp of the sync.
+    assertEquals(UPLOAD_TIMESTAMP, files.get(0).timestamp);
+    assertTrue(files.get(0).timestamp.before(files.get(1).timestamp));
+    assertTrue(files.get(1).timestamp.before(files.get(2).timestamp));
+  }
+
+  @Test
+  void testFilesAreRotatedBySize() throws Exception {
+    final RollingFileManager manager = createManager(new RollingFileConfig(250, Long.MAX_VALUE), STREAM1);
+
+    for (int i = 0; i < 4; i++) {
+      manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, i), 100);
+    }
+    manager.close(false);
+
+    assertEquals(List.of(List.of(0, 1, 2), List.of(3)), files.stream().map(TestFile::getIds).collect(Collectors.toList()));
+  }
+
+  @Test
+  void testStateIsEmittedOnceFilesWithRecordsBeforeItAreUploaded() throws Exception {
+    final RollingFileManager manager = createManager(new RollingFileConfig(Long.MAX_VALUE, 2), STREAM1, STREAM2);
+
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 0), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE1);
+    assertEquals(List.of(), emittedStates);
+
+    // fills up the first file of STREAM1, which holds every record before STATE1.
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 1), RollingFileManager.UNKNOWN_SIZE);
+    awaitEmittedStates(1);
+    assertEquals(List.of(STATE1), emittedStates);
+
+    // the file of STREAM2 is still being written.
+    manager.write(STREAM2, UUID.randomUUID(), record(STREAM2, 2), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE2);
+    assertEquals(List.of(STATE1), emittedStates);
+
+    manager.close(false);
+    assertEquals(List.of(STATE1, STATE2), emittedStates);
+  }
+
+  @Test
+  void testQuietStreamDoesNotHoldBackStates() throws Exception {
+    final RollingFileManager manager = createManager(new RollingFileConfig(Long.MAX_VALUE, 2, Duration.ZERO), STREAM1, STREAM2);
+
+    // STREAM2 only receives a single record, which never fills up its file.
+    manager.write(STREAM2, UUID.randomUUID(), record(STREAM2, 0), RollingFileManager.UNKNOWN_SIZE);
+    for (int i = 1; i <= 4; i++) {
+      manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, i), RollingFileManager.UNKNOWN_SIZE);
+    }
+    manager.acceptState(STATE1);
+    awaitEmittedStates(1);
+    assertEquals(List.of(STATE1), emittedStates);
+    // the open file of STREAM2 was rotated for STATE1.
+    final TestFile quietFile = files.stream().filter(file -> file.getIds().contains(0)).findFirst().orElseThrow();
+    assertEquals(List.of(0), quietFile.getIds());
+    assertEquals(Boolean.FALSE, quietFile.closedWithFailure);
+
+    // the busy stream keeps writing, and the next state is not held back by the quiet stream either.
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 5), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE2);
+    awaitEmittedStates(2);
+    assertEquals(List.of(STATE1, STATE2), emittedStates);
+
+    manager.close(false);
+    assertEquals(List.of(STATE1, STATE2), emittedStates);
+    assertTrue(files.stream().allMatch(file -> Boolean.FALSE.equals(file.closedWithFailure)));
+  }
+
+  @Test
+  void testOpenFilesAreRotatedOncePerInterval() throws Exception {
+    final RollingFileManager manager = createManager(new RollingFileConfig(Long.MAX_VALUE, 100, STATE_ROTATION_INTERVAL), STREAM1);
+
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 0), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE3);
+
+    // the interval has not passed since the manager was created.
+    assertEquals(1, files.size());
+    assertEquals(List.of(), emittedStates);
+
+    manager.close(false);
+    assertEquals(List.of(STATE3), emittedStates);
+  }
+
+  @Test
+  void testOnlyFilesHoldingBackTheOldestStateAreRotated() throws Exception {
+    final CountDownLatch uploadStarted = new CountDownLatch(1);
+    final CountDownLatch uploadReleased = new CountDownLatch(1);
+    final RollingFileConfig config = new RollingFileConfig(Long.MAX_VALUE, 100, Duration.ZERO);
+    final RollingFileManager manager = new RollingFileManager(config, emittedStates::add, 2);
+    manager.addStream(STREAM1, UPLOAD_TIMESTAMP, (fileIndex, fileTimestamp) -> {
+      final TestFile file = new TestFile(fileIndex, fileTimestamp) {
+
+        @Override
+        public void close(final boolean hasFailed) throws IOException {
+          uploadStarted.countDown();
+          try {
+            uploadReleased.await();
+          } catch (final InterruptedException e) {
+            throw new IOException(e);
+          }
+          super.close(hasFailed);
+        }
+
+      };
+      files.add(file);
+      return file;
+    });
+    manager.addStream(STREAM2, UPLOAD_TIMESTAMP, (fileIndex, fileTimestamp) -> {
+      final TestFile file = new TestFile(fileIndex, fileTimestamp);
+      files.add(file);
+      return file;
+    });
+
+    // the file of STREAM1 holds back STATE1, and is rotated while the upload is slow.
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 0), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE1);
+    uploadStarted.await(1, TimeUnit.MINUTES);
+
+    // the file of STREAM2 only has records after STATE1, so it keeps growing.
+    manager.write(STREAM2, UUID.randomUUID(), record(STREAM2, 1), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE2);
+    final TestFile stream2File = files.stream().filter(file -> file.getIds().contains(1)).findFirst().orElseThrow();
+    assertNull(stream2File.closedWithFailure);
+
+    uploadReleased.countDown();
+    awaitEmittedStates(1);
+    assertEquals(List.of(STATE1), emittedStates);
+
+    manager.close(false);
+    assertEquals(List.of(STATE1, STATE2), emittedStates);
+    assertEquals(2, files.size());
+  }
+
+  @Test
+  void testStatesAreNotEmittedOnFailure() throws Exception {
+    final RollingFileManager manager = createManager(RollingFileConfig.NO_ROTATION, STREAM1);
+
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 0), RollingFileManager.UNKNOWN_SIZE);
+    manager.acceptState(STATE1);
+    manager.close(true);
+
+    assertEquals(List.of(), emittedStates);
+    assertEquals(Boolean.TRUE, files.get(0).closedWithFailure);
+  }
+
+  @Test
+  void testFailedUploadIsThrown() throws Exception {
+    final RollingFileManager manager = new RollingFileManager(new RollingFileConfig(Long.MAX_VALUE, 1), emittedStates::add, 1);
+    manager.addStream(STREAM1, UPLOAD_TIMESTAMP, (fileIndex, fileTimestamp) -> new TestFile(fileIndex, fileTimestamp) {
+
+      @Override
+      public void close(final boolean hasFailed) throws IOException {
+        throw new IOException("induced exception");
+      }
+
+    });
+
+    manager.write(STREAM1, UUID.randomUUID(), record(STREAM1, 0), RollingFileManager.UNKNOWN_SIZE);
+    final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    IOException exception = null;
+    while (exception == null && System.currentTimeMillis() < deadline) {
+      try {
+        manager.acceptState(STATE1);
+        Thread.sleep(10);
+      } catch (final IOException e) {
+        exception = e;
+      }
+    }
+    assertEquals("induced exception", exception.getMessage());
+
+    final RuntimeException closeException = assertThrows(RuntimeException.class, () -> manager.close(true));
+    assertTrue(closeException.getMessage().contains("induced exception"));
+    assertEquals(List.of(), emittedStates);
+  }
+
+  private RollingFileManager createManager(final RollingFileConfig config, final AirbyteStreamNameNamespacePair... streams) throws Exception {
+    final RollingFileManager manager = new RollingFileManager(config, emittedStates::add, 2);
+    for (final AirbyteStreamNameNamespacePair stream : streams) {
+      manager.addStream(stream, UPLOAD_TIMESTAMP, (fileIndex, fileTimestamp) -> {
+        final TestFile file = new TestFile(fileIndex, fileTimestamp);
+        files.add(file);
+        return file;
+      });
+      assertTrue(manager.hasStream(stream));
+    }
+    return manager;
+  }
+
+  private void awaitEmittedStates(final int count) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    while (emittedStates.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  private static AirbyteRecordMessage record(final AirbyteStreamNameNamespacePair stream, final int id) {
+    return new AirbyteRecordMessage()
+        .withStream(stream.getName())
+        .withNamespace(stream.getNamespace())
+        .withData(Jsons.jsonNode(Map.of("id", id)))
+        .withEmittedAt(1L);
+  }
+
+  private static AirbyteMessage state(final int checkpoint) {
+    return new AirbyteMessage()
+        .withType(Type.STATE)
+        .withState(new AirbyteStateMessage().withData(Jsons.jsonNode(Map.of("checkpoint", checkpoint))));
+  }
+
+  private static class TestFile implements RecordFileWriter {
+
+    private final int index;
+    private final Timestamp timestamp;
+    private final List<AirbyteRecordMessage> records = new ArrayList<>();
+    private volatile Boolean closedWithFailure;
+
+    TestFile(final int index, final Timestamp timestamp) {
+      this.index = index;
+      this.timestamp = timestamp;
+    }
+
+    @Override
+    public void write(final UUID id, final AirbyteRecordMessage recordMessage) {
+      records.add(recordMessage);
+    }
+
+    @Override
+    public void close(final boolean hasFailed) throws IOException {
+      closedWithFailure = hasFailed;
+    }
+
+    List<Integer> getIds() {
+      return records.stream().map(record -> record.getData().get("id").asInt()).collect(Collectors.toList());
+    }
+
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.debezium.internals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.json.Jsons;
+import io.debezium.engine.ChangeEvent;
+
+/**
+ * A debezium change event, with its value parsed once so that the record iterator and the
+ * conversion to an airbyte message can share it.
+ */
+public class ChangeEventWithMetadata {
+
+  private final ChangeEvent<String, String> event;
+  private final JsonNode eventValueAsJson;
+  private final SnapshotMetadata snapshotMetadata;
+
+  public ChangeEventWithMetadata(final ChangeEvent<String, String> event) {
+    this.event = event;
+    this.eventValueAsJson = Jsons.deserialize(event.value());
+    this.snapshotMetadata = SnapshotMetadata.valueOf(eventValueAsJson.get("source").get("snapshot").asText().toUpperCase());
+  }
+
+  public ChangeEvent<String, String> event() {
+    return event;
+  }
+
+  /**
+   * Converting the event to an airbyte message mutates this tree.
+   */
+  public JsonNode eventValueAsJson() {
+    return eventValueAsJson;
+  }
+
+  public SnapshotMetadata snapshotMetadata() {
+    return snapshotMetadata;
+  }
+
+  /**
+   * @return the time of the change in the source database, or of the snapshot for snapshot events.
+   */
+  public long sourceTimestampMillis() {
+    return eventValueAsJson.get("source").get("ts_ms").asLong();
+  }
+
+}
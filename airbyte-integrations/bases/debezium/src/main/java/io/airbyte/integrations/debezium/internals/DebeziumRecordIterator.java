@@ -4,10 +4,9 @@
 
 package io.airbyte.integrations.debezium.internals;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
 import io.airbyte.commons.concurrency.VoidCallable;
-import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.lang.MoreBooleans;
 import io.airbyte.commons.util.AutoCloseableIterator;
 import io.airbyte.integrations.debezium.CdcTargetPosition;
@@ -28,14 +27,19 @@ import org.slf4j.LoggerFactory;
  * signal and the publisher actually shutting down, the consumer must stay alive as long as the
  * publisher is not closed. Even after the publisher is closed, the consumer will finish processing
  * any produced records before closing.
+ *
+ * <p>
+ * Each event is parsed once, here, and handed on with its parsed value. The depth of the queue and
+ * the lag of the events behind the source database are logged every minute.
  */
-public class DebeziumRecordIterator extends AbstractIterator<ChangeEvent<String, String>>
-    implements AutoCloseableIterator<ChangeEvent<String, String>> {
+public class DebeziumRecordIterator extends AbstractIterator<ChangeEventWithMetadata>
+    implements AutoCloseableIterator<ChangeEventWithMetadata> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DebeziumRecordIterator.class);
 
   private static final WaitTime FIRST_RECORD_WAIT_TIME_MINUTES = new WaitTime(5, TimeUnit.MINUTES);
   private static final WaitTime SUBSEQUENT_RECORD_WAIT_TIME_SECONDS = new WaitTime(1, TimeUnit.MINUTES);
+  private static final long METRICS_LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
   private final LinkedBlockingQueue<ChangeEvent<String, String>> queue;
   private final CdcTargetPosition targetPosition;
@@ -45,6 +49,12 @@ public class DebeziumRecordIterator extends AbstractIterator<ChangeEvent<String,
   private boolean hasSnapshotFinished;
   private boolean signalledClose;
 
+  private long eventCount;
+  private int maxQueueDepth;
+  private long lagMillis;
+  private long maxLagMillis;
+  private long lastMetricsLogMillis;
+
   public DebeziumRecordIterator(final LinkedBlockingQueue<ChangeEvent<String, String>> queue,
                                 final CdcTargetPosition targetPosition,
                                 final Supplier<Boolean> publisherStatusSupplier,
@@ -56,10 +66,11 @@ public class DebeziumRecordIterator extends AbstractIterator<ChangeEvent<String,
     this.receivedFirstRecord = false;
     this.hasSnapshotFinished = true;
     this.signalledClose = false;
+    this.lastMetricsLogMillis = System.currentTimeMillis();
   }
 
   @Override
-  protected ChangeEvent<String, String> computeNext() {
+  protected ChangeEventWithMetadata computeNext() {
     // keep trying until the publisher is closed or until the queue is empty. the latter case is
     // possible when the publisher has shutdown but the consumer has not yet processed all messages it
     // emitted.
@@ -81,22 +92,52 @@ public class DebeziumRecordIterator extends AbstractIterator<ChangeEvent<String,
         continue;
       }
 
-      final JsonNode eventAsJson = Jsons.deserialize(next.value());
-      hasSnapshotFinished = hasSnapshotFinished(eventAsJson);
+      final ChangeEventWithMetadata event = new ChangeEventWithMetadata(next);
+      hasSnapshotFinished = SnapshotMetadata.TRUE != event.snapshotMetadata();
+      updateMetrics(event);
 
       // if the last record matches the target file position, it is time to tell the producer to shutdown.
-      if (!signalledClose && shouldSignalClose(eventAsJson)) {
+      if (!signalledClose && shouldSignalClose(event)) {
         requestClose();
       }
       receivedFirstRecord = true;
-      return next;
+      return event;
     }
+    logMetrics();
     return endOfData();
   }
 
-  private boolean hasSnapshotFinished(final JsonNode eventAsJson) {
-    final SnapshotMetadata snapshot = SnapshotMetadata.valueOf(eventAsJson.get("source").get("snapshot").asText().toUpperCase());
-    return SnapshotMetadata.TRUE != snapshot;
+  private void updateMetrics(final ChangeEventWithMetadata event) {
+    eventCount++;
+    // the event was just taken from the queue.
+    maxQueueDepth = Math.max(maxQueueDepth, queue.size() + 1);
+    final long now = System.currentTimeMillis();
+    lagMillis = Math.max(0, now - event.sourceTimestampMillis());
+    maxLagMillis = Math.max(maxLagMillis, lagMillis);
+    if (now - lastMetricsLogMillis >= METRICS_LOG_INTERVAL_MILLIS) {
+      logMetrics();
+      lastMetricsLogMillis = now;
+    }
+  }
+
+  private void logMetrics() {
+    LOGGER.info("CDC events read: {}, queue depth: {} (max {} of {}), lag behind the source: {} ms (max {} ms)",
+        eventCount, queue.size(), maxQueueDepth, queue.size() + queue.remainingCapacity(), lagMillis, maxLagMillis);
+  }
+
+  @VisibleForTesting
+  long getEventCount() {
+    return eventCount;
+  }
+
+  @VisibleForTesting
+  int getMaxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  @VisibleForTesting
+  long getMaxLagMillis() {
+    return maxLagMillis;
   }
 
   /**
@@ -120,8 +161,8 @@ public class DebeziumRecordIterator extends AbstractIterator<ChangeEvent<String,
     requestClose();
   }
 
-  private boolean shouldSignalClose(final JsonNode eventAsJson) {
-    return targetPosition.reachedTargetPosition(eventAsJson);
+  private boolean shouldSignalClose(final ChangeEventWithMetadata event) {
+    return targetPosition.reachedTargetPosition(event.eventValueAsJson());
   }
 
   private void requestClose() {
@@ -6,6 +6,7 @@ package io.airbyte.integrations.debezium.internals;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.protocol.models.ConfiguredAirbyteStream;
 import io.airbyte.protocol.models.SyncMode;
@@ -15,12 +16,13 @@ import io.debezium.engine.format.Json;
 import io.debezium.engine.spi.OffsetCommitPolicy;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.codehaus.plexus.util.StringUtils;
@@ -45,6 +47,8 @@ public class DebeziumRecordPublisher implements AutoCloseable {
   private final AtomicBoolean isClosing;
   private final AtomicReference<Throwable> thrownError;
   private final CountDownLatch engineLatch;
+  // time the engine spent waiting for room in the queue, i.e. for the record iterator to catch up.
+  private final AtomicLong enqueueWaitNanos;
   private final Properties properties;
   private final ConfiguredAirbyteCatalog catalog;
 
@@ -63,9 +67,10 @@ public class DebeziumRecordPublisher implements AutoCloseable {
     this.thrownError = new AtomicReference<>();
     this.executor = Executors.newSingleThreadExecutor();
     this.engineLatch = new CountDownLatch(1);
+    this.enqueueWaitNanos = new AtomicLong();
   }
 
-  public void start(final Queue<ChangeEvent<String, String>> queue) {
+  public void start(final BlockingQueue<ChangeEvent<String, String>> queue) {
     engine = DebeziumEngine.create(Json.class)
         .using(getDebeziumProperties())
         .using(new OffsetCommitPolicy.AlwaysCommitOffsetPolicy())
@@ -74,11 +79,12 @@ public class DebeziumRecordPublisher implements AutoCloseable {
           // interacts with kafka. we want to ignore it.
           // more on the tombstone:
           // https://debezium.io/documentation/reference/configuration/event-flattening.html
-          if (e.value() != null) {
-            boolean inserted = false;
-            while (!inserted) {
-              inserted = queue.offer(e);
-            }
+          if (e.value() != null && !queue.offer(e)) {
+            // the queue is full, so block the engine until the record iterator catches up. the event is
+            // queued even if the engine is interrupted while closing, as its offset may be committed.
+            final long start = System.nanoTime();
+            Uninterruptibles.putUninterruptibly(queue, e);
+            enqueueWaitNanos.addAndGet(System.nanoTime() - start);
           }
         })
         .using((success, message, error) -> {
@@ -112,6 +118,7 @@ public class DebeziumRecordPublisher implements AutoCloseable {
 
       // after the engine is completely off, we can mark this as closed
       hasClosed.set(true);
+      LOGGER.info("Debezium engine waited {} ms in total for room in the record queue", getEnqueueWaitMillis());
 
       if (thrownError.get() != null) {
         throw new RuntimeException(thrownError.get());
@@ -119,6 +126,10 @@ public class DebeziumRecordPublisher implements AutoCloseable {
     }
   }
 
+  public long getEnqueueWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(enqueueWaitNanos.get());
+  }
+
   protected Properties getDebeziumProperties() {
     final Properties props = new Properties();
     props.putAll(properties);
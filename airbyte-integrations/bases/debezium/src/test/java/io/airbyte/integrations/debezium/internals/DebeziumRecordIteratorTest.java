@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.debezium.internals;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.integrations.debezium.CdcTargetPosition;
+import io.debezium.engine.ChangeEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class DebeziumRecordIteratorTest {
+
+  private static final long TARGET_LSN = 2;
+
+  @Test
+  void testEventsAreParsedOnceAndCloseIsRequestedAtTargetPosition() throws Exception {
+    final LinkedBlockingQueue<ChangeEvent<String, String>> queue = new LinkedBlockingQueue<>(10);
+    final List<ChangeEvent<String, String>> events = List.of(mockChangeEvent(1), mockChangeEvent(2), mockChangeEvent(3));
+    queue.addAll(events);
+
+    final AtomicBoolean publisherClosed = new AtomicBoolean(false);
+    final CdcTargetPosition targetPosition = valueAsJson -> valueAsJson.get("source").get("lsn").asLong() >= TARGET_LSN;
+    final DebeziumRecordIterator iterator = new DebeziumRecordIterator(queue, targetPosition, publisherClosed::get, () -> publisherClosed.set(true));
+
+    final List<Long> lsns = new ArrayList<>();
+    while (iterator.hasNext()) {
+      final ChangeEventWithMetadata event = iterator.next();
+      lsns.add(event.eventValueAsJson().get("source").get("lsn").asLong());
+      if (lsns.size() == TARGET_LSN) {
+        assertTrue(publisherClosed.get());
+      }
+    }
+
+    // events queued before the publisher closed are still returned.
+    assertEquals(List.of(1L, 2L, 3L), lsns);
+    for (final ChangeEvent<String, String> event : events) {
+      verify(event, times(1)).value();
+    }
+    assertEquals(3, iterator.getEventCount());
+    assertEquals(3, iterator.getMaxQueueDepth());
+    assertTrue(iterator.getMaxLagMillis() > 0);
+  }
+
+  private static ChangeEvent<String, String> mockChangeEvent(final long lsn) {
+    final ChangeEvent<String, String> event = mock(ChangeEvent.class);
+    when(event.value()).thenReturn(Jsons.serialize(Map.of(
+        "before", Map.of(),
+        "after", Map.of("id", lsn),
+        "source", Map.of("snapshot", "false", "ts_ms", System.currentTimeMillis() - 1000, "table", "names", "lsn", lsn))));
+    return event;
+  }
+
+}
@@ -11,8 +11,9 @@ import com.azure.storage.common.StorageSharedKeyCredential;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
 import io.airbyte.integrations.base.FailureTrackingAirbyteMessageConsumer;
-import io.airbyte.integrations.destination.azure_blob_storage.writer.AzureBlobStorageWriter;
 import io.airbyte.integrations.destination.azure_blob_storage.writer.AzureBlobStorageWriterFactory;
+import io.airbyte.integrations.destination.rolling_file.RollingFileConfig;
+import io.airbyte.integrations.destination.rolling_file.RollingFileManager;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteMessage.Type;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
@@ -23,8 +24,6 @@ import io.airbyte.protocol.models.DestinationSyncMode;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -41,21 +40,26 @@ public class AzureBlobStorageConsumer extends FailureTrackingAirbyteMessageConsu
   private final AzureBlobStorageDestinationConfig azureBlobStorageDestinationConfig;
   private final ConfiguredAirbyteCatalog configuredCatalog;
   private final AzureBlobStorageWriterFactory writerFactory;
-  private final Consumer<AirbyteMessage> outputRecordCollector;
-  private final Map<AirbyteStreamNameNamespacePair, AzureBlobStorageWriter> streamNameAndNamespaceToWriters;
-
-  private AirbyteMessage lastStateMessage = null;
+  private final RollingFileManager fileManager;
 
   public AzureBlobStorageConsumer(
                                   final AzureBlobStorageDestinationConfig azureBlobStorageDestinationConfig,
                                   final ConfiguredAirbyteCatalog configuredCatalog,
                                   final AzureBlobStorageWriterFactory writerFactory,
                                   final Consumer<AirbyteMessage> outputRecordCollector) {
+    this(azureBlobStorageDestinationConfig, configuredCatalog, writerFactory, outputRecordCollector, RollingFileConfig.NO_ROTATION);
+  }
+
+  public AzureBlobStorageConsumer(
+                                  final AzureBlobStorageDestinationConfig azureBlobStorageDestinationConfig,
+                                  final ConfiguredAirbyteCatalog configuredCatalog,
+                                  final AzureBlobStorageWriterFactory writerFactory,
+                                  final Consumer<AirbyteMessage> outputRecordCollector,
+                                  final RollingFileConfig rollingFileConfig) {
     this.azureBlobStorageDestinationConfig = azureBlobStorageDestinationConfig;
     this.configuredCatalog = configuredCatalog;
     this.writerFactory = writerFactory;
-    this.outputRecordCollector = outputRecordCollector;
-    this.streamNameAndNamespaceToWriters = new HashMap<>(configuredCatalog.getStreams().size());
+    this.fileManager = new RollingFileManager(rollingFileConfig, outputRecordCollector);
   }
 
   @Override
@@ -73,22 +77,25 @@ public class AzureBlobStorageConsumer extends FailureTrackingAirbyteMessageConsu
                 .getContainerName());// Like schema (or even oracle user) in DB
 
     for (final ConfiguredAirbyteStream configuredStream : configuredCatalog.getStreams()) {
-
-      final String blobName = configuredStream.getStream().getName() + "/" +
-          getOutputFilename(new Timestamp(System.currentTimeMillis()));
-      final AppendBlobClient appendBlobClient = specializedBlobClientBuilder
-          .blobName(blobName)
-          .buildAppendBlobClient();
-
-      createContainers(specializedBlobClientBuilder, appendBlobClient, configuredStream);
-
-      final AzureBlobStorageWriter writer = writerFactory
-          .create(azureBlobStorageDestinationConfig, appendBlobClient, configuredStream);
-
       final AirbyteStream stream = configuredStream.getStream();
       final AirbyteStreamNameNamespacePair streamNamePair = AirbyteStreamNameNamespacePair
           .fromAirbyteSteam(stream);
-      streamNameAndNamespaceToWriters.put(streamNamePair, writer);
+      fileManager.addStream(streamNamePair, new Timestamp(System.currentTimeMillis()), (fileIndex, fileTimestamp) -> {
+        final String blobName = configuredStream.getStream().getName() + "/" +
+            getOutputFilename(fileTimestamp);
+        final AppendBlobClient appendBlobClient = specializedBlobClientBuilder
+            .blobName(blobName)
+            .buildAppendBlobClient();
+
+        // containers are only created, and purged in overwrite mode, before the first blob.
+        if (fileIndex == 0) {
+          createContainers(specializedBlobClientBuilder, appendBlobClient, configuredStream);
+        } else {
+          appendBlobClient.create(true);
+        }
+
+        return writerFactory.create(azureBlobStorageDestinationConfig, appendBlobClient, configuredStream);
+      });
     }
   }
 
@@ -120,8 +127,13 @@ public class AzureBlobStorageConsumer extends FailureTrackingAirbyteMessageConsu
 
   @Override
   protected void acceptTracked(final AirbyteMessage airbyteMessage) throws Exception {
+    acceptTracked(airbyteMessage, RollingFileManager.UNKNOWN_SIZE);
+  }
+
+  @Override
+  protected void acceptTracked(final AirbyteMessage airbyteMessage, final long sizeInBytes) throws Exception {
     if (airbyteMessage.getType() == Type.STATE) {
-      this.lastStateMessage = airbyteMessage;
+      fileManager.acceptState(airbyteMessage);
       return;
     } else if (airbyteMessage.getType() != Type.RECORD) {
       return;
@@ -131,7 +143,7 @@ public class AzureBlobStorageConsumer extends FailureTrackingAirbyteMessageConsu
     final AirbyteStreamNameNamespacePair pair = AirbyteStreamNameNamespacePair
         .fromRecordMessage(recordMessage);
 
-    if (!streamNameAndNamespaceToWriters.containsKey(pair)) {
+    if (!fileManager.hasStream(pair)) {
       final String errMsg = String.format(
           "Message contained record from a stream that was not in the catalog. \ncatalog: %s , \nmessage: %s",
           Jsons.serialize(configuredCatalog), Jsons.serialize(recordMessage));
@@ -140,24 +152,19 @@ public class AzureBlobStorageConsumer extends FailureTrackingAirbyteMessageConsu
     }
 
     try {
-      streamNameAndNamespaceToWriters.get(pair).write(UUID.randomUUID(), recordMessage);
+      fileManager.write(pair, UUID.randomUUID(), recordMessage, sizeInBytes);
 
     } catch (final Exception e) {
       LOGGER.error(String.format("Failed to write messagefor stream %s, details: %s",
-          streamNameAndNamespaceToWriters.get(pair), e.getMessage()));
+          pair, e.getMessage()));
       throw new RuntimeException(e);
     }
   }
 
   @Override
   protected void close(final boolean hasFailed) throws Exception {
-    for (final AzureBlobStorageWriter handler : streamNameAndNamespaceToWriters.values()) {
-      handler.close(hasFailed);
-    }
-
-    if (!hasFailed) {
-      outputRecordCollector.accept(lastStateMessage);
-    }
+    // states are emitted once the blobs with their records are written.
+    fileManager.close(hasFailed);
   }
 
   private static String getOutputFilename(final Timestamp timestamp) {
@@ -11,6 +11,7 @@ import io.airbyte.integrations.base.Destination;
 import io.airbyte.integrations.base.IntegrationRunner;
 import io.airbyte.integrations.destination.azure_blob_storage.writer.AzureBlobStorageWriterFactory;
 import io.airbyte.integrations.destination.azure_blob_storage.writer.ProductionWriterFactory;
+import io.airbyte.integrations.destination.rolling_file.RollingFileConfig;
 import io.airbyte.protocol.models.AirbyteConnectionStatus;
 import io.airbyte.protocol.models.AirbyteConnectionStatus.Status;
 import io.airbyte.protocol.models.AirbyteMessage;
@@ -51,7 +52,7 @@ public class AzureBlobStorageDestination extends BaseConnector implements Destin
     final AzureBlobStorageWriterFactory formatterFactory = new ProductionWriterFactory();
     return new AzureBlobStorageConsumer(
         AzureBlobStorageDestinationConfig.getAzureBlobStorageConfig(config), configuredCatalog,
-        formatterFactory, outputRecordCollector);
+        formatterFactory, outputRecordCollector, RollingFileConfig.fromJson(config));
   }
 
 }
@@ -4,6 +4,7 @@
 
 package io.airbyte.integrations.destination.azure_blob_storage.writer;
 
+import io.airbyte.integrations.destination.rolling_file.RecordFileWriter;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.io.IOException;
 import java.util.UUID;
@@ -12,16 +13,18 @@ import java.util.UUID;
  * {@link AzureBlobStorageWriter} is responsible for writing Airbyte stream data to an
  * AzureBlobStorage location in a specific format.
  */
-public interface AzureBlobStorageWriter {
+public interface AzureBlobStorageWriter extends RecordFileWriter {
 
   /**
    * Write an Airbyte record message to an AzureBlobStorage object.
    */
+  @Override
   void write(UUID id, AirbyteRecordMessage recordMessage) throws IOException;
 
   /**
    * Close the AzureBlobStorage writer for the stream.
    */
+  @Override
   void close(boolean hasFailed) throws IOException;
 
 }
@@ -12,6 +12,8 @@ import java.util.Objects;
  */
 class CassandraConfig {
 
+  static final int DEFAULT_MAX_IN_FLIGHT_WRITES = 128;
+
   private final String keyspace;
 
   private final String username;
@@ -26,6 +28,8 @@ class CassandraConfig {
 
   private final int replication;
 
+  private final int maxInFlightWrites;
+
   public CassandraConfig(String keyspace,
                          String username,
                          String password,
@@ -33,6 +37,17 @@ class CassandraConfig {
                          int port,
                          String datacenter,
                          int replication) {
+    this(keyspace, username, password, address, port, datacenter, replication, DEFAULT_MAX_IN_FLIGHT_WRITES);
+  }
+
+  public CassandraConfig(String keyspace,
+                         String username,
+                         String password,
+                         String address,
+                         int port,
+                         String datacenter,
+                         int replication,
+                         int maxInFlightWrites) {
     this.keyspace = keyspace;
     this.username = username;
     this.password = password;
@@ -40,6 +55,7 @@ class CassandraConfig {
     this.port = port;
     this.datacenter = datacenter;
     this.replication = replication;
+    this.maxInFlightWrites = maxInFlightWrites;
   }
 
   public CassandraConfig(JsonNode config) {
@@ -50,6 +66,7 @@ class CassandraConfig {
     this.port = config.get("port").asInt(9042);
     this.datacenter = config.get("datacenter").asText("datacenter1");
     this.replication = config.get("replication").asInt(1);
+    this.maxInFlightWrites = config.path("max_in_flight_writes").asInt(DEFAULT_MAX_IN_FLIGHT_WRITES);
   }
 
   public String getKeyspace() {
@@ -80,6 +97,10 @@ class CassandraConfig {
     return replication;
   }
 
+  public int getMaxInFlightWrites() {
+    return maxInFlightWrites;
+  }
+
   @Override
   public String toString() {
     return "CassandraConfig{" +
@@ -90,6 +111,7 @@ class CassandraConfig {
         ", port=" + port +
         ", datacenter='" + datacenter + '\'' +
         ", replication=" + replication +
+        ", maxInFlightWrites=" + maxInFlightWrites +
         '}';
   }
 
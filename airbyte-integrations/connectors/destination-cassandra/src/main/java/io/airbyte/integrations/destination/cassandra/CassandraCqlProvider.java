@@ -4,8 +4,6 @@
 
 package io.airbyte.integrations.destination.cassandra;
 
-import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.now;
-
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.BatchType;
@@ -17,10 +15,13 @@ import com.datastax.oss.driver.api.core.uuid.Uuids;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
 import io.airbyte.integrations.base.JavaBaseConstants;
+import io.airbyte.integrations.destination.AsyncWriteLimiter;
 import java.io.Closeable;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -47,6 +48,10 @@ class CassandraCqlProvider implements Closeable {
 
   private final String columnTimestamp;
 
+  private final Map<String, PreparedStatement> insertStatements = new ConcurrentHashMap<>();
+
+  private final AsyncWriteLimiter writeLimiter;
+
   public CassandraCqlProvider(CassandraConfig cassandraConfig) {
     this.cassandraConfig = cassandraConfig;
     this.cqlSession = SessionManager.initSession(cassandraConfig);
@@ -55,6 +60,7 @@ class CassandraCqlProvider implements Closeable {
     this.columnData = nameTransformer.outputColumn(JavaBaseConstants.COLUMN_NAME_DATA);
     this.columnTimestamp = nameTransformer.outputColumn(JavaBaseConstants.COLUMN_NAME_EMITTED_AT);
     this.executorService = Executors.newFixedThreadPool(N_THREADS);
+    this.writeLimiter = new AsyncWriteLimiter(cassandraConfig.getMaxInFlightWrites());
   }
 
   public void createKeySpaceIfNotExists(String keyspace, int replicationFactor) {
@@ -82,13 +88,32 @@ class CassandraCqlProvider implements Closeable {
     cqlSession.execute(query);
   }
 
+  /**
+   * Writes the record asynchronously, once fewer than the configured maximum number of writes are in
+   * flight. Each record is its own partition, so records are not batched together: the driver routes
+   * each bound statement directly to a replica of its partition instead.
+   */
   public void insert(String keyspace, String tableName, String jsonData) {
-    var query = QueryBuilder.insertInto(keyspace, tableName)
-        .value(columnId, QueryBuilder.literal(Uuids.random()))
-        .value(columnData, QueryBuilder.literal(jsonData))
-        .value(columnTimestamp, QueryBuilder.toTimestamp(now()))
+    var insertStatement = insertStatements.computeIfAbsent(keyspace + "." + tableName, k -> prepareInsert(keyspace, tableName));
+    var boundStatement = insertStatement.bind(Uuids.random(), jsonData);
+    writeLimiter.submit(() -> cqlSession.executeAsync(boundStatement));
+  }
+
+  private PreparedStatement prepareInsert(String keyspace, String tableName) {
+    var insert = QueryBuilder.insertInto(keyspace, tableName)
+        .value(columnId, QueryBuilder.bindMarker())
+        .value(columnData, QueryBuilder.bindMarker())
+        .value(columnTimestamp, QueryBuilder.toTimestamp(QueryBuilder.now()))
         .build();
-    cqlSession.execute(query);
+    return cqlSession.prepare(insert);
+  }
+
+  /**
+   * Waits for all inserted records to be written.
+   */
+  public void flush() {
+    writeLimiter.awaitAll();
+    writeLimiter.logMetrics();
   }
 
   public void truncate(String keyspace, String tableName) {
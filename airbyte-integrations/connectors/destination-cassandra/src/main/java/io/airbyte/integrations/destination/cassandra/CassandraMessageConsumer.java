@@ -74,7 +74,16 @@ class CassandraMessageConsumer extends FailureTrackingAirbyteMessageConsumer {
 
   @Override
   protected void close(boolean hasFailed) {
+    RuntimeException writeFailure = null;
     if (!hasFailed) {
+      try {
+        cassandraCqlProvider.flush();
+      } catch (RuntimeException e) {
+        writeFailure = e;
+      }
+    }
+
+    if (!hasFailed && writeFailure == null) {
       cassandraStreams.forEach((k, v) -> {
         try {
           cassandraCqlProvider.createTableIfNotExists(v.getKeyspace(), v.getTableName());
@@ -104,6 +113,9 @@ class CassandraMessageConsumer extends FailureTrackingAirbyteMessageConsumer {
     });
     cassandraCqlProvider.close();
 
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
   }
 
 }
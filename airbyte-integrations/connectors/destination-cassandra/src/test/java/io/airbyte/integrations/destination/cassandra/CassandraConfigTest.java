@@ -33,7 +33,8 @@ class CassandraConfigTest {
         .hasFieldOrPropertyWithValue("address", "127.0.0.1")
         .hasFieldOrPropertyWithValue("port", 9042)
         .hasFieldOrPropertyWithValue("datacenter", "datacenter1")
-        .hasFieldOrPropertyWithValue("replication", 1);
+        .hasFieldOrPropertyWithValue("replication", 1)
+        .hasFieldOrPropertyWithValue("maxInFlightWrites", CassandraConfig.DEFAULT_MAX_IN_FLIGHT_WRITES);
 
   }
 
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.dynamodb;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes batches of items to a table with concurrent BatchWriteItem calls. Unprocessed items,
+ * throttled calls and other retryable errors are retried with jittered exponential backoff, and items that are still not
+ * written after {@link #MAX_ATTEMPTS} attempts fail the next call to {@link #submit(List)} or
+ * {@link #awaitAll()}. The client should not retry calls itself, otherwise every attempt here
+ * hides several calls to the table.
+ * <p>
+ * The number of calls in flight adapts to the table: it grows by one for each round of batches
+ * written without throttling, and is halved when a call is throttled, between 1 and
+ * {@link #MAX_CONCURRENCY}. A call that writes only some of its items is not throttled, its
+ * unprocessed items are retried without changing the concurrency.
+ */
+public class DynamodbBatchWriter implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DynamodbBatchWriter.class);
+
+  public static final int MAX_BATCH_SIZE = 25;
+
+  static final int MAX_CONCURRENCY = 16;
+  static final int INITIAL_CONCURRENCY = 4;
+  static final int MAX_ATTEMPTS = 10;
+
+  private static final long BASE_BACKOFF_MILLIS = 50;
+  private static final long MAX_BACKOFF_MILLIS = 10_000;
+  // all the calls in flight are usually throttled together, which should only decrease the concurrency once.
+  private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final AmazonDynamoDB amazonDynamodb;
+  private final String tableName;
+  private final long baseBackoffMillis;
+  private final long maxBackoffMillis;
+  private final ExecutorService executorService;
+
+  private final long startNanos = System.nanoTime();
+  private long lastLogNanos = startNanos;
+
+  // guarded by this
+  private double concurrencyLimit = INITIAL_CONCURRENCY;
+  private int inFlight = 0;
+  // the first throttled call decreases the concurrency, wherever nanoTime starts.
+  private long lastDecreaseNanos = startNanos - DECREASE_INTERVAL_NANOS;
+  private Exception failure = null;
+
+  private final LongAdder itemsWritten = new LongAdder();
+  private final LongAdder unprocessedItems = new LongAdder();
+  private final LongAdder throttledCalls = new LongAdder();
+  private final DoubleAdder consumedCapacityUnits = new DoubleAdder();
+
+  public DynamodbBatchWriter(final AmazonDynamoDB amazonDynamodb, final String tableName) {
+    this(amazonDynamodb, tableName, BASE_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+  }
+
+  @VisibleForTesting
+  DynamodbBatchWriter(final AmazonDynamoDB amazonDynamodb,
+                      final String tableName,
+                      final long baseBackoffMillis,
+                      final long maxBackoffMillis) {
+    this.amazonDynamodb = amazonDynamodb;
+    this.tableName = tableName;
+    this.baseBackoffMillis = baseBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.executorService = Executors.newFixedThreadPool(MAX_CONCURRENCY);
+  }
+
+  /**
+   * Writes the batch in the background, once fewer calls than the current concurrency limit are in
+   * flight.
+   *
+   * @param batch of at most {@link #MAX_BATCH_SIZE} write requests
+   */
+  public void submit(final List<WriteRequest> batch) throws InterruptedException {
+    acquire();
+    executorService.execute(() -> {
+      try {
+        writeBatch(batch);
+      } catch (final Exception e) {
+        fail(e);
+      } finally {
+        release();
+      }
+    });
+
+    final long now = System.nanoTime();
+    if (now - lastLogNanos > LOG_INTERVAL_NANOS) {
+      lastLogNanos = now;
+      logMetrics();
+    }
+  }
+
+  /**
+   * Waits for all the submitted batches to be written.
+   */
+  public synchronized void awaitAll() throws InterruptedException {
+    while (inFlight > 0) {
+      wait();
+    }
+    throwIfFailed();
+  }
+
+  private void writeBatch(final List<WriteRequest> batch) throws InterruptedException {
+    List<WriteRequest> requests = batch;
+    SdkClientException lastError = null;
+    for (int attempt = 1;; attempt++) {
+      try {
+        final BatchWriteItemResult result = amazonDynamodb.batchWriteItem(new BatchWriteItemRequest()
+            .withRequestItems(Map.of(tableName, requests))
+            .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+        if (result.getConsumedCapacity() != null) {
+          result.getConsumedCapacity().stream()
+              .map(ConsumedCapacity::getCapacityUnits)
+              .forEach(consumedCapacityUnits::add);
+        }
+        final List<WriteRequest> unprocessed = result.getUnprocessedItems() == null
+            ? List.of()
+            : result.getUnprocessedItems().getOrDefault(tableName, List.of());
+        itemsWritten.add(requests.size() - unprocessed.size());
+        if (unprocessed.isEmpty()) {
+          onWritten();
+          return;
+        }
+        unprocessedItems.add(unprocessed.size());
+        // items are left unprocessed when some partitions run out of capacity. the call only counts as
+        // throttled if none of its items were written.
+        if (unprocessed.size() == requests.size()) {
+          onThrottled();
+        }
+        requests = unprocessed;
+      } catch (final AmazonServiceException e) {
+        // the client does not retry, so server errors are retried here like throttled calls, but only
+        // throttling decreases the concurrency.
+        if (RetryUtils.isThrottlingException(e)) {
+          onThrottled();
+        } else if (!RetryUtils.isRetryableServiceException(e)) {
+          throw e;
+        }
+        lastError = e;
+      } catch (final SdkClientException e) {
+        if (!e.isRetryable()) {
+          throw e;
+        }
+        lastError = e;
+      }
+
+      if (attempt >= MAX_ATTEMPTS) {
+        throw new IllegalStateException(String.format("%d items could not be written to table %s after %d attempts.",
+            requests.size(), tableName, attempt), lastError);
+      }
+      Thread.sleep(getBackoffMillis(attempt));
+    }
+  }
+
+  /**
+   * @return a random duration up to an exponentially growing cap, so that throttled calls do not all
+   *         retry at the same time.
+   */
+  @VisibleForTesting
+  long getBackoffMillis(final int attempt) {
+    final long cap = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 30));
+    return ThreadLocalRandom.current().nextLong(cap + 1);
+  }
+
+  private synchronized void acquire() throws InterruptedException {
+    while (failure == null && inFlight >= (int) concurrencyLimit) {
+      wait();
+    }
+    throwIfFailed();
+    inFlight++;
+  }
+
+  private synchronized void release() {
+    inFlight--;
+    notifyAll();
+  }
+
+  private synchronized void fail(final Exception e) {
+    if (failure == null) {
+      failure = e;
+    }
+    notifyAll();
+  }
+
+  private synchronized void onWritten() {
+    concurrencyLimit = Math.min(MAX_CONCURRENCY, concurrencyLimit + 1 / concurrencyLimit);
+    notifyAll();
+  }
+
+  private synchronized void onThrottled() {
+    throttledCalls.increment();
+    final long now = System.nanoTime();
+    if (now - lastDecreaseNanos >= DECREASE_INTERVAL_NANOS) {
+      lastDecreaseNanos = now;
+      concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+    }
+  }
+
+  private void throwIfFailed() {
+    if (failure != null) {
+      throw new RuntimeException(String.format("Failed to write items to table %s.", tableName), failure);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int getConcurrencyLimit() {
+    return (int) concurrencyLimit;
+  }
+
+  @VisibleForTesting
+  long getItemsWritten() {
+    return itemsWritten.sum();
+  }
+
+  @VisibleForTesting
+  long getUnprocessedItems() {
+    return unprocessedItems.sum();
+  }
+
+  @VisibleForTesting
+  long getThrottledCalls() {
+    return throttledCalls.sum();
+  }
+
+  public void logMetrics() {
+    final long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), 1);
+    LOGGER.info("Wrote {} items to table {} ({} items/s), {} unprocessed items, {} throttled calls, {} consumed capacity units, "
+        + "concurrency {}.",
+        itemsWritten.sum(), tableName, itemsWritten.sum() * 1000 / elapsedMillis, unprocessedItems.sum(), throttledCalls.sum(),
+        consumedCapacityUnits.sum(), getConcurrencyLimit());
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+  }
+
+}
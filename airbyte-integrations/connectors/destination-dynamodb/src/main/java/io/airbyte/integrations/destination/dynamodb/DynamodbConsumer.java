@@ -9,6 +9,8 @@ import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import io.airbyte.commons.json.Jsons;
@@ -42,39 +44,45 @@ public class DynamodbConsumer extends FailureTrackingAirbyteMessageConsumer {
 
   @Override
   protected void startTracked() throws Exception {
+    final AmazonDynamoDB amazonDynamodb = createClient(PredefinedRetryPolicies.DYNAMODB_DEFAULT);
+    // batch writes are retried by DynamodbBatchWriter, which adapts its concurrency to throttling. if
+    // the client retried them as well, the writer would only see throttling once the client gave up.
+    final AmazonDynamoDB batchWriteDynamodb = createClient(PredefinedRetryPolicies.NO_RETRY_POLICY);
 
+    final var uploadTimestamp = System.currentTimeMillis();
+
+    for (final ConfiguredAirbyteStream configuredStream : configuredCatalog.getStreams()) {
+      final var writer = new DynamodbWriter(dynamodbDestinationConfig, amazonDynamodb, batchWriteDynamodb, configuredStream, uploadTimestamp);
+
+      final AirbyteStream stream = configuredStream.getStream();
+      final AirbyteStreamNameNamespacePair streamNamePair = AirbyteStreamNameNamespacePair
+          .fromAirbyteSteam(stream);
+      streamNameAndNamespaceToWriters.put(streamNamePair, writer);
+    }
+  }
+
+  private AmazonDynamoDB createClient(final RetryPolicy retryPolicy) {
     final var endpoint = dynamodbDestinationConfig.getEndpoint();
     final AWSCredentials awsCreds =
         new BasicAWSCredentials(dynamodbDestinationConfig.getAccessKeyId(), dynamodbDestinationConfig.getSecretAccessKey());
-    AmazonDynamoDB amazonDynamodb = null;
+    final ClientConfiguration clientConfiguration = new ClientConfiguration().withRetryPolicy(retryPolicy);
 
     if (endpoint.isEmpty()) {
-      amazonDynamodb = AmazonDynamoDBClientBuilder.standard()
+      return AmazonDynamoDBClientBuilder.standard()
           .withCredentials(new AWSStaticCredentialsProvider(awsCreds))
           .withRegion(dynamodbDestinationConfig.getRegion())
+          .withClientConfiguration(clientConfiguration)
           .build();
     } else {
-      final ClientConfiguration clientConfiguration = new ClientConfiguration();
       clientConfiguration.setSignerOverride("AWSDynamodbSignerType");
 
-      amazonDynamodb = AmazonDynamoDBClientBuilder
+      return AmazonDynamoDBClientBuilder
           .standard()
           .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, dynamodbDestinationConfig.getRegion()))
           .withClientConfiguration(clientConfiguration)
           .withCredentials(new AWSStaticCredentialsProvider(awsCreds))
           .build();
     }
-
-    final var uploadTimestamp = System.currentTimeMillis();
-
-    for (final ConfiguredAirbyteStream configuredStream : configuredCatalog.getStreams()) {
-      final var writer = new DynamodbWriter(dynamodbDestinationConfig, amazonDynamodb, configuredStream, uploadTimestamp);
-
-      final AirbyteStream stream = configuredStream.getStream();
-      final AirbyteStreamNameNamespacePair streamNamePair = AirbyteStreamNameNamespacePair
-          .fromAirbyteSteam(stream);
-      streamNameAndNamespaceToWriters.put(streamNamePair, writer);
-    }
   }
 
   @Override
@@ -102,8 +110,21 @@ public class DynamodbConsumer extends FailureTrackingAirbyteMessageConsumer {
 
   @Override
   protected void close(final boolean hasFailed) throws Exception {
+    // every writer is closed, so that none of them is left with running threads.
+    Exception closeFailure = null;
     for (final DynamodbWriter handler : streamNameAndNamespaceToWriters.values()) {
-      handler.close(hasFailed);
+      try {
+        handler.close(hasFailed);
+      } catch (final Exception e) {
+        if (closeFailure == null) {
+          closeFailure = e;
+        } else {
+          closeFailure.addSuppressed(e);
+        }
+      }
+    }
+    if (closeFailure != null) {
+      throw closeFailure;
     }
     // DynamoDB stream uploader is all or nothing if a failure happens in the destination.
     if (!hasFailed) {
@@ -17,6 +17,8 @@ import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.ConfiguredAirbyteStream;
 import io.airbyte.protocol.models.DestinationSyncMode;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.slf4j.Logger;
@@ -33,12 +35,13 @@ public class DynamodbWriter {
   private final DynamoDB dynamodb;
   private final ConfiguredAirbyteStream configuredStream;
   private final long uploadTimestamp;
-  private TableWriteItems tableWriteItems;
   private final String outputTableName;
-  private final int batchSize = 25;
+  private final DynamodbBatchWriter batchWriter;
+  private List<WriteRequest> writeRequests = new ArrayList<>(DynamodbBatchWriter.MAX_BATCH_SIZE);
 
   public DynamodbWriter(final DynamodbDestinationConfig config,
                         final AmazonDynamoDB amazonDynamodb,
+                        final AmazonDynamoDB batchWriteDynamodb,
                         final ConfiguredAirbyteStream configuredStream,
                         final long uploadTimestamp) {
 
@@ -72,7 +75,7 @@ public class DynamodbWriter {
       LOGGER.error(e.getMessage());
     }
 
-    this.tableWriteItems = new TableWriteItems(outputTableName);
+    this.batchWriter = new DynamodbBatchWriter(batchWriteDynamodb, outputTableName);
   }
 
   private static boolean isTableExist(final Table table) {
@@ -108,7 +111,7 @@ public class DynamodbWriter {
     return new DynamoDB(amazonDynamodb).getTable(tableName);
   }
 
-  public void write(final UUID id, final AirbyteRecordMessage recordMessage) {
+  public void write(final UUID id, final AirbyteRecordMessage recordMessage) throws InterruptedException {
 
     final ObjectMapper mapper = new ObjectMapper();
     final Map<String, Object> dataMap = mapper.convertValue(recordMessage.getData(), new TypeReference<Map<String, Object>>() {});
@@ -117,48 +120,27 @@ public class DynamodbWriter {
         .withPrimaryKey(JavaBaseConstants.COLUMN_NAME_AB_ID, UUID.randomUUID().toString(), "sync_time", uploadTimestamp)
         .withMap(JavaBaseConstants.COLUMN_NAME_DATA, dataMap)
         .withLong(JavaBaseConstants.COLUMN_NAME_EMITTED_AT, recordMessage.getEmittedAt());
-    tableWriteItems.addItemToPut(item);
-    BatchWriteItemOutcome outcome;
-    if (tableWriteItems.getItemsToPut().size() >= batchSize) {
-      try {
-        int maxRetries = 5;
-        outcome = dynamodb.batchWriteItem(tableWriteItems);
-        tableWriteItems = new TableWriteItems(this.outputTableName);
-
-        while (outcome.getUnprocessedItems().size() > 0 && maxRetries > 0) {
-          outcome = dynamodb.batchWriteItemUnprocessed(outcome.getUnprocessedItems());
-          maxRetries--;
-        }
-
-        if (maxRetries == 0) {
-          LOGGER.warn(String.format("Unprocessed items count after retry %d times: %s", 5, Integer.toString(outcome.getUnprocessedItems().size())));
-        }
-      } catch (final Exception e) {
-        LOGGER.error(e.getMessage());
-      }
+    writeRequests.add(new WriteRequest().withPutRequest(new PutRequest().withItem(ItemUtils.toAttributeValues(item))));
+    if (writeRequests.size() >= DynamodbBatchWriter.MAX_BATCH_SIZE) {
+      batchWriter.submit(writeRequests);
+      writeRequests = new ArrayList<>(DynamodbBatchWriter.MAX_BATCH_SIZE);
     }
   }
 
-  public void close(final boolean hasFailed) throws IOException {
-    if (hasFailed) {
-      LOGGER.warn("Failure in writing data to DynamoDB. Aborting...");
-    } else {
-      try {
-        int maxRetries = 5;
-        if (tableWriteItems.getItemsToPut().size() > 0) {
-          var outcome = dynamodb.batchWriteItem(tableWriteItems);
-          while (outcome.getUnprocessedItems().size() > 0 && maxRetries > 0) {
-            outcome = dynamodb.batchWriteItemUnprocessed(outcome.getUnprocessedItems());
-            maxRetries--;
-          }
-          if (maxRetries == 0) {
-            LOGGER.warn(String.format("Unprocessed items count after retry %d times: %s", 5, Integer.toString(outcome.getUnprocessedItems().size())));
-          }
+  public void close(final boolean hasFailed) throws IOException, InterruptedException {
+    try {
+      if (hasFailed) {
+        LOGGER.warn("Failure in writing data to DynamoDB. Aborting...");
+      } else {
+        if (!writeRequests.isEmpty()) {
+          batchWriter.submit(writeRequests);
         }
-      } catch (final Exception e) {
-        LOGGER.error(e.getMessage());
+        batchWriter.awaitAll();
+        batchWriter.logMetrics();
+        LOGGER.info("Data writing completed for DynamoDB.");
       }
-      LOGGER.info("Data writing completed for DynamoDB.");
+    } finally {
+      batchWriter.close();
     }
   }
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DynamodbBatchWriterTest {
+
+  private static final String TABLE_NAME = "test_table";
+
+  private AmazonDynamoDB amazonDynamodb;
+  private DynamodbBatchWriter batchWriter;
+
+  @BeforeEach
+  void setup() {
+    amazonDynamodb = mock(AmazonDynamoDB.class);
+    batchWriter = new DynamodbBatchWriter(amazonDynamodb, TABLE_NAME, 1, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    batchWriter.close();
+  }
+
+  @Test
+  void testUnprocessedItemsAreRetried() throws Exception {
+    final List<WriteRequest> batch = createBatch(DynamodbBatchWriter.MAX_BATCH_SIZE);
+    final List<WriteRequest> unprocessed = batch.subList(20, DynamodbBatchWriter.MAX_BATCH_SIZE);
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Map.of(TABLE_NAME, unprocessed)))
+        .thenReturn(new BatchWriteItemResult());
+
+    batchWriter.submit(batch);
+    batchWriter.awaitAll();
+
+    verify(amazonDynamodb, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+    assertEquals(DynamodbBatchWriter.MAX_BATCH_SIZE, batchWriter.getItemsWritten());
+    assertEquals(unprocessed.size(), batchWriter.getUnprocessedItems());
+    // a call that wrote some of its items is not throttled.
+    assertEquals(0, batchWriter.getThrottledCalls());
+    assertEquals(DynamodbBatchWriter.INITIAL_CONCURRENCY, batchWriter.getConcurrencyLimit());
+  }
+
+  @Test
+  void testCallsWithoutProcessedItemsAreThrottled() throws Exception {
+    final List<WriteRequest> batch = createBatch(10);
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Map.of(TABLE_NAME, batch)))
+        .thenReturn(new BatchWriteItemResult());
+
+    batchWriter.submit(batch);
+    batchWriter.awaitAll();
+
+    assertEquals(10, batchWriter.getItemsWritten());
+    assertEquals(10, batchWriter.getUnprocessedItems());
+    assertEquals(1, batchWriter.getThrottledCalls());
+    assertEquals(DynamodbBatchWriter.INITIAL_CONCURRENCY / 2, batchWriter.getConcurrencyLimit());
+  }
+
+  @Test
+  void testThrottledCallsAreRetried() throws Exception {
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenThrow(new ProvisionedThroughputExceededException("throttled"))
+        .thenReturn(new BatchWriteItemResult());
+
+    batchWriter.submit(createBatch(10));
+    batchWriter.awaitAll();
+
+    assertEquals(10, batchWriter.getItemsWritten());
+    assertEquals(1, batchWriter.getThrottledCalls());
+    // the concurrency is halved once, then grows back slowly.
+    assertEquals(DynamodbBatchWriter.INITIAL_CONCURRENCY / 2, batchWriter.getConcurrencyLimit());
+  }
+
+  @Test
+  void testServerErrorsAreRetriedWithoutThrottling() throws Exception {
+    final AmazonServiceException serverError = new AmazonServiceException("internal server error");
+    serverError.setStatusCode(500);
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenThrow(serverError)
+        .thenReturn(new BatchWriteItemResult());
+
+    batchWriter.submit(createBatch(10));
+    batchWriter.awaitAll();
+
+    verify(amazonDynamodb, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+    assertEquals(10, batchWriter.getItemsWritten());
+    assertEquals(0, batchWriter.getThrottledCalls());
+    assertEquals(DynamodbBatchWriter.INITIAL_CONCURRENCY, batchWriter.getConcurrencyLimit());
+  }
+
+  @Test
+  void testWritesFailAfterMaxAttempts() throws Exception {
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenThrow(new ProvisionedThroughputExceededException("throttled"));
+
+    batchWriter.submit(createBatch(10));
+
+    final RuntimeException exception = assertThrows(RuntimeException.class, batchWriter::awaitAll);
+    assertTrue(exception.getCause().getMessage().contains("after " + DynamodbBatchWriter.MAX_ATTEMPTS + " attempts"));
+    verify(amazonDynamodb, times(DynamodbBatchWriter.MAX_ATTEMPTS)).batchWriteItem(any(BatchWriteItemRequest.class));
+    assertEquals(DynamodbBatchWriter.MAX_ATTEMPTS, batchWriter.getThrottledCalls());
+    // retries throttled within a second of each other only decrease the concurrency once.
+    assertEquals(DynamodbBatchWriter.INITIAL_CONCURRENCY / 2, batchWriter.getConcurrencyLimit());
+    // later batches are not written once a batch failed.
+    assertThrows(RuntimeException.class, () -> batchWriter.submit(createBatch(10)));
+  }
+
+  @Test
+  void testConcurrencyGrowsWithoutThrottling() throws Exception {
+    when(amazonDynamodb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(new BatchWriteItemResult());
+
+    for (int i = 0; i < 1000; i++) {
+      batchWriter.submit(createBatch(DynamodbBatchWriter.MAX_BATCH_SIZE));
+    }
+    batchWriter.awaitAll();
+
+    assertEquals(1000L * DynamodbBatchWriter.MAX_BATCH_SIZE, batchWriter.getItemsWritten());
+    assertEquals(DynamodbBatchWriter.MAX_CONCURRENCY, batchWriter.getConcurrencyLimit());
+  }
+
+  @Test
+  void testBackoffIsCapped() {
+    final DynamodbBatchWriter writer = new DynamodbBatchWriter(amazonDynamodb, TABLE_NAME, 50, 10_000);
+    try {
+      for (int attempt = 1; attempt <= 100; attempt++) {
+        final long backoff = writer.getBackoffMillis(attempt);
+        assertTrue(backoff >= 0 && backoff <= Math.min(10_000, 50L << Math.min(attempt, 30)));
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static List<WriteRequest> createBatch(final int size) {
+    return IntStream.range(0, size).mapToObj(i -> new WriteRequest()).collect(Collectors.toList());
+  }
+
+}
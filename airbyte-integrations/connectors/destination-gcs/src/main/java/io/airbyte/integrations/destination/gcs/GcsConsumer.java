@@ -6,10 +6,11 @@ package io.airbyte.integrations.destination.gcs;
 
 import com.amazonaws.services.s3.AmazonS3;
 import io.airbyte.commons.json.Jsons;
-import io.airbyte.commons.string.Strings;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
 import io.airbyte.integrations.base.FailureTrackingAirbyteMessageConsumer;
 import io.airbyte.integrations.destination.gcs.writer.GcsWriterFactory;
+import io.airbyte.integrations.destination.rolling_file.RollingFileConfig;
+import io.airbyte.integrations.destination.rolling_file.RollingFileManager;
 import io.airbyte.integrations.destination.s3.writer.DestinationFileWriter;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteMessage.Type;
@@ -18,10 +19,6 @@ import io.airbyte.protocol.models.AirbyteStream;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import io.airbyte.protocol.models.ConfiguredAirbyteStream;
 import java.sql.Timestamp;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
@@ -34,20 +31,24 @@ public class GcsConsumer extends FailureTrackingAirbyteMessageConsumer {
   private final GcsDestinationConfig gcsDestinationConfig;
   private final ConfiguredAirbyteCatalog configuredCatalog;
   private final GcsWriterFactory writerFactory;
-  private final Consumer<AirbyteMessage> outputRecordCollector;
-  private final Map<AirbyteStreamNameNamespacePair, DestinationFileWriter> streamNameAndNamespaceToWriters;
-
-  private AirbyteMessage lastStateMessage = null;
+  private final RollingFileManager fileManager;
 
   public GcsConsumer(final GcsDestinationConfig gcsDestinationConfig,
                      final ConfiguredAirbyteCatalog configuredCatalog,
                      final GcsWriterFactory writerFactory,
                      final Consumer<AirbyteMessage> outputRecordCollector) {
+    this(gcsDestinationConfig, configuredCatalog, writerFactory, outputRecordCollector, RollingFileConfig.NO_ROTATION);
+  }
+
+  public GcsConsumer(final GcsDestinationConfig gcsDestinationConfig,
+                     final ConfiguredAirbyteCatalog configuredCatalog,
+                     final GcsWriterFactory writerFactory,
+                     final Consumer<AirbyteMessage> outputRecordCollector,
+                     final RollingFileConfig rollingFileConfig) {
     this.gcsDestinationConfig = gcsDestinationConfig;
     this.configuredCatalog = configuredCatalog;
     this.writerFactory = writerFactory;
-    this.outputRecordCollector = outputRecordCollector;
-    this.streamNameAndNamespaceToWriters = new HashMap<>(configuredCatalog.getStreams().size());
+    this.fileManager = new RollingFileManager(rollingFileConfig, outputRecordCollector);
   }
 
   @Override
@@ -57,21 +58,30 @@ public class GcsConsumer extends FailureTrackingAirbyteMessageConsumer {
     final Timestamp uploadTimestamp = new Timestamp(System.currentTimeMillis());
 
     for (final ConfiguredAirbyteStream configuredStream : configuredCatalog.getStreams()) {
-      final DestinationFileWriter writer = writerFactory
-          .create(gcsDestinationConfig, s3Client, configuredStream, uploadTimestamp);
-      writer.initialize();
-
       final AirbyteStream stream = configuredStream.getStream();
       final AirbyteStreamNameNamespacePair streamNamePair = AirbyteStreamNameNamespacePair
           .fromAirbyteSteam(stream);
-      streamNameAndNamespaceToWriters.put(streamNamePair, writer);
+      fileManager.addStream(streamNamePair, uploadTimestamp, (fileIndex, fileTimestamp) -> {
+        final DestinationFileWriter writer = writerFactory
+            .create(gcsDestinationConfig, s3Client, configuredStream, fileTimestamp);
+        // the output path is only prepared, and purged in overwrite mode, before the first file.
+        if (fileIndex == 0) {
+          writer.initialize();
+        }
+        return writer;
+      });
     }
   }
 
   @Override
   protected void acceptTracked(final AirbyteMessage airbyteMessage) throws Exception {
+    acceptTracked(airbyteMessage, RollingFileManager.UNKNOWN_SIZE);
+  }
+
+  @Override
+  protected void acceptTracked(final AirbyteMessage airbyteMessage, final long sizeInBytes) throws Exception {
     if (airbyteMessage.getType() == Type.STATE) {
-      this.lastStateMessage = airbyteMessage;
+      fileManager.acceptState(airbyteMessage);
       return;
     } else if (airbyteMessage.getType() != Type.RECORD) {
       return;
@@ -81,7 +91,7 @@ public class GcsConsumer extends FailureTrackingAirbyteMessageConsumer {
     final AirbyteStreamNameNamespacePair pair = AirbyteStreamNameNamespacePair
         .fromRecordMessage(recordMessage);
 
-    if (!streamNameAndNamespaceToWriters.containsKey(pair)) {
+    if (!fileManager.hasStream(pair)) {
       throw new IllegalArgumentException(
           String.format(
               "Message contained record from a stream that was not in the catalog. \ncatalog: %s , \nmessage: %s",
@@ -89,30 +99,14 @@ public class GcsConsumer extends FailureTrackingAirbyteMessageConsumer {
     }
 
     final UUID id = UUID.randomUUID();
-    streamNameAndNamespaceToWriters.get(pair).write(id, recordMessage);
+    fileManager.write(pair, id, recordMessage, sizeInBytes);
   }
 
   @Override
   protected void close(final boolean hasFailed) throws Exception {
-    LOGGER.debug("Closing consumer with writers = {}", streamNameAndNamespaceToWriters);
-    List<Exception> exceptionsThrown = new ArrayList<>();
-    for (var entry : streamNameAndNamespaceToWriters.entrySet()) {
-      final DestinationFileWriter handler = entry.getValue();
-      LOGGER.debug("Closing writer {}", entry.getKey());
-      try {
-        handler.close(hasFailed);
-      } catch (Exception e) {
-        exceptionsThrown.add(e);
-        LOGGER.error("Exception while closing writer {}", entry.getKey(), e);
-      }
-    }
-    if (!exceptionsThrown.isEmpty()) {
-      throw new RuntimeException(String.format("Exceptions thrown while closing consumer: %s", Strings.join(exceptionsThrown, "\n")));
-    }
-    // Gcs stream uploader is all or nothing if a failure happens in the destination.
-    if (!hasFailed) {
-      outputRecordCollector.accept(lastStateMessage);
-    }
+    // states are emitted once the files with their records are uploaded, and the file being written
+    // is aborted on failure.
+    fileManager.close(hasFailed);
   }
 
 }
@@ -12,6 +12,7 @@ import io.airbyte.integrations.base.Destination;
 import io.airbyte.integrations.base.IntegrationRunner;
 import io.airbyte.integrations.destination.gcs.writer.GcsWriterFactory;
 import io.airbyte.integrations.destination.gcs.writer.ProductionWriterFactory;
+import io.airbyte.integrations.destination.rolling_file.RollingFileConfig;
 import io.airbyte.integrations.destination.s3.S3Destination;
 import io.airbyte.protocol.models.AirbyteConnectionStatus;
 import io.airbyte.protocol.models.AirbyteConnectionStatus.Status;
@@ -61,7 +62,7 @@ public class GcsDestination extends BaseConnector implements Destination {
                                             final Consumer<AirbyteMessage> outputRecordCollector) {
     final GcsWriterFactory formatterFactory = new ProductionWriterFactory();
     return new GcsConsumer(GcsDestinationConfig.getGcsDestinationConfig(config), configuredCatalog,
-        formatterFactory, outputRecordCollector);
+        formatterFactory, outputRecordCollector, RollingFileConfig.fromJson(config));
   }
 
 }
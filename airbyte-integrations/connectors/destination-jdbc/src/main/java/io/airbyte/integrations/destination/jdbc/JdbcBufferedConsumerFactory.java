@@ -5,6 +5,8 @@
 package io.airbyte.integrations.destination.jdbc;
 
 import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MAX_BATCH_SIZE_BYTES;
+import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MAX_IN_FLIGHT_FLUSHES;
+import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MIN_STREAM_BATCH_SIZE_BYTES;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
@@ -57,10 +59,14 @@ public class JdbcBufferedConsumerFactory {
         outputRecordCollector,
         onStartFunction(database, sqlOperations, writeConfigs),
         recordWriterFunction(database, sqlOperations, writeConfigs, catalog),
+        null,
         onCloseFunction(database, sqlOperations, writeConfigs),
         catalog,
         sqlOperations::isValidData,
-        DEFAULT_MAX_BATCH_SIZE_BYTES);
+        DEFAULT_MAX_BATCH_SIZE_BYTES,
+        DEFAULT_MAX_BATCH_SIZE_BYTES,
+        DEFAULT_MIN_STREAM_BATCH_SIZE_BYTES,
+        DEFAULT_MAX_IN_FLIGHT_FLUSHES);
   }
 
   private static List<WriteConfig> createWriteConfigs(final NamingConventionTransformer namingResolver,
@@ -11,6 +11,7 @@ import io.airbyte.integrations.base.JavaBaseConstants;
 import io.airbyte.integrations.base.sentry.AirbyteSentry;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
@@ -72,14 +73,18 @@ public abstract class JdbcSqlOperations implements SqlOperations {
     try (final PrintWriter writer = new PrintWriter(tmpFile, StandardCharsets.UTF_8);
         final CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
       for (final AirbyteRecordMessage record : records) {
-        final var uuid = UUID.randomUUID().toString();
-        final var jsonData = Jsons.serialize(formatData(record.getData()));
-        final var emittedAt = Timestamp.from(Instant.ofEpochMilli(record.getEmittedAt()));
-        csvPrinter.printRecord(uuid, jsonData, emittedAt);
+        writeRecordToCsv(csvPrinter, record);
       }
     }
   }
 
+  protected void writeRecordToCsv(final CSVPrinter csvPrinter, final AirbyteRecordMessage record) throws IOException {
+    final var uuid = UUID.randomUUID().toString();
+    final var jsonData = Jsons.serialize(formatData(record.getData()));
+    final var emittedAt = Timestamp.from(Instant.ofEpochMilli(record.getEmittedAt()));
+    csvPrinter.printRecord(uuid, jsonData, emittedAt);
+  }
+
   protected JsonNode formatData(final JsonNode data) {
     return data;
   }
@@ -16,5 +16,17 @@ public interface GlobalDataSizeConstants {
    * file) see StagingFilenameGenerator.java:28
    */
   long MAX_FILE_SIZE = DataSize.of(100L, IEC.MEBIBYTE).toUnit(IEC.BYTE).getValue().longValue();
+  /**
+   * Number of full buffers written in the background while the next one fills up, so buffered
+   * records take up to (1 + DEFAULT_MAX_IN_FLIGHT_FLUSHES) * DEFAULT_MAX_BATCH_SIZE_BYTES of memory.
+   * BufferedStreamConsumer flushes fewer buffers in the background if they do not fit in its share
+   * of the heap.
+   */
+  int DEFAULT_MAX_IN_FLIGHT_FLUSHES = 1;
+  /**
+   * When the buffers are full, streams with less than 1 MB buffered are left alone as long as some
+   * stream has more, so a busy stream does not force small batches on all the others.
+   */
+  long DEFAULT_MIN_STREAM_BATCH_SIZE_BYTES = DataSize.of(1L, IEC.MEBIBYTE).toUnit(IEC.BYTE).getValue().longValue();
 
 }
@@ -5,7 +5,10 @@
 package io.airbyte.integrations.destination.jdbc.copy;
 
 import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MAX_BATCH_SIZE_BYTES;
+import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MAX_IN_FLIGHT_FLUSHES;
+import static io.airbyte.integrations.destination.jdbc.constants.GlobalDataSizeConstants.DEFAULT_MIN_STREAM_BATCH_SIZE_BYTES;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.airbyte.db.jdbc.JdbcDatabase;
 import io.airbyte.integrations.base.AirbyteMessageConsumer;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
@@ -21,9 +24,17 @@ import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +43,9 @@ public class CopyConsumerFactory {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CopyConsumerFactory.class);
 
+  // below the size of the connection pool of the destination, see Databases.createBasicDataSource.
+  private static final int MAX_CONCURRENT_FINALIZERS = 4;
+
   public static <T> AirbyteMessageConsumer create(final Consumer<AirbyteMessage> outputRecordCollector,
                                                   final JdbcDatabase database,
                                                   final SqlOperations sqlOperations,
@@ -58,7 +72,10 @@ public class CopyConsumerFactory {
         onCloseFunction(pairToCopier, database, sqlOperations, pairToIgnoredRecordCount),
         catalog,
         sqlOperations::isValidData,
-        DEFAULT_MAX_BATCH_SIZE_BYTES);
+        DEFAULT_MAX_BATCH_SIZE_BYTES,
+        DEFAULT_MAX_BATCH_SIZE_BYTES,
+        DEFAULT_MIN_STREAM_BATCH_SIZE_BYTES,
+        DEFAULT_MAX_IN_FLIGHT_FLUSHES);
   }
 
   private static <T> Map<AirbyteStreamNameNamespacePair, StreamCopier> createWriteConfigs(final ExtendedNameTransformer namingResolver,
@@ -120,44 +137,63 @@ public class CopyConsumerFactory {
     return (hasFailed) -> {
       pairToIgnoredRecordCount
           .forEach((pair, count) -> LOGGER.warn("A total of {} record(s) of data from stream {} were invalid and were ignored.", count, pair));
-      closeAsOneTransaction(new ArrayList<>(pairToCopier.values()), hasFailed, database, sqlOperations);
+      closeAsOneTransaction(pairToCopier, hasFailed, database, sqlOperations);
     };
   }
 
-  private static void closeAsOneTransaction(final List<StreamCopier> streamCopiers,
-                                            boolean hasFailed,
+  /**
+   * Finalizes the streams, up to MAX_CONCURRENT_FINALIZERS at a time, and then merges all of them
+   * into their destination tables in one transaction. Each stream is copied into its temporary table
+   * on its own connection, so the copies of different streams run in parallel in the destination.
+   * The destination schemas are created beforehand, one at a time, as concurrent CREATE SCHEMA IF
+   * NOT EXISTS statements for the same schema can fail on some databases (e.g. Postgres).
+   */
+  private static void closeAsOneTransaction(final Map<AirbyteStreamNameNamespacePair, StreamCopier> pairToCopier,
+                                            final boolean hasFailed,
                                             final JdbcDatabase db,
                                             final SqlOperations sqlOperations)
       throws Exception {
     Exception firstException = null;
+    final AtomicBoolean failed = new AtomicBoolean(hasFailed);
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_CONCURRENT_FINALIZERS, pairToCopier.size())),
+        new ThreadFactoryBuilder().setNameFormat("stream-finalizer-%d").setDaemon(true).build());
     try {
+      if (!failed.get()) {
+        try {
+          createDestinationSchemas(pairToCopier);
+        } catch (final Exception e) {
+          LOGGER.error("Failed to create destination schemas", e);
+          failed.set(true);
+          firstException = e;
+        }
+      }
+
+      final long start = System.currentTimeMillis();
+      final Map<AirbyteStreamNameNamespacePair, Future<String>> pairToMergeQuery = new LinkedHashMap<>();
+      pairToCopier.forEach((pair, copier) -> pairToMergeQuery.put(pair, executor.submit(() -> finalizeStream(pair, copier, failed))));
+
       final List<String> queries = new ArrayList<>();
-      for (final var copier : streamCopiers) {
+      for (final Future<String> mergeQuery : pairToMergeQuery.values()) {
         try {
-          copier.closeStagingUploader(hasFailed);
-
-          if (!hasFailed) {
-            copier.createDestinationSchema();
-            copier.createTemporaryTable();
-            copier.copyStagingFileToTemporaryTable();
-            final var destTableName = copier.createDestinationTable();
-            final var mergeQuery = copier.generateMergeStatement(destTableName);
-            queries.add(mergeQuery);
+          final String query = mergeQuery.get();
+          if (query != null) {
+            queries.add(query);
           }
-        } catch (final Exception e) {
-          final String message = String.format("Failed to finalize copy to temp table due to: %s", e);
-          LOGGER.error(message);
-          hasFailed = true;
+        } catch (final ExecutionException e) {
           if (firstException == null) {
-            firstException = e;
+            firstException = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
           }
         }
       }
-      if (!hasFailed) {
+      LOGGER.info("Finalized {} streams in {} ms", pairToCopier.size(), System.currentTimeMillis() - start);
+      if (!failed.get()) {
+        final long mergeStart = System.currentTimeMillis();
         sqlOperations.executeTransaction(db, queries);
+        LOGGER.info("Merged {} streams in {} ms", queries.size(), System.currentTimeMillis() - mergeStart);
       }
     } finally {
-      for (final var copier : streamCopiers) {
+      executor.shutdownNow();
+      for (final var copier : pairToCopier.values()) {
         copier.removeFileAndDropTmpTable();
       }
       db.close();
@@ -167,4 +203,48 @@ public class CopyConsumerFactory {
     }
   }
 
+  /**
+   * Creates the schema of each namespace once, with the copier of its first stream.
+   */
+  private static void createDestinationSchemas(final Map<AirbyteStreamNameNamespacePair, StreamCopier> pairToCopier) throws Exception {
+    final Set<String> namespaces = new HashSet<>();
+    for (final Map.Entry<AirbyteStreamNameNamespacePair, StreamCopier> entry : pairToCopier.entrySet()) {
+      if (namespaces.add(entry.getKey().getNamespace())) {
+        entry.getValue().createDestinationSchema();
+      }
+    }
+  }
+
+  /**
+   * Closes the staging files of the stream and copies them into its temporary table. Once any stream
+   * failed, the streams that did not start yet only close their staging files.
+   *
+   * @return the merge statement of the stream, or null if the sync failed.
+   */
+  private static String finalizeStream(final AirbyteStreamNameNamespacePair pair, final StreamCopier copier, final AtomicBoolean failed)
+      throws Exception {
+    try {
+      final long start = System.currentTimeMillis();
+      copier.closeStagingUploader(failed.get());
+      final long uploadEnd = System.currentTimeMillis();
+      if (failed.get()) {
+        return null;
+      }
+
+      copier.createTemporaryTable();
+      copier.copyStagingFileToTemporaryTable();
+      final var destTableName = copier.createDestinationTable();
+      final var mergeQuery = copier.generateMergeStatement(destTableName);
+      final long end = System.currentTimeMillis();
+      LOGGER.info("Finalized stream {} in {} ms: closing staging files took {} ms, copying into the temporary table took {} ms",
+          pair, end - start, uploadEnd - start, end - uploadEnd);
+      return mergeQuery;
+    } catch (final Exception e) {
+      final String message = String.format("Failed to finalize copy to temp table due to: %s", e);
+      LOGGER.error(message);
+      failed.set(true);
+      throw e;
+    }
+  }
+
 }
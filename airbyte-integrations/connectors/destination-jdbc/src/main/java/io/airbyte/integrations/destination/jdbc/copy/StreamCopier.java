@@ -10,6 +10,11 @@ import java.util.UUID;
 /**
  * StreamCopier is responsible for writing to a staging persistence and providing methods to remove
  * the staged data.
+ *
+ * <p>
+ * When the sync ends, the copiers of different streams are finalized concurrently, from
+ * {@link #closeStagingUploader(boolean)} to {@link #generateMergeStatement(String)}, each on a
+ * single thread.
  */
 public interface StreamCopier {
 
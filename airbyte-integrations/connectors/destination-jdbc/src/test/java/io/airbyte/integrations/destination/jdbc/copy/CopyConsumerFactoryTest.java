@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.jdbc.copy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.db.jdbc.JdbcDatabase;
+import io.airbyte.integrations.base.AirbyteMessageConsumer;
+import io.airbyte.integrations.destination.ExtendedNameTransformer;
+import io.airbyte.integrations.destination.jdbc.SqlOperations;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.CatalogHelpers;
+import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
+import io.airbyte.protocol.models.Field;
+import io.airbyte.protocol.models.JsonSchemaType;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class CopyConsumerFactoryTest {
+
+  private static final String SCHEMA = "public";
+  private static final List<String> STREAMS = List.of("red", "green", "blue");
+  private static final ConfiguredAirbyteCatalog CATALOG = new ConfiguredAirbyteCatalog().withStreams(STREAMS.stream()
+      .map(stream -> CatalogHelpers.createConfiguredAirbyteStream(stream, SCHEMA, Field.of("id", JsonSchemaType.NUMBER)))
+      .collect(Collectors.toList()));
+
+  private JdbcDatabase database;
+  private SqlOperations sqlOperations;
+  private Map<String, StreamCopier> streamToCopier;
+
+  @BeforeEach
+  void setup() throws Exception {
+    database = mock(JdbcDatabase.class);
+    sqlOperations = mock(SqlOperations.class);
+    streamToCopier = new HashMap<>();
+    for (final String stream : STREAMS) {
+      final StreamCopier copier = mock(StreamCopier.class);
+      when(copier.createDestinationTable()).thenReturn(stream);
+      when(copier.generateMergeStatement(stream)).thenReturn("merge " + stream);
+      streamToCopier.put(stream, copier);
+    }
+  }
+
+  @Test
+  void testStreamsAreCopiedConcurrentlyAndMergedInOneTransaction() throws Exception {
+    // every copy waits for the copies of the other streams to start.
+    final CountDownLatch copiesStarted = new CountDownLatch(STREAMS.size());
+    final AtomicInteger schemaCreations = new AtomicInteger();
+    for (final StreamCopier copier : streamToCopier.values()) {
+      doAnswer(invocation -> schemaCreations.incrementAndGet()).when(copier).createDestinationSchema();
+      doAnswer(invocation -> {
+        copiesStarted.countDown();
+        assertTrue(copiesStarted.await(1, TimeUnit.MINUTES));
+        return null;
+      }).when(copier).copyStagingFileToTemporaryTable();
+    }
+
+    final AirbyteMessageConsumer consumer = createConsumer();
+    consumer.start();
+    consumer.close();
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<List<String>> queries = ArgumentCaptor.forClass(List.class);
+    verify(sqlOperations).executeTransaction(eq(database), queries.capture());
+    assertEquals(STREAMS.stream().map(stream -> "merge " + stream).collect(Collectors.toSet()), Set.copyOf(queries.getValue()));
+    for (final StreamCopier copier : streamToCopier.values()) {
+      verify(copier).closeStagingUploader(false);
+      verify(copier).removeFileAndDropTmpTable();
+    }
+    // the streams share their schema, which is only created once.
+    assertEquals(1, schemaCreations.get());
+    verify(database).close();
+  }
+
+  @Test
+  void testFailedStreamPreventsMerge() throws Exception {
+    doThrow(new SQLException("induced exception")).when(streamToCopier.get("green")).copyStagingFileToTemporaryTable();
+
+    final AirbyteMessageConsumer consumer = createConsumer();
+    consumer.start();
+    final SQLException exception = assertThrows(SQLException.class, consumer::close);
+
+    assertEquals("induced exception", exception.getMessage());
+    verify(sqlOperations, never()).executeTransaction(any(), anyList());
+    for (final StreamCopier copier : streamToCopier.values()) {
+      verify(copier).removeFileAndDropTmpTable();
+    }
+    verify(database).close();
+  }
+
+  @Test
+  void testFailedSyncOnlyClosesStagingFiles() throws Exception {
+    when(sqlOperations.isValidData(any())).thenReturn(true);
+    doThrow(new SQLException("induced exception")).when(streamToCopier.get("red")).write(any(), any(), any());
+
+    final AirbyteMessageConsumer consumer = createConsumer();
+    consumer.start();
+    // a record larger than a buffer is flushed in the background once the next record arrives, and its
+    // failure is thrown by a later record.
+    consumer.accept(record("red", "x".repeat(4 * 1024 * 1024)));
+    final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    Exception exception = null;
+    while (exception == null && System.currentTimeMillis() < deadline) {
+      try {
+        consumer.accept(record("red", "y"));
+        Thread.sleep(10);
+      } catch (final SQLException e) {
+        exception = e;
+      }
+    }
+    assertEquals("induced exception", exception.getMessage());
+    consumer.close();
+
+    verify(sqlOperations, never()).executeTransaction(any(), anyList());
+    for (final StreamCopier copier : streamToCopier.values()) {
+      verify(copier).closeStagingUploader(true);
+      verify(copier, never()).copyStagingFileToTemporaryTable();
+      verify(copier).removeFileAndDropTmpTable();
+    }
+  }
+
+  private static AirbyteMessage record(final String stream, final String value) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage()
+            .withStream(stream)
+            .withNamespace(SCHEMA)
+            .withData(Jsons.jsonNode(Map.of("id", 1, "value", value)))
+            .withEmittedAt(1L));
+  }
+
+  private AirbyteMessageConsumer createConsumer() {
+    final StreamCopierFactory<String> streamCopierFactory =
+        (configuredSchema, config, stagingFolder, configuredStream, nameTransformer, db, sqlOperations) -> streamToCopier
+            .get(configuredStream.getStream().getName());
+    return CopyConsumerFactory.create(message -> {}, database, sqlOperations, new ExtendedNameTransformer(), "config", CATALOG,
+        streamCopierFactory, SCHEMA);
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.mongodb;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers documents and inserts them into a collection with unordered insertMany calls, once the
+ * buffer holds {@link #MAX_BATCH_SIZE} documents or {@link #MAX_BATCH_BYTES} bytes. Documents
+ * rejected by a unique index of the collection are counted as duplicates and skipped, any other
+ * write error fails the batch.
+ */
+class MongodbBatchWriter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MongodbBatchWriter.class);
+
+  static final int MAX_BATCH_SIZE = 1000;
+  static final long MAX_BATCH_BYTES = 16 * 1024 * 1024;
+
+  // unordered inserts keep going past the duplicates of a batch, and let the server write in parallel.
+  private static final InsertManyOptions INSERT_OPTIONS = new InsertManyOptions().ordered(false);
+
+  private final MongoCollection<Document> collection;
+  private List<Document> documents = new ArrayList<>();
+  private long batchBytes = 0;
+  private long insertedCount = 0;
+  private long duplicateCount = 0;
+
+  MongodbBatchWriter(final MongoCollection<Document> collection) {
+    this.collection = collection;
+  }
+
+  /**
+   * @param document to insert
+   * @param sizeInBytes estimated size of the document
+   */
+  public void add(final Document document, final long sizeInBytes) {
+    documents.add(document);
+    batchBytes += sizeInBytes;
+    if (documents.size() >= MAX_BATCH_SIZE || batchBytes >= MAX_BATCH_BYTES) {
+      flush();
+    }
+  }
+
+  public void flush() {
+    if (documents.isEmpty()) {
+      return;
+    }
+    final List<Document> batch = documents;
+    final int batchSize = batch.size();
+    documents = new ArrayList<>();
+    batchBytes = 0;
+    try {
+      collection.insertMany(batch, INSERT_OPTIONS);
+      insertedCount += batchSize;
+    } catch (final MongoBulkWriteException e) {
+      final long duplicates = e.getWriteErrors().stream()
+          .filter(error -> error.getCategory() == ErrorCategory.DUPLICATE_KEY)
+          .count();
+      if (duplicates < e.getWriteErrors().size() || e.getWriteConcernError() != null) {
+        throw e;
+      }
+      insertedCount += batchSize - duplicates;
+      duplicateCount += duplicates;
+    }
+  }
+
+  public long getInsertedCount() {
+    return insertedCount;
+  }
+
+  public long getDuplicateCount() {
+    return duplicateCount;
+  }
+
+  public void logSummary(final String collectionName) {
+    LOGGER.info("Inserted {} documents into {}, skipped {} duplicates.", insertedCount, collectionName, duplicateCount);
+  }
+
+}
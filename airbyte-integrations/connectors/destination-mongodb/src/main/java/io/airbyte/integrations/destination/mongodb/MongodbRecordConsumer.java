@@ -18,8 +18,6 @@ import io.airbyte.integrations.base.FailureTrackingAirbyteMessageConsumer;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -85,6 +83,10 @@ public class MongodbRecordConsumer extends FailureTrackingAirbyteMessageConsumer
   protected void close(final boolean hasFailed) {
     try {
       if (!hasFailed) {
+        writeConfigs.values().forEach(mongodbWriteConfig -> {
+          mongodbWriteConfig.getBatchWriter().flush();
+          mongodbWriteConfig.getBatchWriter().logSummary(mongodbWriteConfig.getTmpCollectionName());
+        });
         LOGGER.info("Migration finished with no explicit errors. Copying data from tmp tables to permanent");
         writeConfigs.values().forEach(mongodbWriteConfig -> Exceptions.toRuntime(() -> {
           try {
@@ -116,21 +118,15 @@ public class MongodbRecordConsumer extends FailureTrackingAirbyteMessageConsumer
     try {
       final AirbyteRecordMessage recordMessage = message.getRecord();
       final Map<String, Object> result = objectMapper.convertValue(recordMessage.getData(), new TypeReference<>() {});
-      final var newDocumentDataHashCode = UUID.nameUUIDFromBytes(DigestUtils.md5Hex(Jsons.toBytes(recordMessage.getData())).getBytes()).toString();
+      final byte[] dataBytes = Jsons.toBytes(recordMessage.getData());
+      final var newDocumentDataHashCode = UUID.nameUUIDFromBytes(DigestUtils.md5Hex(dataBytes).getBytes()).toString();
       final var newDocument = new Document();
       newDocument.put(AIRBYTE_DATA, new Document(result));
       newDocument.put(AIRBYTE_DATA_HASH, newDocumentDataHashCode);
       newDocument.put(AIRBYTE_EMITTED_AT, new LocalDateTime().toString());
 
-      final var collection = writeConfig.getCollection();
-
-      final var documentsHash = writeConfig.getDocumentsHash();
-      if (!documentsHash.contains(newDocumentDataHashCode)) {
-        collection.insertOne(newDocument);
-        documentsHash.add(newDocumentDataHashCode);
-      } else {
-        LOGGER.info("Object with hashCode = {} already exist in table {}.", newDocumentDataHashCode, writeConfig.getCollectionName());
-      }
+      // duplicates are rejected by the unique index on the hash of the tmp collection.
+      writeConfig.getBatchWriter().add(newDocument, dataBytes.length);
     } catch (final RuntimeException e) {
       LOGGER.error("Got an error while writing message:" + e.getMessage());
       LOGGER.error(String.format(
@@ -143,16 +139,18 @@ public class MongodbRecordConsumer extends FailureTrackingAirbyteMessageConsumer
   private static void copyTable(final MongoDatabase mongoDatabase, final String collectionName, final String tmpCollectionName) {
 
     final var tempCollection = mongoDatabase.getOrCreateNewCollection(tmpCollectionName);
-    final var collection = mongoDatabase.getOrCreateNewCollection(collectionName);
-    final List<Document> documents = new ArrayList<>();
-    try (final MongoCursor<Document> cursor = tempCollection.find().projection(excludeId()).iterator()) {
+    final var batchWriter = new MongodbBatchWriter(mongoDatabase.getOrCreateNewCollection(collectionName));
+    try (final MongoCursor<Document> cursor = tempCollection.find()
+        .projection(excludeId())
+        .batchSize(MongodbBatchWriter.MAX_BATCH_SIZE)
+        .iterator()) {
       while (cursor.hasNext()) {
-        documents.add(cursor.next());
+        // batches are only bounded by their number of documents, like the batches of the cursor.
+        batchWriter.add(cursor.next(), 0);
       }
     }
-    if (!documents.isEmpty()) {
-      collection.insertMany(documents);
-    }
+    batchWriter.flush();
+    batchWriter.logSummary(collectionName);
   }
 
 }
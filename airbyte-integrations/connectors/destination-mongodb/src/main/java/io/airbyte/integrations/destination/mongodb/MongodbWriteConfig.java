@@ -6,9 +6,6 @@ package io.airbyte.integrations.destination.mongodb;
 
 import com.mongodb.client.MongoCollection;
 import io.airbyte.protocol.models.DestinationSyncMode;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
 import org.bson.Document;
 
 class MongodbWriteConfig {
@@ -17,18 +14,17 @@ class MongodbWriteConfig {
   private final String tmpCollectionName;
   private final DestinationSyncMode syncMode;
   private final MongoCollection<Document> collection;
-  private final Set<String> documentsHash = new HashSet<>();
+  private final MongodbBatchWriter batchWriter;
 
   MongodbWriteConfig(final String collectionName,
                      final String tmpCollectionName,
                      final DestinationSyncMode syncMode,
-                     final MongoCollection<Document> collection,
-                     final Collection<String> documentsHash) {
+                     final MongoCollection<Document> collection) {
     this.collectionName = collectionName;
     this.tmpCollectionName = tmpCollectionName;
     this.syncMode = syncMode;
     this.collection = collection;
-    this.documentsHash.addAll(documentsHash);
+    this.batchWriter = new MongodbBatchWriter(collection);
   }
 
   public String getCollectionName() {
@@ -47,8 +43,8 @@ class MongodbWriteConfig {
     return collection;
   }
 
-  public Set<String> getDocumentsHash() {
-    return documentsHash;
+  public MongodbBatchWriter getBatchWriter() {
+    return batchWriter;
   }
 
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MongodbBatchWriterTest {
+
+  private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+  private MongoCollection<Document> collection;
+  private MongodbBatchWriter batchWriter;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() {
+    collection = mock(MongoCollection.class);
+    batchWriter = new MongodbBatchWriter(collection);
+  }
+
+  @Test
+  void testDocumentsAreInsertedInUnorderedBatches() {
+    for (int i = 0; i < MongodbBatchWriter.MAX_BATCH_SIZE + 1; i++) {
+      batchWriter.add(new Document("id", i), 10);
+    }
+    verify(collection, times(1)).insertMany(argThat((List<Document> documents) -> documents.size() == MongodbBatchWriter.MAX_BATCH_SIZE),
+        argThat(options -> !options.isOrdered()));
+
+    batchWriter.flush();
+    batchWriter.flush();
+    verify(collection, times(2)).insertMany(anyList(), any(InsertManyOptions.class));
+    assertEquals(MongodbBatchWriter.MAX_BATCH_SIZE + 1, batchWriter.getInsertedCount());
+  }
+
+  @Test
+  void testBatchesAreBoundedBySize() {
+    batchWriter.add(new Document("id", 1), MongodbBatchWriter.MAX_BATCH_BYTES / 2);
+    verify(collection, never()).insertMany(anyList(), any(InsertManyOptions.class));
+
+    batchWriter.add(new Document("id", 2), MongodbBatchWriter.MAX_BATCH_BYTES / 2);
+    verify(collection, times(1)).insertMany(argThat((List<Document> documents) -> documents.size() == 2), any(InsertManyOptions.class));
+  }
+
+  @Test
+  void testDuplicatesAreSkipped() {
+    doThrow(bulkWriteException(DUPLICATE_KEY_ERROR_CODE)).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+    batchWriter.add(new Document("id", 1), 10);
+    batchWriter.add(new Document("id", 1), 10);
+    batchWriter.add(new Document("id", 2), 10);
+    batchWriter.flush();
+
+    assertEquals(2, batchWriter.getInsertedCount());
+    assertEquals(1, batchWriter.getDuplicateCount());
+  }
+
+  @Test
+  void testOtherWriteErrorsFailTheBatch() {
+    doThrow(bulkWriteException(121)).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+    batchWriter.add(new Document("id", 1), 10);
+    assertThrows(MongoBulkWriteException.class, batchWriter::flush);
+  }
+
+  private static MongoBulkWriteException bulkWriteException(final int errorCode) {
+    return new MongoBulkWriteException(
+        BulkWriteResult.unacknowledged(),
+        List.of(new BulkWriteError(errorCode, "write error", new BsonDocument(), 1)),
+        null,
+        new ServerAddress());
+  }
+
+}
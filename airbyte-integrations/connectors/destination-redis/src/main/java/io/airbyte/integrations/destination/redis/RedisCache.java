@@ -33,7 +33,12 @@ public interface RedisCache extends Closeable {
   void insert(String key, Instant timestamp, String data);
 
   /**
-   * Copy data from one key to another with the option to replace.
+   * Write the inserted data that is still buffered.
+   */
+  void flush();
+
+  /**
+   * Copy data from one key to another with the option to replace, after writing the buffered data.
    *
    * @param sourceKey key to copy data from
    * @param destinationKey key to copy data to
@@ -42,14 +47,14 @@ public interface RedisCache extends Closeable {
   void copy(String sourceKey, String destinationKey, boolean replace);
 
   /**
-   * Delete all data with the provided key.
+   * Delete all data with the provided key, including the buffered data.
    *
    * @param key to delete data for
    */
   void delete(String key);
 
   /**
-   * Retrieve all data with the provided key.
+   * Retrieve all data with the provided key, after writing the buffered data.
    *
    * @param key for which to retrieve data
    * @return List of RedisRecords for the provided key.
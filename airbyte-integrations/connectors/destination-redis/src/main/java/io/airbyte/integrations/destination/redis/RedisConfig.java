@@ -8,6 +8,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 class RedisConfig {
 
+  static final int DEFAULT_BATCH_SIZE = 1000;
+
   private final String host;
 
   private final int port;
@@ -18,6 +20,8 @@ class RedisConfig {
 
   private final RedisCache.CacheType cacheType;
 
+  private final int batchSize;
+
   public RedisConfig(JsonNode jsonNode) {
     this.host = jsonNode.get("host").asText();
     this.port = jsonNode.get("port").asInt(6379);
@@ -25,14 +29,20 @@ class RedisConfig {
     this.password = jsonNode.get("password").asText();
     var type = jsonNode.get("cache_type").asText();
     this.cacheType = RedisCache.CacheType.valueOf(type.toUpperCase());
+    this.batchSize = jsonNode.has("batch_size") ? jsonNode.get("batch_size").asInt() : DEFAULT_BATCH_SIZE;
   }
 
   public RedisConfig(String host, int port, String username, String password, RedisCache.CacheType cacheType) {
+    this(host, port, username, password, cacheType, DEFAULT_BATCH_SIZE);
+  }
+
+  public RedisConfig(String host, int port, String username, String password, RedisCache.CacheType cacheType, int batchSize) {
     this.host = host;
     this.port = port;
     this.username = username;
     this.password = password;
     this.cacheType = cacheType;
+    this.batchSize = batchSize;
   }
 
   public String getHost() {
@@ -55,6 +65,10 @@ class RedisConfig {
     return cacheType;
   }
 
+  public int getBatchSize() {
+    return batchSize;
+  }
+
   @Override
   public String toString() {
     return "RedisConfig{" +
@@ -63,6 +77,7 @@ class RedisConfig {
         ", username='" + username + '\'' +
         ", password='" + password + '\'' +
         ", cacheType=" + cacheType +
+        ", batchSize=" + batchSize +
         '}';
   }
 
@@ -4,20 +4,53 @@
 
 package io.airbyte.integrations.destination.redis;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Jedis;
-
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Stores every record in a hash at {@code <key>:<index>}, where the index comes from a counter at
+ * {@code <key>}. Inserted records are buffered per key and written in batches: the indexes of a
+ * batch are allocated with a single INCRBY, and its hashes are written in a single pipeline. Keys
+ * are listed with SCAN, one page of up to a batch at a time, so that copying or deleting a key does
+ * not block the server like KEYS would.
+ */
 public class RedisHCache implements RedisCache {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RedisHCache.class);
+
   private static final String PATTERN = ":[0-9]*";
 
+  private static final String NO_SUCH_KEY_ERROR = "no such key";
+
   private final Jedis jedis;
 
+  private final int batchSize;
+
+  private final Map<String, List<Map<String, String>>> pendingRecords = new HashMap<>();
+
+  private boolean isUnlinkSupported = true;
+
+  private long recordsWritten = 0;
+
+  private long writeNanos = 0;
+
   public RedisHCache(RedisConfig redisConfig) {
     this.jedis = RedisPoolManager.initConnection(redisConfig);
+    this.batchSize = redisConfig.getBatchSize();
   }
 
   @Override
@@ -27,37 +60,129 @@ public class RedisHCache implements RedisCache {
 
   @Override
   public void insert(String key, Instant timestamp, String data) {
-    var index = jedis.incr(key);
-    var indexKey = generateIndexKey(key, index);
-    var hash = Map.of(
-        RedisRecord.ID_PROPERTY, String.valueOf(index),
-        RedisRecord.DATA_PROPERTY, data,
-        RedisRecord.TIMESTAMP_PROPERTY, String.valueOf(timestamp.toEpochMilli()));
-    jedis.hmset(indexKey, hash);
+    var records = pendingRecords.computeIfAbsent(key, k -> new ArrayList<>(batchSize));
+    // the id is added once the index of the record is allocated.
+    var hash = new HashMap<String, String>(4);
+    hash.put(RedisRecord.DATA_PROPERTY, data);
+    hash.put(RedisRecord.TIMESTAMP_PROPERTY, String.valueOf(timestamp.toEpochMilli()));
+    records.add(hash);
+    if (records.size() >= batchSize) {
+      flush(key, records);
+    }
+  }
+
+  @Override
+  public void flush() {
+    pendingRecords.forEach(this::flush);
+  }
+
+  private void flush(String key, List<Map<String, String>> records) {
+    if (records.isEmpty()) {
+      return;
+    }
+    var start = System.nanoTime();
+    var lastIndex = jedis.incrBy(key, records.size());
+    var index = lastIndex - records.size();
+    var pipeline = jedis.pipelined();
+    for (var hash : records) {
+      index++;
+      hash.put(RedisRecord.ID_PROPERTY, String.valueOf(index));
+      pipeline.hmset(generateIndexKey(key, index), hash);
+    }
+    pipeline.sync();
+    recordsWritten += records.size();
+    writeNanos += System.nanoTime() - start;
+    records.clear();
   }
 
   @Override
   public void copy(String sourceKey, String destinationKey, boolean replace) {
+    flush();
     if (replace) {
       delete(destinationKey);
     }
-    jedis.keys(sourceKey + PATTERN).forEach(k -> {
-      var index = jedis.incr(destinationKey);
-      jedis.rename(k, generateIndexKey(destinationKey, index));
+    var start = System.nanoTime();
+    var duplicates = new long[1];
+    var scanned = forEachPage(sourceKey, keys -> {
+      var lastIndex = jedis.incrBy(destinationKey, keys.size());
+      var index = lastIndex - keys.size();
+      var pipeline = jedis.pipelined();
+      for (var k : keys) {
+        index++;
+        pipeline.rename(k, generateIndexKey(destinationKey, index));
+      }
+      for (var reply : pipeline.syncAndReturnAll()) {
+        if (reply instanceof JedisDataException) {
+          var e = (JedisDataException) reply;
+          // SCAN can return a key more than once, in which case its second rename fails because the key
+          // was already moved. That only leaves a gap in the indexes, any other error fails the copy.
+          if (e.getMessage() == null || !e.getMessage().contains(NO_SUCH_KEY_ERROR)) {
+            throw e;
+          }
+          duplicates[0]++;
+        }
+      }
     });
+    LOGGER.info("Copied {} records from {} to {} in {}", scanned - duplicates[0], sourceKey, destinationKey,
+        Duration.ofNanos(System.nanoTime() - start));
   }
 
   @Override
   public void delete(String key) {
-    jedis.keys(key + PATTERN).forEach(jedis::del);
+    pendingRecords.remove(key);
+    forEachPage(key, keys -> unlink(keys.toArray(String[]::new)));
+  }
+
+  private void unlink(String[] keys) {
+    if (isUnlinkSupported) {
+      try {
+        // frees the memory of the keys in the background, without blocking the server.
+        jedis.unlink(keys);
+        return;
+      } catch (JedisDataException e) {
+        // UNLINK is only available since Redis 4.0.
+        LOGGER.info("UNLINK is not supported by the server, deleting keys with DEL instead: {}", e.getMessage());
+        isUnlinkSupported = false;
+      }
+    }
+    jedis.del(keys);
   }
 
   @Override
   public List<RedisRecord> getAll(String key) {
-    return jedis.keys(key + PATTERN).stream()
-        .map(jedis::hgetAll)
-        .map(h -> objectMapper.convertValue(h, RedisRecord.class))
-        .collect(Collectors.toList());
+    flush();
+    var records = new ArrayList<RedisRecord>();
+    forEachPage(key, keys -> {
+      var pipeline = jedis.pipelined();
+      var hashes = keys.stream().map(pipeline::hgetAll).collect(Collectors.toList());
+      pipeline.sync();
+      hashes.stream()
+          .map(Response::get)
+          .map(h -> objectMapper.convertValue(h, RedisRecord.class))
+          .forEach(records::add);
+    });
+    return records;
+  }
+
+  /**
+   * Scans the records of a key, one page of up to a batch at a time.
+   *
+   * @return the number of records scanned
+   */
+  private long forEachPage(String key, Consumer<List<String>> pageConsumer) {
+    var scanParams = new ScanParams().match(key + PATTERN).count(batchSize);
+    var cursor = ScanParams.SCAN_POINTER_START;
+    var count = 0L;
+    do {
+      var scanResult = jedis.scan(cursor, scanParams);
+      var keys = scanResult.getResult();
+      if (!keys.isEmpty()) {
+        pageConsumer.accept(keys);
+        count += keys.size();
+      }
+      cursor = scanResult.getCursor();
+    } while (!cursor.equals(ScanParams.SCAN_POINTER_START));
+    return count;
   }
 
   @Override
@@ -67,11 +192,17 @@ public class RedisHCache implements RedisCache {
 
   @Override
   public void flushAll() {
+    pendingRecords.clear();
     jedis.flushAll();
   }
 
   @Override
   public void close() {
+    if (recordsWritten > 0) {
+      var writeMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(writeNanos), 1);
+      LOGGER.info("Wrote {} records to Redis in {} ms of writes ({} records/s)", recordsWritten, writeMillis,
+          recordsWritten * 1000 / writeMillis);
+    }
     jedis.close();
   }
 
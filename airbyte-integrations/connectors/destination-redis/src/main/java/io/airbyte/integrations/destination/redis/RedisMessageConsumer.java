@@ -74,6 +74,7 @@ class RedisMessageConsumer extends FailureTrackingAirbyteMessageConsumer {
   @Override
   protected void close(boolean hasFailed) {
     if (!hasFailed) {
+      redisCache.flush();
       redisStreams.forEach((k, v) -> {
         try {
           switch (v.getDestinationSyncMode()) {
@@ -7,6 +7,8 @@ package io.airbyte.integrations.destination.redis;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Instant;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,4 +119,36 @@ class RedisHCacheTest {
     assertThat(redisRecords).isEmpty();
   }
 
+  @Test
+  void testInsertAndCopyInSeveralBatches() {
+    var key1 = "test_key_batches1";
+    var key2 = "test_key_batches2";
+    var batchedCache = new RedisHCache(new RedisConfig(redisContainer.getHost(), redisContainer.getFirstMappedPort(), "default", "pw",
+        RedisCache.CacheType.HASH, 10));
+    try {
+      // given
+      for (int i = 0; i < 25; i++) {
+        batchedCache.insert(key1, Instant.now(), "{\"property\":\"data" + i + "\"}");
+      }
+      batchedCache.insert(key2, Instant.now(), "{\"property\":\"data25\"}");
+
+      // when
+      var insertedIds = batchedCache.getAll(key1).stream().map(RedisRecord::getId).collect(Collectors.toSet());
+      batchedCache.copy(key1, key2, false);
+      var redisRecords = batchedCache.getAll(key2);
+
+      // then
+      assertThat(insertedIds).isEqualTo(LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toSet()));
+      assertThat(batchedCache.getAll(key1)).isEmpty();
+      assertThat(redisRecords)
+          .isNotNull()
+          .hasSize(26)
+          .anyMatch(r -> r.getData().equals("{\"property\":\"data0\"}"))
+          .anyMatch(r -> r.getData().equals("{\"property\":\"data24\"}"))
+          .anyMatch(r -> r.getData().equals("{\"property\":\"data25\"}"));
+    } finally {
+      batchedCache.close();
+    }
+  }
+
 }
@@ -6,6 +6,7 @@ package io.airbyte.integrations.destination.redis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -26,8 +27,17 @@ class RedisConfigTest {
         .hasFieldOrPropertyWithValue("password", "pw")
         .hasFieldOrPropertyWithValue("host", "127.0.0.1")
         .hasFieldOrPropertyWithValue("port", 6379)
-        .hasFieldOrPropertyWithValue("cacheType", RedisCache.CacheType.HASH);
+        .hasFieldOrPropertyWithValue("cacheType", RedisCache.CacheType.HASH)
+        .hasFieldOrPropertyWithValue("batchSize", RedisConfig.DEFAULT_BATCH_SIZE);
 
   }
 
+  @Test
+  void testBatchSize() {
+    var jsonNode = (ObjectNode) RedisDataFactory.jsonConfig("127.0.0.1", 6379);
+    jsonNode.put("batch_size", 500);
+
+    assertThat(new RedisConfig(jsonNode)).hasFieldOrPropertyWithValue("batchSize", 500);
+  }
+
 }
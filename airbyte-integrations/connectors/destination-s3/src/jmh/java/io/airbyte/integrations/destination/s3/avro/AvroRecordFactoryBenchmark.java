@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.s3.avro;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.airbyte.commons.jackson.MoreMappers;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.integrations.base.JavaBaseConstants;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares building Avro records by serializing each record and parsing it again with the
+ * {@link AvroConstants#JSON_CONVERTER}, as {@link AvroRecordFactory} used to do, against the
+ * {@link AvroRecordFactory} walking the Json tree directly. Records are wide, with nested objects,
+ * arrays, and date time fields among plain fields, and some field names that need standardizing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AvroRecordFactoryBenchmark {
+
+  private static final ObjectMapper MAPPER = MoreMappers.initMapper();
+  private static final ObjectWriter WRITER = MAPPER.writer();
+  private static final List<String> FIELD_TYPES = List.of("string", "integer", "number", "boolean", "date-time", "object", "array");
+
+  @Param({"10", "100"})
+  public int fieldCount;
+
+  private Schema schema;
+  private AvroRecordFactory recordFactory;
+  private UUID id;
+  private AirbyteRecordMessage recordMessage;
+
+  @Setup
+  public void setup() {
+    final ObjectNode properties = MAPPER.createObjectNode();
+    final ObjectNode data = MAPPER.createObjectNode();
+    for (int i = 0; i < fieldCount; i++) {
+      final String fieldType = FIELD_TYPES.get(i % FIELD_TYPES.size());
+      final String fieldName = i % 3 == 0 ? String.format("field:%d", i) : String.format("field_%d", i);
+      properties.set(fieldName, getFieldSchema(fieldType));
+      data.set(fieldName, getFieldValue(fieldType, i));
+    }
+    final JsonNode jsonSchema = MAPPER.createObjectNode().put("type", "object").set("properties", properties);
+
+    schema = new JsonToAvroSchemaConverter().getAvroSchema(jsonSchema, "benchmark_stream", "benchmark_namespace");
+    recordFactory = new AvroRecordFactory(schema, AvroConstants.JSON_CONVERTER);
+    id = UUID.randomUUID();
+    recordMessage = new AirbyteRecordMessage()
+        .withStream("benchmark_stream")
+        .withNamespace("benchmark_namespace")
+        .withEmittedAt(1_600_000_000_000L)
+        .withData(data);
+  }
+
+  @Benchmark
+  public GenericData.Record jsonAvroConverter() throws Exception {
+    final ObjectNode jsonRecord = MAPPER.createObjectNode();
+    jsonRecord.put(JavaBaseConstants.COLUMN_NAME_AB_ID, id.toString());
+    jsonRecord.put(JavaBaseConstants.COLUMN_NAME_EMITTED_AT, recordMessage.getEmittedAt());
+    jsonRecord.setAll((ObjectNode) recordMessage.getData());
+    return AvroConstants.JSON_CONVERTER.convertToGenericDataRecord(WRITER.writeValueAsBytes(jsonRecord), schema);
+  }
+
+  @Benchmark
+  public GenericData.Record avroRecordFactory() throws Exception {
+    return recordFactory.getAvroRecord(id, recordMessage);
+  }
+
+  private static JsonNode getFieldSchema(final String fieldType) {
+    return switch (fieldType) {
+      case "date-time" -> Jsons.jsonNode(Map.of("type", "string", "format", "date-time"));
+      case "object" -> Jsons.jsonNode(Map.of("type", "object", "properties", Map.of(
+          "id", Map.of("type", "integer"),
+          "name", Map.of("type", "string"),
+          "score", Map.of("type", "number"),
+          "tags", Map.of("type", "array", "items", Map.of("type", "string")))));
+      case "array" -> Jsons.jsonNode(Map.of("type", "array", "items", Map.of("type", "integer")));
+      default -> Jsons.jsonNode(Map.of("type", fieldType));
+    };
+  }
+
+  private static JsonNode getFieldValue(final String fieldType, final int i) {
+    return switch (fieldType) {
+      case "string" -> Jsons.jsonNode("value " + i);
+      case "integer" -> Jsons.jsonNode(i);
+      case "number" -> Jsons.jsonNode(i * 1.5);
+      case "boolean" -> Jsons.jsonNode(i % 2 == 0);
+      case "date-time" -> Jsons.jsonNode("2021-01-01T01:01:01.123+01:00");
+      case "object" -> Jsons.jsonNode(Map.of("id", i, "name", "name " + i, "score", 0.5, "tags", List.of("a", "b")));
+      default -> Jsons.jsonNode(List.of(i, i + 1, i + 2));
+    };
+  }
+
+}
@@ -13,35 +13,66 @@ import io.airbyte.commons.jackson.MoreMappers;
 import io.airbyte.integrations.base.JavaBaseConstants;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.util.UUID;
+import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import tech.allegro.schema.json2avro.converter.JsonAvroConverter;
 
+/**
+ * Builds the Avro records of a stream with a {@link JsonToAvroRecordConverter} compiled from its
+ * schema. Records that it cannot convert are converted again by the {@link JsonAvroConverter}, which
+ * is slower but more lenient with mismatching values.
+ */
 public class AvroRecordFactory {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(AvroRecordFactory.class);
+
   private static final ObjectMapper MAPPER = MoreMappers.initMapper();
   private static final ObjectWriter WRITER = MAPPER.writer();
 
   private final Schema schema;
   private final JsonAvroConverter converter;
+  private final JsonToAvroRecordConverter recordConverter;
+  private boolean hasLoggedFallback;
 
   public AvroRecordFactory(final Schema schema, final JsonAvroConverter converter) {
     this.schema = schema;
     this.converter = converter;
+    this.recordConverter = new JsonToAvroRecordConverter(schema);
   }
 
   public GenericData.Record getAvroRecord(final UUID id, final AirbyteRecordMessage recordMessage) throws JsonProcessingException {
-    final ObjectNode jsonRecord = MAPPER.createObjectNode();
-    jsonRecord.put(JavaBaseConstants.COLUMN_NAME_AB_ID, id.toString());
-    jsonRecord.put(JavaBaseConstants.COLUMN_NAME_EMITTED_AT, recordMessage.getEmittedAt());
-    jsonRecord.setAll((ObjectNode) recordMessage.getData());
+    try {
+      final GenericData.Record record = recordConverter.convert(recordMessage.getData());
+      record.put(JavaBaseConstants.COLUMN_NAME_AB_ID, id.toString());
+      record.put(JavaBaseConstants.COLUMN_NAME_EMITTED_AT, recordMessage.getEmittedAt());
+      return record;
+    } catch (final AvroTypeException e) {
+      logFallback(e);
+      final ObjectNode jsonRecord = MAPPER.createObjectNode();
+      jsonRecord.put(JavaBaseConstants.COLUMN_NAME_AB_ID, id.toString());
+      jsonRecord.put(JavaBaseConstants.COLUMN_NAME_EMITTED_AT, recordMessage.getEmittedAt());
+      jsonRecord.setAll((ObjectNode) recordMessage.getData());
+      return converter.convertToGenericDataRecord(WRITER.writeValueAsBytes(jsonRecord), schema);
+    }
+  }
 
-    return converter.convertToGenericDataRecord(WRITER.writeValueAsBytes(jsonRecord), schema);
+  public GenericData.Record getAvroRecord(final JsonNode formattedData) throws JsonProcessingException {
+    try {
+      return recordConverter.convert(formattedData);
+    } catch (final AvroTypeException e) {
+      logFallback(e);
+      return converter.convertToGenericDataRecord(WRITER.writeValueAsBytes(formattedData), schema);
+    }
   }
 
-  public GenericData.Record getAvroRecord(JsonNode formattedData) throws JsonProcessingException {
-    var bytes = WRITER.writeValueAsBytes(formattedData);
-    return converter.convertToGenericDataRecord(bytes, schema);
+  private void logFallback(final AvroTypeException e) {
+    if (!hasLoggedFallback) {
+      LOGGER.warn("Falling back to the JsonAvroConverter for records of {} that cannot be converted directly: {}", schema.getFullName(), e.getMessage());
+      hasLoggedFallback = true;
+    }
   }
 
 }
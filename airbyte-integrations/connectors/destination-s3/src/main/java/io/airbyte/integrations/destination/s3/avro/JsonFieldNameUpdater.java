@@ -5,8 +5,12 @@
 package io.airbyte.integrations.destination.s3.avro;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableMap;
 import io.airbyte.commons.json.Jsons;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -18,20 +22,20 @@ public class JsonFieldNameUpdater {
 
   // A map from original name to standardized name.
   private final Map<String, String> standardizedNames;
+  // A map from standardized name to original name.
+  private final Map<String, String> originalNames;
 
   public JsonFieldNameUpdater(final Map<String, String> standardizedNames) {
     this.standardizedNames = ImmutableMap.copyOf(standardizedNames);
+    this.originalNames = new HashMap<>();
+    standardizedNames.forEach((originalName, standardizedName) -> originalNames.put(standardizedName, originalName));
   }
 
   public JsonNode getJsonWithOriginalFieldNames(final JsonNode input) {
     if (standardizedNames.size() == 0) {
       return input;
     }
-    String jsonString = Jsons.serialize(input);
-    for (final Map.Entry<String, String> entry : standardizedNames.entrySet()) {
-      jsonString = jsonString.replaceAll(quote(entry.getValue()), quote(entry.getKey()));
-    }
-    return Jsons.deserialize(jsonString);
+    return renameFields(input);
   }
 
   @Override
@@ -39,8 +43,22 @@ public class JsonFieldNameUpdater {
     return standardizedNames.toString();
   }
 
-  private static String quote(final String input) {
-    return "\"" + input + "\"";
+  private JsonNode renameFields(final JsonNode input) {
+    if (input.isObject()) {
+      final ObjectNode output = (ObjectNode) Jsons.emptyObject();
+      final Iterator<Map.Entry<String, JsonNode>> fields = input.fields();
+      while (fields.hasNext()) {
+        final Map.Entry<String, JsonNode> field = fields.next();
+        output.set(originalNames.getOrDefault(field.getKey(), field.getKey()), renameFields(field.getValue()));
+      }
+      return output;
+    }
+    if (input.isArray()) {
+      final ArrayNode output = Jsons.arrayNode();
+      input.forEach(element -> output.add(renameFields(element)));
+      return output;
+    }
+    return input;
   }
 
 }
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.s3.avro;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Preconditions;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+/**
+ * Converts Json objects into Avro records of one schema, following the same rules as
+ * {@link AvroConstants#JSON_CONVERTER}:
+ * <ul>
+ * <li>Json fields are matched with the Avro fields by their original or standardized names.</li>
+ * <li>The types of a union are tried in order, and values that fit none of them are written as
+ * strings if the union has a string type.</li>
+ * <li>Strings are parsed into the date and time logical types.</li>
+ * <li>Unknown fields, and the Json additional properties fields, are written as strings into the
+ * Avro additional properties field.</li>
+ * </ul>
+ * The conversion of every field is resolved once from the schema, and each record is converted by
+ * walking its Json tree, instead of serializing it and parsing it again.
+ */
+public class JsonToAvroRecordConverter {
+
+  // returned when a value does not fit a type, so that the next type of the union is tried.
+  private static final Object INCOMPATIBLE = new Object();
+  private static final String ORIGINAL_NAME_PREFIX = AvroConstants.DOC_KEY_ORIGINAL_NAME + AvroConstants.DOC_KEY_VALUE_DELIMITER;
+  // the doc of a field merged from several object schemas joins their docs.
+  private static final String MERGED_DOC_DELIMITER = "; ";
+
+  private static final DateTimeFormatter ZONE_FORMATTER = new DateTimeFormatterBuilder()
+      .optionalStart().appendLiteral(' ').optionalEnd()
+      .optionalStart().appendOffset("+HHMM", "Z").optionalEnd()
+      .optionalStart().appendZoneOrOffsetId().optionalEnd()
+      .toFormatter();
+  // e.g. 2021-01-01, 2021-01-01T01:01:01.123+01:00, 2021-01-01 01:01:01 UTC
+  private static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+      .parseCaseInsensitive()
+      .append(DateTimeFormatter.ISO_LOCAL_DATE)
+      .optionalStart()
+      .appendPattern("[ ]['T']")
+      .append(DateTimeFormatter.ISO_LOCAL_TIME)
+      .optionalEnd()
+      .append(ZONE_FORMATTER)
+      .toFormatter();
+  // e.g. 12:23:01.541, 12:23:01+01:00
+  private static final DateTimeFormatter TIME_FORMATTER = new DateTimeFormatterBuilder()
+      .parseCaseInsensitive()
+      .append(DateTimeFormatter.ISO_LOCAL_TIME)
+      .append(ZONE_FORMATTER)
+      .toFormatter();
+
+  private final RecordConverter recordConverter;
+
+  public JsonToAvroRecordConverter(final Schema schema) {
+    Preconditions.checkArgument(schema.getType() == Schema.Type.RECORD, "Schema %s is not a record", schema.getFullName());
+    this.recordConverter = new RecordConverter(schema);
+  }
+
+  /**
+   * @throws AvroTypeException if a field of the Json object does not fit its Avro type.
+   */
+  public GenericData.Record convert(final JsonNode json) {
+    if (!json.isObject()) {
+      throw new AvroTypeException(String.format("Expected a Json object for record %s", recordConverter.schema.getFullName()));
+    }
+    return (GenericData.Record) recordConverter.convert(json, true);
+  }
+
+  @FunctionalInterface
+  private interface ValueConverter {
+
+    /**
+     * @return the Avro value, or {@link #INCOMPATIBLE} if the Json value does not fit the type.
+     */
+    Object convert(JsonNode value);
+
+  }
+
+  /**
+   * @param inUnion strings only accept Json strings in a union, and any value otherwise.
+   */
+  private static ValueConverter compile(final Schema schema, final boolean inUnion) {
+    final LogicalType logicalType = schema.getLogicalType();
+    return switch (schema.getType()) {
+      case RECORD -> new RecordConverter(schema);
+      case UNION -> new UnionConverter(schema);
+      case ARRAY -> compileArray(schema);
+      case MAP -> value -> value.isObject() ? toStringMap(value, new LinkedHashMap<>()) : INCOMPATIBLE;
+      case STRING -> inUnion
+          ? value -> value.isTextual() ? value.asText() : INCOMPATIBLE
+          : value -> value.isNull() ? INCOMPATIBLE : stringify(value);
+      case BOOLEAN -> value -> value.isBoolean() ? value.booleanValue() : INCOMPATIBLE;
+      case INT -> logicalType instanceof LogicalTypes.Date
+          ? JsonToAvroRecordConverter::toEpochDays
+          : value -> value.isIntegralNumber() && value.canConvertToInt() ? value.intValue() : INCOMPATIBLE;
+      case LONG -> {
+        if (logicalType instanceof LogicalTypes.TimestampMicros) {
+          yield JsonToAvroRecordConverter::toEpochMicros;
+        } else if (logicalType instanceof LogicalTypes.TimeMicros) {
+          yield JsonToAvroRecordConverter::toMicrosOfDay;
+        }
+        yield JsonToAvroRecordConverter::toLong;
+      }
+      case FLOAT -> value -> value.isNumber() ? value.floatValue() : INCOMPATIBLE;
+      case DOUBLE -> value -> value.isNumber() ? value.doubleValue() : INCOMPATIBLE;
+      case NULL -> value -> value.isNull() ? null : INCOMPATIBLE;
+      default -> throw new IllegalArgumentException(String.format("Avro type %s is not supported", schema.getType()));
+    };
+  }
+
+  private static ValueConverter compileArray(final Schema schema) {
+    final ValueConverter elementConverter = compile(schema.getElementType(), false);
+    return value -> {
+      if (!value.isArray()) {
+        return INCOMPATIBLE;
+      }
+      final GenericData.Array<Object> array = new GenericData.Array<>(value.size(), schema);
+      for (final JsonNode element : value) {
+        final Object convertedElement = elementConverter.convert(element);
+        if (convertedElement == INCOMPATIBLE) {
+          return INCOMPATIBLE;
+        }
+        array.add(convertedElement);
+      }
+      return array;
+    };
+  }
+
+  private static class RecordConverter implements ValueConverter {
+
+    private final Schema schema;
+    // both the standardized and the original names of each field.
+    private final Map<String, FieldConverter> fieldsByJsonName;
+    private final int additionalPropertiesPosition;
+
+    RecordConverter(final Schema schema) {
+      this.schema = schema;
+      this.fieldsByJsonName = new HashMap<>();
+      int additionalPropertiesPosition = -1;
+      for (final Schema.Field field : schema.getFields()) {
+        if (field.name().equals(AvroConstants.AVRO_EXTRA_PROPS_FIELD)) {
+          additionalPropertiesPosition = field.pos();
+          continue;
+        }
+        final FieldConverter fieldConverter = new FieldConverter(field, compile(field.schema(), false));
+        fieldsByJsonName.put(field.name(), fieldConverter);
+        getOriginalNames(field).forEach(originalName -> fieldsByJsonName.putIfAbsent(originalName, fieldConverter));
+      }
+      this.additionalPropertiesPosition = additionalPropertiesPosition;
+    }
+
+    @Override
+    public Object convert(final JsonNode value) {
+      return value.isObject() ? convert(value, false) : INCOMPATIBLE;
+    }
+
+    Object convert(final JsonNode json, final boolean throwIfIncompatible) {
+      final GenericData.Record record = new GenericData.Record(schema);
+      Map<String, String> additionalProperties = null;
+
+      final Iterator<Map.Entry<String, JsonNode>> jsonFields = json.fields();
+      while (jsonFields.hasNext()) {
+        final Map.Entry<String, JsonNode> jsonField = jsonFields.next();
+        final String name = jsonField.getKey();
+        final JsonNode value = jsonField.getValue();
+
+        if (AvroConstants.JSON_EXTRA_PROPS_FIELDS.contains(name)) {
+          if (additionalPropertiesPosition >= 0 && value.isObject()) {
+            additionalProperties = toStringMap(value, additionalProperties == null ? new LinkedHashMap<>() : additionalProperties);
+          }
+          continue;
+        }
+
+        FieldConverter field = fieldsByJsonName.get(name);
+        if (field == null) {
+          field = fieldsByJsonName.get(AvroConstants.NAME_TRANSFORMER.getIdentifier(name));
+        }
+        if (field == null) {
+          if (additionalPropertiesPosition >= 0 && !value.isNull()) {
+            if (additionalProperties == null) {
+              additionalProperties = new LinkedHashMap<>();
+            }
+            additionalProperties.put(name, stringify(value));
+          }
+          continue;
+        }
+
+        final Object convertedValue = field.converter.convert(value);
+        if (convertedValue == INCOMPATIBLE) {
+          if (throwIfIncompatible) {
+            throw new AvroTypeException(String.format("Could not convert field %s of record %s to %s", name, schema.getFullName(), field.schema));
+          }
+          return INCOMPATIBLE;
+        }
+        record.put(field.position, convertedValue);
+      }
+
+      if (additionalProperties != null) {
+        record.put(additionalPropertiesPosition, additionalProperties);
+      }
+      return record;
+    }
+
+  }
+
+  private static class FieldConverter {
+
+    private final int position;
+    private final Schema schema;
+    private final ValueConverter converter;
+
+    FieldConverter(final Schema.Field field, final ValueConverter converter) {
+      this.position = field.pos();
+      this.schema = field.schema();
+      this.converter = converter;
+    }
+
+  }
+
+  private static class UnionConverter implements ValueConverter {
+
+    private final boolean isNullable;
+    private final boolean hasString;
+    private final ValueConverter[] typeConverters;
+
+    UnionConverter(final Schema schema) {
+      boolean isNullable = false;
+      boolean hasString = false;
+      final List<ValueConverter> typeConverters = new ArrayList<>();
+      for (final Schema type : schema.getTypes()) {
+        if (type.getType() == Schema.Type.NULL) {
+          isNullable = true;
+          continue;
+        }
+        hasString |= type.getType() == Schema.Type.STRING;
+        typeConverters.add(compile(type, true));
+      }
+      this.isNullable = isNullable;
+      this.hasString = hasString;
+      this.typeConverters = typeConverters.toArray(new ValueConverter[0]);
+    }
+
+    @Override
+    public Object convert(final JsonNode value) {
+      if (value.isNull()) {
+        return isNullable ? null : INCOMPATIBLE;
+      }
+      for (final ValueConverter typeConverter : typeConverters) {
+        final Object convertedValue = typeConverter.convert(value);
+        if (convertedValue != INCOMPATIBLE) {
+          return convertedValue;
+        }
+      }
+      return hasString ? stringify(value) : INCOMPATIBLE;
+    }
+
+  }
+
+  private static List<String> getOriginalNames(final Schema.Field field) {
+    if (field.doc() == null) {
+      return Collections.emptyList();
+    }
+    final List<String> originalNames = new ArrayList<>();
+    for (final String doc : field.doc().split(MERGED_DOC_DELIMITER)) {
+      if (doc.startsWith(ORIGINAL_NAME_PREFIX)) {
+        originalNames.add(doc.substring(ORIGINAL_NAME_PREFIX.length()));
+      }
+    }
+    return originalNames;
+  }
+
+  private static String stringify(final JsonNode value) {
+    return value.isTextual() ? value.asText() : value.toString();
+  }
+
+  private static Map<String, String> toStringMap(final JsonNode object, final Map<String, String> map) {
+    final Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+    while (fields.hasNext()) {
+      final Map.Entry<String, JsonNode> field = fields.next();
+      if (!field.getValue().isNull()) {
+        map.put(field.getKey(), stringify(field.getValue()));
+      }
+    }
+    return map;
+  }
+
+  private static Object toLong(final JsonNode value) {
+    return value.isIntegralNumber() && value.canConvertToLong() ? value.longValue() : INCOMPATIBLE;
+  }
+
+  private static Object toEpochDays(final JsonNode value) {
+    if (value.isIntegralNumber()) {
+      return value.canConvertToInt() ? value.intValue() : INCOMPATIBLE;
+    }
+    if (!value.isTextual()) {
+      return INCOMPATIBLE;
+    }
+    try {
+      return (int) DATE_TIME_FORMATTER.parse(value.asText()).query(TemporalQueries.localDate()).toEpochDay();
+    } catch (final DateTimeException e) {
+      return INCOMPATIBLE;
+    }
+  }
+
+  private static Object toEpochMicros(final JsonNode value) {
+    if (!value.isTextual()) {
+      return toLong(value);
+    }
+    final String text = value.asText();
+    try {
+      return Long.parseLong(text);
+    } catch (final NumberFormatException e) {
+      // not an epoch value, parsed as a date time below.
+    }
+    try {
+      final TemporalAccessor dateTime = DATE_TIME_FORMATTER.parse(text);
+      final LocalTime time = dateTime.query(TemporalQueries.localTime());
+      final ZoneId zone = dateTime.query(TemporalQueries.zone());
+      final Instant instant = dateTime.query(TemporalQueries.localDate())
+          .atTime(time == null ? LocalTime.MIDNIGHT : time)
+          .atZone(zone == null ? ZoneOffset.UTC : zone)
+          .toInstant();
+      return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    } catch (final DateTimeException | ArithmeticException e) {
+      return INCOMPATIBLE;
+    }
+  }
+
+  private static Object toMicrosOfDay(final JsonNode value) {
+    if (!value.isTextual()) {
+      return toLong(value);
+    }
+    try {
+      return TIME_FORMATTER.parse(value.asText()).query(TemporalQueries.localTime()).toNanoOfDay() / 1000;
+    } catch (final DateTimeException e) {
+      return INCOMPATIBLE;
+    }
+  }
+
+}
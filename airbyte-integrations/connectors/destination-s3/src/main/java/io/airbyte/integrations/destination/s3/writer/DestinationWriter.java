@@ -5,6 +5,7 @@
 package io.airbyte.integrations.destination.s3.writer;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.integrations.destination.rolling_file.RecordFileWriter;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.io.IOException;
 import java.util.UUID;
@@ -13,7 +14,7 @@ import java.util.UUID;
  * {@link DestinationWriter} is responsible for writing Airbyte stream data to an S3 location in a
  * specific format.
  */
-public interface DestinationWriter {
+public interface DestinationWriter extends RecordFileWriter {
 
   /**
    * Prepare an S3 writer for the stream.
@@ -23,6 +24,7 @@ public interface DestinationWriter {
   /**
    * Write an Airbyte record message to an S3 object.
    */
+  @Override
   void write(UUID id, AirbyteRecordMessage recordMessage) throws IOException;
 
   void write(JsonNode formattedData) throws IOException;
@@ -30,6 +32,7 @@ public interface DestinationWriter {
   /**
    * Close the S3 writer for the stream.
    */
+  @Override
   void close(boolean hasFailed) throws IOException;
 
 }
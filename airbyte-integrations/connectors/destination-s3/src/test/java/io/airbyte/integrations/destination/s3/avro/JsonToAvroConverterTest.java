@@ -14,7 +14,11 @@ import io.airbyte.commons.jackson.MoreMappers;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.resources.MoreResources;
 import io.airbyte.commons.util.MoreIterators;
+import io.airbyte.integrations.base.JavaBaseConstants;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
 import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Stream;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -118,13 +122,37 @@ class JsonToAvroConverterTest {
         String.format("Schema conversion for %s failed", schemaName));
 
     final Schema.Parser schemaParser = new Schema.Parser();
+    final Schema parsedAvroSchema = schemaParser.parse(Jsons.serialize(avroSchema));
     final GenericData.Record actualAvroObject = AvroConstants.JSON_CONVERTER.convertToGenericDataRecord(
         WRITER.writeValueAsBytes(jsonObject),
-        schemaParser.parse(Jsons.serialize(avroSchema)));
+        parsedAvroSchema);
     assertEquals(
         avroObject,
         Jsons.deserialize(actualAvroObject.toString()),
         String.format("Object conversion for %s failed", schemaName));
+
+    final GenericData.Record directAvroObject = new JsonToAvroRecordConverter(parsedAvroSchema).convert(jsonObject);
+    assertEquals(
+        avroObject,
+        Jsons.deserialize(directAvroObject.toString()),
+        String.format("Direct object conversion for %s failed", schemaName));
+  }
+
+  @Test
+  public void testAvroRecordFactoryAddsAirbyteFields() throws Exception {
+    final JsonNode jsonSchema = Jsons.deserialize("{ \"type\": \"object\", \"properties\": { \"node:id\": { \"type\": \"string\" } } }");
+    final Schema schema = new JsonToAvroSchemaConverter().getAvroSchema(jsonSchema, "stream", "namespace");
+    final AvroRecordFactory recordFactory = new AvroRecordFactory(schema, AvroConstants.JSON_CONVERTER);
+    final UUID id = UUID.randomUUID();
+
+    final GenericData.Record record = recordFactory.getAvroRecord(id, new AirbyteRecordMessage()
+        .withEmittedAt(1634982000L)
+        .withData(Jsons.deserialize("{ \"node:id\": \"abc123\", \"active\": true }")));
+
+    assertEquals(id.toString(), record.get(JavaBaseConstants.COLUMN_NAME_AB_ID));
+    assertEquals(1634982000L, record.get(JavaBaseConstants.COLUMN_NAME_EMITTED_AT));
+    assertEquals("abc123", record.get("node_id"));
+    assertEquals(Map.of("active", "true"), record.get(AvroConstants.AVRO_EXTRA_PROPS_FIELD));
   }
 
 }
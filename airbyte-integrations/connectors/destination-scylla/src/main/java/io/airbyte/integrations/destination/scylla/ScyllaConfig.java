@@ -9,6 +9,8 @@ import java.util.Objects;
 
 public class ScyllaConfig {
 
+  static final int DEFAULT_MAX_IN_FLIGHT_WRITES = 128;
+
   private final String keyspace;
 
   private final String username;
@@ -21,13 +23,26 @@ public class ScyllaConfig {
 
   private final int replication;
 
+  private final int maxInFlightWrites;
+
   public ScyllaConfig(String keyspace, String username, String password, String address, int port, int replication) {
+    this(keyspace, username, password, address, port, replication, DEFAULT_MAX_IN_FLIGHT_WRITES);
+  }
+
+  public ScyllaConfig(String keyspace,
+                      String username,
+                      String password,
+                      String address,
+                      int port,
+                      int replication,
+                      int maxInFlightWrites) {
     this.keyspace = keyspace;
     this.username = username;
     this.password = password;
     this.address = address;
     this.port = port;
     this.replication = replication;
+    this.maxInFlightWrites = maxInFlightWrites;
   }
 
   public ScyllaConfig(JsonNode jsonNode) {
@@ -37,6 +52,7 @@ public class ScyllaConfig {
     this.address = jsonNode.get("address").asText();
     this.port = jsonNode.get("port").asInt(9042);
     this.replication = jsonNode.get("replication").asInt(1);
+    this.maxInFlightWrites = jsonNode.path("max_in_flight_writes").asInt(DEFAULT_MAX_IN_FLIGHT_WRITES);
   }
 
   public String getKeyspace() {
@@ -63,6 +79,10 @@ public class ScyllaConfig {
     return replication;
   }
 
+  public int getMaxInFlightWrites() {
+    return maxInFlightWrites;
+  }
+
   @Override
   public String toString() {
     return "ScyllaConfig{" +
@@ -72,6 +92,7 @@ public class ScyllaConfig {
         ", address='" + address + '\'' +
         ", port=" + port +
         ", replication=" + replication +
+        ", maxInFlightWrites=" + maxInFlightWrites +
         '}';
   }
 
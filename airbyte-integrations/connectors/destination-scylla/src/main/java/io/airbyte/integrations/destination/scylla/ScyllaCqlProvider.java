@@ -10,17 +10,23 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.schemabuilder.SchemaBuilder;
 import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.airbyte.integrations.base.JavaBaseConstants;
+import io.airbyte.integrations.destination.AsyncWriteLimiter;
 import java.io.Closeable;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -49,12 +55,17 @@ public class ScyllaCqlProvider implements Closeable {
 
   private final String columnTimestamp;
 
+  private final Map<String, PreparedStatement> insertStatements = new ConcurrentHashMap<>();
+
+  private final AsyncWriteLimiter writeLimiter;
+
   public ScyllaCqlProvider(ScyllaConfig scyllaConfig) {
     this.scyllaConfig = scyllaConfig;
     var sessionTuple = ScyllaSessionPool.initSession(scyllaConfig);
     this.cluster = sessionTuple.value1();
     this.session = sessionTuple.value2();
     this.executorService = Executors.newFixedThreadPool(N_THREADS);
+    this.writeLimiter = new AsyncWriteLimiter(scyllaConfig.getMaxInFlightWrites());
     var nameTransformer = new ScyllaNameTransformer(scyllaConfig);
     this.columnId = nameTransformer.outputColumn(JavaBaseConstants.COLUMN_NAME_AB_ID);
     this.columnData = nameTransformer.outputColumn(JavaBaseConstants.COLUMN_NAME_DATA);
@@ -91,12 +102,44 @@ public class ScyllaCqlProvider implements Closeable {
     session.execute(truncate);
   }
 
+  /**
+   * Writes the record asynchronously, once fewer than the configured maximum number of writes are in
+   * flight. Each record is its own partition, so records are not batched together: the token aware
+   * policy of the driver routes each bound statement directly to a replica of its partition instead.
+   */
   public void insert(String keyspace, String table, String data) {
+    var insertStatement = insertStatements.computeIfAbsent(keyspace + "." + table, k -> prepareInsert(keyspace, table));
+    var boundStatement = insertStatement.bind(UUIDs.random(), data, new Date());
+    writeLimiter.submit(() -> executeAsync(boundStatement));
+  }
+
+  private PreparedStatement prepareInsert(String keyspace, String table) {
     var insert = QueryBuilder.insertInto(keyspace, table)
-        .value(columnId, UUIDs.random())
-        .value(columnData, data)
-        .value(columnTimestamp, Instant.now().toEpochMilli());
-    session.execute(insert);
+        .value(columnId, QueryBuilder.bindMarker())
+        .value(columnData, QueryBuilder.bindMarker())
+        .value(columnTimestamp, QueryBuilder.bindMarker());
+    return session.prepare(insert);
+  }
+
+  private CompletableFuture<ResultSet> executeAsync(Statement statement) {
+    var result = new CompletableFuture<ResultSet>();
+    var resultSetFuture = session.executeAsync(statement);
+    resultSetFuture.addListener(() -> {
+      try {
+        result.complete(resultSetFuture.getUninterruptibly());
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }, MoreExecutors.directExecutor());
+    return result;
+  }
+
+  /**
+   * Waits for all inserted records to be written.
+   */
+  public void flush() {
+    writeLimiter.awaitAll();
+    writeLimiter.logMetrics();
   }
 
   public List<Triplet<UUID, String, Instant>> select(String keyspace, String table) {
@@ -74,7 +74,16 @@ public class ScyllaMessageConsumer extends FailureTrackingAirbyteMessageConsumer
 
   @Override
   protected void close(boolean hasFailed) {
+    RuntimeException writeFailure = null;
     if (!hasFailed) {
+      try {
+        scyllaCqlProvider.flush();
+      } catch (RuntimeException e) {
+        writeFailure = e;
+      }
+    }
+
+    if (!hasFailed && writeFailure == null) {
       scyllaStreams.forEach((k, v) -> {
         try {
           scyllaCqlProvider.createTableIfNotExists(v.getKeyspace(), v.getTableName());
@@ -103,6 +112,10 @@ public class ScyllaMessageConsumer extends FailureTrackingAirbyteMessageConsumer
       }
     });
     scyllaCqlProvider.close();
+
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
   }
 
 }
@@ -60,6 +60,7 @@ class ScyllaCqlProviderTest {
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data1\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data2\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data3\"}");
+    scyllaCqlProvider.flush();
 
     // when
     var resultSet = scyllaCqlProvider.select(SCYLLA_KEYSPACE, SCYLLA_TABLE);
@@ -80,6 +81,7 @@ class ScyllaCqlProviderTest {
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data1\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data2\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, SCYLLA_TABLE, "{\"property\":\"data3\"}");
+    scyllaCqlProvider.flush();
 
     // when
     scyllaCqlProvider.truncate(SCYLLA_KEYSPACE, SCYLLA_TABLE);
@@ -112,6 +114,7 @@ class ScyllaCqlProviderTest {
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, tmpTable, "{\"property\":\"data1\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, tmpTable, "{\"property\":\"data2\"}");
     scyllaCqlProvider.insert(SCYLLA_KEYSPACE, tmpTable, "{\"property\":\"data3\"}");
+    scyllaCqlProvider.flush();
 
     String rawTable = nameTransformer.outputTable("test_stream_copy");
     scyllaCqlProvider.createTableIfNotExists(SCYLLA_KEYSPACE, rawTable);
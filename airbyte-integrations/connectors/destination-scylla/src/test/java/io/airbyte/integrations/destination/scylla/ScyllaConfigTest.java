@@ -28,7 +28,8 @@ class ScyllaConfigTest {
         .hasFieldOrPropertyWithValue("password", "pw")
         .hasFieldOrPropertyWithValue("address", "127.0.0.1")
         .hasFieldOrPropertyWithValue("port", 9042)
-        .hasFieldOrPropertyWithValue("replication", 2);
+        .hasFieldOrPropertyWithValue("replication", 2)
+        .hasFieldOrPropertyWithValue("maxInFlightWrites", ScyllaConfig.DEFAULT_MAX_IN_FLIGHT_WRITES);
 
   }
 
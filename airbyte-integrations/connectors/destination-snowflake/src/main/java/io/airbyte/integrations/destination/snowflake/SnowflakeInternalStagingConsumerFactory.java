@@ -41,6 +41,10 @@ import org.slf4j.LoggerFactory;
  * file://local/<file-patterns> @TEMP_STAGE_NAME. --JDBC Driver will upload the files into stage
  * COPY FROM @TEMP_STAGE_NAME -- Loads data from staged files to an existing table.
  * DROP @TEMP_STAGE_NAME -- Drop temporary stage after sync
+ *
+ * <p>
+ * Records are PUT as gzip compressed files by a {@link SnowflakeStageUploader} while the sync is
+ * still reading, and the COPY lists the uploaded files explicitly.
  */
 public class SnowflakeInternalStagingConsumerFactory {
 
@@ -168,55 +172,60 @@ public class SnowflakeInternalStagingConsumerFactory {
                                           final List<WriteConfig> writeConfigs,
                                           final SnowflakeSQLNameTransformer namingResolver) {
     return (hasFailed) -> {
-      if (!hasFailed) {
-        final List<String> queryList = new ArrayList<>();
-        LOGGER.info("Finalizing tables in destination started for {} streams", writeConfigs.size());
+      try {
+        if (!hasFailed) {
+          final List<String> queryList = new ArrayList<>();
+          LOGGER.info("Finalizing tables in destination started for {} streams", writeConfigs.size());
+
+          for (final WriteConfig writeConfig : writeConfigs) {
+            final String schemaName = writeConfig.getOutputSchemaName();
+            final String streamName = writeConfig.getStreamName();
+            final String srcTableName = writeConfig.getTmpTableName();
+            final String dstTableName = writeConfig.getOutputTableName();
+            final String path = namingResolver.getStagingPath(schemaName, dstTableName, CURRENT_SYNC_PATH);
+            LOGGER.info("Finalizing stream {}. schema {}, tmp table {}, final table {}, stage path {}",
+                streamName, schemaName, srcTableName, dstTableName, path);
+
+            try {
+              sqlOperations.copyIntoTmpTableFromStage(database, path, srcTableName, schemaName);
+            } catch (final Exception e) {
+              sqlOperations.cleanUpStage(database, path);
+              LOGGER.info("Cleaning stage path {}", path);
+              throw new RuntimeException("Failed to upload data from stage " + path, e);
+            }
+
+            sqlOperations.createTableIfNotExists(database, schemaName, dstTableName);
+            switch (writeConfig.getSyncMode()) {
+              case OVERWRITE -> queryList.add(sqlOperations.truncateTableQuery(database, schemaName, dstTableName));
+              case APPEND, APPEND_DEDUP -> {}
+              default -> throw new IllegalStateException("Unrecognized sync mode: " + writeConfig.getSyncMode());
+            }
+            queryList.add(sqlOperations.copyTableQuery(database, schemaName, srcTableName, dstTableName));
+          }
 
+          LOGGER.info("Executing finalization of tables.");
+          sqlOperations.executeTransaction(database, queryList);
+          LOGGER.info("Finalizing tables in destination completed.");
+        }
+        LOGGER.info("Cleaning tmp tables in destination started for {} streams", writeConfigs.size());
         for (final WriteConfig writeConfig : writeConfigs) {
           final String schemaName = writeConfig.getOutputSchemaName();
-          final String streamName = writeConfig.getStreamName();
-          final String srcTableName = writeConfig.getTmpTableName();
-          final String dstTableName = writeConfig.getOutputTableName();
-          final String path = namingResolver.getStagingPath(schemaName, dstTableName, CURRENT_SYNC_PATH);
-          LOGGER.info("Finalizing stream {}. schema {}, tmp table {}, final table {}, stage path {}",
-              streamName, schemaName, srcTableName, dstTableName, path);
-
-          try {
-            sqlOperations.copyIntoTmpTableFromStage(database, path, srcTableName, schemaName);
-          } catch (final Exception e) {
-            sqlOperations.cleanUpStage(database, path);
-            LOGGER.info("Cleaning stage path {}", path);
-            throw new RuntimeException("Failed to upload data from stage " + path, e);
-          }
-
-          sqlOperations.createTableIfNotExists(database, schemaName, dstTableName);
-          switch (writeConfig.getSyncMode()) {
-            case OVERWRITE -> queryList.add(sqlOperations.truncateTableQuery(database, schemaName, dstTableName));
-            case APPEND, APPEND_DEDUP -> {}
-            default -> throw new IllegalStateException("Unrecognized sync mode: " + writeConfig.getSyncMode());
-          }
-          queryList.add(sqlOperations.copyTableQuery(database, schemaName, srcTableName, dstTableName));
+          final String tmpTableName = writeConfig.getTmpTableName();
+          LOGGER.info("Cleaning tmp table in destination started for stream {}. schema {}, tmp table name: {}", writeConfig.getStreamName(),
+              schemaName, tmpTableName);
+
+          sqlOperations.dropTableIfExists(database, schemaName, tmpTableName);
+          final String outputTableName = writeConfig.getOutputTableName();
+          final String stageName = namingResolver.getStageName(schemaName, outputTableName);
+          LOGGER.info("Cleaning stage in destination started for stream {}. schema {}, stage: {}", writeConfig.getStreamName(), schemaName,
+              stageName);
+          sqlOperations.dropStageIfExists(database, stageName);
         }
-
-        LOGGER.info("Executing finalization of tables.");
-        sqlOperations.executeTransaction(database, queryList);
-        LOGGER.info("Finalizing tables in destination completed.");
-      }
-      LOGGER.info("Cleaning tmp tables in destination started for {} streams", writeConfigs.size());
-      for (final WriteConfig writeConfig : writeConfigs) {
-        final String schemaName = writeConfig.getOutputSchemaName();
-        final String tmpTableName = writeConfig.getTmpTableName();
-        LOGGER.info("Cleaning tmp table in destination started for stream {}. schema {}, tmp table name: {}", writeConfig.getStreamName(), schemaName,
-            tmpTableName);
-
-        sqlOperations.dropTableIfExists(database, schemaName, tmpTableName);
-        final String outputTableName = writeConfig.getOutputTableName();
-        final String stageName = namingResolver.getStageName(schemaName, outputTableName);
-        LOGGER.info("Cleaning stage in destination started for stream {}. schema {}, stage: {}", writeConfig.getStreamName(), schemaName,
-            stageName);
-        sqlOperations.dropStageIfExists(database, stageName);
+        LOGGER.info("Cleaning tmp tables and stages in destination completed.");
+      } finally {
+        // uploads still running after a failure are not needed anymore.
+        sqlOperations.closeStageUploads();
       }
-      LOGGER.info("Cleaning tmp tables and stages in destination completed.");
     };
   }
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.snowflake;
+
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.airbyte.commons.functional.CheckedBiConsumer;
+import io.airbyte.db.jdbc.JdbcDatabase;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uploads records to a Snowflake internal stage. Records are written straight into gzip compressed
+ * csv files of about chunkSizeBytes, and each file is PUT to the stage on a background thread while
+ * the next records are written. At most maxInFlightUploads files are written and not uploaded yet,
+ * which bounds the temporary disk space; writing more blocks until an upload completes. At most
+ * {@link #MAX_CONCURRENT_UPLOADS} of these files are PUT at the same time, so that the uploads never
+ * hold every connection of the pool and the flushes and the COPY of other streams can still run.
+ *
+ * <p>
+ * The names of the uploaded files are kept per stage path, so that the COPY can load exactly those
+ * files.
+ */
+public class SnowflakeStageUploader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SnowflakeStageUploader.class);
+
+  public static final long DEFAULT_CHUNK_SIZE_BYTES = 32 * 1024 * 1024;
+  public static final int DEFAULT_MAX_IN_FLIGHT_UPLOADS = 4;
+  // the connection pool holds 5 connections, see Databases#createBasicDataSource.
+  public static final int MAX_CONCURRENT_UPLOADS = 2;
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+  private final CheckedBiConsumer<CSVPrinter, AirbyteRecordMessage, IOException> recordWriter;
+  private final long chunkSizeBytes;
+  private final int uploadThreads;
+  private final ExecutorService uploadExecutor;
+  private final Semaphore inFlightUploads;
+  private final AtomicReference<Exception> uploadFailure;
+  private final Map<String, List<Future<?>>> stagePathToUploads;
+  private final Map<String, List<String>> stagePathToFiles;
+  // files that were written and not uploaded yet.
+  private final Set<File> pendingFiles;
+
+  public SnowflakeStageUploader(final CheckedBiConsumer<CSVPrinter, AirbyteRecordMessage, IOException> recordWriter) {
+    this(recordWriter, DEFAULT_CHUNK_SIZE_BYTES, DEFAULT_MAX_IN_FLIGHT_UPLOADS);
+  }
+
+  public SnowflakeStageUploader(final CheckedBiConsumer<CSVPrinter, AirbyteRecordMessage, IOException> recordWriter,
+                                final long chunkSizeBytes,
+                                final int maxInFlightUploads) {
+    this.recordWriter = recordWriter;
+    this.chunkSizeBytes = chunkSizeBytes;
+    this.uploadThreads = Math.min(maxInFlightUploads, MAX_CONCURRENT_UPLOADS);
+    this.uploadExecutor = Executors.newFixedThreadPool(uploadThreads,
+        new ThreadFactoryBuilder().setNameFormat("stage-upload-%d").setDaemon(true).build());
+    this.inFlightUploads = new Semaphore(maxInFlightUploads);
+    this.uploadFailure = new AtomicReference<>();
+    this.stagePathToUploads = new ConcurrentHashMap<>();
+    this.stagePathToFiles = new ConcurrentHashMap<>();
+    this.pendingFiles = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Writes the records into compressed files and schedules their upload. Returns once every file is
+   * written, usually before it is uploaded.
+   */
+  public void upload(final JdbcDatabase database, final String stagePath, final List<AirbyteRecordMessage> records) throws Exception {
+    throwIfUploadFailed();
+    int nextRecord = 0;
+    while (nextRecord < records.size()) {
+      // the file is only deleted once uploaded, so wait for room before writing it.
+      inFlightUploads.acquire();
+      final File file = Files.createTempFile(UUID.randomUUID().toString(), ".csv.gz").toFile();
+      pendingFiles.add(file);
+      try {
+        nextRecord = writeChunk(file, records, nextRecord);
+      } catch (final Exception e) {
+        deletePendingFile(file);
+        throw e;
+      }
+      stagePathToUploads.computeIfAbsent(stagePath, k -> new CopyOnWriteArrayList<>())
+          .add(uploadExecutor.submit(() -> uploadFile(database, stagePath, file)));
+    }
+  }
+
+  /**
+   * Waits for the uploads to the stage path to complete.
+   *
+   * @return names of the files uploaded to the stage path since the last call.
+   */
+  public List<String> awaitUploads(final String stagePath) throws Exception {
+    for (final Future<?> upload : stagePathToUploads.getOrDefault(stagePath, List.of())) {
+      try {
+        upload.get();
+      } catch (final ExecutionException e) {
+        // rethrown below as it was thrown.
+      }
+    }
+    stagePathToUploads.remove(stagePath);
+    throwIfUploadFailed();
+    final List<String> files = stagePathToFiles.remove(stagePath);
+    return files == null ? List.of() : List.copyOf(files);
+  }
+
+  /**
+   * Stops the uploads. Files that were not uploaded yet are deleted.
+   */
+  public void close() throws InterruptedException {
+    uploadExecutor.shutdownNow();
+    if (!uploadExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+      LOGGER.warn("Stage uploads did not stop within a minute");
+    }
+    for (final File file : pendingFiles) {
+      deletePendingFile(file);
+    }
+  }
+
+  private int writeChunk(final File file, final List<AirbyteRecordMessage> records, final int firstRecord) throws IOException {
+    int nextRecord = firstRecord;
+    final CountingOutputStream compressedBytes = new CountingOutputStream(new FileOutputStream(file));
+    try (final CSVPrinter csvPrinter = new CSVPrinter(
+        new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(compressedBytes, GZIP_BUFFER_SIZE), StandardCharsets.UTF_8)),
+        CSVFormat.DEFAULT)) {
+      // the count lags behind by what the compressor buffers, which is small next to a chunk.
+      while (nextRecord < records.size() && compressedBytes.getCount() < chunkSizeBytes) {
+        recordWriter.accept(csvPrinter, records.get(nextRecord++));
+      }
+    }
+    LOGGER.info("Wrote {} records to {}: {} bytes compressed", nextRecord - firstRecord, file.getName(), compressedBytes.getCount());
+    return nextRecord;
+  }
+
+  private Void uploadFile(final JdbcDatabase database, final String stagePath, final File file) throws Exception {
+    try {
+      if (uploadFailure.get() != null) {
+        return null;
+      }
+      // the file is compressed already, and split into threads by the driver if it is large.
+      final int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / uploadThreads);
+      database.execute(String.format("PUT file://%s @%s PARALLEL = %d AUTO_COMPRESS = FALSE SOURCE_COMPRESSION = GZIP",
+          file.getAbsolutePath(), stagePath, parallelism));
+      stagePathToFiles.computeIfAbsent(stagePath, k -> new CopyOnWriteArrayList<>()).add(file.getName());
+      LOGGER.info("Uploaded {} to stage path {}", file.getName(), stagePath);
+      return null;
+    } catch (final Exception e) {
+      LOGGER.error("Failed to upload {} to stage path {}", file.getName(), stagePath, e);
+      uploadFailure.compareAndSet(null, e);
+      throw e;
+    } finally {
+      deletePendingFile(file);
+    }
+  }
+
+  private void deletePendingFile(final File file) {
+    if (!pendingFiles.remove(file)) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to delete {}", file, e);
+    }
+    inFlightUploads.release();
+  }
+
+  private void throwIfUploadFailed() throws Exception {
+    final Exception failure = uploadFailure.get();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+}
@@ -4,22 +4,25 @@
 
 package io.airbyte.integrations.destination.snowflake;
 
+import com.google.common.collect.Lists;
 import io.airbyte.db.jdbc.JdbcDatabase;
 import io.airbyte.integrations.base.sentry.AirbyteSentry;
 import io.airbyte.integrations.destination.jdbc.SqlOperations;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
-import java.io.File;
-import java.nio.file.Files;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SnowflakeStagingSqlOperations extends SnowflakeSqlOperations implements SqlOperations {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SnowflakeSqlOperations.class);
+  // a COPY accepts at most 1000 files in its FILES list.
+  private static final int MAX_FILES_PER_COPY = 1000;
+
+  private final SnowflakeStageUploader stageUploader = new SnowflakeStageUploader(this::writeRecordToCsv);
 
   @Override
   public void insertRecordsInternal(final JdbcDatabase database,
@@ -32,20 +35,13 @@ public class SnowflakeStagingSqlOperations extends SnowflakeSqlOperations implem
       return;
     }
     try {
-      loadDataIntoStage(database, stage, records);
+      stageUploader.upload(database, stage, records);
     } catch (final Exception e) {
       LOGGER.error("Failed to upload records into stage {}", stage, e);
       throw new RuntimeException(e);
     }
   }
 
-  private void loadDataIntoStage(final JdbcDatabase database, final String stage, final List<AirbyteRecordMessage> partition) throws Exception {
-    final File tempFile = Files.createTempFile(UUID.randomUUID().toString(), ".csv").toFile();
-    writeBatchToFile(tempFile, partition);
-    database.execute(String.format("PUT file://%s @%s PARALLEL = %d", tempFile.getAbsolutePath(), stage, Runtime.getRuntime().availableProcessors()));
-    Files.delete(tempFile.toPath());
-  }
-
   public void createStageIfNotExists(final JdbcDatabase database, final String stageName) throws SQLException {
     final String query = "CREATE STAGE IF NOT EXISTS %s encryption = (type = 'SNOWFLAKE_SSE') copy_options = (on_error='skip_file');";
     AirbyteSentry.executeWithTracing("CreateStageIfNotExists",
@@ -53,13 +49,27 @@ public class SnowflakeStagingSqlOperations extends SnowflakeSqlOperations implem
         Map.of("stage", stageName));
   }
 
+  /**
+   * Waits for the files uploaded to the stage path, then loads exactly those files into the table.
+   */
   public void copyIntoTmpTableFromStage(final JdbcDatabase database, final String stageName, final String dstTableName, final String schemaName)
-      throws SQLException {
-    final String query = "COPY INTO %s.%s FROM @%s file_format = " +
-        "(type = csv field_delimiter = ',' skip_header = 0 FIELD_OPTIONALLY_ENCLOSED_BY = '\"')";
-    AirbyteSentry.executeWithTracing("CopyIntoTableFromStage",
-        () -> database.execute(String.format(query, schemaName, dstTableName, stageName)),
-        Map.of("schema", schemaName, "stage", stageName, "table", dstTableName));
+      throws Exception {
+    final List<String> files = stageUploader.awaitUploads(stageName);
+    final String query = "COPY INTO %s.%s FROM @%s FILES = (%s) file_format = " +
+        "(type = csv compression = gzip field_delimiter = ',' skip_header = 0 FIELD_OPTIONALLY_ENCLOSED_BY = '\"')";
+    for (final List<String> batch : Lists.partition(files, MAX_FILES_PER_COPY)) {
+      final String fileList = batch.stream().map(file -> "'" + file + "'").collect(Collectors.joining(", "));
+      AirbyteSentry.executeWithTracing("CopyIntoTableFromStage",
+          () -> database.execute(String.format(query, schemaName, dstTableName, stageName, fileList)),
+          Map.of("schema", schemaName, "stage", stageName, "table", dstTableName, "fileCount", batch.size()));
+    }
+  }
+
+  /**
+   * Stops uploads that are still running, e.g. after a failure.
+   */
+  public void closeStageUploads() throws InterruptedException {
+    stageUploader.close();
   }
 
   public void dropStageIfExists(final JdbcDatabase database, final String stageName) throws SQLException {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.destination.snowflake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableMap;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.db.jdbc.JdbcDatabase;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeStageUploaderTest {
+
+  private static final String STAGE_PATH = "stage/path";
+
+  private JdbcDatabase database;
+  private Map<String, String> uploadedFiles;
+  private SnowflakeStageUploader uploader;
+
+  @BeforeEach
+  void setup() throws SQLException {
+    database = mock(JdbcDatabase.class);
+    uploadedFiles = new ConcurrentHashMap<>();
+    doAnswer(invocation -> {
+      final String query = invocation.getArgument(0);
+      final File file = new File(query.split(" ")[1].substring("file://".length()));
+      try (final InputStream input = new GZIPInputStream(new FileInputStream(file))) {
+        uploadedFiles.put(file.getName(), new String(input.readAllBytes(), StandardCharsets.UTF_8));
+      }
+      return null;
+    }).when(database).execute(anyString());
+    // small chunks, so that the records are split into several files.
+    uploader = new SnowflakeStageUploader(
+        (csvPrinter, record) -> csvPrinter.printRecord(record.getData().get("id").asText(), record.getData().get("value").asText()),
+        64 * 1024,
+        2);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    uploader.close();
+  }
+
+  @Test
+  void testRecordsAreUploadedInCompressedChunks() throws Exception {
+    uploader.upload(database, STAGE_PATH, records(0, 10_000));
+    uploader.upload(database, STAGE_PATH, records(10_000, 20_000));
+
+    final List<String> files = uploader.awaitUploads(STAGE_PATH);
+    assertTrue(files.size() > 2);
+    assertEquals(uploadedFiles.keySet(), Set.copyOf(files));
+    files.forEach(file -> assertTrue(file.endsWith(".csv.gz")));
+
+    final List<String> ids = new ArrayList<>();
+    for (final String file : files) {
+      try (final CSVParser parser = CSVParser.parse(uploadedFiles.get(file), CSVFormat.DEFAULT)) {
+        parser.forEach(csvRecord -> ids.add(csvRecord.get(0)));
+      }
+    }
+    assertEquals(IntStream.range(0, 20_000).mapToObj(String::valueOf).sorted().collect(Collectors.toList()),
+        ids.stream().sorted().collect(Collectors.toList()));
+    files.forEach(file -> assertFalse(new File(System.getProperty("java.io.tmpdir"), file).exists()));
+
+    // the files are only returned once.
+    assertEquals(List.of(), uploader.awaitUploads(STAGE_PATH));
+  }
+
+  @Test
+  void testConcurrentUploadsAreBounded() throws Exception {
+    final AtomicInteger runningUploads = new AtomicInteger();
+    final AtomicInteger maxRunningUploads = new AtomicInteger();
+    doAnswer(invocation -> {
+      maxRunningUploads.accumulateAndGet(runningUploads.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      runningUploads.decrementAndGet();
+      return null;
+    }).when(database).execute(anyString());
+    final SnowflakeStageUploader boundedUploader = new SnowflakeStageUploader(
+        (csvPrinter, record) -> csvPrinter.printRecord(record.getData().get("id").asText(), record.getData().get("value").asText()),
+        1024,
+        SnowflakeStageUploader.MAX_CONCURRENT_UPLOADS * 4);
+    try {
+      boundedUploader.upload(database, STAGE_PATH, records(0, 20_000));
+      assertTrue(boundedUploader.awaitUploads(STAGE_PATH).size() > SnowflakeStageUploader.MAX_CONCURRENT_UPLOADS);
+      assertEquals(SnowflakeStageUploader.MAX_CONCURRENT_UPLOADS, maxRunningUploads.get());
+    } finally {
+      boundedUploader.close();
+    }
+  }
+
+  @Test
+  void testUploadFailureIsThrown() throws Exception {
+    doThrow(new SQLException("induced exception")).when(database).execute(anyString());
+
+    uploader.upload(database, STAGE_PATH, records(0, 100));
+
+    final SQLException exception = assertThrows(SQLException.class, () -> uploader.awaitUploads(STAGE_PATH));
+    assertEquals("induced exception", exception.getMessage());
+    assertThrows(SQLException.class, () -> uploader.upload(database, STAGE_PATH, records(100, 200)));
+  }
+
+  private static List<AirbyteRecordMessage> records(final int from, final int to) {
+    return IntStream.range(from, to)
+        .mapToObj(i -> new AirbyteRecordMessage()
+            .withStream("stream")
+            .withData(Jsons.jsonNode(ImmutableMap.of("id", i, "value", UUID.randomUUID().toString())))
+            .withEmittedAt(1L))
+        .collect(Collectors.toList());
+  }
+
+}
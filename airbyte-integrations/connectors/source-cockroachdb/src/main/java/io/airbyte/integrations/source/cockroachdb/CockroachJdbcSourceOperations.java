@@ -7,8 +7,10 @@ package io.airbyte.integrations.source.cockroachdb;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.commons.json.Jsons;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import io.airbyte.db.jdbc.JdbcSourceOperations;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collections;
 
@@ -54,6 +56,22 @@ public class CockroachJdbcSourceOperations extends JdbcSourceOperations {
     return jsonNode;
   }
 
+  /**
+   * Reads the column like {@link #rowToJson(ResultSet)}, falling back to the special data types when
+   * the value cannot be read.
+   */
+  @Override
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) {
+    final ColumnReader columnReader = readWithSetJsonField(colIndex);
+    return (resultSet, json) -> {
+      try {
+        columnReader.read(resultSet, json);
+      } catch (final SQLException e) {
+        putCockroachSpecialDataType(resultSet, colIndex, json);
+      }
+    };
+  }
+
   private void putCockroachSpecialDataType(final ResultSet resultSet, final int index, final ObjectNode node) throws SQLException {
     final String columnType = resultSet.getMetaData().getColumnTypeName(index);
     final String columnName = resultSet.getMetaData().getColumnName(index);
@@ -7,8 +7,10 @@ package io.airbyte.integrations.source.db2;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.commons.json.Jsons;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import io.airbyte.db.jdbc.JdbcSourceOperations;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +34,14 @@ public class Db2SourceOperations extends JdbcSourceOperations {
     return jsonNode;
   }
 
+  /**
+   * Reads the column like {@link #rowToJson(ResultSet)}.
+   */
+  @Override
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) {
+    return (resultSet, json) -> setFields(resultSet, colIndex, json);
+  }
+
   /* Helpers */
 
   private void setFields(ResultSet queryContext, int index, ObjectNode jsonNode) throws SQLException {
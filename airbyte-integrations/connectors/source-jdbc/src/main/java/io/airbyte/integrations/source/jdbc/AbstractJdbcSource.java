@@ -21,6 +21,7 @@ import static io.airbyte.db.jdbc.JdbcConstants.JDBC_COLUMN_TYPE_NAME;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
 import io.airbyte.commons.functional.CheckedConsumer;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.util.AutoCloseableIterator;
@@ -34,9 +35,13 @@ import io.airbyte.db.jdbc.JdbcUtils;
 import io.airbyte.integrations.base.Source;
 import io.airbyte.integrations.source.jdbc.dto.JdbcPrivilegeDto;
 import io.airbyte.integrations.source.relationaldb.AbstractRelationalDbSource;
+import io.airbyte.integrations.source.relationaldb.SnapshotChunkQueries;
 import io.airbyte.integrations.source.relationaldb.TableInfo;
 import io.airbyte.protocol.models.CommonField;
 import io.airbyte.protocol.models.JsonSchemaType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -47,6 +52,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -60,7 +66,8 @@ import org.slf4j.LoggerFactory;
  * relational DB source which can be accessed via JDBC driver. If you are implementing a connector
  * for a relational DB which has a JDBC driver, make an effort to use this class.
  */
-public abstract class AbstractJdbcSource<Datatype> extends AbstractRelationalDbSource<Datatype, JdbcDatabase> implements Source {
+public abstract class AbstractJdbcSource<Datatype> extends AbstractRelationalDbSource<Datatype, JdbcDatabase>
+    implements Source, SnapshotChunkQueries<Datatype, JdbcDatabase> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractJdbcSource.class);
 
@@ -259,24 +266,147 @@ public abstract class AbstractJdbcSource<Datatype> extends AbstractRelationalDbS
                                                                final String cursorField,
                                                                final Datatype cursorFieldType,
                                                                final String cursor) {
+    return queryTableIncremental(database, columnNames, schemaName, tableName, cursorField, cursorFieldType, cursor, false);
+  }
+
+  @Override
+  protected Optional<AutoCloseableIterator<JsonNode>> queryTableIncrementalInCursorOrder(final JdbcDatabase database,
+                                                                                         final List<String> columnNames,
+                                                                                         final String schemaName,
+                                                                                         final String tableName,
+                                                                                         final String cursorField,
+                                                                                         final Datatype cursorFieldType,
+                                                                                         final String cursor) {
+    return Optional.of(queryTableIncremental(database, columnNames, schemaName, tableName, cursorField, cursorFieldType, cursor, true));
+  }
+
+  /**
+   * @param cursor null reads every row of the table.
+   * @param orderByCursor whether rows are returned in cursor order.
+   */
+  private AutoCloseableIterator<JsonNode> queryTableIncremental(final JdbcDatabase database,
+                                                                final List<String> columnNames,
+                                                                final String schemaName,
+                                                                final String tableName,
+                                                                final String cursorField,
+                                                                final Datatype cursorFieldType,
+                                                                final String cursor,
+                                                                final boolean orderByCursor) {
     LOGGER.info("Queueing query for table: {}", tableName);
     return AutoCloseableIterators.lazyIterator(() -> {
       try {
         final Stream<JsonNode> stream = database.query(
             connection -> {
               LOGGER.info("Preparing query for table: {}", tableName);
-              final String sql = String.format("SELECT %s FROM %s WHERE %s > ?",
+              final String quotedCursorField = sourceOperations.enquoteIdentifier(connection, cursorField);
+              final String sql = String.format("SELECT %s FROM %s%s%s",
                   sourceOperations.enquoteIdentifierList(connection, columnNames),
                   sourceOperations
                       .getFullyQualifiedTableNameWithQuoting(connection, schemaName, tableName),
-                  sourceOperations.enquoteIdentifier(connection, cursorField));
+                  cursor == null ? "" : String.format(" WHERE %s > ?", quotedCursorField),
+                  orderByCursor ? String.format(" ORDER BY %s", quotedCursorField) : "");
 
               final PreparedStatement preparedStatement = connection.prepareStatement(sql);
-              sourceOperations.setStatementField(preparedStatement, 1, cursorFieldType, cursor);
+              if (cursor != null) {
+                sourceOperations.setStatementField(preparedStatement, 1, cursorFieldType, cursor);
+              }
               LOGGER.info("Executing query for table: {}", tableName);
               return preparedStatement;
             },
-            sourceOperations::rowToJson);
+            sourceOperations.createRowReader());
+        return AutoCloseableIterators.fromStream(stream);
+      } catch (final SQLException e) {
+        throw new RuntimeException(e);
+      }
+    });
+  }
+
+  @Override
+  protected Optional<SnapshotChunkQueries<Datatype, JdbcDatabase>> getSnapshotChunkQueries() {
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<Range<Long>> queryPrimaryKeyRange(final JdbcDatabase database,
+                                                    final String schemaName,
+                                                    final String tableName,
+                                                    final String primaryKey)
+      throws SQLException {
+    try (final Stream<Optional<Range<Long>>> stream = database.query(
+        connection -> {
+          final String quotedPrimaryKey = sourceOperations.enquoteIdentifier(connection, primaryKey);
+          final String sql = String.format("SELECT MIN(%s), MAX(%s) FROM %s",
+              quotedPrimaryKey,
+              quotedPrimaryKey,
+              sourceOperations.getFullyQualifiedTableNameWithQuoting(connection, schemaName, tableName));
+          LOGGER.info("Querying primary key range for table: {}", tableName);
+          return connection.prepareStatement(sql);
+        },
+        resultSet -> {
+          final Optional<Long> min = toLong(resultSet.getObject(1));
+          final Optional<Long> max = toLong(resultSet.getObject(2));
+          return min.isPresent() && max.isPresent() ? Optional.of(Range.closed(min.get(), max.get())) : Optional.empty();
+        })) {
+      return stream.findFirst().flatMap(range -> range);
+    }
+  }
+
+  /**
+   * Chunks are half-open ranges of primary key values, so keys that are not integers still fall in
+   * exactly one chunk.
+   */
+  private static Optional<Long> toLong(final Object value) {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return Optional.of(((Number) value).longValue());
+    }
+    if (value instanceof BigInteger || value instanceof BigDecimal) {
+      try {
+        return Optional.of(new BigDecimal(value.toString()).setScale(0, RoundingMode.FLOOR).longValueExact());
+      } catch (final ArithmeticException e) {
+        return Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public AutoCloseableIterator<JsonNode> queryTableChunk(final JdbcDatabase database,
+                                                         final List<String> columnNames,
+                                                         final String schemaName,
+                                                         final String tableName,
+                                                         final String primaryKey,
+                                                         final Datatype primaryKeyType,
+                                                         final Range<Long> chunk) {
+    LOGGER.info("Queueing query for table: {}, chunk: {}", tableName, chunk);
+    return AutoCloseableIterators.lazyIterator(() -> {
+      try {
+        final Stream<JsonNode> stream = database.query(
+            connection -> {
+              final String quotedPrimaryKey = sourceOperations.enquoteIdentifier(connection, primaryKey);
+              final List<String> conditions = new ArrayList<>();
+              if (chunk.hasLowerBound()) {
+                conditions.add(quotedPrimaryKey + " >= ?");
+              }
+              if (chunk.hasUpperBound()) {
+                conditions.add(quotedPrimaryKey + " < ?");
+              }
+              final String sql = String.format("SELECT %s FROM %s%s",
+                  sourceOperations.enquoteIdentifierList(connection, columnNames),
+                  sourceOperations.getFullyQualifiedTableNameWithQuoting(connection, schemaName, tableName),
+                  conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+
+              final PreparedStatement preparedStatement = connection.prepareStatement(sql);
+              int parameterIndex = 1;
+              if (chunk.hasLowerBound()) {
+                preparedStatement.setLong(parameterIndex++, chunk.lowerEndpoint());
+              }
+              if (chunk.hasUpperBound()) {
+                preparedStatement.setLong(parameterIndex, chunk.upperEndpoint());
+              }
+              LOGGER.info("Executing query for table: {}, chunk: {}", tableName, chunk);
+              return preparedStatement;
+            },
+            sourceOperations.createRowReader());
         return AutoCloseableIterators.fromStream(stream);
       } catch (final SQLException e) {
         throw new RuntimeException(e);
@@ -295,7 +425,9 @@ public abstract class AbstractJdbcSource<Datatype> extends AbstractRelationalDbS
         driverClass,
         jdbcStreamingQueryConfiguration,
         JdbcUtils.parseJdbcParameters(jdbcConfig, "connection_properties"),
-        sourceOperations);
+        sourceOperations,
+        // at most this many table queries are read at the same time, so they share the fetch budget.
+        getConcurrentStreamReads(config));
 
     quoteString = (quoteString == null ? database.getMetaData().getIdentifierQuoteString() : quoteString);
 
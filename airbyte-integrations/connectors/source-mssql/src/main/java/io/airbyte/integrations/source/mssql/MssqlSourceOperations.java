@@ -15,9 +15,11 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.sqlserver.jdbc.Geography;
 import com.microsoft.sqlserver.jdbc.Geometry;
 import com.microsoft.sqlserver.jdbc.SQLServerResultSetMetaData;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import io.airbyte.db.jdbc.JdbcSourceOperations;
 import java.sql.JDBCType;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,6 +55,15 @@ public class MssqlSourceOperations extends JdbcSourceOperations {
     }
   }
 
+  /**
+   * Reads every column through {@link #setJsonField(ResultSet, int, ObjectNode)}, so the MSSQL
+   * specific types are handled.
+   */
+  @Override
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) {
+    return readWithSetJsonField(colIndex);
+  }
+
   private void putValue(JDBCType columnType,
                         final ResultSet resultSet,
                         final String columnName,
@@ -4,30 +4,19 @@
 
 package io.airbyte.integrations.source.mysql;
 
-import io.airbyte.db.jdbc.JdbcStreamingQueryConfiguration;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import io.airbyte.db.jdbc.AdaptiveStreamingQueryConfiguration;
 
-public class MySqlJdbcStreamingQueryConfiguration implements JdbcStreamingQueryConfiguration {
-
-  @Override
-  public void accept(final Connection connection, final PreparedStatement preparedStatement) throws SQLException {
-    // This is only respected if "useCursorFetch=true" is set in the connection. See the "resultset"
-    // section the MySql docs for more details.
-    // https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-implementation-notes.html.
-    // When using this approach MySql creates a temporary table which may have some effect on db
-    // performance.
-    // e.g. conn = DriverManager.getConnection("jdbc:mysql://localhost/?useCursorFetch=true", "user",
-    // "s3cr3t");
-    // We set userCursorFetch in MySqlSource.
-    connection.setAutoCommit(false);
-    preparedStatement.setFetchSize(1000);
-    // If for some reason, you cannot set useCursorFetch in the connection, fall back on this
-    // implementation below. It fetches records one at a time, which while inefficient, at least does
-    // not risk OOM.
-    // connection.setAutoCommit(false);
-    // preparedStatement.setFetchSize(Integer.MIN_VALUE);
-  }
+// The fetch size is only respected if "useCursorFetch=true" is set in the connection. See the
+// "resultset" section the MySql docs for more details.
+// https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-implementation-notes.html.
+// When using this approach MySql creates a temporary table which may have some effect on db
+// performance.
+// e.g. conn = DriverManager.getConnection("jdbc:mysql://localhost/?useCursorFetch=true", "user",
+// "s3cr3t");
+// We set userCursorFetch in MySqlSource.
+// If for some reason, you cannot set useCursorFetch in the connection, fall back on calling
+// preparedStatement.setFetchSize(Integer.MIN_VALUE) with auto commit off. It fetches records one at
+// a time, which while inefficient, at least does not risk OOM.
+public class MySqlJdbcStreamingQueryConfiguration extends AdaptiveStreamingQueryConfiguration {
 
 }
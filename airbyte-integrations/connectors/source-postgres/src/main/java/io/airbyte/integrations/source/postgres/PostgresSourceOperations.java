@@ -15,6 +15,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.db.DataTypeUtils;
+import io.airbyte.db.jdbc.JdbcRowReader.ColumnReader;
 import io.airbyte.db.jdbc.JdbcSourceOperations;
 import io.airbyte.protocol.models.JsonSchemaType;
 import java.math.BigDecimal;
@@ -39,26 +40,10 @@ public class PostgresSourceOperations extends JdbcSourceOperations {
     final ObjectNode jsonNode = (ObjectNode) Jsons.jsonNode(Collections.emptyMap());
 
     for (int i = 1; i <= columnCount; i++) {
-      final String columnType = metadata.getColumnTypeName(i);
       // attempt to access the column. this allows us to know if it is null before we do type-specific
       // parsing. if it is null, we can move on. while awkward, this seems to be the agreed upon way of
       // checking for null values with jdbc.
-
-      if (columnType.equalsIgnoreCase("money")) {
-        // when a column is of type MONEY, getObject will throw exception
-        // this is a bug that will not be fixed:
-        // https://github.com/pgjdbc/pgjdbc/issues/425
-        // https://github.com/pgjdbc/pgjdbc/issues/1835
-        queryContext.getString(i);
-      } else if (columnType.equalsIgnoreCase("bit")) {
-        // getObject will fail as it tries to parse the value as boolean
-        queryContext.getString(i);
-      } else if (columnType.equalsIgnoreCase("numeric") || columnType.equalsIgnoreCase("decimal")) {
-        // getObject will fail when the value is 'infinity'
-        queryContext.getDouble(i);
-      } else {
-        queryContext.getObject(i);
-      }
+      readForNullCheck(queryContext, i, metadata.getColumnTypeName(i));
       if (queryContext.wasNull()) {
         continue;
       }
@@ -70,6 +55,39 @@ public class PostgresSourceOperations extends JdbcSourceOperations {
     return jsonNode;
   }
 
+  /**
+   * Reads the column like {@link #rowToJson(ResultSet)}, with the type name looked up once instead of
+   * on every row.
+   */
+  @Override
+  protected ColumnReader getColumnReader(final ResultSetMetaData metadata, final int colIndex) throws SQLException {
+    final String columnType = metadata.getColumnTypeName(colIndex);
+    return (resultSet, json) -> {
+      readForNullCheck(resultSet, colIndex, columnType);
+      if (!resultSet.wasNull()) {
+        setJsonField(resultSet, colIndex, json);
+      }
+    };
+  }
+
+  private void readForNullCheck(final ResultSet resultSet, final int colIndex, final String columnType) throws SQLException {
+    if (columnType.equalsIgnoreCase("money")) {
+      // when a column is of type MONEY, getObject will throw exception
+      // this is a bug that will not be fixed:
+      // https://github.com/pgjdbc/pgjdbc/issues/425
+      // https://github.com/pgjdbc/pgjdbc/issues/1835
+      resultSet.getString(colIndex);
+    } else if (columnType.equalsIgnoreCase("bit")) {
+      // getObject will fail as it tries to parse the value as boolean
+      resultSet.getString(colIndex);
+    } else if (columnType.equalsIgnoreCase("numeric") || columnType.equalsIgnoreCase("decimal")) {
+      // getObject will fail when the value is 'infinity'
+      resultSet.getDouble(colIndex);
+    } else {
+      resultSet.getObject(colIndex);
+    }
+  }
+
   @Override
   public void setJsonField(final ResultSet resultSet, final int colIndex, final ObjectNode json) throws SQLException {
     final PgResultSetMetaData metadata = (PgResultSetMetaData) resultSet.getMetaData();
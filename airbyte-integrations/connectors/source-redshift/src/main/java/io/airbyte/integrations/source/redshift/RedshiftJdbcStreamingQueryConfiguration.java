@@ -4,19 +4,10 @@
 
 package io.airbyte.integrations.source.redshift;
 
-import io.airbyte.db.jdbc.JdbcStreamingQueryConfiguration;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import io.airbyte.db.jdbc.AdaptiveStreamingQueryConfiguration;
 
-public class RedshiftJdbcStreamingQueryConfiguration implements JdbcStreamingQueryConfiguration {
-
-  // aws docs on how setting up batching:
-  // https://docs.aws.amazon.com/redshift/latest/dg/queries-troubleshooting.html
-  @Override
-  public void accept(final Connection connection, final PreparedStatement preparedStatement) throws SQLException {
-    connection.setAutoCommit(false);
-    preparedStatement.setFetchSize(1000);
-  }
+// aws docs on how setting up batching:
+// https://docs.aws.amazon.com/redshift/latest/dg/queries-troubleshooting.html
+public class RedshiftJdbcStreamingQueryConfiguration extends AdaptiveStreamingQueryConfiguration {
 
 }
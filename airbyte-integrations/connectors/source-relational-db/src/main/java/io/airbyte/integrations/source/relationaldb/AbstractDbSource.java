@@ -7,6 +7,7 @@ package io.airbyte.integrations.source.relationaldb;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
 import io.airbyte.commons.functional.CheckedConsumer;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.lang.Exceptions;
@@ -14,11 +15,13 @@ import io.airbyte.commons.type.Types;
 import io.airbyte.commons.util.AutoCloseableIterator;
 import io.airbyte.commons.util.AutoCloseableIterators;
 import io.airbyte.db.AbstractDatabase;
+import io.airbyte.db.Databases;
 import io.airbyte.db.IncrementalUtils;
 import io.airbyte.db.jdbc.JdbcDatabase;
 import io.airbyte.integrations.BaseConnector;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
 import io.airbyte.integrations.base.Source;
+import io.airbyte.integrations.source.relationaldb.models.DbSnapshotState;
 import io.airbyte.integrations.source.relationaldb.models.DbState;
 import io.airbyte.protocol.models.AirbyteCatalog;
 import io.airbyte.protocol.models.AirbyteConnectionStatus;
@@ -36,6 +39,7 @@ import io.airbyte.protocol.models.JsonSchemaPrimitive;
 import io.airbyte.protocol.models.JsonSchemaType;
 import io.airbyte.protocol.models.SyncMode;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,6 +48,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -61,8 +67,36 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDbSource.class);
 
+  /**
+   * Optional source config property with the number of streams to read at the same time.
+   */
+  public static final String CONCURRENT_STREAM_READS_KEY = "concurrent_stream_reads";
+  private static final int DEFAULT_CONCURRENT_STREAM_READS = 1;
+  // max number of records read ahead of the output when streams are read concurrently.
+  private static final int CONCURRENT_READ_QUEUE_CAPACITY = 10_000;
+  /**
+   * Optional source config property with the number of primary key values per chunk when the initial
+   * snapshot of a table is read in chunks. Not set or 0 reads each table with a single query.
+   */
+  public static final String SNAPSHOT_CHUNK_SIZE_KEY = "snapshot_chunk_size";
+  /**
+   * Optional source config properties to emit the state of an incremental stream every so many
+   * records and every so many seconds while it is read. Not set or 0 disables each of them.
+   */
+  public static final String STATE_CHECKPOINT_RECORDS_KEY = "state_checkpoint_records";
+  public static final String STATE_CHECKPOINT_SECONDS_KEY = "state_checkpoint_seconds";
+
+  // one permit per table query that may run at the same time, see withQueryPermit.
+  private Semaphore queryPermits = new Semaphore(DEFAULT_CONCURRENT_STREAM_READS, true);
+
   @Override
   public AirbyteConnectionStatus check(final JsonNode config) throws Exception {
+    try {
+      getSnapshotChunkSize(config);
+    } catch (final IllegalArgumentException e) {
+      return new AirbyteConnectionStatus().withStatus(Status.FAILED).withMessage(e.getMessage());
+    }
+
     try (final Database database = createDatabaseInternal(config)) {
       for (final CheckedConsumer<Database, Exception> checkOperation : getCheckOperations(config)) {
         checkOperation.accept(database);
@@ -101,6 +135,8 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
         state == null ? StateManager.emptyState() : Jsons.object(state, DbState.class),
         catalog);
     final Instant emittedAt = Instant.now();
+    final int concurrentStreamReads = getConcurrentStreamReads(config);
+    queryPermits = new Semaphore(concurrentStreamReads, true);
 
     final Database database = createDatabaseInternal(config);
 
@@ -119,14 +155,110 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
         .flatMap(Collection::stream)
         .collect(Collectors.toList());
 
+    final AutoCloseableIterator<AirbyteMessage> messageIterator;
+    if (concurrentStreamReads > 1 && iteratorList.size() > 1) {
+      LOGGER.info("Reading {} streams, {} at a time.", iteratorList.size(), concurrentStreamReads);
+      messageIterator = AutoCloseableIterators.concatConcurrently(iteratorList, concurrentStreamReads, CONCURRENT_READ_QUEUE_CAPACITY);
+    } else {
+      messageIterator = AutoCloseableIterators.concatWithEagerClose(iteratorList);
+    }
+
+    // states are built on the thread that outputs the messages, see DeferredStateMessage.
     return AutoCloseableIterators
-        .appendOnClose(AutoCloseableIterators.concatWithEagerClose(iteratorList), () -> {
+        .appendOnClose(AutoCloseableIterators.transform(messageIterator, DeferredStateMessage::resolve), () -> {
           LOGGER.info("Closing database connection pool.");
           Exceptions.toRuntime(database::close);
           LOGGER.info("Closed database connection pool.");
         });
   }
 
+  /**
+   * Number of streams read at the same time. Each stream is read on its own thread, with its own
+   * query, and records of different streams are interleaved in the output. Records and states of a
+   * single stream keep their order, and states are only built once every record before them has been
+   * output. Defaults to 1, which reads streams one after the other.
+   *
+   * <p>
+   * It is also the max number of table queries that run at the same time, including the chunks of
+   * snapshots that are read concurrently within a stream, so it must not exceed
+   * {@link Databases#MAX_POOL_CONNECTIONS}.
+   *
+   * @param config source config
+   * @return number of streams to read at the same time
+   */
+  protected int getConcurrentStreamReads(final JsonNode config) {
+    if (config.hasNonNull(CONCURRENT_STREAM_READS_KEY)) {
+      final int concurrentStreamReads = config.get(CONCURRENT_STREAM_READS_KEY).asInt();
+      Preconditions.checkArgument(concurrentStreamReads > 0, "%s must be positive", CONCURRENT_STREAM_READS_KEY);
+      Preconditions.checkArgument(concurrentStreamReads <= Databases.MAX_POOL_CONNECTIONS, "%s must not exceed the %s connections of the pool",
+          CONCURRENT_STREAM_READS_KEY, Databases.MAX_POOL_CONNECTIONS);
+      return concurrentStreamReads;
+    }
+    return DEFAULT_CONCURRENT_STREAM_READS;
+  }
+
+  /**
+   * Number of primary key values per chunk when the initial snapshot of a table is read in chunks.
+   * Chunks of a table are read at the same time, up to {@link #getConcurrentStreamReads} of them,
+   * each with its own query. For an incremental stream, a state message is emitted as chunks finish,
+   * so that a failed snapshot resumes from the chunks that were not read yet. Only sources that
+   * provide {@link #getSnapshotChunkQueries} accept it.
+   *
+   * @param config source config
+   * @return number of primary key values per chunk, 0 if tables are not read in chunks
+   */
+  protected long getSnapshotChunkSize(final JsonNode config) {
+    if (config != null && config.hasNonNull(SNAPSHOT_CHUNK_SIZE_KEY)) {
+      final long snapshotChunkSize = config.get(SNAPSHOT_CHUNK_SIZE_KEY).asLong();
+      Preconditions.checkArgument(snapshotChunkSize >= 0, "%s must not be negative", SNAPSHOT_CHUNK_SIZE_KEY);
+      Preconditions.checkArgument(snapshotChunkSize == 0 || getSnapshotChunkQueries().isPresent(),
+          "%s does not support %s", getClass().getSimpleName(), SNAPSHOT_CHUNK_SIZE_KEY);
+      return snapshotChunkSize;
+    }
+    return 0;
+  }
+
+  /**
+   * @return queries to read initial snapshots in chunks with, empty if the source cannot read them in
+   *         chunks.
+   */
+  protected Optional<SnapshotChunkQueries<DataType, Database>> getSnapshotChunkQueries() {
+    return Optional.empty();
+  }
+
+  /**
+   * Number of records of an incremental stream after which an intermediate state is emitted. Streams
+   * that emit intermediate states are read in cursor order, see
+   * {@link #queryTableIncrementalInCursorOrder}.
+   *
+   * @param config source config
+   * @return number of records between states, 0 if states are not emitted based on records
+   */
+  protected long getStateCheckpointRecords(final JsonNode config) {
+    if (config != null && config.hasNonNull(STATE_CHECKPOINT_RECORDS_KEY)) {
+      final long checkpointRecords = config.get(STATE_CHECKPOINT_RECORDS_KEY).asLong();
+      Preconditions.checkArgument(checkpointRecords >= 0, "%s must not be negative", STATE_CHECKPOINT_RECORDS_KEY);
+      return checkpointRecords;
+    }
+    return 0;
+  }
+
+  /**
+   * Time after which an intermediate state of an incremental stream is emitted, see
+   * {@link #getStateCheckpointRecords}.
+   *
+   * @param config source config
+   * @return time between states, zero if states are not emitted based on time
+   */
+  protected Duration getStateCheckpointInterval(final JsonNode config) {
+    if (config != null && config.hasNonNull(STATE_CHECKPOINT_SECONDS_KEY)) {
+      final long checkpointSeconds = config.get(STATE_CHECKPOINT_SECONDS_KEY).asLong();
+      Preconditions.checkArgument(checkpointSeconds >= 0, "%s must not be negative", STATE_CHECKPOINT_SECONDS_KEY);
+      return Duration.ofSeconds(checkpointSeconds);
+    }
+    return Duration.ZERO;
+  }
+
   protected List<TableInfo<CommonField<DataType>>> discoverWithoutSystemTables(final Database database) throws Exception {
     final Set<String> systemNameSpaces = getExcludedInternalNameSpaces();
     final List<TableInfo<CommonField<DataType>>> discoveredTables = discoverInternal(database);
@@ -210,33 +342,74 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
         .map(CommonField::getName)
         .filter(selectedFieldsInCatalog::contains)
         .collect(Collectors.toList());
+    final long snapshotChunkSize = getSnapshotChunkSize(database.getSourceConfig());
+    final Optional<CommonField<DataType>> snapshotChunkKey =
+        snapshotChunkSize > 0 ? getSnapshotChunkKey(airbyteStream, table) : Optional.empty();
 
     final AutoCloseableIterator<AirbyteMessage> iterator;
     if (airbyteStream.getSyncMode() == SyncMode.INCREMENTAL) {
       final String cursorField = IncrementalUtils.getCursorField(airbyteStream);
       final Optional<String> cursorOptional = stateManager.getCursor(pair);
+      final JsonSchemaPrimitive cursorType = IncrementalUtils
+          .getCursorType(airbyteStream, cursorField);
+      final long checkpointRecords = getStateCheckpointRecords(database.getSourceConfig());
+      final Duration checkpointInterval = getStateCheckpointInterval(database.getSourceConfig());
+
+      // intermediate states need the records in cursor order. a chunked snapshot emits its own states
+      // instead.
+      final Optional<AutoCloseableIterator<AirbyteMessage>> cursorOrderedIterator =
+          (checkpointRecords > 0 || !checkpointInterval.isZero()) && (cursorOptional.isPresent() || snapshotChunkKey.isEmpty())
+              ? getCursorOrderedStream(database, airbyteStream, selectedDatabaseFields, table, cursorOptional.orElse(null), emittedAt)
+              : Optional.empty();
 
       final AutoCloseableIterator<AirbyteMessage> airbyteMessageIterator;
-      if (cursorOptional.isPresent()) {
+      final String initialCursor;
+      if (cursorOrderedIterator.isPresent()) {
+        airbyteMessageIterator = cursorOrderedIterator.get();
+        initialCursor = cursorOptional.orElse(null);
+      } else if (cursorOptional.isPresent()) {
         airbyteMessageIterator = getIncrementalStream(database, airbyteStream, selectedDatabaseFields, table, cursorOptional.get(), emittedAt);
+        initialCursor = cursorOptional.get();
+      } else if (snapshotChunkKey.isPresent()) {
+        // first read, in primary key chunks. if a previous attempt did not finish it, only the chunks that
+        // were not read yet are read again.
+        final String primaryKey = snapshotChunkKey.get().getName();
+        final Optional<DbSnapshotState> snapshotState = stateManager.getSnapshotState(pair)
+            .filter(state -> primaryKey.equals(state.getPrimaryKey()) && state.getCompletedUpTo() != null);
+        initialCursor = snapshotState.map(DbSnapshotState::getCursor).orElse(null);
+        airbyteMessageIterator = getChunkedSnapshotStream(
+            database,
+            airbyteStream,
+            selectedDatabaseFields,
+            table,
+            snapshotChunkKey.get(),
+            snapshotChunkSize,
+            snapshotState.map(state -> Long.parseLong(state.getCompletedUpTo())).orElse(null),
+            chunks -> new SnapshotChunkTracker(stateManager, pair, primaryKey, cursorField, cursorType, initialCursor, chunks),
+            emittedAt);
       } else {
         // if no cursor is present then this is the first read for is the same as doing a full refresh read.
         airbyteMessageIterator = getFullRefreshStream(database, streamName, namespace, selectedDatabaseFields, table, emittedAt);
+        initialCursor = null;
       }
 
-      final JsonSchemaPrimitive cursorType = IncrementalUtils
-          .getCursorType(airbyteStream, cursorField);
-
       iterator = AutoCloseableIterators.transform(autoCloseableIterator -> new StateDecoratingIterator(
           autoCloseableIterator,
           stateManager,
           pair,
           cursorField,
-          cursorOptional.orElse(null),
-          cursorType),
+          initialCursor,
+          cursorType,
+          cursorOrderedIterator.isPresent() ? checkpointRecords : 0,
+          cursorOrderedIterator.isPresent() ? checkpointInterval : Duration.ZERO),
           airbyteMessageIterator);
     } else if (airbyteStream.getSyncMode() == SyncMode.FULL_REFRESH) {
-      iterator = getFullRefreshStream(database, streamName, namespace, selectedDatabaseFields, table, emittedAt);
+      if (snapshotChunkKey.isPresent()) {
+        iterator = getChunkedSnapshotStream(database, airbyteStream, selectedDatabaseFields, table, snapshotChunkKey.get(), snapshotChunkSize,
+            null, null, emittedAt);
+      } else {
+        iterator = getFullRefreshStream(database, streamName, namespace, selectedDatabaseFields, table, emittedAt);
+      }
     } else if (airbyteStream.getSyncMode() == null) {
       throw new IllegalArgumentException(String.format("%s requires a source sync mode", this.getClass()));
     } else {
@@ -283,6 +456,37 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
     return getMessageIterator(queryIterator, streamName, namespace, emittedAt.toEpochMilli());
   }
 
+  /**
+   * Reads the records of an incremental stream in cursor order.
+   *
+   * @param cursor null reads every record of the table.
+   * @return empty if the source cannot read the table in cursor order.
+   */
+  protected Optional<AutoCloseableIterator<AirbyteMessage>> getCursorOrderedStream(final Database database,
+                                                                                   final ConfiguredAirbyteStream airbyteStream,
+                                                                                   final List<String> selectedDatabaseFields,
+                                                                                   final TableInfo<CommonField<DataType>> table,
+                                                                                   final String cursor,
+                                                                                   final Instant emittedAt) {
+    final String cursorField = IncrementalUtils.getCursorField(airbyteStream);
+    final Optional<DataType> cursorType = table.getFields().stream()
+        .filter(info -> info.getName().equals(cursorField))
+        .map(CommonField::getType)
+        .findFirst();
+    Preconditions.checkState(cursorType.isPresent(), String.format("Could not find cursor field %s in table %s", cursorField, table.getName()));
+
+    return queryTableIncrementalInCursorOrder(
+        database,
+        selectedDatabaseFields,
+        table.getNameSpace(),
+        table.getName(),
+        cursorField,
+        cursorType.get(),
+        cursor)
+            .map(queryIterator -> getMessageIterator(queryIterator, airbyteStream.getStream().getName(), airbyteStream.getStream().getNamespace(),
+                emittedAt.toEpochMilli()));
+  }
+
   protected AutoCloseableIterator<AirbyteMessage> getFullRefreshStream(final Database database,
                                                                        final String streamName,
                                                                        final String namespace,
@@ -294,6 +498,122 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
     return getMessageIterator(queryStream, streamName, namespace, emittedAt.toEpochMilli());
   }
 
+  /**
+   * @return the primary key column to split the initial snapshot of the stream on, if the stream has
+   *         a single column primary key of a numeric type.
+   */
+  protected Optional<CommonField<DataType>> getSnapshotChunkKey(final ConfiguredAirbyteStream airbyteStream,
+                                                                final TableInfo<CommonField<DataType>> table) {
+    final List<List<String>> primaryKey = airbyteStream.getStream().getSourceDefinedPrimaryKey();
+    if (primaryKey == null || primaryKey.size() != 1 || primaryKey.get(0).size() != 1) {
+      return Optional.empty();
+    }
+    return table.getFields().stream()
+        .filter(field -> field.getName().equals(primaryKey.get(0).get(0)))
+        .filter(field -> getType(field.getType()).getJsonSchemaTypeMap().equals(JsonSchemaType.NUMBER.getJsonSchemaTypeMap()))
+        .findFirst();
+  }
+
+  /**
+   * Reads a table in chunks of its primary key values, see {@link #getSnapshotChunkSize}. Tables that
+   * turn out not to have integer primary key values are read with a single query.
+   *
+   * @param lowerBound primary key value to start from when resuming a snapshot, null otherwise.
+   * @param trackerFactory creates the tracker that emits the progress of the snapshot, given the
+   *        chunks it is split into. null if progress is not tracked.
+   */
+  protected AutoCloseableIterator<AirbyteMessage> getChunkedSnapshotStream(final Database database,
+                                                                           final ConfiguredAirbyteStream airbyteStream,
+                                                                           final List<String> selectedDatabaseFields,
+                                                                           final TableInfo<CommonField<DataType>> table,
+                                                                           final CommonField<DataType> primaryKey,
+                                                                           final long chunkSize,
+                                                                           final Long lowerBound,
+                                                                           final Function<List<Range<Long>>, SnapshotChunkTracker> trackerFactory,
+                                                                           final Instant emittedAt) {
+    final String streamName = airbyteStream.getStream().getName();
+    final String namespace = airbyteStream.getStream().getNamespace();
+    final int parallelism = getConcurrentStreamReads(database.getSourceConfig());
+    final SnapshotChunkQueries<DataType, Database> chunkQueries = getSnapshotChunkQueries().orElseThrow();
+
+    return AutoCloseableIterators.lazyIterator(() -> {
+      final Optional<Range<Long>> primaryKeyRange;
+      try (final AutoCloseable permit = acquireQueryPermit()) {
+        primaryKeyRange = chunkQueries.queryPrimaryKeyRange(database, table.getNameSpace(), table.getName(), primaryKey.getName());
+      } catch (final Exception e) {
+        throw new RuntimeException(e);
+      }
+      if (primaryKeyRange.isEmpty()) {
+        LOGGER.info("Table {} has no integer primary key values to split on, reading it with a single query.", table.getName());
+        return getFullRefreshStream(database, streamName, namespace, selectedDatabaseFields, table, emittedAt);
+      }
+
+      final List<Range<Long>> chunks =
+          SnapshotChunks.split(lowerBound, primaryKeyRange.get().lowerEndpoint(), primaryKeyRange.get().upperEndpoint(), chunkSize);
+      LOGGER.info("Reading table {} in {} chunks of column {}, starting from {}, {} chunks at a time.",
+          table.getName(), chunks.size(), primaryKey.getName(), lowerBound == null ? "the first row" : lowerBound, parallelism);
+      final SnapshotChunkTracker tracker = trackerFactory == null ? null : trackerFactory.apply(chunks);
+
+      final List<AutoCloseableIterator<AirbyteMessage>> chunkIterators = new ArrayList<>();
+      for (int i = 0; i < chunks.size(); i++) {
+        final AutoCloseableIterator<JsonNode> queryIterator = chunkQueries.queryTableChunk(
+            database,
+            selectedDatabaseFields,
+            table.getNameSpace(),
+            table.getName(),
+            primaryKey.getName(),
+            primaryKey.getType(),
+            chunks.get(i));
+        final AutoCloseableIterator<AirbyteMessage> chunkIterator = getMessageIterator(queryIterator, streamName, namespace, emittedAt.toEpochMilli());
+        chunkIterators.add(tracker == null ? chunkIterator : tracker.track(i, chunkIterator));
+      }
+
+      return parallelism > 1 && chunkIterators.size() > 1
+          ? AutoCloseableIterators.concatConcurrently(chunkIterators, parallelism, CONCURRENT_READ_QUEUE_CAPACITY)
+          : AutoCloseableIterators.concatWithEagerClose(chunkIterators);
+    });
+  }
+
+  /**
+   * Streams, and the chunks of a snapshot within a stream, are read concurrently, each with its own
+   * query and pooled connection. Every query waits for one of the {@link #getConcurrentStreamReads}
+   * permits before it runs and releases it when it is closed, so that nested reads never need more
+   * connections than the pool has.
+   *
+   * @param queryIterator lazy query, that only gets a connection once it is read
+   */
+  private AutoCloseableIterator<JsonNode> withQueryPermit(final AutoCloseableIterator<JsonNode> queryIterator) {
+    return AutoCloseableIterators.lazyIterator(() -> {
+      final AutoCloseable permit = acquireQueryPermit();
+      return AutoCloseableIterators.fromIterator(queryIterator, () -> {
+        try {
+          queryIterator.close();
+        } finally {
+          permit.close();
+        }
+      });
+    });
+  }
+
+  /**
+   * @return releases the permit when closed, only the first time.
+   */
+  private AutoCloseable acquireQueryPermit() {
+    final Semaphore permits = queryPermits;
+    try {
+      permits.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    final AtomicBoolean isReleased = new AtomicBoolean(false);
+    return () -> {
+      if (isReleased.compareAndSet(false, true)) {
+        permits.release();
+      }
+    };
+  }
+
   protected String getFullyQualifiedTableName(final String nameSpace, final String tableName) {
     return nameSpace != null ? nameSpace + "." + tableName : tableName;
   }
@@ -302,7 +622,7 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
                                                                   final String streamName,
                                                                   final String namespace,
                                                                   final long emittedAt) {
-    return AutoCloseableIterators.transform(recordIterator, r -> new AirbyteMessage()
+    return AutoCloseableIterators.transform(withQueryPermit(recordIterator), r -> new AirbyteMessage()
         .withType(Type.RECORD)
         .withRecord(new AirbyteRecordMessage()
             .withStream(streamName)
@@ -487,6 +807,29 @@ public abstract class AbstractDbSource<DataType, Database extends AbstractDataba
                                                                         DataType cursorFieldType,
                                                                         String cursor);
 
+  /**
+   * Same as {@link #queryTableIncremental}, but returns the records in cursor order, so that the state
+   * of the stream can be emitted before the query is over.
+   *
+   * @param database source database
+   * @param columnNames interested column names
+   * @param schemaName table namespace
+   * @param tableName target table
+   * @param cursorField cursor field name
+   * @param cursorFieldType cursor field type
+   * @param cursor cursor value, null to read every row
+   * @return iterator with read data. empty if the source cannot order records by cursor.
+   */
+  protected Optional<AutoCloseableIterator<JsonNode>> queryTableIncrementalInCursorOrder(final Database database,
+                                                                                         final List<String> columnNames,
+                                                                                         final String schemaName,
+                                                                                         final String tableName,
+                                                                                         final String cursorField,
+                                                                                         final DataType cursorFieldType,
+                                                                                         final String cursor) {
+    return Optional.empty();
+  }
+
   private Database createDatabaseInternal(final JsonNode sourceConfig) throws Exception {
     final Database database = createDatabase(sourceConfig);
     database.setSourceConfig(sourceConfig);
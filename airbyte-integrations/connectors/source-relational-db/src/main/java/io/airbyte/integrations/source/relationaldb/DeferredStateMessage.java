@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import java.util.function.Supplier;
+
+/**
+ * A state message whose state is only built by {@link #resolve} when it is output, instead of when
+ * the stream it belongs to is read.
+ *
+ * <p>
+ * Streams and snapshot chunks that are read concurrently hand their records and states to a single
+ * output thread. Updating the {@link StateManager} on that thread, in output order, makes sure that
+ * every state only covers records that have already been output, and that a state built earlier
+ * never overtakes and rolls back a later one.
+ */
+public class DeferredStateMessage extends AirbyteMessage {
+
+  private final Supplier<AirbyteStateMessage> stateSupplier;
+
+  /**
+   * @param stateSupplier updates the {@link StateManager} and returns the state to emit.
+   */
+  public DeferredStateMessage(final Supplier<AirbyteStateMessage> stateSupplier) {
+    this.stateSupplier = stateSupplier;
+    setType(Type.STATE);
+  }
+
+  /**
+   * @return the message itself, or the state message it stands for if it is deferred.
+   */
+  public static AirbyteMessage resolve(final AirbyteMessage message) {
+    if (message instanceof DeferredStateMessage) {
+      return new AirbyteMessage().withType(Type.STATE).withState(((DeferredStateMessage) message).stateSupplier.get());
+    }
+    return message;
+  }
+
+}
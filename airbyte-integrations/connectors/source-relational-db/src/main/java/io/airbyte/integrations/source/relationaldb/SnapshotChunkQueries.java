@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Range;
+import io.airbyte.commons.util.AutoCloseableIterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries of a source that can read the initial snapshot of a table in chunks of its primary key
+ * values, see {@link AbstractDbSource#getSnapshotChunkSize}.
+ *
+ * @param <DataType> type of the columns of the source
+ * @param <Database> database of the source
+ */
+public interface SnapshotChunkQueries<DataType, Database> {
+
+  /**
+   * Min and max value of the primary key of a table, used to split its initial snapshot into chunks.
+   *
+   * @param database source database
+   * @param schemaName table namespace
+   * @param tableName target table
+   * @param primaryKey primary key column
+   * @return closed range from min to max value. empty if the table is empty or if the values are not
+   *         integers.
+   * @throws Exception might throw an error during connection to database
+   */
+  Optional<Range<Long>> queryPrimaryKeyRange(Database database, String schemaName, String tableName, String primaryKey) throws Exception;
+
+  /**
+   * Read the rows of a table whose primary key is in a chunk.
+   *
+   * @param database source database
+   * @param columnNames interested column names
+   * @param schemaName table namespace
+   * @param tableName target table
+   * @param primaryKey primary key column
+   * @param primaryKeyType primary key column type
+   * @param chunk range of primary key values, any of its bounds may be missing
+   * @return iterator with read data
+   */
+  AutoCloseableIterator<JsonNode> queryTableChunk(Database database,
+                                                  List<String> columnNames,
+                                                  String schemaName,
+                                                  String tableName,
+                                                  String primaryKey,
+                                                  DataType primaryKeyType,
+                                                  Range<Long> chunk);
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import com.google.common.collect.Range;
+import io.airbyte.commons.util.AutoCloseableIterator;
+import io.airbyte.commons.util.AutoCloseableIterators;
+import io.airbyte.db.IncrementalUtils;
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.integrations.source.relationaldb.models.DbSnapshotState;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.JsonSchemaPrimitive;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the chunks of an initial snapshot of an incremental stream that is read in primary key
+ * chunks (see {@link SnapshotChunks}). Chunks may be read concurrently and finish in any order. When
+ * every chunk below a key value has been read, a state message records that value along with the max
+ * cursor seen so far, so that a retry only has to read the chunks above it.
+ *
+ * <p>
+ * The state message of a chunk is emitted right after the last record of that chunk, as a
+ * {@link DeferredStateMessage}. States of chunks that finish at about the same time may be output in
+ * a different order than they were created in, so a state that is output after a more advanced one
+ * leaves the progress of the snapshot as it is. The cursor of the stream itself is only set by the
+ * {@link StateDecoratingIterator} once the whole snapshot has been read.
+ */
+public class SnapshotChunkTracker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotChunkTracker.class);
+
+  private final StateManager stateManager;
+  private final AirbyteStreamNameNamespacePair pair;
+  private final String primaryKey;
+  private final String cursorField;
+  private final JsonSchemaPrimitive cursorType;
+  private final List<Range<Long>> chunks;
+
+  // each element is only written by the thread that reads the chunk, before the chunk is finished.
+  private final String[] chunkMaxCursors;
+  private final boolean[] isChunkFinished;
+  private int firstUnfinishedChunk;
+  private String maxCursor;
+  // number of chunks covered by the last progress that was output, only used on the output thread.
+  private int emittedFinishedChunks;
+
+  public SnapshotChunkTracker(final StateManager stateManager,
+                              final AirbyteStreamNameNamespacePair pair,
+                              final String primaryKey,
+                              final String cursorField,
+                              final JsonSchemaPrimitive cursorType,
+                              final String initialCursor,
+                              final List<Range<Long>> chunks) {
+    this.stateManager = stateManager;
+    this.pair = pair;
+    this.primaryKey = primaryKey;
+    this.cursorField = cursorField;
+    this.cursorType = cursorType;
+    this.chunks = chunks;
+    this.chunkMaxCursors = new String[chunks.size()];
+    this.isChunkFinished = new boolean[chunks.size()];
+    this.firstUnfinishedChunk = 0;
+    this.maxCursor = initialCursor;
+    this.emittedFinishedChunks = 0;
+  }
+
+  /**
+   * @param chunkIndex index of the chunk in the list of chunks
+   * @param chunkIterator records of the chunk
+   * @return the records of the chunk, followed by a state message if reading this chunk moves the
+   *         snapshot progress forward.
+   */
+  public AutoCloseableIterator<AirbyteMessage> track(final int chunkIndex, final AutoCloseableIterator<AirbyteMessage> chunkIterator) {
+    final AutoCloseableIterator<AirbyteMessage> records = AutoCloseableIterators.transform(chunkIterator, message -> {
+      if (message.getRecord().getData().hasNonNull(cursorField)) {
+        final String cursorCandidate = message.getRecord().getData().get(cursorField).asText();
+        if (IncrementalUtils.compareCursors(chunkMaxCursors[chunkIndex], cursorCandidate, cursorType) < 0) {
+          chunkMaxCursors[chunkIndex] = cursorCandidate;
+        }
+      }
+      return message;
+    });
+    final AutoCloseableIterator<AirbyteMessage> state = AutoCloseableIterators.lazyIterator(
+        () -> AutoCloseableIterators.fromIterator(finishChunk(chunkIndex).map(Collections::singletonList).orElse(Collections.emptyList()).iterator()));
+    return AutoCloseableIterators.concatWithEagerClose(records, state);
+  }
+
+  synchronized Optional<AirbyteMessage> finishChunk(final int chunkIndex) {
+    isChunkFinished[chunkIndex] = true;
+    final int previousFirstUnfinishedChunk = firstUnfinishedChunk;
+    while (firstUnfinishedChunk < chunks.size() && isChunkFinished[firstUnfinishedChunk]) {
+      if (IncrementalUtils.compareCursors(maxCursor, chunkMaxCursors[firstUnfinishedChunk], cursorType) < 0) {
+        maxCursor = chunkMaxCursors[firstUnfinishedChunk];
+      }
+      firstUnfinishedChunk++;
+    }
+
+    // the last chunk has no upper bound. once it is read, the StateDecoratingIterator emits the final
+    // state of the stream.
+    if (firstUnfinishedChunk == previousFirstUnfinishedChunk || firstUnfinishedChunk == chunks.size()) {
+      return Optional.empty();
+    }
+
+    final int finishedChunks = firstUnfinishedChunk;
+    final String completedUpTo = String.valueOf(chunks.get(finishedChunks - 1).upperEndpoint());
+    LOGGER.info("Snapshot progress: stream {}, read {} of {} chunks, {} below {}, cursor {}",
+        pair, finishedChunks, chunks.size(), primaryKey, completedUpTo, maxCursor);
+    final DbSnapshotState snapshotState = new DbSnapshotState()
+        .withPrimaryKey(primaryKey)
+        .withCompletedUpTo(completedUpTo)
+        .withCursor(maxCursor);
+    return Optional.of(new DeferredStateMessage(() -> emitProgress(finishedChunks, snapshotState)));
+  }
+
+  private AirbyteStateMessage emitProgress(final int finishedChunks, final DbSnapshotState snapshotState) {
+    if (finishedChunks <= emittedFinishedChunks) {
+      return stateManager.emit();
+    }
+    emittedFinishedChunks = finishedChunks;
+    return stateManager.updateSnapshotAndEmit(pair, snapshotState);
+  }
+
+}
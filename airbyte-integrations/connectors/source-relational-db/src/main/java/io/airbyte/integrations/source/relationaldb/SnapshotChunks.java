@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Range;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the primary key values of a table into the chunks that an initial snapshot is read in.
+ */
+public class SnapshotChunks {
+
+  // upper limit on the number of queries a single table is read with. sparse keys get wider chunks.
+  public static final int MAX_CHUNKS = 10_000;
+
+  /**
+   * Chunks are half-open ranges of chunkSize key values. The last chunk has no upper bound, so rows
+   * inserted above the current max key while the snapshot is read are still included.
+   *
+   * @param lowerBound key to start from when resuming a snapshot, or null for a new snapshot, in
+   *        which case the first chunk has no lower bound either.
+   * @param min min key value in the table
+   * @param max max key value in the table
+   * @param chunkSize number of key values per chunk
+   * @return chunks in key order, covering every key value from lowerBound up.
+   */
+  public static List<Range<Long>> split(final Long lowerBound, final long min, final long max, final long chunkSize) {
+    Preconditions.checkArgument(chunkSize > 0, "chunk size must be positive");
+
+    final long start = lowerBound == null ? min : Math.max(lowerBound, min);
+    // max - start may not fit in a signed long, but always fits in an unsigned one.
+    final long width = start <= max ? Math.max(chunkSize, Long.divideUnsigned(max - start, MAX_CHUNKS) + 1) : chunkSize;
+
+    final List<Range<Long>> chunks = new ArrayList<>();
+    Long chunkStart = lowerBound;
+    long next = start;
+    while (next <= max && Long.compareUnsigned(max - next, width) >= 0) {
+      next += width;
+      chunks.add(chunkStart == null ? Range.lessThan(next) : Range.closedOpen(chunkStart, next));
+      chunkStart = next;
+    }
+    chunks.add(chunkStart == null ? Range.all() : Range.atLeast(chunkStart));
+    return chunks;
+  }
+
+}
@@ -11,10 +11,25 @@ import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteMessage.Type;
 import io.airbyte.protocol.models.AirbyteStateMessage;
 import io.airbyte.protocol.models.JsonSchemaPrimitive;
+import java.time.Duration;
 import java.util.Iterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Emits a state message with the max cursor of a stream once all of its records have been read.
+ *
+ * <p>
+ * If the records are in cursor order, it can also emit intermediate states, every checkpointRecords
+ * records or every checkpointInterval, whichever comes first. An intermediate state is emitted right
+ * before the first record with a cursor greater than the max cursor so far. Every record with a
+ * cursor lower than or equal to the emitted cursor has then been read, so a sync that fails later can
+ * resume from that state.
+ *
+ * <p>
+ * State messages are {@link DeferredStateMessage}s: the cursor of the stream is only updated in the
+ * {@link StateManager} once they are resolved on output.
+ */
 public class StateDecoratingIterator extends AbstractIterator<AirbyteMessage> implements Iterator<AirbyteMessage> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StateDecoratingIterator.class);
@@ -24,9 +39,14 @@ public class StateDecoratingIterator extends AbstractIterator<AirbyteMessage> im
   private final AirbyteStreamNameNamespacePair pair;
   private final String cursorField;
   private final JsonSchemaPrimitive cursorType;
+  private final long checkpointRecords;
+  private final long checkpointIntervalNanos;
 
   private String maxCursor;
   private boolean hasEmittedState;
+  private AirbyteMessage pendingMessage;
+  private long recordsSinceCheckpoint;
+  private long lastCheckpointNanos;
 
   public StateDecoratingIterator(final Iterator<AirbyteMessage> messageIterator,
                                  final StateManager stateManager,
@@ -34,44 +54,92 @@ public class StateDecoratingIterator extends AbstractIterator<AirbyteMessage> im
                                  final String cursorField,
                                  final String initialCursor,
                                  final JsonSchemaPrimitive cursorType) {
+    this(messageIterator, stateManager, pair, cursorField, initialCursor, cursorType, 0, Duration.ZERO);
+  }
+
+  /**
+   * @param checkpointRecords emit an intermediate state after this many records. 0 disables it.
+   * @param checkpointInterval emit an intermediate state after this much time. zero disables it.
+   */
+  public StateDecoratingIterator(final Iterator<AirbyteMessage> messageIterator,
+                                 final StateManager stateManager,
+                                 final AirbyteStreamNameNamespacePair pair,
+                                 final String cursorField,
+                                 final String initialCursor,
+                                 final JsonSchemaPrimitive cursorType,
+                                 final long checkpointRecords,
+                                 final Duration checkpointInterval) {
     this.messageIterator = messageIterator;
     this.stateManager = stateManager;
     this.pair = pair;
     this.cursorField = cursorField;
     this.cursorType = cursorType;
+    this.checkpointRecords = checkpointRecords;
+    this.checkpointIntervalNanos = checkpointInterval.toNanos();
     this.maxCursor = initialCursor;
+    this.recordsSinceCheckpoint = 0;
+    this.lastCheckpointNanos = System.nanoTime();
     stateManager.setIsCdc(false);
   }
 
   @Override
   protected AirbyteMessage computeNext() {
-    if (messageIterator.hasNext()) {
+    if (pendingMessage != null) {
+      final AirbyteMessage message = pendingMessage;
+      pendingMessage = null;
+      return message;
+    } else if (messageIterator.hasNext()) {
       final AirbyteMessage message = messageIterator.next();
-      if (message.getRecord().getData().hasNonNull(cursorField)) {
-        final String cursorCandidate = message.getRecord().getData().get(cursorField).asText();
-        if (IncrementalUtils.compareCursors(maxCursor, cursorCandidate, cursorType) < 0) {
-          maxCursor = cursorCandidate;
+      // states of a chunked snapshot are passed through as they are.
+      if (message.getType() == Type.RECORD) {
+        recordsSinceCheckpoint++;
+        if (message.getRecord().getData().hasNonNull(cursorField)) {
+          final String cursorCandidate = message.getRecord().getData().get(cursorField).asText();
+          if (IncrementalUtils.compareCursors(maxCursor, cursorCandidate, cursorType) < 0) {
+            if (maxCursor != null && isCheckpointDue()) {
+              final String checkpointCursor = maxCursor;
+              LOGGER.info("Intermediate State Report: stream name: {}, cursor field: {}, cursor: {}, records since last state: {}",
+                  pair, cursorField, checkpointCursor, recordsSinceCheckpoint - 1);
+              recordsSinceCheckpoint = 1;
+              lastCheckpointNanos = System.nanoTime();
+              maxCursor = cursorCandidate;
+              pendingMessage = message;
+              return new DeferredStateMessage(() -> stateManager.updateAndEmit(pair, checkpointCursor));
+            }
+            maxCursor = cursorCandidate;
+          }
         }
       }
 
       return message;
     } else if (!hasEmittedState) {
-      final AirbyteStateMessage stateMessage = stateManager.updateAndEmit(pair, maxCursor);
-      LOGGER.info("State Report: stream name: {}, original cursor field: {}, original cursor {}, cursor field: {}, new cursor: {}",
-          pair,
-          stateManager.getOriginalCursorField(pair).orElse(null),
-          stateManager.getOriginalCursor(pair).orElse(null),
-          stateManager.getCursorField(pair).orElse(null),
-          stateManager.getCursor(pair).orElse(null));
-      if (stateManager.getCursor(pair).isEmpty()) {
-        LOGGER.warn("Cursor was for stream {} was null. This stream will replicate all records on the next run", pair);
-      }
-
+      final String finalCursor = maxCursor;
       hasEmittedState = true;
-      return new AirbyteMessage().withType(Type.STATE).withState(stateMessage);
+      return new DeferredStateMessage(() -> {
+        final AirbyteStateMessage stateMessage = stateManager.updateAndEmit(pair, finalCursor);
+        LOGGER.info("State Report: stream name: {}, original cursor field: {}, original cursor {}, cursor field: {}, new cursor: {}",
+            pair,
+            stateManager.getOriginalCursorField(pair).orElse(null),
+            stateManager.getOriginalCursor(pair).orElse(null),
+            stateManager.getCursorField(pair).orElse(null),
+            stateManager.getCursor(pair).orElse(null));
+        if (stateManager.getCursor(pair).isEmpty()) {
+          LOGGER.warn("Cursor was for stream {} was null. This stream will replicate all records on the next run", pair);
+        }
+        return stateMessage;
+      });
     } else {
       return endOfData();
     }
   }
 
+  /**
+   * Called when the next record would move the cursor forward. The records that were read since the
+   * last state do not include the next one.
+   */
+  private boolean isCheckpointDue() {
+    return (checkpointRecords > 0 && recordsSinceCheckpoint - 1 >= checkpointRecords)
+        || (checkpointIntervalNanos > 0 && System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos);
+  }
+
 }
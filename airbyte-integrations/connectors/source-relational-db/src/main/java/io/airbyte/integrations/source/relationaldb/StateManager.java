@@ -10,6 +10,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.integrations.source.relationaldb.models.DbSnapshotState;
 import io.airbyte.integrations.source.relationaldb.models.DbState;
 import io.airbyte.integrations.source.relationaldb.models.DbStreamState;
 import io.airbyte.protocol.models.AirbyteStateMessage;
@@ -33,6 +34,7 @@ public class StateManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(StateManager.class);
 
   private final Map<AirbyteStreamNameNamespacePair, CursorInfo> pairToCursorInfo;
+  private final Map<AirbyteStreamNameNamespacePair, DbSnapshotState> pairToSnapshotState;
   private Boolean isCdc;
   private final CdcStateManager cdcStateManager;
 
@@ -49,6 +51,28 @@ public class StateManager {
 
     pairToCursorInfo =
         new ImmutableMap.Builder<AirbyteStreamNameNamespacePair, CursorInfo>().putAll(createCursorInfoMap(serialized, catalog)).build();
+    pairToSnapshotState = createSnapshotStateMap(serialized, pairToCursorInfo);
+  }
+
+  /**
+   * A snapshot that was in progress can only be resumed if it was read with the same cursor field and
+   * has not finished yet.
+   */
+  private static Map<AirbyteStreamNameNamespacePair, DbSnapshotState> createSnapshotStateMap(final DbState serialized,
+                                                                                             final Map<AirbyteStreamNameNamespacePair, CursorInfo> pairToCursorInfo) {
+    final Map<AirbyteStreamNameNamespacePair, DbSnapshotState> localMap = new HashMap<>();
+    for (final DbStreamState streamState : serialized.getStreams()) {
+      final AirbyteStreamNameNamespacePair pair = toAirbyteStreamNameNamespacePair(streamState);
+      final CursorInfo cursorInfo = pairToCursorInfo.get(pair);
+      if (streamState.getSnapshot() != null
+          && cursorInfo.getCursor() == null
+          && cursorInfo.getCursorField() != null
+          && cursorInfo.getCursorField().equals(cursorInfo.getOriginalCursorField())) {
+        LOGGER.info("Found snapshot in progress in state. Stream: {}. Snapshot: {}", pair, streamState.getSnapshot());
+        localMap.put(pair, streamState.getSnapshot());
+      }
+    }
+    return localMap;
   }
 
   private static Map<AirbyteStreamNameNamespacePair, CursorInfo> createCursorInfoMap(final DbState serialized,
@@ -157,11 +181,29 @@ public class StateManager {
       final Optional<CursorInfo> cursorInfo = getCursorInfo(pair);
       Preconditions.checkState(cursorInfo.isPresent(), "Could not find cursor information for stream: " + pair);
       cursorInfo.get().setCursor(cursor);
+      pairToSnapshotState.remove(pair);
     }
 
     return toState();
   }
 
+  /**
+   * @return progress of the initial snapshot of the stream, if a previous attempt did not finish it.
+   */
+  synchronized public Optional<DbSnapshotState> getSnapshotState(final AirbyteStreamNameNamespacePair pair) {
+    return Optional.ofNullable(pairToSnapshotState.get(pair));
+  }
+
+  /**
+   * Records progress of the initial snapshot of a stream. The cursor of the stream is left untouched
+   * until the snapshot finishes and {@link StateManager#updateAndEmit} is called.
+   */
+  synchronized public AirbyteStateMessage updateSnapshotAndEmit(final AirbyteStreamNameNamespacePair pair, final DbSnapshotState snapshotState) {
+    Preconditions.checkState(pairToCursorInfo.containsKey(pair), "Could not find cursor information for stream: " + pair);
+    pairToSnapshotState.put(pair, snapshotState);
+    return toState();
+  }
+
   public void setIsCdc(final boolean isCdc) {
     if (this.isCdc == null) {
       this.isCdc = isCdc;
@@ -174,7 +216,7 @@ public class StateManager {
     return cdcStateManager;
   }
 
-  public AirbyteStateMessage emit() {
+  synchronized public AirbyteStateMessage emit() {
     return toState();
   }
 
@@ -187,7 +229,8 @@ public class StateManager {
                 .withStreamName(e.getKey().getName())
                 .withStreamNamespace(e.getKey().getNamespace())
                 .withCursorField(e.getValue().getCursorField() == null ? Collections.emptyList() : Lists.newArrayList(e.getValue().getCursorField()))
-                .withCursor(e.getValue().getCursor()))
+                .withCursor(e.getValue().getCursor())
+                .withSnapshot(pairToSnapshotState.get(e.getKey())))
             .collect(Collectors.toList()))
         .withCdcState(cdcStateManager.getCdcState());
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Range;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.commons.util.AutoCloseableIterator;
+import io.airbyte.commons.util.AutoCloseableIterators;
+import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.integrations.source.relationaldb.models.DbSnapshotState;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import io.airbyte.protocol.models.AirbyteStateMessage;
+import io.airbyte.protocol.models.JsonSchemaPrimitive;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotChunkTrackerTest {
+
+  private static final AirbyteStreamNameNamespacePair PAIR = new AirbyteStreamNameNamespacePair("cars", "public");
+  private static final String PRIMARY_KEY = "id";
+  private static final String CURSOR_FIELD = "year";
+  private static final List<Range<Long>> CHUNKS = List.of(Range.lessThan(10L), Range.closedOpen(10L, 20L), Range.atLeast(20L));
+  private static final AirbyteStateMessage STATE_MESSAGE = new AirbyteStateMessage().withData(Jsons.jsonNode(Map.of("state", 1)));
+
+  private StateManager stateManager;
+  private SnapshotChunkTracker tracker;
+
+  @BeforeEach
+  void setup() {
+    stateManager = mock(StateManager.class);
+    when(stateManager.updateSnapshotAndEmit(any(), any())).thenReturn(STATE_MESSAGE);
+    tracker = new SnapshotChunkTracker(stateManager, PAIR, PRIMARY_KEY, CURSOR_FIELD, JsonSchemaPrimitive.NUMBER, "1990", CHUNKS);
+  }
+
+  @Test
+  void testStateIsEmittedAfterChunk() throws Exception {
+    final List<AirbyteMessage> messages = read(tracker.track(0, records("2001", "2005")));
+
+    assertEquals(List.of(record("2001"), record("2005"), state()), messages);
+    verify(stateManager).updateSnapshotAndEmit(PAIR, new DbSnapshotState().withPrimaryKey(PRIMARY_KEY).withCompletedUpTo("10").withCursor("2005"));
+  }
+
+  @Test
+  void testStateWaitsForPreviousChunks() throws Exception {
+    // the second chunk finishes first, so nothing can be skipped by a retry yet.
+    assertEquals(List.of(record("2010")), read(tracker.track(1, records("2010"))));
+    assertEquals(List.of(record("2001"), state()), read(tracker.track(0, records("2001"))));
+    verify(stateManager).updateSnapshotAndEmit(PAIR, new DbSnapshotState().withPrimaryKey(PRIMARY_KEY).withCompletedUpTo("20").withCursor("2010"));
+  }
+
+  @Test
+  void testNoStateAfterLastChunk() throws Exception {
+    assertEquals(List.of(record("2001"), state()), read(tracker.track(0, records("2001"))));
+    assertEquals(List.of(state()), read(tracker.track(1, records())));
+    verify(stateManager).updateSnapshotAndEmit(PAIR, new DbSnapshotState().withPrimaryKey(PRIMARY_KEY).withCompletedUpTo("20").withCursor("2001"));
+    // the final state comes from the StateDecoratingIterator.
+    assertTrue(tracker.finishChunk(2).isEmpty());
+  }
+
+  @Test
+  void testStateOutputAfterALaterOneDoesNotRollBack() throws Exception {
+    final List<AirbyteMessage> firstChunk = AutoCloseableIterators.toListAndClose(tracker.track(0, records("2001")));
+    final List<AirbyteMessage> secondChunk = AutoCloseableIterators.toListAndClose(tracker.track(1, records("2010")));
+    final AirbyteStateMessage currentState = new AirbyteStateMessage().withData(Jsons.jsonNode(Map.of("state", 2)));
+    when(stateManager.emit()).thenReturn(currentState);
+
+    // chunks read concurrently may queue their states in a different order than they finished.
+    assertEquals(STATE_MESSAGE, DeferredStateMessage.resolve(secondChunk.get(1)).getState());
+    assertEquals(currentState, DeferredStateMessage.resolve(firstChunk.get(1)).getState());
+    verify(stateManager).updateSnapshotAndEmit(PAIR, new DbSnapshotState().withPrimaryKey(PRIMARY_KEY).withCompletedUpTo("20").withCursor("2010"));
+    verify(stateManager, never()).updateSnapshotAndEmit(PAIR, new DbSnapshotState().withPrimaryKey(PRIMARY_KEY).withCompletedUpTo("10").withCursor("2001"));
+  }
+
+  private static List<AirbyteMessage> read(final AutoCloseableIterator<AirbyteMessage> iterator) throws Exception {
+    return AutoCloseableIterators.toListAndClose(AutoCloseableIterators.transform(iterator, DeferredStateMessage::resolve));
+  }
+
+  private static AutoCloseableIterator<AirbyteMessage> records(final String... cursors) {
+    return AutoCloseableIterators.fromIterator(Arrays.stream(cursors).map(SnapshotChunkTrackerTest::record).iterator());
+  }
+
+  private static AirbyteMessage record(final String cursor) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage().withStream(PAIR.getName()).withData(Jsons.jsonNode(Map.of(CURSOR_FIELD, cursor))));
+  }
+
+  private static AirbyteMessage state() {
+    return new AirbyteMessage().withType(Type.STATE).withState(STATE_MESSAGE);
+  }
+
+}
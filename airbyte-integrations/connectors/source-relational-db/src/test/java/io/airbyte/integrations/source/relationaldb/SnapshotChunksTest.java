@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.integrations.source.relationaldb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.Range;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SnapshotChunksTest {
+
+  @Test
+  void testSplit() {
+    assertEquals(List.of(Range.lessThan(11L), Range.closedOpen(11L, 21L), Range.atLeast(21L)), SnapshotChunks.split(null, 1, 25, 10));
+  }
+
+  @Test
+  void testSplitSingleChunk() {
+    assertEquals(List.of(Range.all()), SnapshotChunks.split(null, 1, 5, 10));
+    assertEquals(List.of(Range.all()), SnapshotChunks.split(null, 7, 7, 1));
+  }
+
+  @Test
+  void testSplitFromLowerBound() {
+    assertEquals(List.of(Range.closedOpen(11L, 21L), Range.atLeast(21L)), SnapshotChunks.split(11L, 1, 25, 10));
+    // the rest of the table was deleted after the previous attempt.
+    assertEquals(List.of(Range.atLeast(31L)), SnapshotChunks.split(31L, 1, 25, 10));
+  }
+
+  @Test
+  void testSplitLimitsNumberOfChunks() {
+    final List<Range<Long>> chunks = SnapshotChunks.split(null, Long.MIN_VALUE, Long.MAX_VALUE, 1);
+    assertTrue(chunks.size() <= SnapshotChunks.MAX_CHUNKS + 1);
+    assertEquals(Range.all(), chunks.stream().reduce(Range::span).orElseThrow());
+    for (int i = 1; i < chunks.size(); i++) {
+      assertEquals(chunks.get(i - 1).upperEndpoint(), chunks.get(i).lowerEndpoint());
+    }
+  }
+
+  @Test
+  void testInvalidChunkSize() {
+    assertThrows(IllegalArgumentException.class, () -> SnapshotChunks.split(null, 1, 25, 0));
+  }
+
+}
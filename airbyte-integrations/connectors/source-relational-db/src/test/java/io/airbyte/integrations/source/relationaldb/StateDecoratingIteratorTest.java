@@ -7,7 +7,10 @@ package io.airbyte.integrations.source.relationaldb;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -19,6 +22,7 @@ import io.airbyte.protocol.models.AirbyteMessage.Type;
 import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.AirbyteStateMessage;
 import io.airbyte.protocol.models.JsonSchemaPrimitive;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Optional;
@@ -70,7 +74,7 @@ class StateDecoratingIteratorTest {
 
     assertEquals(RECORD_MESSAGE1, iterator.next());
     assertEquals(RECORD_MESSAGE2, iterator.next());
-    assertEquals(stateMessage, iterator.next().getState());
+    assertEquals(stateMessage, nextState(iterator));
     assertFalse(iterator.hasNext());
   }
 
@@ -88,7 +92,7 @@ class StateDecoratingIteratorTest {
 
     assertEquals(RECORD_MESSAGE1, iterator.next());
     assertEquals(RECORD_MESSAGE2, iterator.next());
-    assertEquals(stateMessage, iterator.next().getState());
+    assertEquals(stateMessage, nextState(iterator));
     assertFalse(iterator.hasNext());
   }
 
@@ -110,7 +114,7 @@ class StateDecoratingIteratorTest {
 
     assertEquals(recordMessage, iterator.next());
     // null because no records with a cursor field were replicated for the stream.
-    assertNull(iterator.next().getState());
+    assertNull(nextState(iterator));
     assertFalse(iterator.hasNext());
   }
 
@@ -126,8 +130,120 @@ class StateDecoratingIteratorTest {
         null,
         JsonSchemaPrimitive.STRING);
 
-    assertEquals(stateMessage, iterator.next().getState());
+    assertEquals(stateMessage, nextState(iterator));
     assertFalse(iterator.hasNext());
   }
 
+  @Test
+  void testIntermediateStateEveryNRecords() {
+    final AirbyteMessage recordMessage3 = recordMessage("ghi");
+    final AirbyteStateMessage intermediateStateMessage = mock(AirbyteStateMessage.class);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "def")).thenReturn(intermediateStateMessage);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "ghi")).thenReturn(stateMessage);
+
+    final StateDecoratingIterator iterator = new StateDecoratingIterator(
+        MoreIterators.of(RECORD_MESSAGE1, RECORD_MESSAGE2, recordMessage3),
+        stateManager,
+        NAME_NAMESPACE_PAIR,
+        UUID_FIELD_NAME,
+        null,
+        JsonSchemaPrimitive.STRING,
+        2,
+        Duration.ZERO);
+
+    assertEquals(RECORD_MESSAGE1, iterator.next());
+    assertEquals(RECORD_MESSAGE2, iterator.next());
+    assertEquals(intermediateStateMessage, nextState(iterator));
+    assertEquals(recordMessage3, iterator.next());
+    assertEquals(stateMessage, nextState(iterator));
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void testIntermediateStateWaitsForCursorToChange() {
+    // records with the same cursor must all be read before a state with that cursor is emitted.
+    final AirbyteMessage recordMessage3 = recordMessage("def");
+    final AirbyteMessage recordMessage4 = recordMessage("ghi");
+    final AirbyteStateMessage intermediateStateMessage = mock(AirbyteStateMessage.class);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "def")).thenReturn(intermediateStateMessage);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "ghi")).thenReturn(stateMessage);
+
+    final StateDecoratingIterator iterator = new StateDecoratingIterator(
+        MoreIterators.of(RECORD_MESSAGE1, RECORD_MESSAGE2, recordMessage3, recordMessage4),
+        stateManager,
+        NAME_NAMESPACE_PAIR,
+        UUID_FIELD_NAME,
+        null,
+        JsonSchemaPrimitive.STRING,
+        2,
+        Duration.ZERO);
+
+    assertEquals(RECORD_MESSAGE1, iterator.next());
+    assertEquals(RECORD_MESSAGE2, iterator.next());
+    assertEquals(recordMessage3, iterator.next());
+    assertEquals(intermediateStateMessage, nextState(iterator));
+    assertEquals(recordMessage4, iterator.next());
+    assertEquals(stateMessage, nextState(iterator));
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void testIntermediateStateByTime() {
+    final AirbyteStateMessage intermediateStateMessage = mock(AirbyteStateMessage.class);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "abc")).thenReturn(intermediateStateMessage);
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "def")).thenReturn(stateMessage);
+
+    final StateDecoratingIterator iterator = new StateDecoratingIterator(
+        messageIterator,
+        stateManager,
+        NAME_NAMESPACE_PAIR,
+        UUID_FIELD_NAME,
+        null,
+        JsonSchemaPrimitive.STRING,
+        0,
+        Duration.ofNanos(1));
+
+    assertEquals(RECORD_MESSAGE1, iterator.next());
+    assertEquals(intermediateStateMessage, nextState(iterator));
+    assertEquals(RECORD_MESSAGE2, iterator.next());
+    assertEquals(stateMessage, nextState(iterator));
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void testCursorIsOnlyUpdatedWhenStateIsResolved() {
+    when(stateManager.updateAndEmit(NAME_NAMESPACE_PAIR, "def")).thenReturn(stateMessage);
+
+    final StateDecoratingIterator iterator = new StateDecoratingIterator(
+        messageIterator,
+        stateManager,
+        NAME_NAMESPACE_PAIR,
+        UUID_FIELD_NAME,
+        null,
+        JsonSchemaPrimitive.STRING);
+
+    assertEquals(RECORD_MESSAGE1, iterator.next());
+    assertEquals(RECORD_MESSAGE2, iterator.next());
+    final AirbyteMessage deferredState = iterator.next();
+    assertFalse(iterator.hasNext());
+    // a stream read concurrently with others reaches its end before its records are output.
+    verify(stateManager, never()).updateAndEmit(any(), any());
+
+    assertEquals(stateMessage, DeferredStateMessage.resolve(deferredState).getState());
+    verify(stateManager).updateAndEmit(NAME_NAMESPACE_PAIR, "def");
+  }
+
+  private static AirbyteStateMessage nextState(final Iterator<AirbyteMessage> iterator) {
+    final AirbyteMessage message = DeferredStateMessage.resolve(iterator.next());
+    assertEquals(Type.STATE, message.getType());
+    return message.getState();
+  }
+
+  private static AirbyteMessage recordMessage(final String cursor) {
+    return new AirbyteMessage()
+        .withType(Type.RECORD)
+        .withRecord(new AirbyteRecordMessage()
+            .withData(Jsons.jsonNode(ImmutableMap.of(UUID_FIELD_NAME, cursor))));
+  }
+
 }
@@ -5,9 +5,11 @@
 package io.airbyte.integrations.source.relationaldb;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.integrations.base.AirbyteStreamNameNamespacePair;
+import io.airbyte.integrations.source.relationaldb.models.DbSnapshotState;
 import io.airbyte.integrations.source.relationaldb.models.DbState;
 import io.airbyte.integrations.source.relationaldb.models.DbStreamState;
 import io.airbyte.protocol.models.AirbyteStateMessage;
@@ -189,4 +191,53 @@ class StateManagerTest {
     assertEquals(expectedFirstEmission, actualFirstEmission);
   }
 
+  @Test
+  void testSnapshotState() {
+    final ConfiguredAirbyteCatalog catalog = new ConfiguredAirbyteCatalog()
+        .withStreams(Lists.newArrayList(
+            new ConfiguredAirbyteStream()
+                .withStream(new AirbyteStream().withName(STREAM_NAME1).withNamespace(NAMESPACE))
+                .withCursorField(Lists.newArrayList(CURSOR_FIELD1))));
+    final DbSnapshotState snapshotState = new DbSnapshotState().withPrimaryKey("id").withCompletedUpTo("1000").withCursor("1999");
+    final DbState state = new DbState().withStreams(Lists.newArrayList(
+        new DbStreamState().withStreamName(STREAM_NAME1).withStreamNamespace(NAMESPACE).withCursorField(Lists.newArrayList(CURSOR_FIELD1))
+            .withSnapshot(snapshotState)));
+
+    final StateManager stateManager = new StateManager(state, catalog);
+    assertEquals(Optional.of(snapshotState), stateManager.getSnapshotState(NAME_NAMESPACE_PAIR1));
+    assertEquals(Optional.empty(), stateManager.getCursor(NAME_NAMESPACE_PAIR1));
+
+    final DbSnapshotState nextSnapshotState = new DbSnapshotState().withPrimaryKey("id").withCompletedUpTo("2000").withCursor("2010");
+    final AirbyteStateMessage expectedSnapshotEmission = new AirbyteStateMessage()
+        .withData(Jsons.jsonNode(new DbState().withStreams(Lists.newArrayList(
+            new DbStreamState().withStreamName(STREAM_NAME1).withStreamNamespace(NAMESPACE).withCursorField(Lists.newArrayList(CURSOR_FIELD1))
+                .withSnapshot(nextSnapshotState)))
+            .withCdc(false)));
+    assertEquals(expectedSnapshotEmission, stateManager.updateSnapshotAndEmit(NAME_NAMESPACE_PAIR1, nextSnapshotState));
+
+    // the snapshot is over once the cursor is set.
+    final AirbyteStateMessage expectedFinalEmission = new AirbyteStateMessage()
+        .withData(Jsons.jsonNode(new DbState().withStreams(Lists.newArrayList(
+            new DbStreamState().withStreamName(STREAM_NAME1).withStreamNamespace(NAMESPACE).withCursorField(Lists.newArrayList(CURSOR_FIELD1))
+                .withCursor("2020")))
+            .withCdc(false)));
+    assertEquals(expectedFinalEmission, stateManager.updateAndEmit(NAME_NAMESPACE_PAIR1, "2020"));
+    assertTrue(stateManager.getSnapshotState(NAME_NAMESPACE_PAIR1).isEmpty());
+  }
+
+  @Test
+  void testSnapshotStateIgnoredWhenCursorFieldChanges() {
+    final ConfiguredAirbyteCatalog catalog = new ConfiguredAirbyteCatalog()
+        .withStreams(Lists.newArrayList(
+            new ConfiguredAirbyteStream()
+                .withStream(new AirbyteStream().withName(STREAM_NAME1).withNamespace(NAMESPACE))
+                .withCursorField(Lists.newArrayList(CURSOR_FIELD2))));
+    final DbState state = new DbState().withStreams(Lists.newArrayList(
+        new DbStreamState().withStreamName(STREAM_NAME1).withStreamNamespace(NAMESPACE).withCursorField(Lists.newArrayList(CURSOR_FIELD1))
+            .withSnapshot(new DbSnapshotState().withPrimaryKey("id").withCompletedUpTo("1000").withCursor("1999"))));
+
+    final StateManager stateManager = new StateManager(state, catalog);
+    assertTrue(stateManager.getSnapshotState(NAME_NAMESPACE_PAIR1).isEmpty());
+  }
+
 }
@@ -4,19 +4,8 @@
 
 package io.airbyte.integrations.source.snowflake;
 
-import io.airbyte.db.jdbc.JdbcStreamingQueryConfiguration;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import io.airbyte.db.jdbc.AdaptiveStreamingQueryConfiguration;
 
-public class SnowflakeJdbcStreamingQueryConfiguration implements
-    JdbcStreamingQueryConfiguration {
-
-  @Override
-  public void accept(final Connection connection, final PreparedStatement preparedStatement)
-      throws SQLException {
-    connection.setAutoCommit(false);
-    preparedStatement.setFetchSize(1000);
-  }
+public class SnowflakeJdbcStreamingQueryConfiguration extends AdaptiveStreamingQueryConfiguration {
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.validation.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.airbyte.commons.json.Jsons;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares validating a record message by compiling its schema for every message, as the
+ * {@link JsonSchemaValidator} used to do, against looking the compiled schema up in the cache of
+ * the validator, and against a {@link PreparedJsonSchema}. The schema looks like the one of an
+ * AirbyteMessage, with definitions referenced by its properties.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonSchemaValidatorBenchmark {
+
+  private static final String SCHEMA = """
+                                       {
+                                         "$schema": "http://json-schema.org/draft-07/schema#",
+                                         "type": "object",
+                                         "required": ["type"],
+                                         "properties": {
+                                           "type": { "type": "string", "enum": ["RECORD", "STATE", "LOG"] },
+                                           "record": { "$ref": "#/definitions/AirbyteRecordMessage" },
+                                           "state": { "$ref": "#/definitions/AirbyteStateMessage" }
+                                         },
+                                         "definitions": {
+                                           "AirbyteRecordMessage": {
+                                             "type": "object",
+                                             "required": ["stream", "data", "emitted_at"],
+                                             "properties": {
+                                               "namespace": { "type": "string" },
+                                               "stream": { "type": "string" },
+                                               "data": { "type": "object", "existingJavaType": "com.fasterxml.jackson.databind.JsonNode" },
+                                               "emitted_at": { "type": "integer" }
+                                             }
+                                           },
+                                           "AirbyteStateMessage": {
+                                             "type": "object",
+                                             "required": ["data"],
+                                             "properties": {
+                                               "data": { "type": "object" }
+                                             }
+                                           }
+                                         }
+                                       }
+                                       """;
+
+  private JsonNode schema;
+  private JsonNode message;
+  private JsonSchemaValidator uncachedValidator;
+  private JsonSchemaValidator validator;
+  private PreparedJsonSchema preparedSchema;
+
+  @Setup
+  public void setup() {
+    schema = Jsons.deserialize(SCHEMA);
+    message = Jsons.jsonNode(Map.of(
+        "type", "RECORD",
+        "record", Map.of(
+            "stream", "users",
+            "data", Map.of("id", 1, "name", "alice", "updated_at", "2021-01-01T00:00:00Z"),
+            "emitted_at", 1609459200000L)));
+    uncachedValidator = new JsonSchemaValidator(0);
+    validator = new JsonSchemaValidator();
+    preparedSchema = validator.prepare(schema);
+  }
+
+  @Benchmark
+  public Set<String> compileSchemaPerMessage() {
+    return uncachedValidator.validate(schema, message);
+  }
+
+  @Benchmark
+  public Set<String> cachedSchema() {
+    return validator.validate(schema, message);
+  }
+
+  @Benchmark
+  public Set<String> preparedSchema() {
+    return preparedSchema.validate(message);
+  }
+
+}
@@ -5,78 +5,88 @@
 package io.airbyte.validation.json;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.SchemaValidatorsConfig;
 import com.networknt.schema.SpecVersion;
-import com.networknt.schema.ValidationMessage;
-import io.airbyte.commons.string.Strings;
 import java.io.File;
 import java.io.IOException;
 import java.util.Set;
-import java.util.stream.Collectors;
 import me.andrz.jackson.JsonContext;
 import me.andrz.jackson.JsonReferenceException;
 import me.andrz.jackson.JsonReferenceProcessor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+/**
+ * Validates json objects against json schemas. Compiling a schema costs much more than validating
+ * an object against it, so compiled schemas are cached by content, up to a bounded number of them.
+ * Callers that validate many objects against one schema should {@link #prepare(JsonNode)} it
+ * instead, which skips the cache lookup.
+ */
 public class JsonSchemaValidator {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaValidator.class);
+  private static final int DEFAULT_MAX_CACHED_SCHEMAS = 100;
 
   private final SchemaValidatorsConfig schemaValidatorsConfig;
   private final JsonSchemaFactory jsonSchemaFactory;
+  // keyed by a copy of the schema, so that changes to the node of the caller do not affect the entry.
+  private final Cache<JsonNode, PreparedJsonSchema> preparedSchemas;
 
   public JsonSchemaValidator() {
+    this(DEFAULT_MAX_CACHED_SCHEMAS);
+  }
+
+  @VisibleForTesting
+  JsonSchemaValidator(final int maxCachedSchemas) {
     this.schemaValidatorsConfig = new SchemaValidatorsConfig();
     this.jsonSchemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    this.preparedSchemas = CacheBuilder.newBuilder().maximumSize(maxCachedSchemas).build();
   }
 
-  public Set<String> validate(final JsonNode schemaJson, final JsonNode objectJson) {
-    return validateInternal(schemaJson, objectJson)
-        .stream()
-        .map(ValidationMessage::getMessage)
-        .collect(Collectors.toSet());
+  /**
+   * Compiles the schema, without caching it.
+   */
+  public PreparedJsonSchema prepare(final JsonNode schemaJson) {
+    Preconditions.checkNotNull(schemaJson);
+
+    final JsonNode schemaCopy = schemaJson.deepCopy();
+    return new PreparedJsonSchema(schemaCopy, jsonSchemaFactory.getSchema(schemaCopy, schemaValidatorsConfig));
   }
 
-  // keep this internal as it returns a type specific to the wrapped library.
-  private Set<ValidationMessage> validateInternal(final JsonNode schemaJson, final JsonNode objectJson) {
+  private PreparedJsonSchema getPreparedSchema(final JsonNode schemaJson) {
     Preconditions.checkNotNull(schemaJson);
-    Preconditions.checkNotNull(objectJson);
 
-    return jsonSchemaFactory.getSchema(schemaJson, schemaValidatorsConfig)
-        .validate(objectJson);
+    final PreparedJsonSchema preparedSchema = preparedSchemas.getIfPresent(schemaJson);
+    if (preparedSchema != null) {
+      return preparedSchema;
+    }
+    final PreparedJsonSchema newPreparedSchema = prepare(schemaJson);
+    preparedSchemas.put(newPreparedSchema.getSchemaJson(), newPreparedSchema);
+    return newPreparedSchema;
   }
 
-  public boolean test(final JsonNode schemaJson, final JsonNode objectJson) {
-    final Set<ValidationMessage> validationMessages = validateInternal(schemaJson, objectJson);
+  @VisibleForTesting
+  long getCachedSchemaCount() {
+    preparedSchemas.cleanUp();
+    return preparedSchemas.size();
+  }
 
-    if (!validationMessages.isEmpty()) {
-      LOGGER.info("JSON schema validation failed. \nerrors: {}", Strings.join(validationMessages, ", "));
-    }
+  public Set<String> validate(final JsonNode schemaJson, final JsonNode objectJson) {
+    return getPreparedSchema(schemaJson).validate(objectJson);
+  }
 
-    return validationMessages.isEmpty();
+  public boolean test(final JsonNode schemaJson, final JsonNode objectJson) {
+    return getPreparedSchema(schemaJson).test(objectJson);
   }
 
   public void ensure(final JsonNode schemaJson, final JsonNode objectJson) throws JsonValidationException {
-    final Set<ValidationMessage> validationMessages = validateInternal(schemaJson, objectJson);
-    if (validationMessages.isEmpty()) {
-      return;
-    }
-
-    throw new JsonValidationException(String.format(
-        "json schema validation failed when comparing the data to the json schema. \nErrors: %s \nSchema: \n%s",
-        Strings.join(validationMessages, ", "),
-        schemaJson.toPrettyString()));
+    getPreparedSchema(schemaJson).ensure(objectJson);
   }
 
   public void ensureAsRuntime(final JsonNode schemaJson, final JsonNode objectJson) {
-    try {
-      ensure(schemaJson, objectJson);
-    } catch (final JsonValidationException e) {
-      throw new RuntimeException(e);
-    }
+    getPreparedSchema(schemaJson).ensureAsRuntime(objectJson);
   }
 
   private static JsonReferenceProcessor getProcessor() {
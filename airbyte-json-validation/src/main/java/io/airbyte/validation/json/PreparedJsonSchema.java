@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.validation.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Preconditions;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.ValidationMessage;
+import io.airbyte.commons.string.Strings;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A json schema compiled once by {@link JsonSchemaValidator#prepare(JsonNode)}, to validate any
+ * number of objects against it. It is safe to use from multiple threads.
+ */
+public class PreparedJsonSchema {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PreparedJsonSchema.class);
+
+  private final JsonNode schemaJson;
+  private final JsonSchema jsonSchema;
+
+  PreparedJsonSchema(final JsonNode schemaJson, final JsonSchema jsonSchema) {
+    this.schemaJson = schemaJson;
+    this.jsonSchema = jsonSchema;
+  }
+
+  public JsonNode getSchemaJson() {
+    return schemaJson;
+  }
+
+  public Set<String> validate(final JsonNode objectJson) {
+    return validateInternal(objectJson)
+        .stream()
+        .map(ValidationMessage::getMessage)
+        .collect(Collectors.toSet());
+  }
+
+  // keep this internal as it returns a type specific to the wrapped library.
+  private Set<ValidationMessage> validateInternal(final JsonNode objectJson) {
+    Preconditions.checkNotNull(objectJson);
+
+    return jsonSchema.validate(objectJson);
+  }
+
+  public boolean test(final JsonNode objectJson) {
+    final Set<ValidationMessage> validationMessages = validateInternal(objectJson);
+
+    if (!validationMessages.isEmpty()) {
+      LOGGER.info("JSON schema validation failed. \nerrors: {}", Strings.join(validationMessages, ", "));
+    }
+
+    return validationMessages.isEmpty();
+  }
+
+  public void ensure(final JsonNode objectJson) throws JsonValidationException {
+    final Set<ValidationMessage> validationMessages = validateInternal(objectJson);
+    if (validationMessages.isEmpty()) {
+      return;
+    }
+
+    throw new JsonValidationException(String.format(
+        "json schema validation failed when comparing the data to the json schema. \nErrors: %s \nSchema: \n%s",
+        Strings.join(validationMessages, ", "),
+        schemaJson.toPrettyString()));
+  }
+
+  public void ensureAsRuntime(final JsonNode objectJson) {
+    try {
+      ensure(objectJson);
+    } catch (final JsonValidationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+}
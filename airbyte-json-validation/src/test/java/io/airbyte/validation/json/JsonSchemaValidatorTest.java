@@ -5,12 +5,14 @@
 package io.airbyte.validation.json;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.airbyte.commons.io.IOs;
 import io.airbyte.commons.json.Jsons;
 import java.io.File;
@@ -65,6 +67,42 @@ class JsonSchemaValidatorTest {
     assertThrows(JsonValidationException.class, () -> validator.ensure(VALID_SCHEMA, object2));
   }
 
+  @Test
+  void testPreparedSchema() {
+    final PreparedJsonSchema preparedSchema = new JsonSchemaValidator().prepare(VALID_SCHEMA);
+
+    assertTrue(preparedSchema.test(Jsons.deserialize("{\"host\":\"abc\", \"port\":1}")));
+    assertFalse(preparedSchema.test(Jsons.deserialize("{\"host\":\"abc\", \"port\":9999999}")));
+    assertThrows(JsonValidationException.class, () -> preparedSchema.ensure(Jsons.deserialize("{}")));
+  }
+
+  @Test
+  void testCompiledSchemasAreCachedByContent() {
+    final JsonSchemaValidator validator = new JsonSchemaValidator(1);
+    final JsonNode object = Jsons.deserialize("{\"host\":\"abc\"}");
+
+    assertTrue(validator.test(VALID_SCHEMA, object));
+    assertTrue(validator.test(VALID_SCHEMA.deepCopy(), object));
+    assertEquals(1, validator.getCachedSchemaCount());
+
+    // a different schema evicts the previous one.
+    final JsonNode otherSchema = Jsons.deserialize("{\"type\": \"object\", \"required\": [\"port\"]}");
+    assertFalse(validator.test(otherSchema, object));
+    assertEquals(1, validator.getCachedSchemaCount());
+    assertTrue(validator.test(VALID_SCHEMA, object));
+  }
+
+  @Test
+  void testChangingTheSchemaAfterValidationIsNotCached() {
+    final JsonSchemaValidator validator = new JsonSchemaValidator();
+    final ObjectNode schema = (ObjectNode) VALID_SCHEMA.deepCopy();
+    final JsonNode object = Jsons.deserialize("{\"host\":\"abc\", \"other\":1}");
+
+    assertFalse(validator.test(schema, object));
+    schema.put("additionalProperties", true);
+    assertTrue(validator.test(schema, object));
+  }
+
   @Test
   void test() throws IOException {
     final String schema = "{\n"
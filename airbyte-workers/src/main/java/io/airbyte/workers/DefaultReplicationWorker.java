@@ -4,6 +4,7 @@
 
 package io.airbyte.workers;
 
+import com.google.common.base.Preconditions;
 import io.airbyte.config.FailureReason;
 import io.airbyte.config.ReplicationAttemptSummary;
 import io.airbyte.config.ReplicationOutput;
@@ -31,6 +32,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,29 +59,51 @@ public class DefaultReplicationWorker implements ReplicationWorker {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultReplicationWorker.class);
 
+  private static final int MAX_PIPELINE_STAGES = 3;
+  private static final int PIPELINE_STATS_LOG_INTERVAL_RECORDS = 100_000;
+
+  // marks the end of the source output in the pipeline queues. compared by identity.
+  private static final AirbyteMessage END_OF_STREAM = new AirbyteMessage();
+
   private final String jobId;
   private final int attempt;
   private final AirbyteSource source;
   private final AirbyteMapper mapper;
   private final AirbyteDestination destination;
   private final MessageTracker messageTracker;
+  private final int pipelineStages;
+  private final int pipelineQueueDepth;
 
   private final ExecutorService executors;
   private final AtomicBoolean cancelled;
   private final AtomicBoolean hasFailed;
 
+  /**
+   * @param pipelineStages number of threads records go through between the source and the
+   *        destination. 1 reads, maps and writes on a single thread. 2 reads on one thread, and maps
+   *        and writes on another. 3 reads, maps and writes on separate threads. Stages are connected
+   *        by bounded queues.
+   * @param pipelineQueueDepth capacity of each queue between two stages.
+   */
   public DefaultReplicationWorker(final String jobId,
                                   final int attempt,
                                   final AirbyteSource source,
                                   final AirbyteMapper mapper,
                                   final AirbyteDestination destination,
-                                  final MessageTracker messageTracker) {
+                                  final MessageTracker messageTracker,
+                                  final int pipelineStages,
+                                  final int pipelineQueueDepth) {
+    Preconditions.checkArgument(pipelineStages >= 1 && pipelineStages <= MAX_PIPELINE_STAGES,
+        "Replication pipeline stages must be between 1 and %s, got %s", MAX_PIPELINE_STAGES, pipelineStages);
+    Preconditions.checkArgument(pipelineQueueDepth > 0, "Replication pipeline queue depth must be positive, got %s", pipelineQueueDepth);
     this.jobId = jobId;
     this.attempt = attempt;
     this.source = source;
     this.mapper = mapper;
     this.destination = destination;
     this.messageTracker = messageTracker;
+    this.pipelineStages = pipelineStages;
+    this.pipelineQueueDepth = pipelineQueueDepth;
     this.executors = Executors.newFixedThreadPool(2);
 
     this.cancelled = new AtomicBoolean(false);
@@ -140,8 +164,11 @@ public class DefaultReplicationWorker implements ReplicationWorker {
               }
             });
 
+        final Runnable replicationRunnable = pipelineStages == 1
+            ? getReplicationRunnable(source, destination, cancelled, mapper, messageTracker, mdc)
+            : getPipelinedReplicationRunnable(source, destination, cancelled, mapper, messageTracker, mdc, pipelineStages, pipelineQueueDepth);
         final CompletableFuture<?> replicationThreadFuture = CompletableFuture.runAsync(
-            getReplicationRunnable(source, destination, cancelled, mapper, messageTracker, mdc),
+            replicationRunnable,
             executors).whenComplete((msg, ex) -> {
               if (ex != null) {
                 if (ex.getCause() instanceof SourceException) {
@@ -263,6 +290,8 @@ public class DefaultReplicationWorker implements ReplicationWorker {
       return output;
     } catch (final Exception e) {
       throw new WorkerException("Sync failed", e);
+    } finally {
+      messageTracker.close();
     }
 
   }
@@ -329,6 +358,180 @@ public class DefaultReplicationWorker implements ReplicationWorker {
     };
   }
 
+  /**
+   * Same as {@link #getReplicationRunnable}, but the work is split into stages that run on their
+   * own threads and are connected by bounded queues, so that a slow destination does not stall
+   * parsing of the source output (and vice versa) until a queue is full. The last stage, which writes
+   * to the destination, runs on the calling thread. Stage order is:
+   * <ul>
+   * <li>read from the source</li>
+   * <li>map and track (only if there are 3 stages, otherwise this happens in the write stage)</li>
+   * <li>write to the destination</li>
+   * </ul>
+   *
+   * The queues log how long each stage was blocked on its neighbours. See
+   * {@link ReplicationStageQueue}.
+   */
+  private static Runnable getPipelinedReplicationRunnable(final AirbyteSource source,
+                                                          final AirbyteDestination destination,
+                                                          final AtomicBoolean cancelled,
+                                                          final AirbyteMapper mapper,
+                                                          final MessageTracker messageTracker,
+                                                          final Map<String, String> mdc,
+                                                          final int pipelineStages,
+                                                          final int pipelineQueueDepth) {
+    return () -> {
+      MDC.setContextMap(mdc);
+      LOGGER.info("Replication thread started with {} pipeline stages and queue depth {}.", pipelineStages, pipelineQueueDepth);
+
+      final AtomicReference<RuntimeException> stageFailure = new AtomicReference<>();
+      final BooleanSupplier shouldStop = () -> cancelled.get() || stageFailure.get() != null;
+      final ExecutorService stageExecutors = Executors.newFixedThreadPool(pipelineStages - 1);
+
+      final List<ReplicationStageQueue<AirbyteMessage>> queues = new ArrayList<>();
+      final ReplicationStageQueue<AirbyteMessage> readQueue = new ReplicationStageQueue<>(
+          pipelineStages == 2 ? "source->destination" : "source->mapper",
+          pipelineQueueDepth);
+      queues.add(readQueue);
+      stageExecutors.submit(getPipelineStage(mdc, cancelled, stageFailure, () -> readFromSource(source, readQueue, shouldStop)));
+
+      final ReplicationStageQueue<AirbyteMessage> writeQueue;
+      if (pipelineStages == MAX_PIPELINE_STAGES) {
+        writeQueue = new ReplicationStageQueue<>("mapper->destination", pipelineQueueDepth);
+        queues.add(writeQueue);
+        stageExecutors.submit(getPipelineStage(mdc, cancelled, stageFailure,
+            () -> mapAndTrack(readQueue, writeQueue, mapper, messageTracker, shouldStop)));
+      } else {
+        writeQueue = readQueue;
+      }
+      final boolean mapOnWrite = writeQueue == readQueue;
+
+      var recordsRead = 0;
+      try {
+        while (true) {
+          AirbyteMessage message = writeQueue.poll(shouldStop);
+          if (message == null || message == END_OF_STREAM) {
+            break;
+          }
+
+          if (mapOnWrite) {
+            message = mapper.mapMessage(message);
+            messageTracker.acceptFromSource(message);
+          }
+          try {
+            destination.accept(message);
+          } catch (final Exception e) {
+            throw new DestinationException("Destination process message delivery failed", e);
+          }
+          recordsRead += 1;
+
+          if (recordsRead % 1000 == 0) {
+            LOGGER.info("Records read: {}", recordsRead);
+          }
+          if (recordsRead % PIPELINE_STATS_LOG_INTERVAL_RECORDS == 0) {
+            queues.forEach(queue -> LOGGER.info("Replication pipeline {}", queue));
+          }
+        }
+        // surface the failure of an upstream stage as the failure of this thread, so that it is
+        // classified the same way as in the single threaded replication.
+        if (stageFailure.get() != null) {
+          throw stageFailure.get();
+        }
+        LOGGER.info("Total records read: {}", recordsRead);
+        try {
+          destination.notifyEndOfStream();
+        } catch (final Exception e) {
+          throw new DestinationException("Destination process end of stream notification failed", e);
+        }
+        if (!cancelled.get() && source.getExitValue() != 0) {
+          throw new SourceException("Source process exited with non-zero exit code " + source.getExitValue());
+        }
+      } catch (final Exception e) {
+        if (!cancelled.get()) {
+          if (e instanceof SourceException || e instanceof DestinationException) {
+            throw (RuntimeException) e;
+          } else {
+            throw new RuntimeException(e);
+          }
+        }
+      } finally {
+        stageExecutors.shutdownNow();
+        queues.forEach(queue -> LOGGER.info("Replication pipeline {}", queue));
+      }
+    };
+  }
+
+  private static void readFromSource(final AirbyteSource source,
+                                     final ReplicationStageQueue<AirbyteMessage> output,
+                                     final BooleanSupplier shouldStop)
+      throws InterruptedException {
+    while (!shouldStop.getAsBoolean() && !source.isFinished()) {
+      final Optional<AirbyteMessage> messageOptional;
+      try {
+        messageOptional = source.attemptRead();
+      } catch (final Exception e) {
+        throw new SourceException("Source process read attempt failed", e);
+      }
+      if (messageOptional.isPresent() && !output.put(messageOptional.get(), shouldStop)) {
+        return;
+      }
+    }
+    output.put(END_OF_STREAM, shouldStop);
+  }
+
+  private static void mapAndTrack(final ReplicationStageQueue<AirbyteMessage> input,
+                                  final ReplicationStageQueue<AirbyteMessage> output,
+                                  final AirbyteMapper mapper,
+                                  final MessageTracker messageTracker,
+                                  final BooleanSupplier shouldStop)
+      throws InterruptedException {
+    while (true) {
+      final AirbyteMessage message = input.poll(shouldStop);
+      if (message == null) {
+        return;
+      }
+      if (message == END_OF_STREAM) {
+        output.put(END_OF_STREAM, shouldStop);
+        return;
+      }
+
+      final AirbyteMessage mappedMessage = mapper.mapMessage(message);
+      messageTracker.acceptFromSource(mappedMessage);
+      if (!output.put(mappedMessage, shouldStop)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs one upstream stage of the pipeline. The first failure is recorded so that the other stages
+   * stop and the write stage rethrows it. Being interrupted means the pipeline is shutting down.
+   */
+  private static Runnable getPipelineStage(final Map<String, String> mdc,
+                                           final AtomicBoolean cancelled,
+                                           final AtomicReference<RuntimeException> stageFailure,
+                                           final PipelineStage stage) {
+    return () -> {
+      MDC.setContextMap(mdc);
+      try {
+        stage.run();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (final Exception e) {
+        if (!cancelled.get()) {
+          stageFailure.compareAndSet(null, e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e));
+        }
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface PipelineStage {
+
+    void run() throws Exception;
+
+  }
+
   private static Runnable getDestinationOutputRunnable(final AirbyteDestination destination,
                                                        final AtomicBoolean cancelled,
                                                        final MessageTracker messageTracker,
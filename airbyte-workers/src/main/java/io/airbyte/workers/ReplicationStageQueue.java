@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded queue between two stages of the replication pipeline. It is meant to have exactly one
+ * producer and one consumer thread.
+ *
+ * <p>
+ * Besides handing messages over, it records how long each side spent blocked on the other. If the
+ * producer is blocked most of the time, the stages downstream of this queue are the bottleneck. If
+ * the consumer is blocked most of the time, the stages upstream are the bottleneck.
+ */
+public class ReplicationStageQueue<T> {
+
+  // how often a blocked put or poll checks if the pipeline should stop.
+  private static final long STOP_CHECK_INTERVAL_MILLIS = 100;
+
+  private final String name;
+  private final ArrayBlockingQueue<T> queue;
+
+  private final AtomicLong producerBlockedNanos;
+  private final AtomicLong consumerBlockedNanos;
+  private final AtomicLong itemsPut;
+  private final AtomicLong occupancySum;
+  private final AtomicLong maxOccupancy;
+
+  public ReplicationStageQueue(final String name, final int capacity) {
+    this.name = name;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.producerBlockedNanos = new AtomicLong(0L);
+    this.consumerBlockedNanos = new AtomicLong(0L);
+    this.itemsPut = new AtomicLong(0L);
+    this.occupancySum = new AtomicLong(0L);
+    this.maxOccupancy = new AtomicLong(0L);
+  }
+
+  /**
+   * Adds an item, blocking while the queue is full.
+   *
+   * @param shouldStop checked while blocked. once it returns true, the item is dropped.
+   * @return true if the item was added, false if the pipeline was stopped before there was room.
+   */
+  public boolean put(final T item, final BooleanSupplier shouldStop) throws InterruptedException {
+    if (!queue.offer(item)) {
+      final long start = System.nanoTime();
+      try {
+        while (!queue.offer(item, STOP_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (shouldStop.getAsBoolean()) {
+            return false;
+          }
+        }
+      } finally {
+        producerBlockedNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+
+    final int occupancy = queue.size();
+    itemsPut.incrementAndGet();
+    occupancySum.addAndGet(occupancy);
+    maxOccupancy.accumulateAndGet(occupancy, Math::max);
+    return true;
+  }
+
+  /**
+   * Removes an item, blocking while the queue is empty.
+   *
+   * @param shouldStop checked while blocked.
+   * @return the next item, or null if the pipeline was stopped before an item was available.
+   */
+  public T poll(final BooleanSupplier shouldStop) throws InterruptedException {
+    T item = queue.poll();
+    if (item == null) {
+      final long start = System.nanoTime();
+      try {
+        while ((item = queue.poll(STOP_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+          if (shouldStop.getAsBoolean()) {
+            return null;
+          }
+        }
+      } finally {
+        consumerBlockedNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+    return item;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getCapacity() {
+    return queue.size() + queue.remainingCapacity();
+  }
+
+  public int getOccupancy() {
+    return queue.size();
+  }
+
+  public long getMaxOccupancy() {
+    return maxOccupancy.get();
+  }
+
+  /**
+   * @return average number of items in the queue, sampled every time an item is added.
+   */
+  public double getAverageOccupancy() {
+    final long count = itemsPut.get();
+    return count == 0 ? 0 : (double) occupancySum.get() / count;
+  }
+
+  /**
+   * @return total time the producer waited for room in the queue.
+   */
+  public Duration getProducerBlockedTime() {
+    return Duration.ofNanos(producerBlockedNanos.get());
+  }
+
+  /**
+   * @return total time the consumer waited for an item to be available.
+   */
+  public Duration getConsumerBlockedTime() {
+    return Duration.ofNanos(consumerBlockedNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s queue: occupancy %d/%d, max occupancy %d, average occupancy %.1f, producer blocked %s, consumer blocked %s",
+        name,
+        getOccupancy(),
+        getCapacity(),
+        getMaxOccupancy(),
+        getAverageOccupancy(),
+        getProducerBlockedTime(),
+        getConsumerBlockedTime());
+  }
+
+}
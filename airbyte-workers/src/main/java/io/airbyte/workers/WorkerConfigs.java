@@ -27,6 +27,10 @@ public class WorkerConfigs {
   private final String jobCurlImage;
   private final Map<String, String> envMap;
   private final Duration workerStatusCheckInterval;
+  private final boolean lazyRecordParsing;
+  private final int protocolValidationSampleRate;
+  private final int replicationPipelineStages;
+  private final int replicationPipelineQueueDepth;
 
   /**
    * Constructs a job-type-agnostic WorkerConfigs. For WorkerConfigs customized for specific
@@ -48,7 +52,11 @@ public class WorkerConfigs {
         configs.getJobKubeBusyboxImage(),
         configs.getJobKubeCurlImage(),
         configs.getJobDefaultEnvMap(),
-        configs.getDefaultWorkerStatusCheckInterval());
+        configs.getDefaultWorkerStatusCheckInterval(),
+        configs.getWorkerLazyRecordParsing(),
+        configs.getWorkerProtocolValidationSampleRate(),
+        configs.getReplicationPipelineStages(),
+        configs.getReplicationPipelineQueueDepth());
   }
 
   /**
@@ -74,7 +82,11 @@ public class WorkerConfigs {
         configs.getJobKubeBusyboxImage(),
         configs.getJobKubeCurlImage(),
         configs.getJobDefaultEnvMap(),
-        configs.getSpecWorkerStatusCheckInterval());
+        configs.getSpecWorkerStatusCheckInterval(),
+        configs.getWorkerLazyRecordParsing(),
+        configs.getWorkerProtocolValidationSampleRate(),
+        configs.getReplicationPipelineStages(),
+        configs.getReplicationPipelineQueueDepth());
   }
 
   /**
@@ -100,7 +112,11 @@ public class WorkerConfigs {
         configs.getJobKubeBusyboxImage(),
         configs.getJobKubeCurlImage(),
         configs.getJobDefaultEnvMap(),
-        configs.getCheckWorkerStatusCheckInterval());
+        configs.getCheckWorkerStatusCheckInterval(),
+        configs.getWorkerLazyRecordParsing(),
+        configs.getWorkerProtocolValidationSampleRate(),
+        configs.getReplicationPipelineStages(),
+        configs.getReplicationPipelineQueueDepth());
   }
 
   /**
@@ -126,7 +142,11 @@ public class WorkerConfigs {
         configs.getJobKubeBusyboxImage(),
         configs.getJobKubeCurlImage(),
         configs.getJobDefaultEnvMap(),
-        configs.getDiscoverWorkerStatusCheckInterval());
+        configs.getDiscoverWorkerStatusCheckInterval(),
+        configs.getWorkerLazyRecordParsing(),
+        configs.getWorkerProtocolValidationSampleRate(),
+        configs.getReplicationPipelineStages(),
+        configs.getReplicationPipelineQueueDepth());
   }
 
   public static WorkerConfigs buildReplicationWorkerConfigs(final Configs configs) {
@@ -145,7 +165,11 @@ public class WorkerConfigs {
         configs.getJobKubeBusyboxImage(),
         configs.getJobKubeCurlImage(),
         configs.getJobDefaultEnvMap(),
-        configs.getReplicationWorkerStatusCheckInterval());
+        configs.getReplicationWorkerStatusCheckInterval(),
+        configs.getWorkerLazyRecordParsing(),
+        configs.getWorkerProtocolValidationSampleRate(),
+        configs.getReplicationPipelineStages(),
+        configs.getReplicationPipelineQueueDepth());
   }
 
   public Configs.WorkerEnvironment getWorkerEnvironment() {
@@ -192,4 +216,20 @@ public class WorkerConfigs {
     return workerStatusCheckInterval;
   }
 
+  public boolean getLazyRecordParsing() {
+    return lazyRecordParsing;
+  }
+
+  public int getProtocolValidationSampleRate() {
+    return protocolValidationSampleRate;
+  }
+
+  public int getReplicationPipelineStages() {
+    return replicationPipelineStages;
+  }
+
+  public int getReplicationPipelineQueueDepth() {
+    return replicationPipelineQueueDepth;
+  }
+
 }
@@ -7,6 +7,7 @@ package io.airbyte.workers.protocols.airbyte;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.airbyte.protocol.models.AirbyteProtocolSchema;
 import io.airbyte.validation.json.JsonSchemaValidator;
+import io.airbyte.validation.json.PreparedJsonSchema;
 import java.util.function.Predicate;
 
 /**
@@ -15,17 +16,16 @@ import java.util.function.Predicate;
  */
 public class AirbyteProtocolPredicate implements Predicate<JsonNode> {
 
-  private final JsonSchemaValidator jsonSchemaValidator;
-  private final JsonNode schema;
+  private final PreparedJsonSchema schema;
 
   public AirbyteProtocolPredicate() {
-    jsonSchemaValidator = new JsonSchemaValidator();
-    schema = JsonSchemaValidator.getSchema(AirbyteProtocolSchema.PROTOCOL.getFile(), "AirbyteMessage");
+    // compiled once, as every message emitted by a connector is validated against it.
+    schema = new JsonSchemaValidator().prepare(JsonSchemaValidator.getSchema(AirbyteProtocolSchema.PROTOCOL.getFile(), "AirbyteMessage"));
   }
 
   @Override
   public boolean test(final JsonNode s) {
-    return jsonSchemaValidator.test(schema, s);
+    return schema.test(s);
   }
 
 }
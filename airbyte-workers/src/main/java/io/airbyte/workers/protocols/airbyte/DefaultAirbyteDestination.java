@@ -4,10 +4,13 @@
 
 package io.airbyte.workers.protocols.airbyte;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import io.airbyte.commons.io.IOs;
 import io.airbyte.commons.io.LineGobbler;
+import io.airbyte.commons.jackson.MoreMappers;
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.commons.logging.LoggingHelper.Color;
 import io.airbyte.commons.logging.MdcScope;
@@ -38,6 +41,14 @@ public class DefaultAirbyteDestination implements AirbyteDestination {
       .setLogPrefix("destination")
       .setPrefixColor(Color.YELLOW_BACKGROUND);
 
+  // Messages are serialized straight into the buffered stdin writer instead of into an intermediate
+  // string. The writer is shared by all messages, so the generator must neither close nor flush it.
+  // Raw record data (see RawRecordData) is copied into the writer as is.
+  private static final ObjectWriter MESSAGE_WRITER = MoreMappers.initMapper()
+      .writerFor(AirbyteMessage.class)
+      .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+      .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
   private final WorkerConfigs workerConfigs;
   private final IntegrationLauncher integrationLauncher;
   private final AirbyteStreamFactory streamFactory;
@@ -87,7 +98,7 @@ public class DefaultAirbyteDestination implements AirbyteDestination {
   public void accept(final AirbyteMessage message) throws IOException {
     Preconditions.checkState(destinationProcess != null && !endOfStream.get());
 
-    writer.write(Jsons.serialize(message));
+    MESSAGE_WRITER.writeValue(writer, message);
     writer.newLine();
   }
 
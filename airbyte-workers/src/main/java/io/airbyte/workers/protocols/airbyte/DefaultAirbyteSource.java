@@ -50,8 +50,7 @@ public class DefaultAirbyteSource implements AirbyteSource {
   private Integer exitValue = null;
 
   public DefaultAirbyteSource(final WorkerConfigs workerConfigs, final IntegrationLauncher integrationLauncher) {
-    this(workerConfigs, integrationLauncher, new DefaultAirbyteStreamFactory(CONTAINER_LOG_MDC_BUILDER),
-        new HeartbeatMonitor(HEARTBEAT_FRESH_DURATION));
+    this(workerConfigs, integrationLauncher, createStreamFactory(workerConfigs), new HeartbeatMonitor(HEARTBEAT_FRESH_DURATION));
   }
 
   @VisibleForTesting
@@ -65,6 +64,13 @@ public class DefaultAirbyteSource implements AirbyteSource {
     this.heartbeatMonitor = heartbeatMonitor;
   }
 
+  private static AirbyteStreamFactory createStreamFactory(final WorkerConfigs workerConfigs) {
+    if (workerConfigs.getLazyRecordParsing()) {
+      return new LazyAirbyteStreamFactory(CONTAINER_LOG_MDC_BUILDER, workerConfigs.getProtocolValidationSampleRate());
+    }
+    return new DefaultAirbyteStreamFactory(CONTAINER_LOG_MDC_BUILDER);
+  }
+
   @Override
   public void start(final WorkerSourceConfig sourceConfig, final Path jobRoot) throws Exception {
     Preconditions.checkState(sourceProcess == null);
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.protocols.airbyte;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.commons.logging.MdcScope;
+import io.airbyte.protocol.models.AirbyteLogMessage;
+import io.airbyte.protocol.models.AirbyteMessage;
+import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates a stream from an input stream, like {@link DefaultAirbyteStreamFactory}, but without
+ * building a json tree for every RECORD message. Each line is read once with a streaming parser
+ * that only looks at the envelope of the message (type, stream, namespace and emitted_at). The
+ * record data is checked to be a well-formed json object and is then kept as raw json text (see
+ * {@link RawRecordData}).
+ *
+ * <p>
+ * Only the envelope of a record is validated. Validation against the full AirbyteMessage schema is
+ * done for one out of every validationSampleRate records (0 disables it, 1 validates every record).
+ * Any line that is not a plain record envelope (state, log, unexpected fields, etc.) goes through
+ * the same full parse and validation as in {@link DefaultAirbyteStreamFactory}.
+ */
+public class LazyAirbyteStreamFactory implements AirbyteStreamFactory {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LazyAirbyteStreamFactory.class);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final MdcScope.Builder containerLogMdcBuilder;
+  private final AirbyteProtocolPredicate protocolValidator;
+  private final Logger logger;
+  private final int validationSampleRate;
+  private final AtomicLong recordsRead;
+
+  public LazyAirbyteStreamFactory(final MdcScope.Builder containerLogMdcBuilder, final int validationSampleRate) {
+    this(new AirbyteProtocolPredicate(), LOGGER, containerLogMdcBuilder, validationSampleRate);
+  }
+
+  @VisibleForTesting
+  LazyAirbyteStreamFactory(final AirbyteProtocolPredicate protocolPredicate,
+                           final Logger logger,
+                           final MdcScope.Builder containerLogMdcBuilder,
+                           final int validationSampleRate) {
+    this.protocolValidator = protocolPredicate;
+    this.logger = logger;
+    this.containerLogMdcBuilder = containerLogMdcBuilder;
+    this.validationSampleRate = validationSampleRate;
+    this.recordsRead = new AtomicLong(0L);
+  }
+
+  @Override
+  public Stream<AirbyteMessage> create(final BufferedReader bufferedReader) {
+    return bufferedReader
+        .lines()
+        .flatMap(line -> toAirbyteMessage(line).stream())
+        // filter logs
+        .filter(airbyteMessage -> {
+          final boolean isLog = airbyteMessage.getType() == AirbyteMessage.Type.LOG;
+          if (isLog) {
+            try (final var mdcScope = containerLogMdcBuilder.build()) {
+              internalLog(airbyteMessage.getLog());
+            }
+          }
+          return !isLog;
+        });
+  }
+
+  private Optional<AirbyteMessage> toAirbyteMessage(final String line) {
+    final Optional<AirbyteMessage> record;
+    try {
+      record = tryParseRecordEnvelope(line);
+    } catch (final IOException e) {
+      logNonJsonLine(line);
+      return Optional.empty();
+    }
+
+    if (record.isEmpty()) {
+      return parseFully(line);
+    }
+
+    if (validationSampleRate > 0 && recordsRead.getAndIncrement() % validationSampleRate == 0 && !isValid(Jsons.deserialize(line))) {
+      return Optional.empty();
+    }
+    return record;
+  }
+
+  /**
+   * Same handling as {@link DefaultAirbyteStreamFactory} for lines that are not plain records.
+   */
+  private Optional<AirbyteMessage> parseFully(final String line) {
+    final Optional<JsonNode> jsonLine = Jsons.tryDeserialize(line);
+    if (jsonLine.isEmpty()) {
+      logNonJsonLine(line);
+      return Optional.empty();
+    }
+    if (!isValid(jsonLine.get())) {
+      return Optional.empty();
+    }
+    final Optional<AirbyteMessage> m = Jsons.tryObject(jsonLine.get(), AirbyteMessage.class);
+    if (m.isEmpty()) {
+      logger.error("Deserialization failed: {}", Jsons.serialize(jsonLine.get()));
+    }
+    return m;
+  }
+
+  private boolean isValid(final JsonNode jsonLine) {
+    final boolean res = protocolValidator.test(jsonLine);
+    if (!res) {
+      logger.error("Validation failed: {}", Jsons.serialize(jsonLine));
+    }
+    return res;
+  }
+
+  private void logNonJsonLine(final String line) {
+    // we log as info all the lines that are not valid json
+    // some sources actually log their process on stdout, we
+    // want to make sure this info is available in the logs.
+    try (final var mdcScope = containerLogMdcBuilder.build()) {
+      logger.info(line);
+    }
+  }
+
+  /**
+   * Reads the line as a RECORD message without building a tree for its data.
+   *
+   * @return the record if the line is a well-formed record envelope. empty if the line is json but
+   *         anything else than a plain record, in which case it should go through a full parse.
+   * @throws IOException if the line is not valid json.
+   */
+  @VisibleForTesting
+  static Optional<AirbyteMessage> tryParseRecordEnvelope(final String line) throws IOException {
+    try (final JsonParser parser = JSON_FACTORY.createParser(line)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return Optional.empty();
+      }
+
+      String type = null;
+      AirbyteRecordMessage record = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String fieldName = parser.getCurrentName();
+        final JsonToken valueToken = parser.nextToken();
+        switch (fieldName) {
+          case "type" -> {
+            if (valueToken != JsonToken.VALUE_STRING) {
+              return Optional.empty();
+            }
+            type = parser.getText();
+          }
+          case "record" -> {
+            if (valueToken != JsonToken.START_OBJECT) {
+              return Optional.empty();
+            }
+            record = parseRecordEnvelope(parser, line);
+            if (record == null) {
+              return Optional.empty();
+            }
+          }
+          // any other payload (state, log, spec...) is not a record.
+          default -> {
+            return Optional.empty();
+          }
+        }
+      }
+
+      if (!Type.RECORD.value().equals(type) || record == null) {
+        return Optional.empty();
+      }
+      return Optional.of(new AirbyteMessage().withType(Type.RECORD).withRecord(record));
+    }
+  }
+
+  /**
+   * Expects the parser to be on the START_OBJECT token of the record. Returns null if the record has
+   * a field or a value that does not belong in a record envelope.
+   */
+  private static AirbyteRecordMessage parseRecordEnvelope(final JsonParser parser, final String line) throws IOException {
+    final AirbyteRecordMessage record = new AirbyteRecordMessage();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      final JsonToken valueToken = parser.nextToken();
+      switch (fieldName) {
+        case "stream" -> {
+          if (valueToken != JsonToken.VALUE_STRING) {
+            return null;
+          }
+          record.setStream(parser.getText());
+        }
+        case "namespace" -> {
+          if (valueToken != JsonToken.VALUE_STRING) {
+            return null;
+          }
+          record.setNamespace(parser.getText());
+        }
+        case "emitted_at" -> {
+          if (valueToken != JsonToken.VALUE_NUMBER_INT) {
+            return null;
+          }
+          record.setEmittedAt(parser.getLongValue());
+        }
+        case "data" -> {
+          if (valueToken != JsonToken.START_OBJECT) {
+            return null;
+          }
+          // skipping still tokenizes the whole object, so malformed data fails here and is never
+          // forwarded as raw text.
+          final int start = Math.toIntExact(parser.getTokenLocation().getCharOffset());
+          parser.skipChildren();
+          final int end = Math.toIntExact(parser.getCurrentLocation().getCharOffset());
+          record.setData(RawRecordData.of(line.substring(start, end)));
+        }
+        default -> {
+          return null;
+        }
+      }
+    }
+
+    if (record.getStream() == null || record.getData() == null || record.getEmittedAt() == null) {
+      return null;
+    }
+    return record;
+  }
+
+  private void internalLog(final AirbyteLogMessage logMessage) {
+    switch (logMessage.getLevel()) {
+      case FATAL, ERROR -> logger.error(logMessage.getMessage());
+      case WARN -> logger.warn(logMessage.getMessage());
+      case INFO -> logger.info(logMessage.getMessage());
+      case DEBUG -> logger.debug(logMessage.getMessage());
+      case TRACE -> logger.trace(logMessage.getMessage());
+    }
+  }
+
+}
@@ -102,4 +102,10 @@ public interface MessageTracker {
    */
   Long getTotalStateMessagesEmitted();
 
+  /**
+   * Release what is held to track uncommitted states, once no more messages are accepted. Counts and
+   * states can still be read afterwards.
+   */
+  void close();
+
 }
@@ -8,6 +8,7 @@ import io.airbyte.commons.json.Jsons;
 import io.airbyte.config.JobSyncConfig.NamespaceDefinitionType;
 import io.airbyte.protocol.models.AirbyteMessage;
 import io.airbyte.protocol.models.AirbyteMessage.Type;
+import io.airbyte.protocol.models.AirbyteRecordMessage;
 import io.airbyte.protocol.models.AirbyteStream;
 import io.airbyte.protocol.models.ConfiguredAirbyteCatalog;
 import java.util.regex.Pattern;
@@ -61,7 +62,7 @@ public class NamespacingMapper implements AirbyteMapper {
   @Override
   public AirbyteMessage mapMessage(final AirbyteMessage inputMessage) {
     if (inputMessage.getType() == Type.RECORD) {
-      final AirbyteMessage message = Jsons.clone(inputMessage);
+      final AirbyteMessage message = copyRecordEnvelope(inputMessage);
       // Default behavior if namespaceDefinition is not set is to follow SOURCE
       if (namespaceDefinition != null) {
         if (namespaceDefinition.equals(NamespaceDefinitionType.DESTINATION)) {
@@ -76,6 +77,28 @@ public class NamespacingMapper implements AirbyteMapper {
     return inputMessage;
   }
 
+  /**
+   * Only the envelope of the record is mapped, so only the envelope is copied. The record data is
+   * shared with the input message instead of being cloned (which would be a full serialize and
+   * deserialize of every record). This also keeps raw record data ({@link RawRecordData}) raw, so
+   * that it is written to the destination without being re-encoded.
+   */
+  private static AirbyteMessage copyRecordEnvelope(final AirbyteMessage inputMessage) {
+    final AirbyteRecordMessage inputRecord = inputMessage.getRecord();
+    final AirbyteRecordMessage record = new AirbyteRecordMessage()
+        .withStream(inputRecord.getStream())
+        .withNamespace(inputRecord.getNamespace())
+        .withEmittedAt(inputRecord.getEmittedAt())
+        .withData(inputRecord.getData());
+    inputRecord.getAdditionalProperties().forEach(record::setAdditionalProperty);
+
+    final AirbyteMessage message = new AirbyteMessage()
+        .withType(inputMessage.getType())
+        .withRecord(record);
+    inputMessage.getAdditionalProperties().forEach(message::setAdditionalProperty);
+    return message;
+  }
+
   private static String formatNamespace(final String sourceNamespace, final String namespaceFormat) {
     String result = "";
     if (Strings.isNotBlank(namespaceFormat)) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.protocols.airbyte;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.google.common.base.Utf8;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Record data that has been read from a connector but not parsed into a tree. The data is held as a
+ * {@link JsonNode} so that it fits in {@link io.airbyte.protocol.models.AirbyteRecordMessage}, but
+ * serializing it writes the original JSON text back out verbatim instead of walking a tree.
+ *
+ * <p>
+ * The UTF-8 size of the text is computed once when the record is read, so that byte counts do not
+ * need another pass over the data.
+ */
+public final class RawRecordData {
+
+  private RawRecordData() {}
+
+  /**
+   * @param rawJson json object text exactly as emitted by the connector. It is NOT validated here.
+   * @return a node that serializes to rawJson.
+   */
+  public static JsonNode of(final String rawJson) {
+    return JsonNodeFactory.instance.rawValueNode(new SizedRawValue(rawJson, Utf8.encodedLength(rawJson)));
+  }
+
+  /**
+   * @return the raw json text if the node was created with {@link #of(String)}. Otherwise, empty.
+   */
+  public static Optional<String> getRawJson(final JsonNode data) {
+    if (data instanceof POJONode && ((POJONode) data).getPojo() instanceof RawValue) {
+      return Optional.of(((RawValue) ((POJONode) data).getPojo()).rawValue().toString());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return the size in bytes of the UTF-8 encoded raw json if the node was created with
+   *         {@link #of(String)}. Otherwise, empty.
+   */
+  public static OptionalLong getByteSize(final JsonNode data) {
+    if (data instanceof POJONode && ((POJONode) data).getPojo() instanceof SizedRawValue) {
+      return OptionalLong.of(((SizedRawValue) ((POJONode) data).getPojo()).byteSize);
+    }
+    return OptionalLong.empty();
+  }
+
+  private static class SizedRawValue extends RawValue {
+
+    private final long byteSize;
+
+    SizedRawValue(final String rawJson, final long byteSize) {
+      super(rawJson);
+      this.byteSize = byteSize;
+    }
+
+  }
+
+}
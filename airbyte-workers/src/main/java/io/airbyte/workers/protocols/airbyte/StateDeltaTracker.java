@@ -5,93 +5,130 @@
 package io.airbyte.workers.protocols.airbyte;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * This class tracks "deltas" between states in compact {@code byte[]}s with the following schema:
+ * This class tracks "deltas" between states in a compact ring buffer with the following schema:
  *
  * <pre>
- *  [(state hash),(stream index),(record count)...] with the last two elements repeating per stream in the delta.
+ *  [(state hash),(number of streams),(stream index),(record count)...] with the last two elements repeating per stream in the delta.
  * </pre>
  * <p>
- * This class also maintains a {@code Set} of {@code committedStateHashes} so that it can accumulate
- * both committed and total record counts per stream.
+ * Deltas are appended at the tail of the buffer when a state is emitted, and removed from the head
+ * and aggregated into committed counts when a state is committed, so both operations only touch the
+ * bytes of the deltas involved.
  * <p>
- * The StateDeltaTracker is initialized with a memory limit. If this memory limit is exceeded, new
- * states deltas will not be added and per-stream record counts will not be able to be computed.
- * This is to prevent OutOfMemoryErrors from crashing the sync.
+ * The buffer lives in memory and grows up to a memory limit. If a spill directory is given, the
+ * buffer is then moved to a memory-mapped file in that directory that can grow up to a spill limit,
+ * which keeps heap usage fixed no matter how many states are uncommitted. If the last limit is
+ * exceeded, new states deltas will not be added and per-stream record counts will not be able to be
+ * computed. This is to prevent OutOfMemoryErrors from crashing the sync. The file is unlinked as soon
+ * as it is mapped, and {@link #close()} releases the mapping.
  */
 @Slf4j
-public class StateDeltaTracker {
+public class StateDeltaTracker implements AutoCloseable {
 
   private static final int STATE_HASH_BYTES = Integer.BYTES;
+  private static final int STREAM_COUNT_BYTES = Short.BYTES;
+  private static final int DELTA_HEADER_BYTES = STATE_HASH_BYTES + STREAM_COUNT_BYTES;
   private static final int STREAM_INDEX_BYTES = Short.BYTES;
   private static final int RECORD_COUNT_BYTES = Long.BYTES;
   private static final int BYTES_PER_STREAM = STREAM_INDEX_BYTES + RECORD_COUNT_BYTES;
 
-  private final Set<Integer> committedStateHashes;
+  private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+  // a ByteBuffer, including a mapped one, is indexed by int.
+  private static final long MAX_BUFFER_BYTES = Integer.MAX_VALUE;
+
   private final Map<Short, Long> streamToCommittedRecords;
+  private final long memoryLimitBytes;
+  private final Path spillDirectory;
+  private final long spillLimitBytes;
 
   /**
-   * Every time a state is added, a new byte[] containing the state hash and per-stream delta will be
-   * added to this list. Every time a state is committed, state deltas up to the committed state are
-   * removed from the head of the list and aggregated into the committed count map. The source thread
-   * adds while the destination thread removes, so synchronization is necessary to provide
-   * thread-safety.
+   * Ring buffer of state deltas. The source thread adds while the destination thread removes, so
+   * synchronization is necessary to provide thread-safety.
    */
-  @VisibleForTesting
-  protected final List<byte[]> stateDeltas;
+  private ByteBuffer stateDeltas;
+  private int headIndex;
+  private int usedBytes;
+  private boolean spilled;
+  private boolean closed;
+  private byte[] scratch;
 
+  @VisibleForTesting
+  protected int numStateDeltas;
   @VisibleForTesting
   protected long remainingCapacity;
   @VisibleForTesting
   protected boolean capacityExceeded;
 
   public StateDeltaTracker(final long memoryLimitBytes) {
-    this.committedStateHashes = new HashSet<>();
+    this(memoryLimitBytes, null, 0L);
+  }
+
+  /**
+   * @param spillDirectory directory in which to create the memory-mapped file once the memory limit
+   *        is reached. null to never spill to disk.
+   * @param spillLimitBytes max size of the memory-mapped file.
+   */
+  public StateDeltaTracker(final long memoryLimitBytes, final Path spillDirectory, final long spillLimitBytes) {
     this.streamToCommittedRecords = new HashMap<>();
-    this.stateDeltas = new ArrayList<>();
-    this.remainingCapacity = memoryLimitBytes;
+    this.memoryLimitBytes = Math.min(memoryLimitBytes, MAX_BUFFER_BYTES);
+    this.spillDirectory = spillDirectory;
+    this.spillLimitBytes = Math.min(spillLimitBytes, MAX_BUFFER_BYTES);
+    this.stateDeltas = ByteBuffer.allocate((int) Math.min(INITIAL_BUFFER_BYTES, this.memoryLimitBytes));
+    this.headIndex = 0;
+    this.usedBytes = 0;
+    this.spilled = false;
+    this.closed = false;
+    this.scratch = new byte[DELTA_HEADER_BYTES];
+    this.numStateDeltas = 0;
+    this.remainingCapacity = this.memoryLimitBytes;
     this.capacityExceeded = false;
   }
 
   /**
-   * Converts the given state hash and per-stream record count map into a {@code byte[]} and stores
-   * it.
+   * Encodes the given state hash and per-stream record count map and appends it to the ring buffer.
    * <p>
    * This method leverages a synchronized block to provide thread safety between the source thread
    * calling addState while the destination thread calls commitStateHash.
    *
-   * @throws StateDeltaTrackerException thrown when the memory footprint of stateDeltas exceeds
-   *         available capacity.
+   * @throws StateDeltaTrackerException thrown when the footprint of stateDeltas exceeds available
+   *         capacity.
    */
   public void addState(final int stateHash, final Map<Short, Long> streamIndexToRecordCount) throws StateDeltaTrackerException {
     synchronized (this) {
-      final int size = STATE_HASH_BYTES + (streamIndexToRecordCount.size() * BYTES_PER_STREAM);
+      final int size = DELTA_HEADER_BYTES + (streamIndexToRecordCount.size() * BYTES_PER_STREAM);
 
-      if (capacityExceeded || remainingCapacity < size) {
-        capacityExceeded = true;
+      if (closed) {
+        throw new StateDeltaTrackerException("StateDeltaTracker is closed.");
+      }
+      if (capacityExceeded) {
         throw new StateDeltaTrackerException("Memory capacity is exceeded for StateDeltaTracker.");
       }
+      ensureCapacity(size);
 
-      final ByteBuffer delta = ByteBuffer.allocate(size);
-
+      final ByteBuffer delta = ByteBuffer.wrap(getScratch(size), 0, size);
       delta.putInt(stateHash);
-
+      // stream indices are non-negative shorts, so the number of streams fits in an unsigned short.
+      delta.putShort((short) streamIndexToRecordCount.size());
       for (final Map.Entry<Short, Long> entry : streamIndexToRecordCount.entrySet()) {
         delta.putShort(entry.getKey());
         delta.putLong(entry.getValue());
       }
 
-      stateDeltas.add(delta.array());
-      remainingCapacity -= delta.array().length;
+      writeToTail(scratch, size);
+      numStateDeltas++;
+      remainingCapacity -= size;
     }
   }
 
@@ -102,31 +139,32 @@ public class StateDeltaTracker {
    * calling addState while the destination thread calls commitStateHash.
    *
    * @throws StateDeltaTrackerException thrown when committed counts can no longer be reliably
-   *         computed.
+   *         computed, or when the state hash is not pending, because it was never added or was
+   *         already committed. In the latter case no delta is consumed.
    */
   public void commitStateHash(final int stateHash) throws StateDeltaTrackerException {
     synchronized (this) {
+      if (closed) {
+        throw new StateDeltaTrackerException("StateDeltaTracker is closed.");
+      }
       if (capacityExceeded) {
         throw new StateDeltaTrackerException("Memory capacity exceeded for StateDeltaTracker, so states cannot be reliably committed");
       }
-      if (committedStateHashes.contains(stateHash)) {
+      // checked before consuming anything, so that an unexpected hash does not drain every pending
+      // delta into the committed counts.
+      if (!isPending(stateHash)) {
         throw new StateDeltaTrackerException(
-            String.format("State hash %d was already committed, likely indicating a state hash collision", stateHash));
+            String.format("Delta was not stored for state hash %d, or it was already committed, likely indicating a state hash collision", stateHash));
       }
 
-      committedStateHashes.add(stateHash);
       int currStateHash;
       do {
-        if (stateDeltas.isEmpty()) {
-          throw new StateDeltaTrackerException(String.format("Delta was not stored for state hash %d", stateHash));
-        }
         // as deltas are removed and aggregated into committed count map, reclaim capacity
-        final ByteBuffer currDelta = ByteBuffer.wrap(stateDeltas.remove(0));
-        remainingCapacity += currDelta.capacity();
-
-        currStateHash = currDelta.getInt();
+        final ByteBuffer header = readFromHead(DELTA_HEADER_BYTES);
+        currStateHash = header.getInt();
+        final int numStreams = Short.toUnsignedInt(header.getShort());
 
-        final int numStreams = (currDelta.capacity() - STATE_HASH_BYTES) / BYTES_PER_STREAM;
+        final ByteBuffer currDelta = readFromHead(numStreams * BYTES_PER_STREAM);
         for (int i = 0; i < numStreams; i++) {
           final short streamIndex = currDelta.getShort();
           final long recordCount = currDelta.getLong();
@@ -135,14 +173,141 @@ public class StateDeltaTracker {
           final long committedRecordCount = streamToCommittedRecords.getOrDefault(streamIndex, 0L);
           streamToCommittedRecords.put(streamIndex, committedRecordCount + recordCount);
         }
+
+        numStateDeltas--;
+        remainingCapacity += DELTA_HEADER_BYTES + ((long) numStreams * BYTES_PER_STREAM);
       } while (currStateHash != stateHash); // repeat until each delta up to the committed state is aggregated
     }
   }
 
+  /**
+   * @return whether a delta with the given state hash is in the ring buffer. Only reads the headers
+   *         of the deltas up to it, which are consumed right after when it is committed.
+   */
+  private boolean isPending(final int stateHash) {
+    long offset = 0;
+    for (int i = 0; i < numStateDeltas; i++) {
+      final ByteBuffer header = readAt(offset, DELTA_HEADER_BYTES);
+      if (header.getInt() == stateHash) {
+        return true;
+      }
+      offset += DELTA_HEADER_BYTES + (long) Short.toUnsignedInt(header.getShort()) * BYTES_PER_STREAM;
+    }
+    return false;
+  }
+
+  /**
+   * Makes room for size more bytes, by growing the in-memory buffer or by moving it to disk.
+   */
+  private void ensureCapacity(final int size) throws StateDeltaTrackerException {
+    if (remainingCapacity < size) {
+      if (spilled || spillDirectory == null || usedBytes + size > spillLimitBytes) {
+        capacityExceeded = true;
+        throw new StateDeltaTrackerException("Memory capacity is exceeded for StateDeltaTracker.");
+      }
+      spillToDisk();
+    }
+
+    if (stateDeltas.capacity() - usedBytes < size) {
+      final long newCapacity = Math.min(Math.max(2L * stateDeltas.capacity(), (long) usedBytes + size), memoryLimitBytes);
+      moveTo(ByteBuffer.allocate((int) newCapacity));
+    }
+  }
+
+  private void spillToDisk() throws StateDeltaTrackerException {
+    try {
+      Files.createDirectories(spillDirectory);
+      final Path spillFile = Files.createTempFile(spillDirectory, "state_deltas", ".bin");
+      final ByteBuffer mappedBuffer;
+      try (final FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        // the file is sparse, so only the pages actually used by the ring buffer take disk space.
+        mappedBuffer = channel.map(MapMode.READ_WRITE, 0, spillLimitBytes);
+      }
+      // the mapping stays valid once the file is unlinked, and the space is reclaimed even if the
+      // worker dies without cleaning up.
+      Files.deleteIfExists(spillFile);
+
+      log.info("State deltas exceeded {} bytes in memory, moving them to a memory-mapped file of up to {} bytes in {}",
+          memoryLimitBytes, spillLimitBytes, spillDirectory);
+      moveTo(mappedBuffer);
+      spilled = true;
+      remainingCapacity = spillLimitBytes - usedBytes;
+    } catch (final IOException e) {
+      capacityExceeded = true;
+      throw new StateDeltaTrackerException("Could not move state deltas to disk: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Copies the content of the ring buffer to the start of newBuffer, which becomes the ring buffer.
+   */
+  private void moveTo(final ByteBuffer newBuffer) {
+    final int firstPart = Math.min(usedBytes, stateDeltas.capacity() - headIndex);
+    newBuffer.put(0, stateDeltas, headIndex, firstPart);
+    newBuffer.put(firstPart, stateDeltas, 0, usedBytes - firstPart);
+    stateDeltas = newBuffer;
+    headIndex = 0;
+  }
+
+  private void writeToTail(final byte[] source, final int length) {
+    final int tailIndex = (int) (((long) headIndex + usedBytes) % stateDeltas.capacity());
+    final int firstPart = Math.min(length, stateDeltas.capacity() - tailIndex);
+    stateDeltas.put(tailIndex, source, 0, firstPart);
+    stateDeltas.put(0, source, firstPart, length - firstPart);
+    usedBytes += length;
+  }
+
+  /**
+   * @return a buffer over the next length bytes of the ring buffer. It is only valid until the next
+   *         read or write.
+   */
+  private ByteBuffer readFromHead(final int length) {
+    final ByteBuffer buffer = readAt(0, length);
+    headIndex = (int) (((long) headIndex + length) % stateDeltas.capacity());
+    usedBytes -= length;
+    return buffer;
+  }
+
+  /**
+   * @return a buffer over the length bytes of the ring buffer that start offset bytes after its head.
+   *         It is only valid until the next read or write.
+   */
+  private ByteBuffer readAt(final long offset, final int length) {
+    final byte[] destination = getScratch(length);
+    final int index = (int) ((headIndex + offset) % stateDeltas.capacity());
+    final int firstPart = Math.min(length, stateDeltas.capacity() - index);
+    stateDeltas.get(index, destination, 0, firstPart);
+    stateDeltas.get(0, destination, firstPart, length - firstPart);
+    return ByteBuffer.wrap(destination, 0, length);
+  }
+
+  private byte[] getScratch(final int length) {
+    if (scratch.length < length) {
+      scratch = new byte[length];
+    }
+    return scratch;
+  }
+
   public Map<Short, Long> getStreamToCommittedRecords() {
     return streamToCommittedRecords;
   }
 
+  /**
+   * Drops the pending deltas, and with them the memory-mapped file if they were spilled to disk. Its
+   * space is reclaimed once the mapping is garbage collected, as the file itself is already unlinked.
+   * Committed counts are kept.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      stateDeltas = ByteBuffer.allocate(0);
+      headIndex = 0;
+      usedBytes = 0;
+      numStateDeltas = 0;
+    }
+  }
+
   /**
    * Thrown when the StateDeltaTracker encounters an issue that prevents it from reliably computing
    * committed record deltas.
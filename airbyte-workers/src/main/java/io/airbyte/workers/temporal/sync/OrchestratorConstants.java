@@ -37,6 +37,10 @@ public class OrchestratorConstants {
       EnvConfigs.JOB_MAIN_CONTAINER_MEMORY_LIMIT,
       EnvConfigs.JOB_DEFAULT_ENV_MAP,
       EnvConfigs.LOCAL_ROOT,
+      EnvConfigs.WORKER_LAZY_RECORD_PARSING,
+      EnvConfigs.WORKER_PROTOCOL_VALIDATION_SAMPLE_RATE,
+      EnvConfigs.REPLICATION_PIPELINE_STAGES,
+      EnvConfigs.REPLICATION_PIPELINE_QUEUE_DEPTH,
       LOG_LEVEL,
       LogClientSingleton.GCS_LOG_BUCKET,
       LogClientSingleton.GOOGLE_APPLICATION_CREDENTIALS,
@@ -58,6 +58,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +70,8 @@ class DefaultReplicationWorkerTest {
 
   private static final String JOB_ID = "0";
   private static final int JOB_ATTEMPT = 0;
+  private static final int PIPELINE_STAGES = 1;
+  private static final int PIPELINE_QUEUE_DEPTH = 10_000;
   private static final Path WORKSPACE_ROOT = Path.of("workspaces/10");
   private static final String STREAM_NAME = "user_preferences";
   private static final String FIELD_NAME = "favorite_color";
@@ -125,7 +128,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     worker.run(syncInput, jobRoot);
 
@@ -137,6 +142,111 @@ class DefaultReplicationWorkerTest {
     verify(destination).close();
   }
 
+  @Test
+  void testPipelined() throws Exception {
+    for (final int stages : List.of(2, 3)) {
+      Mockito.reset(destination);
+      when(source.isFinished()).thenReturn(false, false, false, true);
+      when(source.attemptRead()).thenReturn(Optional.of(RECORD_MESSAGE1), Optional.empty(), Optional.of(RECORD_MESSAGE2));
+      when(destination.isFinished()).thenReturn(false, false, false, true);
+      when(destination.attemptRead()).thenReturn(Optional.of(STATE_MESSAGE));
+
+      final ReplicationWorker worker = new DefaultReplicationWorker(
+          JOB_ID,
+          JOB_ATTEMPT,
+          source,
+          mapper,
+          destination,
+          messageTracker,
+          stages,
+          1);
+
+      final ReplicationOutput output = worker.run(syncInput, jobRoot);
+
+      assertEquals(ReplicationStatus.COMPLETED, output.getReplicationAttemptSummary().getStatus());
+      final InOrder inOrder = Mockito.inOrder(destination);
+      inOrder.verify(destination).accept(RECORD_MESSAGE1);
+      inOrder.verify(destination).accept(RECORD_MESSAGE2);
+      inOrder.verify(destination).notifyEndOfStream();
+      inOrder.verify(destination).close();
+      verify(messageTracker, Mockito.atLeastOnce()).acceptFromSource(RECORD_MESSAGE2);
+    }
+  }
+
+  @Test
+  void testPipelinedSourceFailure() throws Exception {
+    final String SOURCE_ERROR_MESSAGE = "the source had a failure";
+
+    when(source.attemptRead()).thenThrow(new RuntimeException(SOURCE_ERROR_MESSAGE));
+
+    final ReplicationWorker worker = new DefaultReplicationWorker(
+        JOB_ID,
+        JOB_ATTEMPT,
+        source,
+        mapper,
+        destination,
+        messageTracker,
+        3,
+        10);
+
+    final ReplicationOutput output = worker.run(syncInput, jobRoot);
+    assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
+    assertTrue(output.getFailures().stream()
+        .anyMatch(f -> f.getFailureOrigin().equals(FailureOrigin.SOURCE) && f.getStacktrace().contains(SOURCE_ERROR_MESSAGE)));
+  }
+
+  @Test
+  void testPipelinedDestinationFailure() throws Exception {
+    final String DESTINATION_ERROR_MESSAGE = "the destination had a failure";
+
+    doThrow(new RuntimeException(DESTINATION_ERROR_MESSAGE)).when(destination).accept(Mockito.any());
+
+    final ReplicationWorker worker = new DefaultReplicationWorker(
+        JOB_ID,
+        JOB_ATTEMPT,
+        source,
+        mapper,
+        destination,
+        messageTracker,
+        3,
+        10);
+
+    final ReplicationOutput output = worker.run(syncInput, jobRoot);
+    assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
+    assertTrue(output.getFailures().stream()
+        .anyMatch(f -> f.getFailureOrigin().equals(FailureOrigin.DESTINATION) && f.getStacktrace().contains(DESTINATION_ERROR_MESSAGE)));
+  }
+
+  @Test
+  void testPipelinedMapperFailure() throws Exception {
+    final String WORKER_ERROR_MESSAGE = "the worker had a failure";
+
+    doThrow(new RuntimeException(WORKER_ERROR_MESSAGE)).when(messageTracker).acceptFromSource(Mockito.any());
+
+    final ReplicationWorker worker = new DefaultReplicationWorker(
+        JOB_ID,
+        JOB_ATTEMPT,
+        source,
+        mapper,
+        destination,
+        messageTracker,
+        3,
+        10);
+
+    final ReplicationOutput output = worker.run(syncInput, jobRoot);
+    assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
+    assertTrue(output.getFailures().stream()
+        .anyMatch(f -> f.getFailureOrigin().equals(FailureOrigin.REPLICATION) && f.getStacktrace().contains(WORKER_ERROR_MESSAGE)));
+  }
+
+  @Test
+  void testInvalidPipelineStages() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new DefaultReplicationWorker(JOB_ID, JOB_ATTEMPT, source, mapper, destination, messageTracker, 4, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> new DefaultReplicationWorker(JOB_ID, JOB_ATTEMPT, source, mapper, destination, messageTracker, 3, 0));
+  }
+
   @Test
   void testSourceNonZeroExitValue() throws Exception {
     when(source.getExitValue()).thenReturn(1);
@@ -147,7 +257,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -166,7 +278,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -186,7 +300,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -206,7 +322,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -224,7 +342,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -243,7 +363,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -263,7 +385,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput output = worker.run(syncInput, jobRoot);
     assertEquals(ReplicationStatus.FAILED, output.getReplicationAttemptSummary().getStatus());
@@ -284,7 +408,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     worker.run(syncInput, jobRoot);
 
@@ -323,7 +449,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final Thread workerThread = new Thread(() -> {
       try {
@@ -363,7 +491,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput actual = worker.run(syncInput, jobRoot);
     final ReplicationOutput replicationOutput = new ReplicationOutput()
@@ -415,7 +545,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput actual = worker.run(syncInput, jobRoot);
     assertNotNull(actual);
@@ -432,7 +564,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput actual = worker.run(syncInput, jobRoot);
 
@@ -457,7 +591,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput actual = worker.run(syncInput, jobRoot);
     final SyncStats expectedTotalStats = new SyncStats()
@@ -492,7 +628,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
 
     final ReplicationOutput actual = worker.run(syncInputWithoutState, jobRoot);
 
@@ -510,7 +648,9 @@ class DefaultReplicationWorkerTest {
         source,
         mapper,
         destination,
-        messageTracker);
+        messageTracker,
+        PIPELINE_STAGES,
+        PIPELINE_QUEUE_DEPTH);
     assertThrows(WorkerException.class, () -> worker.run(syncInput, jobRoot));
   }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ReplicationStageQueueTest {
+
+  @Test
+  void testPutAndPoll() throws InterruptedException {
+    final ReplicationStageQueue<String> queue = new ReplicationStageQueue<>("test", 2);
+
+    assertTrue(queue.put("a", () -> false));
+    assertTrue(queue.put("b", () -> false));
+    assertEquals(2, queue.getOccupancy());
+    assertEquals(2, queue.getCapacity());
+    assertEquals(2, queue.getMaxOccupancy());
+    assertEquals(1.5, queue.getAverageOccupancy());
+
+    assertEquals("a", queue.poll(() -> false));
+    assertEquals("b", queue.poll(() -> false));
+    assertEquals(0, queue.getOccupancy());
+    assertEquals(Duration.ZERO, queue.getProducerBlockedTime());
+    assertEquals(Duration.ZERO, queue.getConsumerBlockedTime());
+  }
+
+  @Test
+  void testStopWhileBlocked() throws InterruptedException {
+    final ReplicationStageQueue<String> queue = new ReplicationStageQueue<>("test", 1);
+
+    assertNull(queue.poll(() -> true));
+    assertTrue(queue.getConsumerBlockedTime().compareTo(Duration.ZERO) > 0);
+
+    assertTrue(queue.put("a", () -> true));
+    assertFalse(queue.put("b", () -> true));
+    assertTrue(queue.getProducerBlockedTime().compareTo(Duration.ZERO) > 0);
+    assertEquals(1, queue.getOccupancy());
+  }
+
+  @Test
+  void testProducerBlockedUntilConsumed() throws Exception {
+    final ReplicationStageQueue<String> queue = new ReplicationStageQueue<>("test", 1);
+    final AtomicBoolean stop = new AtomicBoolean(false);
+    queue.put("a", stop::get);
+
+    final CompletableFuture<Boolean> blockedPut = CompletableFuture.supplyAsync(() -> {
+      try {
+        return queue.put("b", stop::get);
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Thread.sleep(200);
+    assertFalse(blockedPut.isDone());
+
+    assertEquals("a", queue.poll(stop::get));
+    assertTrue(blockedPut.get(5, TimeUnit.SECONDS));
+    assertEquals("b", queue.poll(stop::get));
+    assertTrue(queue.getProducerBlockedTime().toMillis() >= 100);
+  }
+
+}
@@ -131,6 +131,46 @@ class AirbyteMessageTrackerTest {
     assertEquals(expected, messageTracker.getStreamToEmittedBytes());
   }
 
+  @Test
+  public void testEmittedBytesOfRawRecordData() {
+    final String rawData = "{\"name\": \"grün\"}";
+    final AirbyteMessage r1 = new AirbyteMessage()
+        .withType(AirbyteMessage.Type.RECORD)
+        .withRecord(new AirbyteRecordMessage().withStream(STREAM_1).withData(RawRecordData.of(rawData)));
+
+    messageTracker.acceptFromSource(r1);
+    messageTracker.acceptFromSource(r1);
+
+    assertEquals(2L * rawData.getBytes(Charsets.UTF_8).length, messageTracker.getTotalBytesEmitted());
+    assertEquals(Map.of(STREAM_1, 2L * rawData.getBytes(Charsets.UTF_8).length), messageTracker.getStreamToEmittedBytes());
+  }
+
+  @Test
+  public void testManyStreams() throws Exception {
+    final int numStreams = 100;
+    final Map<String, Long> expected = new HashMap<>();
+    final Map<Short, Long> expectedRunningCounts = new HashMap<>();
+    for (int i = 0; i < numStreams; i++) {
+      final AirbyteMessage record = createRecordMessage("stream" + i, i);
+      for (int j = 0; j <= i; j++) {
+        messageTracker.acceptFromSource(record);
+      }
+      expected.put("stream" + i, i + 1L);
+      expectedRunningCounts.put((short) i, i + 1L);
+    }
+    final AirbyteMessage s1 = createStateMessage(1);
+    messageTracker.acceptFromSource(s1);
+
+    assertEquals(expected, messageTracker.getStreamToEmittedRecords());
+    assertEquals(numStreams * (numStreams + 1) / 2, messageTracker.getTotalRecordsEmitted());
+    Mockito.verify(mStateDeltaTracker).addState(Mockito.anyInt(), Mockito.eq(expectedRunningCounts));
+
+    // running counts are reset after each state.
+    messageTracker.acceptFromSource(createRecordMessage("stream" + 42, 1));
+    messageTracker.acceptFromSource(createStateMessage(2));
+    Mockito.verify(mStateDeltaTracker).addState(Mockito.anyInt(), Mockito.eq(Map.of((short) 42, 1L)));
+  }
+
   @Test
   public void testGetCommittedRecordsByStream() {
     final AirbyteMessage r1 = createRecordMessage(STREAM_1, 1);
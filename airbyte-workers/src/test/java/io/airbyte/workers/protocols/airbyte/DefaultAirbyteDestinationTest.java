@@ -184,6 +184,26 @@ class DefaultAirbyteDestinationTest {
     });
   }
 
+  @Test
+  public void testAcceptWritesRawRecordDataVerbatim() throws Exception {
+    final AirbyteDestination destination = new DefaultAirbyteDestination(workerConfigs, integrationLauncher, streamFactory);
+    destination.start(DESTINATION_CONFIG, jobRoot);
+
+    final AirbyteMessage recordMessage = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "blue");
+    final AirbyteMessage rawRecordMessage = Jsons.clone(recordMessage);
+    rawRecordMessage.getRecord().setData(RawRecordData.of("{\"favorite_color\": \"blue\"}"));
+    final AirbyteMessage stateMessage = AirbyteMessageUtils.createStateMessage("checkpoint", "1");
+    destination.accept(rawRecordMessage);
+    destination.accept(stateMessage);
+    destination.notifyEndOfStream();
+
+    final List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).contains("\"data\":{\"favorite_color\": \"blue\"}"));
+    assertEquals(recordMessage, Jsons.deserialize(lines.get(0), AirbyteMessage.class));
+    assertEquals(stateMessage, Jsons.deserialize(lines.get(1), AirbyteMessage.class));
+  }
+
   @Test
   public void testCloseNotifiesLifecycle() throws Exception {
     final AirbyteDestination destination = new DefaultAirbyteDestination(workerConfigs, integrationLauncher);
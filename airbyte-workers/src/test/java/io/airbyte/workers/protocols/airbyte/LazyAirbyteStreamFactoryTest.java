@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.protocols.airbyte;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.airbyte.commons.json.Jsons;
+import io.airbyte.commons.logging.MdcScope.Builder;
+import io.airbyte.protocol.models.AirbyteLogMessage;
+import io.airbyte.protocol.models.AirbyteMessage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+class LazyAirbyteStreamFactoryTest {
+
+  private static final String STREAM_NAME = "user_preferences";
+  private static final String FIELD_NAME = "favorite_color";
+
+  private AirbyteProtocolPredicate protocolPredicate;
+  private Logger logger;
+
+  @BeforeEach
+  public void setup() {
+    protocolPredicate = mock(AirbyteProtocolPredicate.class);
+    when(protocolPredicate.test(any())).thenReturn(true);
+    logger = mock(Logger.class);
+  }
+
+  @Test
+  public void testValidRecordKeepsRawData() {
+    final AirbyteMessage record1 = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "grün");
+    record1.getRecord().setNamespace("public");
+
+    final List<AirbyteMessage> messages = stringToMessageStream(Jsons.serialize(record1), 0).collect(Collectors.toList());
+
+    assertEquals(1, messages.size());
+    final AirbyteMessage message = messages.get(0);
+    assertEquals(STREAM_NAME, message.getRecord().getStream());
+    assertEquals("public", message.getRecord().getNamespace());
+    assertEquals(record1.getRecord().getEmittedAt(), message.getRecord().getEmittedAt());
+    assertEquals(Jsons.serialize(record1.getRecord().getData()), RawRecordData.getRawJson(message.getRecord().getData()).orElseThrow());
+    // serializing the lazy message produces the same message as the original.
+    assertEquals(record1, Jsons.deserialize(Jsons.serialize(message), AirbyteMessage.class));
+    verifyNoInteractions(protocolPredicate);
+    verifyNoInteractions(logger);
+  }
+
+  @Test
+  public void testNonRecordMessageIsFullyParsed() {
+    final AirbyteMessage state = AirbyteMessageUtils.createStateMessage("checkpoint", "1");
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(Jsons.serialize(state), 0);
+
+    assertEquals(List.of(state), messageStream.collect(Collectors.toList()));
+    verify(protocolPredicate).test(Jsons.jsonNode(state));
+    verifyNoInteractions(logger);
+  }
+
+  @Test
+  public void testSampledValidation() {
+    final AirbyteMessage record1 = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "green");
+    final String line = Jsons.serialize(record1);
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(String.join("\n", line, line, line, line, line), 2);
+
+    assertEquals(5, messageStream.count());
+    verify(protocolPredicate, times(3)).test(Jsons.deserialize(line));
+  }
+
+  @Test
+  public void testSampledValidationFailure() {
+    final AirbyteMessage record1 = AirbyteMessageUtils.createRecordMessage(STREAM_NAME, FIELD_NAME, "green");
+    when(protocolPredicate.test(any())).thenReturn(false);
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(Jsons.serialize(record1), 1);
+
+    assertEquals(Collections.emptyList(), messageStream.collect(Collectors.toList()));
+    verify(logger).error(anyString(), anyString());
+    verifyNoMoreInteractions(logger);
+  }
+
+  @Test
+  public void testInvalidEnvelopeFallsBackToFullValidation() {
+    final String invalidRecord = "{\"type\": \"RECORD\", \"record\": {\"stream\": 1, \"data\": {}, \"emitted_at\": 0}}";
+    when(protocolPredicate.test(Jsons.deserialize(invalidRecord))).thenReturn(false);
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(invalidRecord, 0);
+
+    assertEquals(Collections.emptyList(), messageStream.collect(Collectors.toList()));
+    verify(logger).error(anyString(), anyString());
+    verifyNoMoreInteractions(logger);
+  }
+
+  @Test
+  public void testLoggingLine() {
+    final String invalidRecord = "invalid line";
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(invalidRecord, 0);
+
+    assertEquals(Collections.emptyList(), messageStream.collect(Collectors.toList()));
+    verify(logger).info(anyString());
+    verify(protocolPredicate, never()).test(any());
+    verifyNoMoreInteractions(logger);
+  }
+
+  @Test
+  public void testMalformedRecordDataIsNotForwarded() {
+    final String malformedRecord = "{\"type\": \"RECORD\", \"record\": {\"stream\": \"s\", \"data\": {\"a\": }, \"emitted_at\": 0}}";
+
+    assertThrows(IOException.class, () -> LazyAirbyteStreamFactory.tryParseRecordEnvelope(malformedRecord));
+    assertEquals(Collections.emptyList(), stringToMessageStream(malformedRecord, 0).collect(Collectors.toList()));
+    verify(logger).info(anyString());
+  }
+
+  @Test
+  public void testLoggingLevel() {
+    final AirbyteMessage logMessage = AirbyteMessageUtils.createLogMessage(AirbyteLogMessage.Level.WARN, "warning");
+
+    final Stream<AirbyteMessage> messageStream = stringToMessageStream(Jsons.serialize(logMessage), 0);
+
+    assertEquals(Collections.emptyList(), messageStream.collect(Collectors.toList()));
+    verify(logger).warn("warning");
+    verifyNoMoreInteractions(logger);
+  }
+
+  @Test
+  public void testTryParseRecordEnvelopeIgnoresNonRecords() throws IOException {
+    assertTrue(LazyAirbyteStreamFactory.tryParseRecordEnvelope("{\"type\": \"STATE\", \"state\": {\"data\": {}}}").isEmpty());
+    assertTrue(LazyAirbyteStreamFactory.tryParseRecordEnvelope("{\"type\": \"RECORD\", \"record\": {\"stream\": \"s\", \"data\": {}}}").isEmpty());
+    assertTrue(LazyAirbyteStreamFactory.tryParseRecordEnvelope("[1, 2]").isEmpty());
+  }
+
+  private Stream<AirbyteMessage> stringToMessageStream(final String inputString, final int validationSampleRate) {
+    final InputStream inputStream = new ByteArrayInputStream(inputString.getBytes(StandardCharsets.UTF_8));
+    final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    return new LazyAirbyteStreamFactory(protocolPredicate, logger, new Builder(), validationSampleRate).create(bufferedReader);
+  }
+
+}
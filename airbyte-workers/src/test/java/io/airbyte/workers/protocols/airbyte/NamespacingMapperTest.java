@@ -5,6 +5,8 @@
 package io.airbyte.workers.protocols.airbyte;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import io.airbyte.commons.json.Jsons;
 import io.airbyte.config.JobSyncConfig.NamespaceDefinitionType;
@@ -201,4 +203,21 @@ class NamespacingMapperTest {
     assertEquals(expectedMessage, actualMessage);
   }
 
+  @Test
+  void testRawRecordDataIsPassedThrough() {
+    final NamespacingMapper mapper = new NamespacingMapper(NamespaceDefinitionType.DESTINATION, null, OUTPUT_PREFIX);
+
+    final String rawData = "{\"favorite_color\":\"blue\"}";
+    final AirbyteMessage rawMessage = Jsons.clone(RECORD_MESSAGE);
+    rawMessage.getRecord().setData(RawRecordData.of(rawData));
+
+    final AirbyteMessage actualMessage = mapper.mapMessage(rawMessage);
+
+    assertEquals(OUTPUT_PREFIX + STREAM_NAME, actualMessage.getRecord().getStream());
+    assertNull(actualMessage.getRecord().getNamespace());
+    assertEquals(INPUT_NAMESPACE, rawMessage.getRecord().getNamespace());
+    assertSame(rawMessage.getRecord().getData(), actualMessage.getRecord().getData());
+    assertEquals(rawData, RawRecordData.getRawJson(actualMessage.getRecord().getData()).orElseThrow());
+  }
+
 }
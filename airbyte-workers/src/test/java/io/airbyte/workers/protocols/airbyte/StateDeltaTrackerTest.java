@@ -5,12 +5,17 @@
 package io.airbyte.workers.protocols.airbyte;
 
 import io.airbyte.workers.protocols.airbyte.StateDeltaTracker.StateDeltaTrackerException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class StateDeltaTrackerTest {
 
@@ -33,9 +38,9 @@ public class StateDeltaTrackerTest {
   private static final long STATE_3_STREAM_3_COUNT = 33L;
   private static final long STATE_3_STREAM_4_COUNT = 34L;
 
-  // enough capacity for above 3 states, which are each 24 bytes (8 byte hash + two 10 byte stream
-  // counts
-  private static final long INITIAL_DELTA_MEMORY_CAPACITY = 72L;
+  // enough capacity for above 3 states, which are each 26 bytes (4 byte hash + 2 byte number of
+  // streams + two 10 byte stream counts)
+  private static final long INITIAL_DELTA_MEMORY_CAPACITY = 78L;
 
   private StateDeltaTracker stateDeltaTracker;
 
@@ -73,6 +78,22 @@ public class StateDeltaTrackerTest {
     Assertions.assertThrows(StateDeltaTrackerException.class, () -> stateDeltaTracker.commitStateHash(STATE_1_HASH));
   }
 
+  @Test
+  public void testCommitStateHash_doesNotConsumeDeltasForDuplicateOrUnknownStateHash() throws Exception {
+    stateDeltaTracker.commitStateHash(STATE_1_HASH);
+    final Map<Short, Long> expected = new HashMap<>(stateDeltaTracker.getStreamToCommittedRecords());
+
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> stateDeltaTracker.commitStateHash(STATE_1_HASH));
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> stateDeltaTracker.commitStateHash(NEVER_ADDED_STATE_HASH));
+
+    // the pending deltas are left untouched, and can still be committed.
+    Assertions.assertEquals(expected, stateDeltaTracker.getStreamToCommittedRecords());
+    Assertions.assertEquals(2, stateDeltaTracker.numStateDeltas);
+    stateDeltaTracker.commitStateHash(STATE_3_HASH);
+    Assertions.assertEquals(0, stateDeltaTracker.numStateDeltas);
+    Assertions.assertEquals(STATE_2_STREAM_3_COUNT + STATE_3_STREAM_3_COUNT, stateDeltaTracker.getStreamToCommittedRecords().get(STREAM_INDEX_3));
+  }
+
   @Test
   public void testCommitStateHash_throwsExceptionIfCapacityExceededEarlier() {
     stateDeltaTracker.capacityExceeded = true;
@@ -89,13 +110,13 @@ public class StateDeltaTrackerTest {
     // before anything is committed, returned map should be empty and deltas should contain three states
     final Map<Short, Long> expected = new HashMap<>();
     Assertions.assertEquals(expected, stateDeltaTracker.getStreamToCommittedRecords());
-    Assertions.assertEquals(3, stateDeltaTracker.stateDeltas.size());
+    Assertions.assertEquals(3, stateDeltaTracker.numStateDeltas);
 
     stateDeltaTracker.commitStateHash(STATE_1_HASH);
     expected.put(STREAM_INDEX_1, STATE_1_STREAM_1_COUNT);
     expected.put(STREAM_INDEX_2, STATE_1_STREAM_2_COUNT);
     Assertions.assertEquals(expected, stateDeltaTracker.getStreamToCommittedRecords());
-    Assertions.assertEquals(2, stateDeltaTracker.stateDeltas.size());
+    Assertions.assertEquals(2, stateDeltaTracker.numStateDeltas);
     expected.clear();
 
     stateDeltaTracker.commitStateHash(STATE_2_HASH);
@@ -103,7 +124,7 @@ public class StateDeltaTrackerTest {
     expected.put(STREAM_INDEX_2, STATE_1_STREAM_2_COUNT);
     expected.put(STREAM_INDEX_3, STATE_2_STREAM_3_COUNT);
     Assertions.assertEquals(expected, stateDeltaTracker.getStreamToCommittedRecords());
-    Assertions.assertEquals(1, stateDeltaTracker.stateDeltas.size());
+    Assertions.assertEquals(1, stateDeltaTracker.numStateDeltas);
     expected.clear();
 
     stateDeltaTracker.commitStateHash(STATE_3_HASH);
@@ -115,7 +136,85 @@ public class StateDeltaTrackerTest {
 
     // since all states are committed, capacity should be freed and the delta queue should be empty
     Assertions.assertEquals(INITIAL_DELTA_MEMORY_CAPACITY, stateDeltaTracker.remainingCapacity);
-    Assertions.assertEquals(0, stateDeltaTracker.stateDeltas.size());
+    Assertions.assertEquals(0, stateDeltaTracker.numStateDeltas);
+  }
+
+  @Test
+  public void testRingBufferIsReused() throws Exception {
+    final StateDeltaTracker tracker = new StateDeltaTracker(INITIAL_DELTA_MEMORY_CAPACITY);
+    long expectedCount = 0;
+    // many more deltas than fit in the buffer at once, so writes wrap around the end of the buffer.
+    for (int i = 0; i < 1000; i++) {
+      tracker.addState(i, Map.of(STREAM_INDEX_1, (long) i, STREAM_INDEX_2, 1L));
+      if (i % 2 == 1) {
+        tracker.commitStateHash(i);
+      }
+      expectedCount += i % 2 == 1 ? (long) (2 * i - 1) : 0;
+    }
+
+    Assertions.assertEquals(expectedCount, tracker.getStreamToCommittedRecords().get(STREAM_INDEX_1));
+    Assertions.assertEquals(1000L, tracker.getStreamToCommittedRecords().get(STREAM_INDEX_2));
+    Assertions.assertEquals(0, tracker.numStateDeltas);
+    Assertions.assertEquals(INITIAL_DELTA_MEMORY_CAPACITY, tracker.remainingCapacity);
+  }
+
+  @Test
+  public void testSpillToDisk(@TempDir final Path spillDirectory) throws Exception {
+    // fits 3 deltas in memory and 100 on disk.
+    final StateDeltaTracker tracker = new StateDeltaTracker(INITIAL_DELTA_MEMORY_CAPACITY, spillDirectory, 2600L);
+
+    for (int i = 0; i < 100; i++) {
+      tracker.addState(i, Map.of(STREAM_INDEX_1, 1L, STREAM_INDEX_2, (long) i));
+    }
+    Assertions.assertEquals(100, tracker.numStateDeltas);
+    Assertions.assertEquals(0L, tracker.remainingCapacity);
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> tracker.addState(100, Collections.emptyMap()));
+    Assertions.assertTrue(tracker.capacityExceeded);
+    // the spill file is unlinked as soon as it is mapped.
+    try (final Stream<Path> files = Files.list(spillDirectory)) {
+      Assertions.assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  public void testCommitAfterSpillToDisk(@TempDir final Path spillDirectory) throws Exception {
+    final StateDeltaTracker tracker = new StateDeltaTracker(INITIAL_DELTA_MEMORY_CAPACITY, spillDirectory, 2600L);
+
+    for (int i = 0; i < 50; i++) {
+      tracker.addState(i, Map.of(STREAM_INDEX_1, 1L));
+    }
+    tracker.commitStateHash(9);
+    Assertions.assertEquals(10L, tracker.getStreamToCommittedRecords().get(STREAM_INDEX_1));
+    tracker.commitStateHash(49);
+    Assertions.assertEquals(50L, tracker.getStreamToCommittedRecords().get(STREAM_INDEX_1));
+    Assertions.assertEquals(0, tracker.numStateDeltas);
+    Assertions.assertEquals(2600L, tracker.remainingCapacity);
+  }
+
+  @Test
+  public void testCloseReleasesSpilledDeltas(@TempDir final Path spillDirectory) throws Exception {
+    final StateDeltaTracker tracker = new StateDeltaTracker(INITIAL_DELTA_MEMORY_CAPACITY, spillDirectory, 2600L);
+
+    for (int i = 0; i < 50; i++) {
+      tracker.addState(i, Map.of(STREAM_INDEX_1, 1L));
+    }
+    tracker.commitStateHash(9);
+    tracker.close();
+
+    Assertions.assertEquals(0, tracker.numStateDeltas);
+    Assertions.assertEquals(10L, tracker.getStreamToCommittedRecords().get(STREAM_INDEX_1));
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> tracker.addState(50, Map.of(STREAM_INDEX_1, 1L)));
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> tracker.commitStateHash(49));
+  }
+
+  @Test
+  public void testSpillFailure() throws IOException {
+    final Path notADirectory = Files.createTempFile("state_delta_tracker", ".txt");
+    final StateDeltaTracker tracker = new StateDeltaTracker(10L, notADirectory, 2600L);
+
+    Assertions.assertThrows(StateDeltaTrackerException.class, () -> tracker.addState(1, Map.of(STREAM_INDEX_1, 1L)));
+    Assertions.assertTrue(tracker.capacityExceeded);
+    Files.delete(notADirectory);
   }
 
 }